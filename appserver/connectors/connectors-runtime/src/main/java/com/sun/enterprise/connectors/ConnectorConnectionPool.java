@@ -94,6 +94,12 @@ public class ConnectorConnectionPool implements Serializable {
     //This property will be set by ConnectorConnectionPoolDeployer or
     //JdbcConnectionPoolDeployer.
     private boolean preferValidateOverRecreate_;
+    //This property will be set by ConnectorConnectionPoolDeployer or
+    //JdbcConnectionPoolDeployer.
+    private boolean predictiveResize_;
+    //This property will be set by ConnectorConnectionPoolDeployer or
+    //JdbcConnectionPoolDeployer.
+    private boolean asyncValidation_;
 
     private String validateAtmostOncePeriod_;
 
@@ -662,6 +668,10 @@ public class ConnectorConnectionPool implements Serializable {
             sb.append(isConnectionValidationRequired_);
             sb.append("\npreferValidateOverRecreate_ ");
             sb.append(preferValidateOverRecreate_);
+            sb.append("\npredictiveResize_ ");
+            sb.append(predictiveResize_);
+            sb.append("\nasyncValidation_ ");
+            sb.append(asyncValidation_);
 
             sb.append("\nmatchConnections_ ");
             sb.append(matchConnections_);
@@ -790,6 +800,22 @@ public class ConnectorConnectionPool implements Serializable {
         preferValidateOverRecreate_ = preferValidateOverRecreate;
     }
 
+    public boolean isPredictiveResize() {
+        return predictiveResize_;
+    }
+
+    public void setPredictiveResize(boolean predictiveResize) {
+        predictiveResize_ = predictiveResize;
+    }
+
+    public boolean isAsyncValidation() {
+        return asyncValidation_;
+    }
+
+    public void setAsyncValidation(boolean asyncValidation) {
+        asyncValidation_ = asyncValidation;
+    }
+
     public long getDynamicReconfigWaitTimeout() {
         return dynamicReconfigWaitTimeout;
     }
@@ -70,6 +70,14 @@ public final class ConnectionPoolReconfigHelper {
         if (newCcp.isPartitionedPool() != oldCcp.isPartitionedPool()) {
             return ReconfigAction.RECREATE_POOL;
         }
+
+        if (newCcp.isPredictiveResize() != oldCcp.isPredictiveResize()) {
+            return ReconfigAction.RECREATE_POOL;
+        }
+
+        if (newCcp.isAsyncValidation() != oldCcp.isAsyncValidation()) {
+            return ReconfigAction.RECREATE_POOL;
+        }
         if (newCcp.getPoolDataStructureType() == null && oldCcp.getPoolDataStructureType() != null) {
             return ReconfigAction.RECREATE_POOL;
         }
@@ -29,6 +29,7 @@ import jakarta.resource.spi.DissociatableManagedConnection;
 import jakarta.resource.spi.LazyEnlistableManagedConnection;
 import jakarta.transaction.Transaction;
 
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 
 import javax.security.auth.Subject;
@@ -71,7 +72,7 @@ public class ResourceHandle implements com.sun.appserv.connectors.internal.api.R
     private boolean supportsLazyEnlistment_;
     private boolean supportsLazyAssoc_;
 
-    public final Object lock = new Object();
+    public final ReentrantLock lock = new ReentrantLock();
     private long lastValidated; // holds the latest time at which the connection was validated.
     private int usageCount; // holds the no. of times the handle(connection) is used so far.
     private int partition;
@@ -446,6 +446,16 @@ public class ConnectorConnectionPoolDeployer
                                 value);
                     }
                     ccp.setPreferValidateOverRecreate(toBoolean(value, false));
+                } else if ("PREDICTIVE-RESIZE".equals(ep.getName().toUpperCase(locale))) {
+                    ccp.setPredictiveResize(toBoolean(ep.getValue(), false));
+                    if (LOG.isLoggable(Level.FINE)) {
+                        LOG.fine("PREDICTIVE-RESIZE");
+                    }
+                } else if ("ASYNC-VALIDATION".equals(ep.getName().toUpperCase(locale))) {
+                    ccp.setAsyncValidation(toBoolean(ep.getValue(), false));
+                    if (LOG.isLoggable(Level.FINE)) {
+                        LOG.fine("ASYNC-VALIDATION");
+                    }
                 }
             }
         }
@@ -125,4 +125,18 @@ public interface PoolLifeCycleListener {
      */
     void connectionRequestDequeued();
 
+    /**
+     * indicates that a connection request has left the wait queue.
+     *
+     * @param waitTimeInMillis time spent by the request in the wait queue
+     */
+    void connectionRequestWaited(long waitTimeInMillis);
+
+    /**
+     * indicates that a connection has been validated, whether it was found valid or not.
+     *
+     * @param validationTimeInMicros time taken by the validation
+     */
+    void connectionValidated(long validationTimeInMicros);
+
 }
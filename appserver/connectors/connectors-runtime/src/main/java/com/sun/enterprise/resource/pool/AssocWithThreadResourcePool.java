@@ -28,6 +28,9 @@ import com.sun.enterprise.resource.pool.resizer.Resizer;
 
 import jakarta.transaction.Transaction;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.Hashtable;
 
 import org.glassfish.resourcebase.resources.api.PoolInfo;
@@ -35,11 +38,19 @@ import org.glassfish.resourcebase.resources.api.PoolInfo;
 /**
  * Associates a resource with the thread. When the same thread is used again, it checks whether the resource associated
  * with the thread can serve the request.
+ * <p>
+ * Resources are not associated with virtual threads: they are not reused, so a resource associated
+ * with one would only stay out of the free list until it is disassociated by another request.
  *
  * @author Aditya Gore, Jagadish Ramu
  */
 public class AssocWithThreadResourcePool extends ConnectionPool {
 
+    /**
+     * {@code Thread.isVirtual()}, or null if the runtime has no virtual threads.
+     */
+    private static final MethodHandle IS_VIRTUAL = findIsVirtual();
+
     private ThreadLocal<AssocWithThreadResourceHandle> localResource = new ThreadLocal<>();
 
     public AssocWithThreadResourcePool(PoolInfo poolInfo, Hashtable env) throws PoolingException {
@@ -63,11 +74,15 @@ public class AssocWithThreadResourcePool extends ConnectionPool {
      */
     @Override
     protected ResourceHandle prefetch(ResourceSpec spec, ResourceAllocator alloc, Transaction tran) {
+        if (isVirtual(Thread.currentThread())) {
+            return null;
+        }
         AssocWithThreadResourceHandle ar = localResource.get();
         if (ar != null) {
             // synch on ar and do a quick-n-dirty check to see if the local
             // resource is usable at all
-            synchronized (ar.lock) {
+            ar.lock.lock();
+            try {
                 if ((ar.getThreadId() != Thread.currentThread().getId()) || ar.hasConnectionErrorOccurred() || ar.isDirty()
                         || !ar.isAssociated()) {
                     // we were associated with someone else or resource error
@@ -122,6 +137,8 @@ public class AssocWithThreadResourcePool extends ConnectionPool {
                     }
                     return ar;
                 }
+            } finally {
+                ar.lock.unlock();
             }
         }
 
@@ -133,6 +150,15 @@ public class AssocWithThreadResourcePool extends ConnectionPool {
         return new AssocWithThreadPoolResizer(poolInfo, dataStructure, this, this, preferValidateOverRecreate);
     }
 
+    /**
+     * Free resources may be taken by their associated thread without going through the pool, so they cannot be
+     * validated in the background.
+     */
+    @Override
+    protected AsyncConnectionValidator initializeValidator() {
+        return null;
+    }
+
     /**
      * to associate a resource with the thread
      *
@@ -140,10 +166,13 @@ public class AssocWithThreadResourcePool extends ConnectionPool {
      */
     private void setInThreadLocal(AssocWithThreadResourceHandle h) {
         if (h != null) {
-            synchronized (h.lock) {
+            h.lock.lock();
+            try {
                 h.setThreadId(Thread.currentThread().getId());
                 h.setAssociated(true);
                 localResource.set(h);
+            } finally {
+                h.lock.unlock();
             }
         }
     }
@@ -176,12 +205,15 @@ public class AssocWithThreadResourcePool extends ConnectionPool {
         // It is possible that Resizer might have marked the resource for recycle
         // and hence we should not use this resource.
         if (result != null) {
-            synchronized (result.lock) {
+            result.lock.lock();
+            try {
                 if (dataStructure.getAllResources().contains(result) && ((AssocWithThreadResourceHandle) result).isDirty()) {
                     // Remove the resource and set to null
                     dataStructure.removeResource(result);
                     result = null;
                 }
+            } finally {
+                result.lock.unlock();
             }
         }
         // If we came here, that's because free doesn't have anything
@@ -193,10 +225,12 @@ public class AssocWithThreadResourcePool extends ConnectionPool {
 
         // DISASSOCIATE
         if (result == null) {
-            synchronized (this) {
+            poolLock.lock();
+            try {
 
                 for (ResourceHandle resource : dataStructure.getAllResources()) {
-                    synchronized (resource.lock) {
+                    resource.lock.lock();
+                    try {
                         // though we are checking resources from within the free list,
                         // we could have a situation where the resource was free upto
                         // this point, put just before we entered the synchronized block,
@@ -214,12 +248,16 @@ public class AssocWithThreadResourcePool extends ConnectionPool {
 
                             break;
                         }
+                    } finally {
+                        resource.lock.unlock();
                     }
                 }
+            } finally {
+                poolLock.unlock();
             }
         }
 
-        if (localResource.get() == null) {
+        if (!isVirtual(Thread.currentThread()) && localResource.get() == null) {
             if (result instanceof AssocWithThreadResourceHandle) {
                 setInThreadLocal((AssocWithThreadResourceHandle) result);
             }
@@ -234,30 +272,48 @@ public class AssocWithThreadResourcePool extends ConnectionPool {
      * @param h ResourceHandle
      */
     @Override
-    protected synchronized void freeUnenlistedResource(ResourceHandle h) {
-        if (this.cleanupResource(h)) {
-            if (h instanceof AssocWithThreadResourceHandle) {
-                // Only when resource handle usage count is more than maxConnUsage
-                if (maxConnectionUsage_ > 0 && h.getUsageCount() >= maxConnectionUsage_) {
-                    performMaxConnectionUsageOperation(h);
-                } else {
-
-                    if (!((AssocWithThreadResourceHandle) h).isAssociated()) {
-                        dataStructure.returnResource(h);
-                    }
-                    // update monitoring data
-                    if (poolLifeCycleListener != null) {
-                        poolLifeCycleListener.decrementConnectionUsed(h.getId());
-                        poolLifeCycleListener.incrementNumConnFree(false, steadyPoolSize);
+    protected void freeUnenlistedResource(ResourceHandle h) {
+        poolLock.lock();
+        try {
+            if (this.cleanupResource(h)) {
+                if (h instanceof AssocWithThreadResourceHandle) {
+                    // Only when resource handle usage count is more than maxConnUsage
+                    if (maxConnectionUsage_ > 0 && h.getUsageCount() >= maxConnectionUsage_) {
+                        performMaxConnectionUsageOperation(h);
+                    } else {
+
+                        if (!((AssocWithThreadResourceHandle) h).isAssociated()) {
+                            dataStructure.returnResource(h);
+                        }
+                        // update monitoring data
+                        if (poolLifeCycleListener != null) {
+                            poolLifeCycleListener.decrementConnectionUsed(h.getId());
+                            poolLifeCycleListener.incrementNumConnFree(false, steadyPoolSize);
+                        }
                     }
+                    // for both the cases of free.add and maxConUsageOperation, a free resource is added.
+                    // Hence notify waiting threads
+                    notifyWaitingThreads();
                 }
-                // for both the cases of free.add and maxConUsageOperation, a free resource is added.
-                // Hence notify waiting threads
-                notifyWaitingThreads();
             }
+        } finally {
+            poolLock.unlock();
         }
     }
 
+    /**
+     * Resources still associated with their thread are not returned to the pool when the transaction completes,
+     * although they are free. Notify the waiting threads, so that they can disassociate them.
+     *
+     * @param tran Transaction
+     * @param status status of transaction
+     */
+    @Override
+    public void transactionCompleted(Transaction tran, int status) throws IllegalStateException {
+        super.transactionCompleted(tran, status);
+        notifyWaitingThreads();
+    }
+
     /**
      * destroys the resource
      *
@@ -277,10 +333,32 @@ public class AssocWithThreadResourcePool extends ConnectionPool {
             // resource
 
             if (resourceHandle instanceof AssocWithThreadResourceHandle) {
-                synchronized (resourceHandle.lock) {
+                resourceHandle.lock.lock();
+                try {
                     ((AssocWithThreadResourceHandle) resourceHandle).setDirty();
+                } finally {
+                    resourceHandle.lock.unlock();
                 }
             }
         }
     }
+
+    static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    private static MethodHandle findIsVirtual() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package com.sun.enterprise.resource.pool;
+
+import com.sun.appserv.connectors.internal.api.PoolingException;
+import com.sun.enterprise.resource.ResourceHandle;
+import com.sun.enterprise.resource.ResourceState;
+import com.sun.enterprise.resource.pool.datastructure.DataStructure;
+import com.sun.logging.LogDomains;
+
+import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+import org.glassfish.resourcebase.resources.api.PoolInfo;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+/**
+ * Validates the free connections of a pool in the background, so that requests do not pay for a validation round trip
+ * each time they get a connection.
+ * <p>
+ * Every half idle threshold, the free connections neither used nor validated for the idle threshold are taken out of
+ * the pool, validated and given back one at a time on a background thread of the validator, so that all the other free
+ * connections stay available to the requests. A sweep stops validating after half its period, leaving the remaining
+ * idle connections to the next sweep. Connections found invalid are quarantined: they are kept out of the pool until
+ * they are destroyed on the same thread, and replaced if the pool falls below its steady size or requests are waiting.
+ * <p>
+ * The pool only validates on request the connections idle for longer than the idle threshold, which the validator has
+ * not caught yet, and quarantines the invalid ones through {@link #quarantine(ResourceHandle)}.
+ */
+public class AsyncConnectionValidator extends TimerTask {
+
+    private static final Logger LOG = LogDomains.getLogger(AsyncConnectionValidator.class, LogDomains.RSR_LOGGER);
+
+    /**
+     * Idle threshold used when the pool does not set "validate-atmost-once-period-in-seconds", in milliseconds.
+     */
+    public static final long DEFAULT_IDLE_THRESHOLD = 10000L;
+
+    private final PoolInfo poolInfo;
+    private final DataStructure dataStructure;
+    private final PoolProperties pool;
+    private final ResourceHandler handler;
+    private final Predicate<ResourceHandle> validator;
+    private final Consumer<ResourceHandle> releaser;
+    private final long idleThreshold;
+
+    private final AtomicBoolean validationPending = new AtomicBoolean();
+    private final ExecutorService executor;
+
+    /**
+     * @param poolInfo pool of the connections
+     * @param ds free connections of the pool
+     * @param pp sizes of the pool
+     * @param handler creates the replacements of the invalid connections
+     * @param validator validates a connection, and updates its last validation time and the statistics
+     * @param releaser gives a valid connection back to the pool
+     * @param idleThreshold time after which an unused connection is validated, in milliseconds
+     */
+    public AsyncConnectionValidator(PoolInfo poolInfo, DataStructure ds, PoolProperties pp, ResourceHandler handler,
+        Predicate<ResourceHandle> validator, Consumer<ResourceHandle> releaser, long idleThreshold) {
+        this.poolInfo = poolInfo;
+        this.dataStructure = ds;
+        this.pool = pp;
+        this.handler = handler;
+        this.validator = validator;
+        this.releaser = releaser;
+        this.idleThreshold = idleThreshold > 0 ? idleThreshold : DEFAULT_IDLE_THRESHOLD;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "connection-validator-" + poolInfo.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return time after which an unused connection is validated, in milliseconds
+     */
+    public long getIdleThreshold() {
+        return idleThreshold;
+    }
+
+    /**
+     * @return the period at which this task is to be run, in milliseconds
+     */
+    public long getPeriod() {
+        return Math.max(1L, idleThreshold / 2);
+    }
+
+    /**
+     * @param resourceHandle connection of the pool
+     * @param now current time in milliseconds
+     * @return true if the connection has been neither used nor validated for the idle threshold
+     */
+    public boolean isIdle(ResourceHandle resourceHandle, long now) {
+        ResourceState state = resourceHandle.getResourceState();
+        long lastUsed = state == null ? 0L : state.getTimestamp();
+        return now - Math.max(resourceHandle.getLastValidated(), lastUsed) >= idleThreshold;
+    }
+
+    @Override
+    public void run() {
+        if (!validationPending.compareAndSet(false, true)) {
+            // the previous validation is still running
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    validateIdleResources(System.currentTimeMillis());
+                } catch (Exception ex) {
+                    LOG.log(WARNING, "Background validation of the connections of pool " + poolInfo + " failed.", ex);
+                } finally {
+                    validationPending.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // cancelled
+            validationPending.set(false);
+        }
+    }
+
+    /**
+     * Takes the idle connections out of the pool one at a time, validates them and gives the valid ones back to the
+     * pool, until half the period of the validation elapsed.
+     *
+     * @param now current time in milliseconds
+     * @return number of invalid connections
+     */
+    protected int validateIdleResources(long now) {
+        long budgetEnd = System.nanoTime() + MILLISECONDS.toNanos(getPeriod()) / 2;
+        int validatedResources = 0;
+        int invalidResources = 0;
+        for (ResourceHandle idleResource : dataStructure.getAllResources()) {
+            if (executor.isShutdown() || System.nanoTime() - budgetEnd > 0) {
+                // cancelled or out of time, the next sweep validates the remaining connections
+                break;
+            }
+            if (!isIdle(idleResource, now) || !dataStructure.takeResource(idleResource)) {
+                continue;
+            }
+            if (!isIdle(idleResource, now)) {
+                // used since
+                releaser.accept(idleResource);
+                continue;
+            }
+            validatedResources++;
+            boolean valid;
+            try {
+                valid = validator.test(idleResource);
+            } catch (RuntimeException ex) {
+                LOG.log(FINE, "Validation of an idle connection of pool " + poolInfo + " failed.", ex);
+                valid = false;
+            }
+            if (valid) {
+                releaser.accept(idleResource);
+            } else {
+                invalidResources++;
+                replace(idleResource);
+            }
+        }
+        LOG.log(FINE, "Validated {0} idle connections of pool {1}, {2} invalid",
+            new Object[] {validatedResources, poolInfo, invalidResources});
+        return invalidResources;
+    }
+
+    /**
+     * Destroys and replaces an invalid connection in the background. The connection must be out of the free connections
+     * of the pool.
+     *
+     * @param resourceHandle invalid connection
+     */
+    public void quarantine(ResourceHandle resourceHandle) {
+        try {
+            executor.execute(() -> replace(resourceHandle));
+        } catch (RejectedExecutionException ex) {
+            // cancelled
+            dataStructure.removeResource(resourceHandle);
+        }
+    }
+
+    /**
+     * Destroys an invalid connection, and creates a new one if the pool falls below its steady size or requests are
+     * waiting.
+     *
+     * @param resourceHandle invalid connection
+     */
+    protected void replace(ResourceHandle resourceHandle) {
+        dataStructure.removeResource(resourceHandle);
+        if (dataStructure.getResourcesSize() < pool.getSteadyPoolSize() || pool.getWaitQueueLength() > 0) {
+            try {
+                handler.createResourceAndAddToPool();
+            } catch (PoolingException ex) {
+                LOG.log(WARNING, "Unable to replace an invalid connection of pool " + poolInfo, ex);
+            }
+        }
+    }
+
+    @Override
+    public boolean cancel() {
+        executor.shutdownNow();
+        return super.cancel();
+    }
+}
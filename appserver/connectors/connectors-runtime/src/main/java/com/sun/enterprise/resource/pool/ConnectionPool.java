@@ -27,9 +27,11 @@ import com.sun.enterprise.resource.allocator.ResourceAllocator;
 import com.sun.enterprise.resource.listener.PoolLifeCycleListener;
 import com.sun.enterprise.resource.pool.datastructure.DataStructure;
 import com.sun.enterprise.resource.pool.datastructure.DataStructureFactory;
+import com.sun.enterprise.resource.pool.resizer.PredictiveResizer;
 import com.sun.enterprise.resource.pool.resizer.Resizer;
 import com.sun.enterprise.resource.pool.waitqueue.PoolWaitQueue;
 import com.sun.enterprise.resource.pool.waitqueue.PoolWaitQueueFactory;
+import com.sun.enterprise.resource.pool.waitqueue.PoolWaiter;
 import com.sun.enterprise.transaction.api.JavaEETransaction;
 import com.sun.logging.LogDomains;
 
@@ -42,8 +44,10 @@ import java.util.ArrayList;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.Timer;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 
@@ -142,9 +146,30 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
      */
     protected boolean preferValidateOverRecreate;
 
+    /**
+     * Represents the "predictive-resize" property configuration value.<br>
+     * If true, the pool is resized after the demand by a {@link PredictiveResizer}, which creates resources ahead of the
+     * requests, instead of only maintaining the steady pool size. Requires an idle timeout.<br>
+     * Default: false
+     */
+    protected boolean predictiveResize;
+
+    /**
+     * Represents the "async-validation" property configuration value.<br>
+     * If true and connection validation is required, the free connections are validated in the background by an
+     * {@link AsyncConnectionValidator}, and a request only validates a connection left unused for longer than
+     * "validate-atmost-once-period-in-seconds", or 10 seconds if it is not set. Invalid connections are destroyed and
+     * replaced in the background.<br>
+     * Default: false
+     */
+    protected boolean asyncValidation;
+
     // hold on to the resizer task so we can cancel/reschedule it.
     protected Resizer resizerTask;
 
+    // hold on to the validator task so we can cancel/reschedule it.
+    protected volatile AsyncConnectionValidator validatorTask;
+
     protected volatile boolean poolInitialized;
     protected Timer timer;
 
@@ -235,6 +260,13 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
      */
     private final ReentrantLock getResourceFromPoolAndFreeResourceMethodsLock = new ReentrantLock(true);
 
+    /**
+     * Serializes the initialization, reconfiguration and resizing of the pool. A lock rather than
+     * the monitor of the pool, so that a virtual thread creating resources under it does not pin
+     * its carrier thread.
+     */
+    protected final ReentrantLock poolLock = new ReentrantLock();
+
     public ConnectionPool(PoolInfo poolInfo, Hashtable env) throws PoolingException {
         this.poolInfo = poolInfo;
         setPoolConfiguration(env);
@@ -312,31 +344,36 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
         }
     }
 
-    // This method does not need to be synchronized since all caller methods are,
-    // but it does not hurt. Just to be safe.
-    protected synchronized void initPool(ResourceAllocator allocator) throws PoolingException {
-        if (poolInitialized) {
-            return;
-        }
+    // Callers may already hold the pool lock, it is reentrant.
+    protected void initPool(ResourceAllocator allocator) throws PoolingException {
+        poolLock.lock();
+        try {
+            if (poolInitialized) {
+                return;
+            }
 
-        this.allocator = allocator;
+            this.allocator = allocator;
 
-        createResources(this.allocator, steadyPoolSize - dataStructure.getResourcesSize());
+            createResources(this.allocator, steadyPoolSize - dataStructure.getResourcesSize());
 
-        // if the idle time out is 0, then don't schedule the resizer task
-        if (idletime > 0) {
-            scheduleResizerTask();
-        }
+            // if the idle time out is 0, then don't schedule the resizer task
+            if (idletime > 0) {
+                scheduleResizerTask();
+            }
+            scheduleValidatorTask();
 
-        // Need to set the numConnFree of monitoring statistics to the steadyPoolSize
-        // as monitoring might be ON during the initialization of pool.
-        // Need not worry about the numConnUsed here as it would be initialized to
-        // 0 automatically.
-        if (poolLifeCycleListener != null) {
-            poolLifeCycleListener.connectionsFreed(steadyPoolSize);
-        }
+            // Need to set the numConnFree of monitoring statistics to the steadyPoolSize
+            // as monitoring might be ON during the initialization of pool.
+            // Need not worry about the numConnUsed here as it would be initialized to
+            // 0 automatically.
+            if (poolLifeCycleListener != null) {
+                poolLifeCycleListener.connectionsFreed(steadyPoolSize);
+            }
 
-        poolInitialized = true;
+            poolInitialized = true;
+        } finally {
+            poolLock.unlock();
+        }
     }
 
     /**
@@ -355,11 +392,56 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
             timer = ConnectorRuntime.getRuntime().getTimer();
         }
 
-        timer.scheduleAtFixedRate(resizerTask, idletime, idletime);
+        long period = resizerTask.getPeriod(idletime);
+        timer.scheduleAtFixedRate(resizerTask, period, period);
         LOG.log(FINE, "Scheduled resizer task with the idle time {0} ms", idletime);
     }
 
+    /**
+     * Schedules the validator timer task if async validation is on. If a task is currently scheduled, it is canceled.
+     */
+    private void scheduleValidatorTask() {
+        cancelValidatorTask();
+        if (!asyncValidation || !validation) {
+            return;
+        }
+
+        AsyncConnectionValidator validator = initializeValidator();
+        if (validator == null) {
+            return;
+        }
+
+        if (timer == null) {
+            timer = ConnectorRuntime.getRuntime().getTimer();
+        }
+
+        long period = validator.getPeriod();
+        timer.scheduleAtFixedRate(validator, period, period);
+        validatorTask = validator;
+        LOG.log(FINE, "Scheduled validator task with the idle threshold {0} ms", validator.getIdleThreshold());
+    }
+
+    /**
+     * @return the validator of the free connections, or null if this pool does not support async validation
+     */
+    protected AsyncConnectionValidator initializeValidator() {
+        return new AsyncConnectionValidator(poolInfo, dataStructure, this, this, this::validateFreeConnection,
+            this::returnValidatedResource, validateAtmostPeriodInMilliSeconds_);
+    }
+
+    private void cancelValidatorTask() {
+        AsyncConnectionValidator validator = validatorTask;
+        if (validator != null) {
+            LOG.log(FINE, "Cancelling validator task.");
+            validator.cancel();
+            validatorTask = null;
+        }
+    }
+
     protected Resizer initializeResizer() {
+        if (predictiveResize) {
+            return new PredictiveResizer(poolInfo, dataStructure, this, this, preferValidateOverRecreate);
+        }
         return new Resizer(poolInfo, dataStructure, this, this, preferValidateOverRecreate);
     }
 
@@ -438,7 +520,7 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
         long remainingWaitTime = 0;
 
         while (true) {
-            if (gateway.allowed()) {
+            if (result == null && gateway.allowed()) {
                 // See comment #1 above
                 JavaEETransaction javaEETransaction = ((JavaEETransaction) transaction);
                 final Set resourcesSet = javaEETransaction == null ? null : javaEETransaction.getResources(poolInfo);
@@ -456,6 +538,10 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
 
             if (result != null) {
                 // got one, return it
+                Resizer resizer = resizerTask;
+                if (resizer != null) {
+                    resizer.resourceAcquired();
+                }
                 if (poolLifeCycleListener != null) {
                     poolLifeCycleListener.connectionAcquired(result.getId());
                     elapsedWaitTime = System.currentTimeMillis() - startTime;
@@ -487,61 +573,61 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
 
             if (!blocked) {
                 // add to wait-queue
-                Object waitMonitor = new Object();
+                PoolWaiter waiter = new PoolWaiter();
                 if (poolLifeCycleListener != null) {
                     poolLifeCycleListener.connectionRequestQueued();
                 }
-                synchronized (waitMonitor) {
-                    waitQueue.addToQueue(waitMonitor);
-
-                    try {
-                        LOG.log(FINE, "Resource Pool: getting on wait queue");
-                        waitMonitor.wait(remainingWaitTime);
-
-                    } catch (InterruptedException ex) {
-                        // Could be system shutdown.
-                        break;
-                    }
+                waitQueue.addToQueue(waiter);
+                if (dataStructure.getFreeListSize() > 0) {
+                    // A resource was freed before this request got on the wait queue
+                    waiter.signal();
+                }
 
-                    // Try to remove in case that the monitor has timed out. We don't expect the queue to grow to great numbers
-                    // so the overhead for removing inexistant objects is low.
-                    LOG.log(FINE, "removing wait monitor from queue: {0}", waitMonitor);
+                ResourceHandle handedOff;
+                try {
+                    LOG.log(FINE, "Resource Pool: getting on wait queue");
+                    handedOff = waiter.await(remainingWaitTime);
+                } catch (InterruptedException ex) {
+                    // Could be system shutdown.
+                    removeFromWaitQueue(waiter);
+                    break;
+                }
 
-                    if (waitQueue.removeFromQueue(waitMonitor)) {
-                        if (poolLifeCycleListener != null) {
-                            poolLifeCycleListener.connectionRequestDequeued();
-                        }
-                    }
+                // Remove in case that the wait has timed out or was not needed. A waiter released by
+                // another thread was already removed by it.
+                LOG.log(FINE, "removing wait monitor from queue: {0}", waiter);
+                removeFromWaitQueue(waiter);
+                if (handedOff != null) {
+                    result = acceptHandedOffResource(handedOff, spec, alloc);
                 }
             } else {
                 // Add to reconfig-wait-queue
-                Object reconfigWaitMonitor = new Object();
-                synchronized (reconfigWaitMonitor) {
-                    reconfigWaitQueue.addToQueue(reconfigWaitMonitor);
-                    try {
-                        if (reconfigWaitTime > 0) {
-                            LOG.log(FINEST, "[DRC] getting into reconfig wait queue for time [{0}]", reconfigWaitTime);
-                            reconfigWaitMonitor.wait(reconfigWaitTime);
-                        }
-                    } catch (InterruptedException ex) {
-                        // Could be system shutdown.
-                        break;
+                PoolWaiter reconfigWaiter = new PoolWaiter();
+                reconfigWaitQueue.addToQueue(reconfigWaiter);
+                try {
+                    if (reconfigWaitTime > 0) {
+                        LOG.log(FINEST, "[DRC] getting into reconfig wait queue for time [{0}]", reconfigWaitTime);
+                        reconfigWaiter.await(reconfigWaitTime);
                     }
+                } catch (InterruptedException ex) {
+                    // Could be system shutdown.
+                    reconfigWaitQueue.removeFromQueue(reconfigWaiter);
+                    break;
+                }
 
-                    // Try to remove in case that the monitor has timed
-                    // out. We don't expect the queue to grow to great numbers
-                    // so the overhead for removing inexistent objects is low.
-                    LOG.log(FINEST, "[DRC] removing wait monitor from reconfig-wait-queue: {0}", reconfigWaitMonitor);
+                // Try to remove in case that the waiter has timed
+                // out. We don't expect the queue to grow to great numbers
+                // so the overhead for removing inexistent objects is low.
+                LOG.log(FINEST, "[DRC] removing waiter from reconfig-wait-queue: {0}", reconfigWaiter);
 
-                    reconfigWaitQueue.removeFromQueue(reconfigWaitMonitor);
+                reconfigWaitQueue.removeFromQueue(reconfigWaiter);
 
-                    LOG.log(FINEST, "[DRC] throwing Retryable-Unavailable-Exception");
-                    RetryableUnavailableException rue = new RetryableUnavailableException(
-                        "Pool Reconfigured, Connection Factory can retry the lookup");
-                    rue.setErrorCode(POOL_RECONFIGURED_ERROR_CODE);
+                LOG.log(FINEST, "[DRC] throwing Retryable-Unavailable-Exception");
+                RetryableUnavailableException rue = new RetryableUnavailableException(
+                    "Pool Reconfigured, Connection Factory can retry the lookup");
+                rue.setErrorCode(POOL_RECONFIGURED_ERROR_CODE);
 
-                    throw rue;
-                }
+                throw rue;
             }
         }
 
@@ -706,7 +792,18 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
     protected boolean isConnectionValid(ResourceHandle resourceHandle, ResourceAllocator resourceAllocator) {
         boolean connectionValid = true;
 
-        if (validation || validateAtmostEveryIdleSecs) {
+        AsyncConnectionValidator validator = validatorTask;
+        if (validation && validator != null) {
+            // The validator keeps the free connections valid, only validate those it has not caught yet
+            long currentTime = System.currentTimeMillis();
+            if (validator.isIdle(resourceHandle, currentTime)) {
+                if (validateConnection(resourceHandle, resourceAllocator)) {
+                    resourceHandle.setLastValidated(currentTime);
+                } else {
+                    connectionValid = false;
+                }
+            }
+        } else if (validation || validateAtmostEveryIdleSecs) {
             long validationPeriod;
             // validation period is idle timeout if validateAtmostEveryIdleSecs is set to true
             // else it is validateAtmostPeriodInMilliSeconds_
@@ -727,9 +824,8 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
             }
 
             if (validationRequired) {
-                if (!resourceAllocator.isConnectionValid(resourceHandle)) {
+                if (!validateConnection(resourceHandle, resourceAllocator)) {
                     connectionValid = false;
-                    incrementNumConnFailedValidation();
                 } else {
                     resourceHandle.setLastValidated(currentTime);
                 }
@@ -739,6 +835,58 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
         return connectionValid;
     }
 
+    /**
+     * Validates the connection, and reports the time it took and its failure to the monitoring.
+     *
+     * @param resourceHandle Resource to be validated
+     * @param resourceAllocator Allocator to validate the resource
+     * @return boolean representing validation result
+     */
+    protected boolean validateConnection(ResourceHandle resourceHandle, ResourceAllocator resourceAllocator) {
+        long startTime = System.nanoTime();
+        boolean connectionValid = resourceAllocator.isConnectionValid(resourceHandle);
+        if (poolLifeCycleListener != null) {
+            poolLifeCycleListener.connectionValidated(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime));
+        }
+        if (!connectionValid) {
+            incrementNumConnFailedValidation();
+        }
+        return connectionValid;
+    }
+
+    /**
+     * Validates a free connection on behalf of the {@link AsyncConnectionValidator}.
+     */
+    private boolean validateFreeConnection(ResourceHandle resourceHandle) {
+        if (!validateConnection(resourceHandle, allocator)) {
+            return false;
+        }
+        resourceHandle.setLastValidated(System.currentTimeMillis());
+        return true;
+    }
+
+    /**
+     * Gives a connection validated by the {@link AsyncConnectionValidator} to the oldest waiting thread, or back to the
+     * free connections.
+     */
+    private void returnValidatedResource(ResourceHandle resourceHandle) {
+        if (!handOffToWaitingThread(resourceHandle)) {
+            dataStructure.returnResource(resourceHandle);
+        }
+    }
+
+    /**
+     * Destroys an invalid resource taken from the free connections, in the background if async validation is on.
+     */
+    private void removeInvalidResource(ResourceHandle resourceHandle) {
+        AsyncConnectionValidator validator = validatorTask;
+        if (validator == null) {
+            dataStructure.removeResource(resourceHandle);
+        } else {
+            validator.quarantine(resourceHandle);
+        }
+    }
+
     /**
      * check whether the connection retrieved from the pool matches with the request.
      *
@@ -800,7 +948,7 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
                                 // No need to match since the resource is created with the allocator of caller.
                                 break;
                             }
-                            dataStructure.removeResource(resourceHandle);
+                            removeInvalidResource(resourceHandle);
                             // Resource is invalid, continue iteration.
                             continue;
                         }
@@ -1115,13 +1263,16 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
                 if (maxConnectionUsage_ > 0 && resourceHandle.getUsageCount() >= maxConnectionUsage_) {
                     performMaxConnectionUsageOperation(resourceHandle);
                 } else {
-                    // Put it back to the free collection.
-                    dataStructure.returnResource(resourceHandle);
                     // update the monitoring data
                     if (poolLifeCycleListener != null && !resourceHandle.getDestroyByLeakTimeOut()) {
                         poolLifeCycleListener.decrementConnectionUsed(resourceHandle.getId());
                         poolLifeCycleListener.incrementNumConnFree(false, steadyPoolSize);
                     }
+                    // Give it to the oldest waiting thread, or put it back to the free collection.
+                    if (handOffToWaitingThread(resourceHandle)) {
+                        return;
+                    }
+                    dataStructure.returnResource(resourceHandle);
                 }
                 // For both the cases of free.add and maxConUsageOperation, a free resource is added.
                 // Hence notify waiting threads.
@@ -1208,6 +1359,7 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
             LOG.log(FINE, "Could not create " + steadyPoolSize + " resources.", pe);
         }
         scheduleResizerTask();
+        scheduleValidatorTask();
     }
 
     /**
@@ -1261,6 +1413,8 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
     @Override
     public void createResourceAndAddToPool() throws PoolingException {
         createResourceAndAddToPool(allocator);
+        // the resizer may create resources while requests are waiting
+        notifyWaitingThreads();
     }
 
     @Override
@@ -1280,21 +1434,124 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
 
     protected void notifyWaitingThreads() {
         // notify the first thread in the waitqueue
-        Object waitMonitor = null;
-        synchronized (waitQueue) {
-            if (waitQueue.getQueueLength() > 0) {
-                waitMonitor = waitQueue.remove();
-                if (poolLifeCycleListener != null) {
-                    poolLifeCycleListener.connectionRequestDequeued();
+        Object waitMonitor;
+        while ((waitMonitor = pollWaitQueue()) != null) {
+            LOG.log(FINE, "Notifying wait monitor: {0}", waitMonitor);
+            if (!(waitMonitor instanceof PoolWaiter)) {
+                synchronized (waitMonitor) {
+                    waitMonitor.notifyAll();
                 }
+                return;
+            }
+            if (((PoolWaiter) waitMonitor).signal()) {
+                return;
             }
+            // The waiter has just timed out, notify the next one
         }
-        if (waitMonitor == null) {
-            LOG.log(FINE, "Wait monitor is null");
-        } else {
-            synchronized (waitMonitor) {
-                LOG.log(FINE, "Notifying wait monitor: {0}", waitMonitor);
-                waitMonitor.notifyAll();
+        LOG.log(FINE, "Wait monitor is null");
+    }
+
+    /**
+     * Gives a free resource directly to the oldest thread of the wait queue, so that no
+     * other request can take it before the waiting thread wakes up.
+     *
+     * @param resourceHandle free resource, not in the free collection
+     * @return false if there is no thread waiting, the resource is then still owned by the caller
+     */
+    protected boolean handOffToWaitingThread(ResourceHandle resourceHandle) {
+        Object waitMonitor;
+        while ((waitMonitor = pollWaitQueue()) != null) {
+            if (!(waitMonitor instanceof PoolWaiter)) {
+                synchronized (waitMonitor) {
+                    waitMonitor.notifyAll();
+                }
+                return false;
+            }
+            if (((PoolWaiter) waitMonitor).handOff(resourceHandle)) {
+                LOG.log(FINE, "Resource handed off to wait monitor: {0}", waitMonitor);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Prepares a resource handed off by {@link #handOffToWaitingThread(ResourceHandle)} for the
+     * waiting request, as {@link #getResourceFromPool(ResourceAllocator, ResourceSpec)} does for a
+     * resource of the free collection.
+     *
+     * @param resourceHandle resource handed off to the current thread
+     * @param resourceSpec ResourceSpec of the request
+     * @param resourceAllocator ResourceAllocator of the request
+     * @return the resource, or null if it does not suit the request, in which case it was given
+     * back to the pool or destroyed
+     */
+    protected ResourceHandle acceptHandedOffResource(ResourceHandle resourceHandle, ResourceSpec resourceSpec,
+        ResourceAllocator resourceAllocator) {
+        if (resourceHandle.hasConnectionErrorOccurred()) {
+            dataStructure.removeResource(resourceHandle);
+            return null;
+        }
+        if (!matchConnection(resourceHandle, resourceAllocator)) {
+            dataStructure.returnResource(resourceHandle);
+            notifyWaitingThreads();
+            return null;
+        }
+        boolean isValid = isConnectionValid(resourceHandle, resourceAllocator);
+        if (resourceHandle.hasConnectionErrorOccurred() || !isValid) {
+            removeInvalidResource(resourceHandle);
+            return null;
+        }
+        if (resourceHandle.isShareable() != resourceAllocator.shareableWithinComponent()) {
+            dataStructure.returnResource(resourceHandle);
+            notifyWaitingThreads();
+            return null;
+        }
+
+        setResourceStateToBusy(resourceHandle);
+        if (maxConnectionUsage_ > 0) {
+            resourceHandle.incrementUsageCount();
+        }
+        if (poolLifeCycleListener != null) {
+            poolLifeCycleListener.connectionUsed(resourceHandle.getId());
+            poolLifeCycleListener.decrementNumConnFree();
+        }
+        return resourceHandle;
+    }
+
+    /**
+     * Removes the oldest object of the wait queue.
+     *
+     * @return the object, or null if the wait queue is empty
+     */
+    private Object pollWaitQueue() {
+        if (waitQueue.getQueueLength() == 0) {
+            return null;
+        }
+        Object waitMonitor;
+        try {
+            waitMonitor = waitQueue.remove();
+        } catch (NoSuchElementException e) {
+            // Emptied concurrently
+            return null;
+        }
+        if (waitMonitor != null) {
+            dequeued(waitMonitor);
+        }
+        return waitMonitor;
+    }
+
+    private void removeFromWaitQueue(PoolWaiter waiter) {
+        if (waitQueue.removeFromQueue(waiter)) {
+            dequeued(waiter);
+        }
+    }
+
+    private void dequeued(Object waitMonitor) {
+        if (poolLifeCycleListener != null) {
+            poolLifeCycleListener.connectionRequestDequeued();
+            if (waitMonitor instanceof PoolWaiter) {
+                poolLifeCycleListener.connectionRequestWaited(((PoolWaiter) waitMonitor).getWaitTime());
             }
         }
     }
@@ -1373,20 +1630,26 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
      * @throws com.sun.appserv.connectors.internal.api.PoolingException
      */
     @Override
-    public synchronized boolean flushConnectionPool() throws PoolingException {
-        LOG.log(FINE, "Flushing Connection Pool {0}", poolInfo);
+    public boolean flushConnectionPool() throws PoolingException {
+        poolLock.lock();
+        try {
+            LOG.log(FINE, "Flushing Connection Pool {0}", poolInfo);
 
-        if (!poolInitialized) {
-            throw new PoolingException(
-                "Flush Connection Pool did not happen as pool " + poolInfo + " is not initialized");
-        }
+            if (!poolInitialized) {
+                throw new PoolingException(
+                    "Flush Connection Pool did not happen as pool " + poolInfo + " is not initialized");
+            }
 
-        cancelResizerTask();
-        dataStructure.removeAll();
-        scheduleResizerTask();
-        increaseSteadyPoolSize(steadyPoolSize);
-        LOG.log(FINE, "Flush Connection Pool done");
-        return true;
+            cancelResizerTask();
+            dataStructure.removeAll();
+            scheduleResizerTask();
+            scheduleValidatorTask();
+            increaseSteadyPoolSize(steadyPoolSize);
+            LOG.log(FINE, "Flush Connection Pool done");
+            return true;
+        } finally {
+            poolLock.unlock();
+        }
     }
 
     /**
@@ -1397,74 +1660,82 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
      * @throws PoolingException if the pool resizing fails
      */
     @Override
-    public synchronized void reconfigurePool(ConnectorConnectionPool poolResource) throws PoolingException {
-        int _idleTime = Integer.parseInt(poolResource.getIdleTimeoutInSeconds()) * 1000;
-        if (poolInitialized) {
-            if (_idleTime != idletime && _idleTime != 0) {
-                idletime = _idleTime;
-                scheduleResizerTask();
-            }
-            if (_idleTime == 0) {
-                // resizerTask.cancel();
-                cancelResizerTask();
+    public void reconfigurePool(ConnectorConnectionPool poolResource) throws PoolingException {
+        poolLock.lock();
+        try {
+            int _idleTime = Integer.parseInt(poolResource.getIdleTimeoutInSeconds()) * 1000;
+            if (poolInitialized) {
+                if (_idleTime != idletime && _idleTime != 0) {
+                    idletime = _idleTime;
+                    scheduleResizerTask();
+                }
+                if (_idleTime == 0) {
+                    // resizerTask.cancel();
+                    cancelResizer();
+                }
             }
-        }
-        idletime = _idleTime;
+            idletime = _idleTime;
 
-        resizeQuantity = Integer.parseInt(poolResource.getPoolResizeQuantity());
+            resizeQuantity = Integer.parseInt(poolResource.getPoolResizeQuantity());
 
-        maxWaitTime = Integer.parseInt(poolResource.getMaxWaitTimeInMillis());
-        // Make sure it's not negative.
-        if (maxWaitTime < 0) {
-            maxWaitTime = 0;
-        }
+            maxWaitTime = Integer.parseInt(poolResource.getMaxWaitTimeInMillis());
+            // Make sure it's not negative.
+            if (maxWaitTime < 0) {
+                maxWaitTime = 0;
+            }
 
-        validation = poolResource.isIsConnectionValidationRequired();
-        failAllConnections = poolResource.isFailAllConnections();
-        setAdvancedPoolConfiguration(poolResource);
+            validation = poolResource.isIsConnectionValidationRequired();
+            failAllConnections = poolResource.isFailAllConnections();
+            setAdvancedPoolConfiguration(poolResource);
+            if (poolInitialized) {
+                scheduleValidatorTask();
+            }
 
-        // Self managed quantities. These are ignored if self management
-        // is on
-        if (!isSelfManaged()) {
-            int _maxPoolSize = Integer.parseInt(poolResource.getMaxPoolSize());
-            int oldMaxPoolSize = maxPoolSize;
+            // Self managed quantities. These are ignored if self management
+            // is on
+            if (!isSelfManaged()) {
+                int _maxPoolSize = Integer.parseInt(poolResource.getMaxPoolSize());
+                int oldMaxPoolSize = maxPoolSize;
 
-            if (_maxPoolSize < steadyPoolSize) {
-                // should not happen, admin must throw exception when this condition happens.
-                // as a precaution set max pool size to steady pool size
-                maxPoolSize = steadyPoolSize;
-            } else {
-                maxPoolSize = _maxPoolSize;
-            }
+                if (_maxPoolSize < steadyPoolSize) {
+                    // should not happen, admin must throw exception when this condition happens.
+                    // as a precaution set max pool size to steady pool size
+                    maxPoolSize = steadyPoolSize;
+                } else {
+                    maxPoolSize = _maxPoolSize;
+                }
 
-            if (oldMaxPoolSize != maxPoolSize) {
-                dataStructure.setMaxSize(maxPoolSize);
-            }
-            int _steadyPoolSize = Integer.parseInt(poolResource.getSteadyPoolSize());
-            int oldSteadyPoolSize = steadyPoolSize;
+                if (oldMaxPoolSize != maxPoolSize) {
+                    dataStructure.setMaxSize(maxPoolSize);
+                }
+                int _steadyPoolSize = Integer.parseInt(poolResource.getSteadyPoolSize());
+                int oldSteadyPoolSize = steadyPoolSize;
 
-            if (_steadyPoolSize > maxPoolSize) {
-                // should not happen, admin must throw exception when this condition happens.
-                // as a precaution set steady pool size to max pool size
-                steadyPoolSize = maxPoolSize;
-            } else {
-                steadyPoolSize = _steadyPoolSize;
-            }
+                if (_steadyPoolSize > maxPoolSize) {
+                    // should not happen, admin must throw exception when this condition happens.
+                    // as a precaution set steady pool size to max pool size
+                    steadyPoolSize = maxPoolSize;
+                } else {
+                    steadyPoolSize = _steadyPoolSize;
+                }
 
-            if (poolInitialized) {
-                // In this case we need to kill extra connections in the pool
-                // For the case where the value is increased, we need not
-                // do anything
-                // num resources to kill is decided by the resources in the pool.
-                // if we have less than current maxPoolSize resources, we need to
-                // kill less.
-                int toKill = dataStructure.getResourcesSize() - maxPoolSize;
+                if (poolInitialized) {
+                    // In this case we need to kill extra connections in the pool
+                    // For the case where the value is increased, we need not
+                    // do anything
+                    // num resources to kill is decided by the resources in the pool.
+                    // if we have less than current maxPoolSize resources, we need to
+                    // kill less.
+                    int toKill = dataStructure.getResourcesSize() - maxPoolSize;
 
-                if (toKill > 0) {
-                    killExtraResources(toKill);
+                    if (toKill > 0) {
+                        killExtraResources(toKill);
+                    }
                 }
+                reconfigureSteadyPoolSize(oldSteadyPoolSize, _steadyPoolSize);
             }
-            reconfigureSteadyPoolSize(oldSteadyPoolSize, _steadyPoolSize);
+        } finally {
+            poolLock.unlock();
         }
     }
 
@@ -1490,6 +1761,8 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
     private void setAdvancedPoolConfiguration(ConnectorConnectionPool poolResource) {
         matchConnections = poolResource.matchConnections();
         preferValidateOverRecreate = poolResource.isPreferValidateOverRecreate();
+        predictiveResize = poolResource.isPredictiveResize();
+        asyncValidation = poolResource.isAsyncValidation();
         maxConnectionUsage_ = Integer.parseInt(poolResource.getMaxConnectionUsage());
         connectionCreationRetryAttempts_ = Integer.parseInt(poolResource.getConCreationRetryAttempts());
         // Converting seconds to milliseconds as TimerTask will take input in milliseconds
@@ -1514,7 +1787,7 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
      * The maxPoolSize being reduced causes this method to be called
      */
     private void killExtraResources(int numToKill) {
-        cancelResizerTask();
+        cancelResizer();
 
         ResourceHandle h;
         for (int i = 0; i < numToKill && ((h = dataStructure.getResource()) != null); i++) {
@@ -1527,7 +1800,7 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
      * Increase the number of steady resources in the pool if we detect that the steadyPoolSize has been increased
      */
     private void increaseSteadyPoolSize(int newSteadyPoolSize) throws PoolingException {
-        cancelResizerTask();
+        cancelResizer();
         for (int i = dataStructure.getResourcesSize(); i < newSteadyPoolSize; i++) {
             createResourceAndAddToPool(allocator);
         }
@@ -1560,8 +1833,21 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
         return poolInfo;
     }
 
+    /**
+     * Cancels the resizer and the validator tasks.
+     */
     @Override
-    public synchronized void cancelResizerTask() {
+    public void cancelResizerTask() {
+        poolLock.lock();
+        try {
+            cancelValidatorTask();
+            cancelResizer();
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    private void cancelResizer() {
         LOG.log(FINE, "Cancelling resizer task.");
         if (resizerTask != null) {
             resizerTask.cancel();
@@ -1601,7 +1887,8 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
     @Override
     public void setMaxPoolSize(int size) {
         if (size < dataStructure.getResourcesSize()) {
-            synchronized (this) {
+            poolLock.lock();
+            try {
                 int toKill = dataStructure.getResourcesSize() - size;
                 if (toKill > 0) {
                     try {
@@ -1611,6 +1898,8 @@ public class ConnectionPool implements ResourcePool, ConnectionLeakListener, Res
                         LOG.log(FINE, "setMaxPoolSize:: killExtraResources throws exception!", re);
                     }
                 }
+            } finally {
+                poolLock.unlock();
             }
         }
         maxPoolSize = size;
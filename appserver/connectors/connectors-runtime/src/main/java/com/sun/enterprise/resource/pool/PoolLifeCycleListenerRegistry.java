@@ -206,4 +206,18 @@ public class PoolLifeCycleListenerRegistry implements PoolLifeCycleListener {
             listener.connectionRequestDequeued();
         }
     }
+
+    @Override
+    public void connectionRequestWaited(long waitTimeInMillis) {
+        for (PoolLifeCycleListener listener : poolListenersList) {
+            listener.connectionRequestWaited(waitTimeInMillis);
+        }
+    }
+
+    @Override
+    public void connectionValidated(long validationTimeInMicros) {
+        for (PoolLifeCycleListener listener : poolListenersList) {
+            listener.connectionValidated(validationTimeInMicros);
+        }
+    }
 }
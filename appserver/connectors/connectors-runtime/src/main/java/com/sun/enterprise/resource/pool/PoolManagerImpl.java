@@ -376,11 +376,9 @@ public class PoolManagerImpl extends AbstractPoolManager implements ComponentInv
         if (poolInfo != null) {
             ResourcePool pool = poolTable.get(poolInfo);
             if (pool != null) {
-                synchronized (pool) {
-                    pool.resourceClosed(resourceHandle);
-                    resourceHandle.setConnectionErrorOccurred();
-                    pool.resourceErrorOccurred(resourceHandle);
-                }
+                pool.resourceClosed(resourceHandle);
+                resourceHandle.setConnectionErrorOccurred();
+                pool.resourceErrorOccurred(resourceHandle);
             }
         }
     }
@@ -49,14 +49,25 @@ public class UnpooledResource extends ConnectionPool {
     }
 
     @Override
-    protected synchronized void initPool(ResourceAllocator allocator) throws PoolingException {
-        if (poolInitialized) {
-            return;
+    protected void initPool(ResourceAllocator allocator) throws PoolingException {
+        poolLock.lock();
+        try {
+            if (poolInitialized) {
+                return;
+            }
+
+            // Nothing needs to be done as pooling is disabled
+            poolSize = new PoolSize(maxPoolSize);
+            poolInitialized = true;
+        } finally {
+            poolLock.unlock();
         }
+    }
 
-        // Nothing needs to be done as pooling is disabled
-        poolSize = new PoolSize(maxPoolSize);
-        poolInitialized = true;
+    @Override
+    protected AsyncConnectionValidator initializeValidator() {
+        // Nothing to validate as pooling is disabled
+        return null;
     }
 
     @Override
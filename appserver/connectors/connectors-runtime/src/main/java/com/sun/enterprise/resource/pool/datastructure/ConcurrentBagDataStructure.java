@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.resource.pool.datastructure;
+
+import com.sun.appserv.connectors.internal.api.PoolingException;
+import com.sun.enterprise.resource.ResourceHandle;
+import com.sun.enterprise.resource.allocator.ResourceAllocator;
+import com.sun.enterprise.resource.pool.ResourceHandler;
+import com.sun.logging.LogDomains;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lock-free datastructure for pool, in the manner of a concurrent bag.
+ * <p>
+ * Each resource has an atomic state, and is acquired by the thread which changes it from free
+ * to in use. A returned resource is put on a short list local to the returning thread, which
+ * gets it back first on its next {@link #getResource()}, and on a shared lock-free queue from
+ * which any other thread, typically a waiter woken up by the pool, takes it. Neither
+ * {@link #getResource()} nor {@link #returnResource(ResourceHandle)} takes a lock.
+ * <p>
+ * The shared queue holds each resource at most once, so its size is bounded by the pool size
+ * whichever path the resources are acquired by.
+ * <p>
+ * The thread lists only hold weak references to entries which do not reference this data
+ * structure, so that a thread outliving the pool does not keep the pool or its resources
+ * reachable.
+ */
+public class ConcurrentBagDataStructure implements DataStructure {
+
+    private static final Logger LOG = LogDomains.getLogger(ConcurrentBagDataStructure.class, LogDomains.RSR_LOGGER);
+
+    /**
+     * Maximum number of resources remembered by each thread.
+     */
+    private static final int THREAD_LIST_SIZE = 16;
+
+    private static final int FREE = 0;
+    private static final int IN_USE = 1;
+    private static final int REMOVED = 2;
+
+    private final DataStructureSemaphore availableResources;
+    private final ResourceHandler handler;
+
+    private final Map<ResourceHandle, BagEntry> entries = new ConcurrentHashMap<>();
+    private final Queue<BagEntry> sharedQueue = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<List<WeakReference<BagEntry>>> threadList =
+        ThreadLocal.withInitial(() -> new ArrayList<>(THREAD_LIST_SIZE));
+    private final AtomicInteger freeCount = new AtomicInteger();
+
+    private int maxSize;
+
+    /**
+     * @param parameters not used
+     * @param maxSize maximum number of resources
+     * @param handler creates and deletes the resources
+     * @param strategyClass not used: resources are always selected from the thread list first, then from the
+     *            shared queue, which is what keeps the data structure lock-free. No built-in data structure
+     *            supports a selection strategy.
+     */
+    public ConcurrentBagDataStructure(String parameters, int maxSize, ResourceHandler handler, String strategyClass) {
+        this.availableResources = new DataStructureSemaphore(maxSize);
+        this.handler = handler;
+        this.maxSize = maxSize;
+
+        LOG.log(Level.FINEST, "pool.datastructure.concurrentbagds.init");
+    }
+
+    @Override
+    public int addResource(ResourceAllocator allocator, int count) throws PoolingException {
+        int numResAdded = 0;
+        for (int i = 0; i < count; i++) {
+            if (!availableResources.tryAcquire()) {
+                break;
+            }
+
+            ResourceHandle resource;
+            try {
+                resource = handler.createResource(allocator);
+            } catch (Exception e) {
+                availableResources.release();
+                throw new PoolingException(e.getMessage(), e);
+            }
+
+            BagEntry entry = new BagEntry(resource);
+            entries.put(resource, entry);
+            freeCount.incrementAndGet();
+            enqueue(entry);
+            numResAdded++;
+        }
+        return numResAdded;
+    }
+
+    @Override
+    public ResourceHandle getResource() {
+        // Most recently returned resources of this thread first
+        List<WeakReference<BagEntry>> list = threadList.get();
+        for (int i = list.size() - 1; i >= 0; i--) {
+            BagEntry entry = list.remove(i).get();
+            if (entry != null && acquire(entry)) {
+                return entry.resource;
+            }
+        }
+
+        BagEntry entry;
+        while ((entry = sharedQueue.poll()) != null) {
+            // Clear the flag before acquiring, so that a concurrent return of the
+            // entry either sees it acquired or queues it again
+            entry.queued.set(false);
+            if (acquire(entry)) {
+                return entry.resource;
+            }
+        }
+
+        // A free resource may be between its state change and its queueing
+        if (freeCount.get() > 0) {
+            for (BagEntry candidate : entries.values()) {
+                if (acquire(candidate)) {
+                    return candidate.resource;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean takeResource(ResourceHandle resource) {
+        BagEntry entry = entries.get(resource);
+        return entry != null && acquire(entry);
+    }
+
+    @Override
+    public void removeResource(ResourceHandle resource) {
+        BagEntry entry = entries.remove(resource);
+        if (entry == null) {
+            return;
+        }
+        if (entry.state.getAndSet(REMOVED) == FREE) {
+            freeCount.decrementAndGet();
+        }
+        availableResources.release();
+        handler.deleteResource(resource);
+    }
+
+    @Override
+    public void returnResource(ResourceHandle resource) {
+        BagEntry entry = entries.get(resource);
+        if (entry == null) {
+            return;
+        }
+        freeCount.incrementAndGet();
+        if (!entry.state.compareAndSet(IN_USE, FREE)) {
+            // Removed or returned twice
+            freeCount.decrementAndGet();
+            return;
+        }
+
+        List<WeakReference<BagEntry>> list = threadList.get();
+        if (list.size() >= THREAD_LIST_SIZE) {
+            list.remove(0);
+        }
+        list.add(new WeakReference<>(entry));
+        enqueue(entry);
+    }
+
+    @Override
+    public int getFreeListSize() {
+        return Math.max(0, freeCount.get());
+    }
+
+    @Override
+    public void removeAll() {
+        for (ResourceHandle resource : new ArrayList<>(entries.keySet())) {
+            removeResource(resource);
+        }
+        sharedQueue.clear();
+    }
+
+    @Override
+    public int getResourcesSize() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized void setMaxSize(int newMaxSize) {
+        int permits = newMaxSize - maxSize;
+
+        switch (Integer.signum(permits)) {
+            case 1:
+                availableResources.release(permits);
+                break;
+            case -1:
+                availableResources.reducePermits(Math.abs(permits));
+                break;
+            default:
+                return;
+        }
+
+        this.maxSize = newMaxSize;
+    }
+
+    @Override
+    public List<ResourceHandle> getAllResources() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    private boolean acquire(BagEntry entry) {
+        if (entry.state.get() == FREE && entry.state.compareAndSet(FREE, IN_USE)) {
+            freeCount.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private void enqueue(BagEntry entry) {
+        if (entry.queued.compareAndSet(false, true)) {
+            sharedQueue.offer(entry);
+        }
+    }
+
+    /**
+     * A resource of the pool and its state.
+     */
+    private static final class BagEntry {
+
+        private final ResourceHandle resource;
+        private final AtomicInteger state = new AtomicInteger(FREE);
+        private final AtomicBoolean queued = new AtomicBoolean();
+
+        BagEntry(ResourceHandle resource) {
+            this.resource = resource;
+        }
+    }
+}
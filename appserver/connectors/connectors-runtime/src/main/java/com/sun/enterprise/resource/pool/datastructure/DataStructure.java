@@ -59,6 +59,18 @@ public interface DataStructure {
      */
     ResourceHandle getResource();
 
+    /**
+     * takes the specified resource from the datastructure, if it is free, as {@link #getResource()}
+     * would. Datastructures which cannot take a given resource keep this default, and their free
+     * resources are then never validated in the background.
+     *
+     * @param resource ResourceHandle
+     * @return true if the resource was free and is now in use, false otherwise
+     */
+    default boolean takeResource(ResourceHandle resource) {
+        return false;
+    }
+
     /**
      * remove the specified resource from the datastructure
      *
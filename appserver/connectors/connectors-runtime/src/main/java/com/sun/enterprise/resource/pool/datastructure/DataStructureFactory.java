@@ -47,6 +47,8 @@ public class DataStructureFactory {
                 dataStructure = new ListDataStructure(parameters, maxPoolSize, handler, strategyClass);
             } else if (className.equals(RWLockDataStructure.class.getName())) {
                 dataStructure = new RWLockDataStructure(parameters, maxPoolSize, handler, strategyClass);
+            } else if (className.equals(ConcurrentBagDataStructure.class.getName())) {
+                dataStructure = new ConcurrentBagDataStructure(parameters, maxPoolSize, handler, strategyClass);
             } else {
                 dataStructure = initializeCustomDataStructureInPrivilegedMode(className, parameters, maxPoolSize, handler, strategyClass);
             }
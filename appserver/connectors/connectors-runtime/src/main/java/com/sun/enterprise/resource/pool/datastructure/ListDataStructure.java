@@ -143,6 +143,19 @@ public class ListDataStructure implements DataStructure {
         return resource;
     }
 
+    /**
+     * takes the specified resource from the datastructure, if it is free
+     *
+     * @param resource ResourceHandle
+     * @return true if the resource was free
+     */
+    @Override
+    public boolean takeResource(ResourceHandle resource) {
+        synchronized (free) {
+            return free.remove(resource);
+        }
+    }
+
     /**
      * remove the specified resource from the datastructure
      *
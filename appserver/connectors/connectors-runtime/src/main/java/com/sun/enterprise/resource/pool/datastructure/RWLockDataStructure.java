@@ -26,7 +26,6 @@ import com.sun.logging.LogDomains;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.locks.StampedLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -155,6 +154,21 @@ public class RWLockDataStructure implements DataStructure {
         }
     }
 
+    @Override
+    public boolean takeResource(ResourceHandle resource) {
+        long stamp = lock.writeLock();
+        try {
+            int index = resource.getIndex();
+            if (index < 0 || index >= size || resources[index] != resource || useMask.get(index)) {
+                return false;
+            }
+            useMask.set(index);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
     @Override
     public void removeResource(ResourceHandle resource) {
         boolean removed = false;
@@ -371,20 +385,4 @@ public class RWLockDataStructure implements DataStructure {
             }
         }
     }
-
-    /**
-     * Semaphore whose available permits change according to the
-     * changes in max-pool-size via a reconfiguration.
-     */
-    private static final class DataStructureSemaphore extends Semaphore {
-
-        public DataStructureSemaphore(int permits) {
-            super(permits);
-        }
-
-        @Override
-        protected void reducePermits(int reduction) {
-            super.reducePermits(reduction);
-        }
-    }
 }
@@ -296,6 +296,28 @@ public class ConnectionPoolEmitterImpl implements PoolLifeCycleListener {
         poolProbeProvider.connectionRequestDequeuedEvent(poolInfo.getName().toString(), poolInfo.getApplicationName(), poolInfo.getModuleName());
     }
 
+    /**
+     * Fires probe event related to the fact that a connection request has left
+     * the wait queue of the given jdbc connection pool.
+     *
+     * @param waitTimeInMillis time spent by the request in the wait queue
+     */
+    @Override
+    public void connectionRequestWaited(long waitTimeInMillis) {
+        poolProbeProvider.connectionRequestWaitedEvent(poolInfo.getName().toString(), poolInfo.getApplicationName(), poolInfo.getModuleName(), waitTimeInMillis);
+    }
+
+    /**
+     * Fires probe event related to the fact that a connection of the given
+     * jdbc connection pool has been validated.
+     *
+     * @param validationTimeInMicros time taken by the validation
+     */
+    @Override
+    public void connectionValidated(long validationTimeInMicros) {
+        poolProbeProvider.connectionValidatedEvent(poolInfo.getName().toString(), poolInfo.getApplicationName(), poolInfo.getModuleName(), validationTimeInMicros);
+    }
+
     private String getAppName(long resourceHandleId) {
 
         // if monitoring is disabled, avoid sending events
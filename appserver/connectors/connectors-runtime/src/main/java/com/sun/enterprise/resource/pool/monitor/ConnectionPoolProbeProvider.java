@@ -221,4 +221,30 @@ public abstract class ConnectionPoolProbeProvider {
      */
     public void connectionRequestDequeuedEvent(String poolName, String appName, String moduleName) {
     }
+
+    /**
+     * Emits probe event/notification that a connection request has left the
+     * wait queue of the given  connection pool <code>poolName</code>, either
+     * because it was served or because its wait timed out.
+     *
+     * @param poolName
+     * @param appName application-name in which the pool is defined
+     * @param moduleName module-name in which the pool is defined
+     * @param waitTimeInMillis time spent by the request in the wait queue
+     */
+    public void connectionRequestWaitedEvent(String poolName, String appName, String moduleName, long waitTimeInMillis) {
+    }
+
+    /**
+     * Emits probe event/notification that a connection of the given connection
+     * pool <code>poolName</code> has been validated, whether it was found valid
+     * or not.
+     *
+     * @param poolName
+     * @param appName application-name in which the pool is defined
+     * @param moduleName module-name in which the pool is defined
+     * @param validationTimeInMicros time taken by the validation
+     */
+    public void connectionValidatedEvent(String poolName, String appName, String moduleName, long validationTimeInMicros) {
+    }
 }
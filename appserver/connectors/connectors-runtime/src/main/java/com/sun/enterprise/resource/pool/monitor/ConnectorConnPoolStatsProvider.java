@@ -29,10 +29,12 @@ import org.glassfish.external.probe.provider.annotations.ProbeListener;
 import org.glassfish.external.probe.provider.annotations.ProbeParam;
 import org.glassfish.external.statistics.CountStatistic;
 import org.glassfish.external.statistics.RangeStatistic;
+import org.glassfish.external.statistics.StringStatistic;
 import org.glassfish.external.statistics.annotations.Reset;
 import org.glassfish.external.statistics.impl.CountStatisticImpl;
 import org.glassfish.external.statistics.impl.RangeStatisticImpl;
 import org.glassfish.external.statistics.impl.StatisticImpl;
+import org.glassfish.external.statistics.impl.StringStatisticImpl;
 import org.glassfish.gmbal.AMXMetadata;
 import org.glassfish.gmbal.Description;
 import org.glassfish.gmbal.ManagedAttribute;
@@ -119,6 +121,19 @@ public class ConnectorConnPoolStatsProvider {
     private final CountStatisticImpl waitQueueLength = new CountStatisticImpl(
             "WaitQueueLength", StatisticImpl.UNIT_COUNT,
             "Number of connection requests in the queue waiting to be serviced.");
+    private final StringStatisticImpl connRequestWaitTimeHistogram = new StringStatisticImpl(
+            "ConnRequestWaitTimeHistogram", "List",
+            "Number of connection requests by time spent in the wait queue.");
+    private final WaitTimeHistogram waitTimeHistogram = new WaitTimeHistogram();
+    private final CountStatisticImpl numConnValidated = new CountStatisticImpl(
+            "NumConnValidated", StatisticImpl.UNIT_COUNT,
+            "The total number of connections validated, whether they were found valid or not.");
+    private final CountStatisticImpl totalConnValidationTime = new CountStatisticImpl(
+            "TotalConnValidationTime", StatisticImpl.UNIT_MICROSECOND,
+            "Total time taken by the validations of connections");
+    private final CountStatisticImpl averageConnValidationTime = new CountStatisticImpl(
+            "AverageConnValidationTime", StatisticImpl.UNIT_MICROSECOND,
+            "Average time taken by the validation of a connection");
     private static final String JCA_PROBE_LISTENER = "glassfish:jca:connection-pool:";
 
     public ConnectorConnPoolStatsProvider(PoolInfo poolInfo, Logger logger) {
@@ -460,6 +475,10 @@ public class ConnectorConnPoolStatsProvider {
         averageConnWaitTime.reset();
         totalConnRequestWaitTime.reset();
         waitQueueLength.reset();
+        waitTimeHistogram.reset();
+        numConnValidated.reset();
+        totalConnValidationTime.reset();
+        averageConnValidationTime.reset();
     }
 
     /**
@@ -541,6 +560,45 @@ public class ConnectorConnPoolStatsProvider {
         }
     }
 
+    /**
+     * When an object leaves the wait queue, count its wait time.
+     */
+    @ProbeListener(JCA_PROBE_LISTENER + "connectionRequestWaitedEvent")
+    public void connectionRequestWaitedEvent(
+            @ProbeParam("poolName") String poolName,
+            @ProbeParam("appName") String appName,
+            @ProbeParam("moduleName") String moduleName,
+            @ProbeParam("waitTimeInMillis") long waitTimeInMillis) {
+
+        PoolInfo poolInfo = new PoolInfo(SimpleJndiName.of(poolName), appName, moduleName);
+        if (this.poolInfo.equals(poolInfo)) {
+            if (logger.isLoggable(Level.FINEST)) {
+                logger.finest("Wait time event received - poolName = " + poolName);
+            }
+            waitTimeHistogram.record(waitTimeInMillis);
+        }
+    }
+
+    /**
+     * When a connection is validated, count it and its validation time.
+     */
+    @ProbeListener(JCA_PROBE_LISTENER + "connectionValidatedEvent")
+    public void connectionValidatedEvent(
+            @ProbeParam("poolName") String poolName,
+            @ProbeParam("appName") String appName,
+            @ProbeParam("moduleName") String moduleName,
+            @ProbeParam("validationTimeInMicros") long validationTimeInMicros) {
+
+        PoolInfo poolInfo = new PoolInfo(SimpleJndiName.of(poolName), appName, moduleName);
+        if (this.poolInfo.equals(poolInfo)) {
+            if (logger.isLoggable(Level.FINEST)) {
+                logger.finest("Connection validated event received - poolName = " + poolName);
+            }
+            numConnValidated.increment();
+            totalConnValidationTime.increment(validationTimeInMicros);
+        }
+    }
+
     protected PoolInfo getPoolInfo() {
         return poolInfo;
     }
@@ -626,4 +684,27 @@ public class ConnectorConnPoolStatsProvider {
     public CountStatistic getWaitQueueLength() {
         return waitQueueLength;
     }
+
+    @ManagedAttribute(id="connrequestwaittimehistogram")
+    public StringStatistic getConnRequestWaitTimeHistogram() {
+        connRequestWaitTimeHistogram.setCurrent(waitTimeHistogram.toString());
+        return connRequestWaitTimeHistogram;
+    }
+
+    @ManagedAttribute(id="numconnvalidated")
+    public CountStatistic getNumConnValidated() {
+        return numConnValidated;
+    }
+
+    @ManagedAttribute(id="totalconnvalidationtime")
+    public CountStatistic getTotalConnValidationTime() {
+        return totalConnValidationTime;
+    }
+
+    @ManagedAttribute(id="averageconnvalidationtime")
+    public CountStatistic getAverageConnValidationTime() {
+        long count = numConnValidated.getCount();
+        averageConnValidationTime.setCount(count == 0 ? 0 : totalConnValidationTime.getCount() / count);
+        return averageConnValidationTime;
+    }
 }
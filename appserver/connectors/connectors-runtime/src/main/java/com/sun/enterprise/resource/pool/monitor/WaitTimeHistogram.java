@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.resource.pool.monitor;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of the time spent by connection requests in the wait queue of a pool.
+ * <p>
+ * The requests are counted in buckets of increasing upper bounds, the last bucket
+ * counting the requests which waited longer than all the bounds.
+ */
+public class WaitTimeHistogram {
+
+    private static final long[] UPPER_BOUNDS_IN_MILLIS = {1, 5, 10, 50, 100, 500, 1000, 5000, 10000};
+
+    private final AtomicLongArray counts = new AtomicLongArray(UPPER_BOUNDS_IN_MILLIS.length + 1);
+
+    /**
+     * @param waitTimeInMillis time spent by a request in the wait queue
+     */
+    public void record(long waitTimeInMillis) {
+        int bucket = 0;
+        while (bucket < UPPER_BOUNDS_IN_MILLIS.length && waitTimeInMillis > UPPER_BOUNDS_IN_MILLIS[bucket]) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+    }
+
+    /**
+     * @param bucket index of the bucket, the last one counting the requests above all the bounds
+     * @return number of requests counted in the bucket
+     */
+    public long getCount(int bucket) {
+        return counts.get(bucket);
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0L);
+        }
+    }
+
+    /**
+     * @return the count of each bucket, as {@code <=1ms=3, <=5ms=0, ..., >10000ms=0}
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < UPPER_BOUNDS_IN_MILLIS.length; i++) {
+            sb.append("<=").append(UPPER_BOUNDS_IN_MILLIS[i]).append("ms=").append(counts.get(i)).append(", ");
+        }
+        sb.append('>').append(UPPER_BOUNDS_IN_MILLIS[UPPER_BOUNDS_IN_MILLIS.length - 1]).append("ms=")
+            .append(counts.get(UPPER_BOUNDS_IN_MILLIS.length));
+        return sb.toString();
+    }
+}
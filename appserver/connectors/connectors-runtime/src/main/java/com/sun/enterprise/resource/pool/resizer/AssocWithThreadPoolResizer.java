@@ -65,12 +65,15 @@ public class AssocWithThreadPoolResizer extends Resizer {
             try {
                 for (ResourceHandle h : dataStructure.getAllResources()) {
                     if (scaleDownQuantity > 0) {
-                        synchronized (h.lock) {
+                        h.lock.lock();
+                        try {
                             if (!h.getResourceState().isBusy()) {
                                 resourcesToRemove.add(h);
                                 ((AssocWithThreadResourceHandle) h).setDirty();
                                 scaleDownQuantity--;
                             }
+                        } finally {
+                            h.lock.unlock();
                         }
                     }
                 }
@@ -106,7 +109,8 @@ public class AssocWithThreadPoolResizer extends Resizer {
         try {
             //iterate through all the resources to find idle-time lapsed ones.
             for (ResourceHandle h : dataStructure.getAllResources()) {
-                synchronized (h.lock) {
+                h.lock.lock();
+                try {
                     state = h.getResourceState();
                     if (!state.isBusy()) {
                         if (currentTime - state.getTimestamp() < pool.getIdleTimeout()) {
@@ -136,6 +140,8 @@ public class AssocWithThreadPoolResizer extends Resizer {
                             }
                         }
                     }
+                } finally {
+                    h.lock.unlock();
                 }
             }
         } finally {
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.resource.pool.resizer;
+
+import com.sun.appserv.connectors.internal.api.PoolingException;
+import com.sun.enterprise.resource.ResourceHandle;
+import com.sun.enterprise.resource.pool.PoolProperties;
+import com.sun.enterprise.resource.pool.ResourceHandler;
+import com.sun.enterprise.resource.pool.datastructure.DataStructure;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+import org.glassfish.resourcebase.resources.api.PoolInfo;
+
+/**
+ * Resizer which sizes the pool after the demand, rather than only maintaining the steady pool.
+ * <p>
+ * The demand is sampled every {@link #DEFAULT_SAMPLE_PERIOD} milliseconds, or every idle timeout if it is shorter. It
+ * is the number of resources in use plus the number of waiting requests, smoothed by an exponentially weighted moving
+ * average. The target size of the pool is the larger of the current and the average demand, plus the resize quantity
+ * when requests are waiting or the acquire rate grows, bounded by the steady and the maximum pool sizes.
+ * <ul>
+ * <li>When the pool is smaller than the target, resources are created ahead of the requests.
+ * <li>When the pool is larger than the target, one free resource is removed per sample.
+ * <li>Every idle timeout, idle and invalid resources are removed as by {@link Resizer}, and the pool is brought back to
+ * the target.
+ * </ul>
+ * All these operations run on a single background thread of the resizer, neither on the timer thread nor on the
+ * request threads, and at most one of them is pending at a time.
+ */
+public class PredictiveResizer extends Resizer {
+
+    public static final long DEFAULT_SAMPLE_PERIOD = 1000L;
+
+    /**
+     * Weight of the last sample in the moving averages.
+     */
+    private static final double SMOOTHING_FACTOR = 0.3;
+
+    /**
+     * Ratio of the acquire rate to its average above which the demand is considered growing.
+     */
+    private static final double GROWTH_THRESHOLD = 1.1;
+
+    private final LongAdder acquiredResources = new LongAdder();
+    private final AtomicBoolean operationPending = new AtomicBoolean();
+    private final ExecutorService executor;
+
+    // Only accessed by the timer thread
+    private double averageDemand;
+    private double averageAcquireRate;
+    private long lastSampleTime;
+    private long lastResizeTime;
+
+    private volatile int targetSize;
+
+    public PredictiveResizer(PoolInfo poolInfo, DataStructure ds, PoolProperties pp, ResourceHandler handler, boolean preferValidateOverRecreate) {
+        super(poolInfo, ds, pp, handler, preferValidateOverRecreate);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "predictive-resizer-" + poolInfo.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lastSampleTime = System.currentTimeMillis();
+        this.lastResizeTime = lastSampleTime;
+        this.targetSize = pp.getSteadyPoolSize();
+    }
+
+    @Override
+    public long getPeriod(long idleTimeout) {
+        return Math.min(DEFAULT_SAMPLE_PERIOD, idleTimeout);
+    }
+
+    @Override
+    public void resourceAcquired() {
+        acquiredResources.increment();
+    }
+
+    /**
+     * @return the number of resources the pool is sized for
+     */
+    public int getTargetSize() {
+        return targetSize;
+    }
+
+    @Override
+    public void run() {
+        try {
+            long now = System.currentTimeMillis();
+            sample(now);
+
+            int size = dataStructure.getResourcesSize();
+            if (now - lastResizeTime >= pool.getIdleTimeout()) {
+                if (submit(() -> resizePool(true))) {
+                    lastResizeTime = now;
+                }
+            } else if (size < targetSize) {
+                submit(this::growPool);
+            } else if (size > targetSize) {
+                submit(this::shrinkPool);
+            }
+        } catch (Exception ex) {
+            Object[] params = new Object[] { poolInfo, ex.getMessage() };
+            _logger.log(Level.WARNING, "resource_pool.resize_pool_error", params);
+        }
+    }
+
+    /**
+     * Updates the moving averages and the target size with the current state of the pool.
+     *
+     * @param now current time in milliseconds
+     * @return target size of the pool
+     */
+    protected int sample(long now) {
+        int inUse = Math.max(0, dataStructure.getResourcesSize() - dataStructure.getFreeListSize());
+        int waiting = pool.getWaitQueueLength();
+        int demand = inUse + waiting;
+
+        double elapsedSeconds = Math.max(1L, now - lastSampleTime) / 1000d;
+        lastSampleTime = now;
+        double acquireRate = acquiredResources.sumThenReset() / elapsedSeconds;
+        boolean growing = waiting > 0 || acquireRate > averageAcquireRate * GROWTH_THRESHOLD;
+
+        averageDemand = SMOOTHING_FACTOR * demand + (1 - SMOOTHING_FACTOR) * averageDemand;
+        averageAcquireRate = SMOOTHING_FACTOR * acquireRate + (1 - SMOOTHING_FACTOR) * averageAcquireRate;
+
+        int target = (int) Math.ceil(Math.max(demand, averageDemand));
+        if (growing) {
+            target += Math.max(1, pool.getResizeQuantity());
+        }
+        target = Math.min(Math.max(target, pool.getSteadyPoolSize()), pool.getMaxPoolSize());
+
+        debug("Demand for pool [ " + poolInfo + " ] : " + demand + ", average : " + averageDemand + ", acquire rate : "
+                + acquireRate + "/s, target size : " + target);
+        targetSize = target;
+        return target;
+    }
+
+    /**
+     * Removes the idle and invalid resources, and brings the pool back to its target size. The pool is not scaled down
+     * by the resize quantity, since it is shrunk according to the demand.
+     *
+     * @param forced ignored
+     */
+    @Override
+    public void resizePool(boolean forced) {
+        if (pool.getWaitQueueLength() > 0) {
+            growPool();
+            return;
+        }
+        removeIdleAndInvalidResources();
+        growPool();
+
+        debug("No. of resources held for pool [ " + poolInfo + " ] : " + dataStructure.getResourcesSize());
+    }
+
+    /**
+     * Creates resources until the pool reaches its target size.
+     */
+    protected void growPool() {
+        int target = targetSize;
+        for (int i = dataStructure.getResourcesSize(); i < target; i++) {
+            try {
+                handler.createResourceAndAddToPool();
+            } catch (PoolingException ex) {
+                Object[] params = new Object[] { poolInfo, ex.getMessage() };
+                _logger.log(Level.WARNING, "resource_pool.resize_pool_error", params);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes one free resource if the pool is larger than its target size.
+     */
+    protected void shrinkPool() {
+        if (dataStructure.getResourcesSize() > Math.max(targetSize, pool.getSteadyPoolSize())) {
+            ResourceHandle h = dataStructure.getResource();
+            if (h != null) {
+                dataStructure.removeResource(h);
+            }
+        }
+    }
+
+    @Override
+    public boolean cancel() {
+        executor.shutdownNow();
+        return super.cancel();
+    }
+
+    private boolean submit(Runnable operation) {
+        if (!operationPending.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    operation.run();
+                } catch (Exception ex) {
+                    Object[] params = new Object[] { poolInfo, ex.getMessage() };
+                    _logger.log(Level.WARNING, "resource_pool.resize_pool_error", params);
+                } finally {
+                    operationPending.set(false);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException ex) {
+            // cancelled
+            operationPending.set(false);
+            return false;
+        }
+    }
+}
@@ -82,6 +82,20 @@ public class Resizer extends TimerTask {
         }
     }
 
+    /**
+     * @param idleTimeout idle timeout of the pool in milliseconds
+     * @return the period at which this task is to be run, in milliseconds
+     */
+    public long getPeriod(long idleTimeout) {
+        return idleTimeout;
+    }
+
+    /**
+     * Called by the pool each time a resource is handed out to a request.
+     */
+    public void resourceAcquired() {
+    }
+
     /**
      * Resize the pool
      *
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.resource.pool.waitqueue;
+
+import com.sun.logging.LogDomains;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lock-free FIFO wait queue for the connection pool.
+ * <p>
+ * The queued objects are kept in their order of arrival together with an index, so that
+ * {@link #removeFromQueue(Object)}, called by each request whose wait timed out, only
+ * unlinks the object from the index. The queue skips such removed entries when it returns
+ * its oldest object, and purges them when they outnumber the queued objects.
+ *
+ * @see PoolWaiter
+ */
+public class ConcurrentPoolWaitQueue implements PoolWaitQueue {
+
+    private static final Logger LOG = LogDomains.getLogger(ConcurrentPoolWaitQueue.class, LogDomains.RSR_LOGGER);
+
+    /**
+     * Number of removed entries tolerated in the queue above the number of queued objects.
+     */
+    private static final int PURGE_THRESHOLD = 64;
+
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger removedEntries = new AtomicInteger();
+
+    public ConcurrentPoolWaitQueue() {
+        LOG.log(Level.FINE, "Initializing concurrent Pool Wait Queue");
+    }
+
+    @Override
+    public int getQueueLength() {
+        return entries.size();
+    }
+
+    @Override
+    public void addToQueue(Object o) {
+        Entry entry = new Entry(o);
+        if (entries.putIfAbsent(o, entry) == null) {
+            queue.offer(entry);
+        }
+    }
+
+    @Override
+    public boolean removeFromQueue(Object o) {
+        Entry entry = entries.remove(o);
+        if (entry == null) {
+            return false;
+        }
+        if (removedEntries.incrementAndGet() > entries.size() + PURGE_THRESHOLD) {
+            purge();
+        }
+        return true;
+    }
+
+    /**
+     * @return the oldest object of the queue, or null if the queue is empty
+     */
+    @Override
+    public Object remove() {
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            if (entries.remove(entry.item, entry)) {
+                return entry.item;
+            }
+            removedEntries.decrementAndGet();
+        }
+        return null;
+    }
+
+    @Override
+    public Object peek() {
+        for (Entry entry : queue) {
+            if (entries.get(entry.item) == entry) {
+                return entry.item;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Collection getQueueContents() {
+        Collection<Object> contents = new ArrayList<>(entries.size());
+        for (Entry entry : queue) {
+            if (entries.get(entry.item) == entry) {
+                contents.add(entry.item);
+            }
+        }
+        return contents;
+    }
+
+    private void purge() {
+        queue.removeIf(entry -> {
+            if (entries.get(entry.item) == entry) {
+                return false;
+            }
+            removedEntries.decrementAndGet();
+            return true;
+        });
+    }
+
+    /**
+     * Position of an object in the queue. An object queued again gets a new entry, so
+     * that a removed entry is never mistaken for a queued one.
+     */
+    private static final class Entry {
+
+        private final Object item;
+
+        Entry(Object item) {
+            this.item = item;
+        }
+    }
+}
@@ -43,8 +43,8 @@ public class PoolWaitQueueFactory {
         if (className != null) {
             waitQueue = initializeCustomWaitQueueInPrivilegedMode(className);
         } else {
-            waitQueue = new DefaultPoolWaitQueue();
-            debug("Initializing Default Pool Wait Queue");
+            waitQueue = new ConcurrentPoolWaitQueue();
+            debug("Initializing Concurrent Pool Wait Queue");
         }
         return waitQueue;
     }
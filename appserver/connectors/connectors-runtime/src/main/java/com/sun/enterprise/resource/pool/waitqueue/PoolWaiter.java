@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.resource.pool.waitqueue;
+
+import com.sun.enterprise.resource.ResourceHandle;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A resource request waiting in a {@link PoolWaitQueue}.
+ * <p>
+ * The waiting thread is parked with {@link LockSupport} rather than waiting on a monitor,
+ * so that a virtual thread does not pin its carrier while it waits. It is released either
+ * by a {@link #signal()}, after which it retries to get a resource from the pool, or by a
+ * {@link #handOff(ResourceHandle)} of a resource freed by another thread, which no other
+ * request can take in the meantime.
+ * <p>
+ * A waiter is released at most once: a signal or a handoff fails once the waiter was
+ * released, timed out or interrupted, and the caller should then try the next waiter.
+ */
+public final class PoolWaiter {
+
+    private static final int WAITING = 0;
+    private static final int SIGNALLED = 1;
+    private static final int HANDED_OFF = 2;
+    private static final int CANCELLED = 3;
+
+    private final Thread thread = Thread.currentThread();
+    private final long queuedAt = System.nanoTime();
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+    private volatile ResourceHandle resource;
+
+    /**
+     * Parks the current thread until this waiter is released or the timeout expires.
+     *
+     * @param timeout maximum time to wait in milliseconds, 0 to wait until released
+     * @return the resource handed off to this waiter, or null if it was signalled or timed out
+     * @throws InterruptedException if the thread was interrupted before being released
+     */
+    public ResourceHandle await(long timeout) throws InterruptedException {
+        long deadline = timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0L;
+        while (state.get() == WAITING) {
+            if (Thread.interrupted()) {
+                if (cancel()) {
+                    throw new InterruptedException();
+                }
+                // Released concurrently, keep the interrupt for the caller
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (timeout > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    if (cancel()) {
+                        return null;
+                    }
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            } else {
+                LockSupport.park(this);
+            }
+        }
+        return state.get() == HANDED_OFF ? resource : null;
+    }
+
+    /**
+     * Wakes up the waiting thread, which retries to get a resource from the pool.
+     *
+     * @return false if the waiter was already released or cancelled
+     */
+    public boolean signal() {
+        if (state.compareAndSet(WAITING, SIGNALLED)) {
+            LockSupport.unpark(thread);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gives a resource to the waiting thread and wakes it up.
+     *
+     * @param resourceHandle resource which the waiting thread becomes the owner of
+     * @return false if the waiter was already released or cancelled, the resource is then
+     *         still owned by the caller
+     */
+    public boolean handOff(ResourceHandle resourceHandle) {
+        resource = resourceHandle;
+        if (state.compareAndSet(WAITING, HANDED_OFF)) {
+            LockSupport.unpark(thread);
+            return true;
+        }
+        resource = null;
+        return false;
+    }
+
+    /**
+     * Gives up waiting. Only the waiting thread cancels its waiter.
+     *
+     * @return false if the waiter was already released
+     */
+    public boolean cancel() {
+        return state.compareAndSet(WAITING, CANCELLED);
+    }
+
+    /**
+     * @return true if the waiter gave up waiting
+     */
+    public boolean isCancelled() {
+        return state.get() == CANCELLED;
+    }
+
+    /**
+     * @return time elapsed since the waiter was created, in milliseconds
+     */
+    public long getWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAt);
+    }
+
+    @Override
+    public String toString() {
+        return "PoolWaiter[" + thread.getName() + ", state=" + state.get() + "]";
+    }
+}
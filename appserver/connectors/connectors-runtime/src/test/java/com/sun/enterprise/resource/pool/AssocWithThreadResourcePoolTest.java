@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.resource.pool;
+
+import com.sun.appserv.connectors.internal.api.ConnectorRuntimeException;
+import com.sun.appserv.connectors.internal.api.PoolingException;
+import com.sun.enterprise.connectors.ConnectorConnectionPool;
+import com.sun.enterprise.connectors.ConnectorRuntime;
+import com.sun.enterprise.connectors.util.ConnectionPoolObjectsUtils;
+import com.sun.enterprise.deployment.ConnectorDescriptor;
+import com.sun.enterprise.resource.AssocWithThreadResourceHandle;
+import com.sun.enterprise.resource.ResourceHandle;
+import com.sun.enterprise.resource.ResourceSpec;
+import com.sun.enterprise.resource.allocator.ResourceAllocator;
+import com.sun.enterprise.transaction.api.JavaEETransaction;
+
+import jakarta.resource.spi.ManagedConnection;
+import jakarta.transaction.Status;
+import jakarta.transaction.Transaction;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.api.admin.ProcessEnvironment;
+import org.glassfish.api.naming.SimpleJndiName;
+import org.glassfish.internal.api.DelegatingClassLoader;
+import org.glassfish.resourcebase.resources.api.PoolInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class AssocWithThreadResourcePoolTest {
+
+    private static final String POOL_CONFIGURATION = "pool-configuration";
+
+    /**
+     * Long enough for a waiting request to only get the resource if it is woken up.
+     */
+    private static final int MAX_WAIT_TIME_IN_MILLIS = 60_000;
+
+    private AssocWithThreadResourcePool connectionPool;
+    private ResourceSpec resourceSpec;
+    private ResourceAllocator allocator;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void createPool() throws Exception {
+        TestConnectorRuntime connectorRuntime = new TestConnectorRuntime();
+        connectorRuntime.setProcessEnvironment(new ProcessEnvironment());
+        connectorRuntime.postConstruct();
+
+        PoolInfo poolInfo = new PoolInfo(new SimpleJndiName("assocWithThreadPool"));
+        ConnectorConnectionPool configuration = ConnectionPoolObjectsUtils.createDefaultConnectorPoolObject(poolInfo, null);
+        configuration.setSteadyPoolSize("0");
+        configuration.setMaxPoolSize("1");
+        configuration.setMaxWaitTimeInMillis(Integer.toString(MAX_WAIT_TIME_IN_MILLIS));
+        Hashtable<String, Object> env = new Hashtable<>();
+        env.put(POOL_CONFIGURATION, configuration);
+        connectionPool = new TestAssocWithThreadResourcePool(poolInfo, env);
+
+        resourceSpec = new ResourceSpec(new SimpleJndiName("assocWithThreadResource"), ResourceSpec.JNDI_NAME);
+        resourceSpec.setPoolInfo(poolInfo);
+        allocator = new StubResourceAllocator(resourceSpec);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void cleanupPool() {
+        executor.shutdownNow();
+        connectionPool.cancelResizerTask();
+        connectionPool.emptyPool();
+    }
+
+    /**
+     * A resource closed while enlisted stays associated with its thread when the transaction completes, so it is
+     * free without being returned to the pool. A request waiting for a resource must be woken up to take it over.
+     */
+    @Test
+    @Timeout(value = 10)
+    void transactionCompletionWakesUpWaitingRequests() throws Exception {
+        JavaEETransaction transaction = newTransaction();
+        ResourceHandle resource = connectionPool.getResource(resourceSpec, allocator, transaction);
+        connectionPool.resourceEnlisted(transaction, resource);
+        connectionPool.resourceClosed(resource);
+
+        Future<ResourceHandle> waiting = executor.submit(() -> connectionPool.getResource(resourceSpec, allocator, null));
+        while (connectionPool.getWaitQueueLength() == 0) {
+            Thread.sleep(1L);
+        }
+        connectionPool.transactionCompleted(transaction, Status.STATUS_COMMITTED);
+
+        // Taken over by the waiting thread well before its wait time expires
+        assertThat(waiting.get(5, TimeUnit.SECONDS), sameInstance(resource));
+        assertThat(((AssocWithThreadResourceHandle) resource).getThreadId(), not(equalTo(Thread.currentThread().getId())));
+    }
+
+    /**
+     * @return a transaction only keeping the resources enlisted in it
+     */
+    private static JavaEETransaction newTransaction() {
+        Map<Object, Set<?>> resources = new HashMap<>();
+        return (JavaEETransaction) Proxy.newProxyInstance(JavaEETransaction.class.getClassLoader(),
+            new Class<?>[] {JavaEETransaction.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getResources":
+                        return resources.get(args[0]);
+                    case "setResources":
+                        resources.put(args[1], (Set<?>) args[0]);
+                        return null;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "TestTransaction@" + Integer.toHexString(System.identityHashCode(proxy));
+                    default:
+                        return method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+                }
+            });
+    }
+
+    /**
+     * Creates thread associated resources wrapping a plain object, which are always valid and always match.
+     */
+    private static class StubResourceAllocator implements ResourceAllocator {
+
+        private final ResourceSpec resourceSpec;
+
+        StubResourceAllocator(ResourceSpec resourceSpec) {
+            this.resourceSpec = resourceSpec;
+        }
+
+        @Override
+        public ResourceHandle createResource() throws PoolingException {
+            return new AssocWithThreadResourceHandle(new Object(), resourceSpec, this, null);
+        }
+
+        @Override
+        public void fillInResourceObjects(ResourceHandle resource) throws PoolingException {
+        }
+
+        @Override
+        public void closeUserConnection(ResourceHandle resource) throws PoolingException {
+        }
+
+        @Override
+        public void destroyResource(ResourceHandle resource) throws PoolingException {
+        }
+
+        @Override
+        public boolean matchConnection(ResourceHandle h) {
+            return true;
+        }
+
+        @Override
+        public boolean isTransactional() {
+            return true;
+        }
+
+        @Override
+        public void cleanup(ResourceHandle resource) throws PoolingException {
+        }
+
+        @Override
+        public boolean shareableWithinComponent() {
+            return false;
+        }
+
+        @Override
+        public Object getSharedConnection(ResourceHandle h) throws PoolingException {
+            return h.getResource();
+        }
+
+        @Override
+        public Set<ManagedConnection> getInvalidConnections(Set<ManagedConnection> connectionSet) {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public boolean isConnectionValid(ResourceHandle resource) {
+            return true;
+        }
+
+        @Override
+        public boolean hasValidatingMCF() {
+            return false;
+        }
+    }
+
+    private static class TestAssocWithThreadResourcePool extends AssocWithThreadResourcePool {
+
+        TestAssocWithThreadResourcePool(PoolInfo poolInfo, Hashtable<String, Object> env) throws PoolingException {
+            super(poolInfo, env);
+        }
+
+        @Override
+        protected ConnectorConnectionPool getPoolConfigurationFromJndi(Hashtable env) {
+            return (ConnectorConnectionPool) env.get(POOL_CONFIGURATION);
+        }
+    }
+
+    private static class TestConnectorRuntime extends ConnectorRuntime {
+
+        void setProcessEnvironment(ProcessEnvironment processEnvironment) {
+            this.processEnvironment = processEnvironment;
+        }
+
+        @Override
+        public PoolType getPoolType(PoolInfo poolInfo) throws ConnectorRuntimeException {
+            return PoolType.ASSOCIATE_WITH_THREAD_POOL;
+        }
+
+        @Override
+        public ConnectorDescriptor getConnectorDescriptor(String rarName) throws ConnectorRuntimeException {
+            throw new ConnectorRuntimeException("No rar in test");
+        }
+
+        @Override
+        public DelegatingClassLoader getConnectorClassLoader() {
+            return null;
+        }
+
+        @Override
+        public Transaction getTransaction() {
+            return null;
+        }
+    }
+}
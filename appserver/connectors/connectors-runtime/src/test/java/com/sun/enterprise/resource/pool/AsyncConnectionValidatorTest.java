@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package com.sun.enterprise.resource.pool;
+
+import com.sun.appserv.connectors.internal.api.PoolingException;
+import com.sun.enterprise.resource.ResourceHandle;
+import com.sun.enterprise.resource.ResourceState;
+import com.sun.enterprise.resource.allocator.ResourceAllocator;
+import com.sun.enterprise.resource.pool.datastructure.ConcurrentBagDataStructure;
+import com.sun.enterprise.resource.pool.datastructure.DataStructure;
+
+import jakarta.resource.spi.ManagedConnection;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.api.naming.SimpleJndiName;
+import org.glassfish.resourcebase.resources.api.PoolInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncConnectionValidatorTest {
+
+    private static final int STEADY_POOL_SIZE = 3;
+    private static final int MAX_POOL_SIZE = 10;
+    private static final long IDLE_THRESHOLD = 60_000L;
+
+    private final Set<ResourceHandle> invalidResources = ConcurrentHashMap.newKeySet();
+    private final Set<ResourceHandle> validatedResources = ConcurrentHashMap.newKeySet();
+    private final Set<ResourceHandle> deletedResources = ConcurrentHashMap.newKeySet();
+    private final TestResourceHandler handler = new TestResourceHandler();
+
+    private DataStructure dataStructure;
+    private AsyncConnectionValidator validator;
+
+    @BeforeEach
+    public void createValidator() throws Exception {
+        dataStructure = new ConcurrentBagDataStructure(null, MAX_POOL_SIZE, handler, null);
+        dataStructure.addResource(null, STEADY_POOL_SIZE);
+
+        PoolInfo poolInfo = new PoolInfo(new SimpleJndiName("test-pool"));
+        validator = new AsyncConnectionValidator(poolInfo, dataStructure, new TestPoolProperties(), handler, h -> {
+            validatedResources.add(h);
+            return !invalidResources.contains(h);
+        }, dataStructure::returnResource, IDLE_THRESHOLD);
+    }
+
+    @AfterEach
+    public void cancelValidator() {
+        validator.cancel();
+    }
+
+    @Test
+    public void testValidatesOnlyIdleResources() {
+        List<ResourceHandle> resources = dataStructure.getAllResources();
+        long now = System.currentTimeMillis();
+        resources.get(0).setLastValidated(now + IDLE_THRESHOLD);
+
+        assertEquals(0, validator.validateIdleResources(now + IDLE_THRESHOLD));
+        assertEquals(2, validatedResources.size());
+        assertFalse(validatedResources.contains(resources.get(0)));
+        assertEquals(STEADY_POOL_SIZE, dataStructure.getFreeListSize());
+    }
+
+    @Test
+    public void testOtherResourcesStayFreeDuringValidation() {
+        Set<Integer> freeDuringValidation = ConcurrentHashMap.newKeySet();
+        validator.cancel();
+        validator = new AsyncConnectionValidator(new PoolInfo(new SimpleJndiName("test-pool")), dataStructure,
+            new TestPoolProperties(), handler, h -> {
+                validatedResources.add(h);
+                freeDuringValidation.add(dataStructure.getFreeListSize());
+                return true;
+            }, dataStructure::returnResource, IDLE_THRESHOLD);
+
+        assertEquals(0, validator.validateIdleResources(System.currentTimeMillis() + IDLE_THRESHOLD));
+        assertEquals(STEADY_POOL_SIZE, validatedResources.size());
+        assertEquals(Set.of(STEADY_POOL_SIZE - 1), freeDuringValidation);
+        assertEquals(STEADY_POOL_SIZE, dataStructure.getFreeListSize());
+    }
+
+    @Test
+    public void testSkipsResourcesInUse() {
+        ResourceHandle inUse = dataStructure.getResource();
+
+        assertEquals(0, validator.validateIdleResources(System.currentTimeMillis() + IDLE_THRESHOLD));
+        assertEquals(STEADY_POOL_SIZE - 1, validatedResources.size());
+        assertFalse(validatedResources.contains(inUse));
+        assertEquals(STEADY_POOL_SIZE - 1, dataStructure.getFreeListSize());
+    }
+
+    @Test
+    public void testSkipsResourcesOfCustomDataStructures() {
+        validator.cancel();
+        validator = new AsyncConnectionValidator(new PoolInfo(new SimpleJndiName("test-pool")),
+            new CustomDataStructure(dataStructure), new TestPoolProperties(), handler, h -> {
+                validatedResources.add(h);
+                return true;
+            }, dataStructure::returnResource, IDLE_THRESHOLD);
+
+        assertEquals(0, validator.validateIdleResources(System.currentTimeMillis() + IDLE_THRESHOLD));
+        assertTrue(validatedResources.isEmpty());
+        assertEquals(STEADY_POOL_SIZE, dataStructure.getFreeListSize());
+    }
+
+    @Test
+    public void testSweepStopsAfterItsBudget() {
+        // validations of 50 ms, in sweeps of at most 20 ms
+        validator.cancel();
+        validator = new AsyncConnectionValidator(new PoolInfo(new SimpleJndiName("test-pool")), dataStructure,
+            new TestPoolProperties(), handler, h -> {
+                validatedResources.add(h);
+                try {
+                    Thread.sleep(50L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }, dataStructure::returnResource, 80L);
+
+        assertEquals(0, validator.validateIdleResources(System.currentTimeMillis() + IDLE_THRESHOLD));
+        assertEquals(1, validatedResources.size());
+        assertEquals(STEADY_POOL_SIZE, dataStructure.getFreeListSize());
+    }
+
+    @Test
+    public void testReplacesInvalidResources() {
+        ResourceHandle invalid = dataStructure.getAllResources().get(1);
+        invalidResources.add(invalid);
+
+        assertEquals(1, validator.validateIdleResources(System.currentTimeMillis() + IDLE_THRESHOLD));
+        assertTrue(deletedResources.contains(invalid));
+        assertFalse(dataStructure.getAllResources().contains(invalid));
+        // replaced to keep the steady pool size
+        assertEquals(STEADY_POOL_SIZE, dataStructure.getResourcesSize());
+        assertEquals(STEADY_POOL_SIZE, dataStructure.getFreeListSize());
+    }
+
+    @Test
+    public void testQuarantine() throws Exception {
+        ResourceHandle invalid = dataStructure.getResource();
+        CountDownLatch created = handler.expectCreation();
+
+        validator.quarantine(invalid);
+
+        assertTrue(created.await(10, TimeUnit.SECONDS));
+        assertTrue(deletedResources.contains(invalid));
+        assertEquals(STEADY_POOL_SIZE, dataStructure.getResourcesSize());
+    }
+
+    @Test
+    public void testIsIdle() {
+        ResourceHandle resource = dataStructure.getAllResources().get(0);
+        long lastUsed = resource.getResourceState().getTimestamp();
+        assertFalse(validator.isIdle(resource, lastUsed + IDLE_THRESHOLD - 1));
+        assertTrue(validator.isIdle(resource, lastUsed + IDLE_THRESHOLD));
+
+        resource.setLastValidated(lastUsed + 1000L);
+        assertFalse(validator.isIdle(resource, lastUsed + IDLE_THRESHOLD));
+        assertTrue(validator.isIdle(resource, lastUsed + 1000L + IDLE_THRESHOLD));
+    }
+
+    private class TestResourceHandler implements ResourceHandler {
+
+        private volatile CountDownLatch creation = new CountDownLatch(0);
+
+        CountDownLatch expectCreation() {
+            creation = new CountDownLatch(1);
+            return creation;
+        }
+
+        @Override
+        public void deleteResource(ResourceHandle resourceHandle) {
+            deletedResources.add(resourceHandle);
+        }
+
+        @Override
+        public ResourceHandle createResource(ResourceAllocator allocator) {
+            ResourceHandle resource = new ResourceHandle(null, null, allocator, null);
+            resource.setResourceState(new ResourceState());
+            return resource;
+        }
+
+        @Override
+        public void createResourceAndAddToPool() throws PoolingException {
+            dataStructure.addResource(null, 1);
+            creation.countDown();
+        }
+
+        @Override
+        public Set<ManagedConnection> getInvalidConnections(Set<ManagedConnection> connections) {
+            return Set.of();
+        }
+
+        @Override
+        public void invalidConnectionDetected(ResourceHandle h) {
+        }
+    }
+
+    private class TestPoolProperties implements PoolProperties {
+
+        @Override
+        public int getMaxPoolSize() {
+            return MAX_POOL_SIZE;
+        }
+
+        @Override
+        public int getResizeQuantity() {
+            return 1;
+        }
+
+        @Override
+        public long getIdleTimeout() {
+            return IDLE_THRESHOLD;
+        }
+
+        @Override
+        public int getWaitQueueLength() {
+            return 0;
+        }
+
+        @Override
+        public int getSteadyPoolSize() {
+            return STEADY_POOL_SIZE;
+        }
+    }
+
+    /**
+     * A data structure written before {@link DataStructure#takeResource(ResourceHandle)} existed.
+     */
+    private static class CustomDataStructure implements DataStructure {
+
+        private final DataStructure delegate;
+
+        CustomDataStructure(DataStructure delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void setMaxSize(int maxSize) {
+            delegate.setMaxSize(maxSize);
+        }
+
+        @Override
+        public int addResource(ResourceAllocator allocator, int count) throws PoolingException {
+            return delegate.addResource(allocator, count);
+        }
+
+        @Override
+        public ResourceHandle getResource() {
+            return delegate.getResource();
+        }
+
+        @Override
+        public void removeResource(ResourceHandle resource) {
+            delegate.removeResource(resource);
+        }
+
+        @Override
+        public void returnResource(ResourceHandle resource) {
+            delegate.returnResource(resource);
+        }
+
+        @Override
+        public int getFreeListSize() {
+            return delegate.getFreeListSize();
+        }
+
+        @Override
+        public void removeAll() {
+            delegate.removeAll();
+        }
+
+        @Override
+        public int getResourcesSize() {
+            return delegate.getResourcesSize();
+        }
+
+        @Override
+        public List<ResourceHandle> getAllResources() {
+            return delegate.getAllResources();
+        }
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.resource.pool;
+
+import com.sun.appserv.connectors.internal.api.ConnectorRuntimeException;
+import com.sun.appserv.connectors.internal.api.PoolingException;
+import com.sun.enterprise.connectors.ConnectorConnectionPool;
+import com.sun.enterprise.connectors.ConnectorRuntime;
+import com.sun.enterprise.connectors.util.ConnectionPoolObjectsUtils;
+import com.sun.enterprise.deployment.ConnectorDescriptor;
+import com.sun.enterprise.resource.AssocWithThreadResourceHandle;
+import com.sun.enterprise.resource.ResourceHandle;
+import com.sun.enterprise.resource.ResourceSpec;
+import com.sun.enterprise.resource.allocator.ResourceAllocator;
+import com.sun.enterprise.resource.pool.datastructure.ConcurrentBagDataStructure;
+import com.sun.enterprise.resource.pool.datastructure.RWLockDataStructure;
+import com.sun.enterprise.transaction.api.JavaEETransaction;
+
+import jakarta.resource.spi.ManagedConnection;
+import jakarta.transaction.Status;
+import jakarta.transaction.Transaction;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.api.admin.ProcessEnvironment;
+import org.glassfish.api.naming.SimpleJndiName;
+import org.glassfish.internal.api.DelegatingClassLoader;
+import org.glassfish.resourcebase.resources.api.PoolInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * Measures a request borrowing a resource from the pool, holding it and returning it, outside of a
+ * transaction and inside one, in which case the resource is enlisted and only returned to the pool when
+ * the transaction completes.
+ * <p>
+ * The resources are created by a stub allocator, so that only the cost of the pool itself is measured.
+ * The benchmarks run for each pool implementation, pool size, hold time and with and without connection
+ * matching, and report the throughput, the latency percentiles and, through the GC profiler, the
+ * allocation rate per operation.
+ * <p>
+ * The measurement times are kept short and the parameters restricted, so that the benchmark can run with
+ * the tests. Increase the times and remove the parameter overrides to get representative results.
+ */
+public class ConnectionPoolBenchmarkTest {
+
+    private static final String POOL_CONFIGURATION = "pool-configuration";
+
+    private static final ThreadLocal<JavaEETransaction> CURRENT_TRANSACTION = new ThreadLocal<>();
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 16})
+    public void borrowAndReturn(int threads) throws Exception {
+        Options options = new OptionsBuilder()
+            .include(getClass().getName() + ".*")
+            .warmupIterations(1).warmupTime(TimeValue.milliseconds(200L))
+            .measurementIterations(1).measurementTime(TimeValue.milliseconds(500L))
+            .forks(1).threads(threads).timeout(TimeValue.seconds(10L))
+            .timeUnit(TimeUnit.MICROSECONDS)
+            .param("poolSize", "8")
+            .param("holdTime", "0")
+            .param("matching", "false")
+            .addProfiler(GCProfiler.class)
+            .shouldFailOnError(true)
+            .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+        // 2 benchmarks, 2 modes, 3 pool implementations
+        assertThat(results, hasSize(12));
+    }
+
+    /**
+     * The pool, created once for all the threads of a run.
+     */
+    @State(Scope.Benchmark)
+    public static class Pool {
+
+        /**
+         * The data structure of a standard pool, or a pool associating the resources with the threads.
+         */
+        @Param({"RWLockDataStructure", "ConcurrentBagDataStructure", "AssocWithThread"})
+        public String pool;
+
+        @Param({"8", "64"})
+        public int poolSize;
+
+        /**
+         * The time a resource is held, in {@link Blackhole#consumeCPU(long)} tokens.
+         */
+        @Param({"0", "1000"})
+        public long holdTime;
+
+        @Param({"false", "true"})
+        public boolean matching;
+
+        ConnectionPool connectionPool;
+        ResourceSpec resourceSpec;
+        ResourceAllocator allocator;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            BenchmarkConnectorRuntime connectorRuntime = new BenchmarkConnectorRuntime();
+            connectorRuntime.setProcessEnvironment(new ProcessEnvironment());
+            connectorRuntime.postConstruct();
+
+            PoolInfo poolInfo = new PoolInfo(new SimpleJndiName("benchmarkPool"));
+            ConnectorConnectionPool configuration = ConnectionPoolObjectsUtils.createDefaultConnectorPoolObject(poolInfo, null);
+            configuration.setSteadyPoolSize(Integer.toString(poolSize));
+            configuration.setMaxPoolSize(Integer.toString(poolSize));
+            // Wait until a resource is free, whatever the number of threads
+            configuration.setMaxWaitTimeInMillis("0");
+            configuration.setMatchConnections(matching);
+
+            Hashtable<String, Object> env = new Hashtable<>();
+            env.put(POOL_CONFIGURATION, configuration);
+            boolean associateWithThread = false;
+            switch (pool) {
+                case "RWLockDataStructure":
+                    configuration.setPoolDataStructureType(RWLockDataStructure.class.getName());
+                    connectionPool = new BenchmarkConnectionPool(poolInfo, env);
+                    break;
+                case "ConcurrentBagDataStructure":
+                    configuration.setPoolDataStructureType(ConcurrentBagDataStructure.class.getName());
+                    connectionPool = new BenchmarkConnectionPool(poolInfo, env);
+                    break;
+                case "AssocWithThread":
+                    connectionPool = new BenchmarkAssocWithThreadResourcePool(poolInfo, env);
+                    associateWithThread = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown pool: " + pool);
+            }
+
+            resourceSpec = new ResourceSpec(new SimpleJndiName("benchmarkResource"), ResourceSpec.JNDI_NAME);
+            resourceSpec.setPoolInfo(poolInfo);
+            allocator = new StubResourceAllocator(resourceSpec, associateWithThread);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            connectionPool.cancelResizerTask();
+            connectionPool.emptyPool();
+        }
+    }
+
+    /**
+     * The transaction of a thread, completed at the end of each operation.
+     */
+    @State(Scope.Thread)
+    public static class ThreadTransaction {
+
+        JavaEETransaction transaction;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            transaction = newTransaction();
+            CURRENT_TRANSACTION.set(transaction);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            CURRENT_TRANSACTION.remove();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    public void borrow(Pool pool) throws Exception {
+        ResourceHandle resource = pool.connectionPool.getResource(pool.resourceSpec, pool.allocator, null);
+        Blackhole.consumeCPU(pool.holdTime);
+        pool.connectionPool.resourceClosed(resource);
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    public void borrowInTransaction(Pool pool, ThreadTransaction transaction) throws Exception {
+        JavaEETransaction tx = transaction.transaction;
+        ResourceHandle resource = pool.connectionPool.getResource(pool.resourceSpec, pool.allocator, tx);
+        pool.connectionPool.resourceEnlisted(tx, resource);
+        Blackhole.consumeCPU(pool.holdTime);
+        pool.connectionPool.resourceClosed(resource);
+        pool.connectionPool.transactionCompleted(tx, Status.STATUS_COMMITTED);
+    }
+
+    /**
+     * @return a transaction only keeping the resources enlisted in it
+     */
+    private static JavaEETransaction newTransaction() {
+        Map<Object, Set<?>> resources = new HashMap<>();
+        return (JavaEETransaction) Proxy.newProxyInstance(JavaEETransaction.class.getClassLoader(),
+            new Class<?>[] {JavaEETransaction.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getResources":
+                        return resources.get(args[0]);
+                    case "setResources":
+                        resources.put(args[1], (Set<?>) args[0]);
+                        return null;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "BenchmarkTransaction@" + Integer.toHexString(System.identityHashCode(proxy));
+                    default:
+                        return method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+                }
+            });
+    }
+
+    /**
+     * Creates resources wrapping a plain object, which are always valid and always match.
+     */
+    private static class StubResourceAllocator implements ResourceAllocator {
+
+        private final ResourceSpec resourceSpec;
+        private final boolean associateWithThread;
+
+        StubResourceAllocator(ResourceSpec resourceSpec, boolean associateWithThread) {
+            this.resourceSpec = resourceSpec;
+            this.associateWithThread = associateWithThread;
+        }
+
+        @Override
+        public ResourceHandle createResource() throws PoolingException {
+            if (associateWithThread) {
+                return new AssocWithThreadResourceHandle(new Object(), resourceSpec, this, null);
+            }
+            return new ResourceHandle(new Object(), resourceSpec, this, null);
+        }
+
+        @Override
+        public void fillInResourceObjects(ResourceHandle resource) throws PoolingException {
+        }
+
+        @Override
+        public void closeUserConnection(ResourceHandle resource) throws PoolingException {
+        }
+
+        @Override
+        public void destroyResource(ResourceHandle resource) throws PoolingException {
+        }
+
+        @Override
+        public boolean matchConnection(ResourceHandle h) {
+            return true;
+        }
+
+        @Override
+        public boolean isTransactional() {
+            return true;
+        }
+
+        @Override
+        public void cleanup(ResourceHandle resource) throws PoolingException {
+        }
+
+        @Override
+        public boolean shareableWithinComponent() {
+            return false;
+        }
+
+        @Override
+        public Object getSharedConnection(ResourceHandle h) throws PoolingException {
+            return h.getResource();
+        }
+
+        @Override
+        public Set<ManagedConnection> getInvalidConnections(Set<ManagedConnection> connectionSet) {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public boolean isConnectionValid(ResourceHandle resource) {
+            return true;
+        }
+
+        @Override
+        public boolean hasValidatingMCF() {
+            return false;
+        }
+    }
+
+    private static class BenchmarkConnectionPool extends ConnectionPool {
+
+        BenchmarkConnectionPool(PoolInfo poolInfo, Hashtable<String, Object> env) throws PoolingException {
+            super(poolInfo, env);
+        }
+
+        @Override
+        protected ConnectorConnectionPool getPoolConfigurationFromJndi(Hashtable env) {
+            return (ConnectorConnectionPool) env.get(POOL_CONFIGURATION);
+        }
+    }
+
+    private static class BenchmarkAssocWithThreadResourcePool extends AssocWithThreadResourcePool {
+
+        BenchmarkAssocWithThreadResourcePool(PoolInfo poolInfo, Hashtable<String, Object> env) throws PoolingException {
+            super(poolInfo, env);
+        }
+
+        @Override
+        protected ConnectorConnectionPool getPoolConfigurationFromJndi(Hashtable env) {
+            return (ConnectorConnectionPool) env.get(POOL_CONFIGURATION);
+        }
+    }
+
+    private static class BenchmarkConnectorRuntime extends ConnectorRuntime {
+
+        void setProcessEnvironment(ProcessEnvironment processEnvironment) {
+            this.processEnvironment = processEnvironment;
+        }
+
+        @Override
+        public PoolType getPoolType(PoolInfo poolInfo) throws ConnectorRuntimeException {
+            return PoolType.STANDARD_POOL;
+        }
+
+        @Override
+        public ConnectorDescriptor getConnectorDescriptor(String rarName) throws ConnectorRuntimeException {
+            throw new ConnectorRuntimeException("No rar in benchmark");
+        }
+
+        @Override
+        public DelegatingClassLoader getConnectorClassLoader() {
+            return null;
+        }
+
+        @Override
+        public Transaction getTransaction() {
+            return CURRENT_TRANSACTION.get();
+        }
+    }
+}
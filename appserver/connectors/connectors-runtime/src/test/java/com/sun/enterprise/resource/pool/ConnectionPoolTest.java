@@ -405,6 +405,107 @@ public class ConnectionPoolTest {
         assertEquals(taskCount, usedResouceHandles.size());
     }
 
+    /**
+     * A resource freed while a request waits for one is handed off to the waiting request, and cannot be taken by
+     * a request arriving in the meantime.
+     */
+    @Test
+    @Timeout(value = 10)
+    void handOffToWaitingThreadTest() throws Exception {
+        createConnectionPool(1, 5000, 1);
+
+        ResourceAllocator alloc = new LocalTxConnectorAllocator(null, managedConnectionFactory, resourceSpec, null,
+                null, null, null, false);
+
+        ResourceHandle resource = connectionPool.getResource(resourceSpec, alloc, javaEETransaction);
+        assertNotNull(resource);
+
+        ExecutorService threadPool = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResourceHandle> waiting = threadPool.submit(() -> connectionPool.getResource(resourceSpec, alloc, javaEETransaction));
+            while (connectionPool.getWaitQueueLength() == 0) {
+                Thread.sleep(1);
+            }
+
+            connectionPool.resourceClosed(resource);
+
+            // The resource was not put back to the free list
+            assertEquals(0, connectionPool.dataStructure.getFreeListSize());
+            ResourceHandle handedOff = waiting.get();
+            assertEquals(resource, handedOff);
+            assertResourceIsBusy(handedOff);
+            assertEquals(0, connectionPool.getWaitQueueLength());
+
+            connectionPool.resourceClosed(handedOff);
+            assertResourceIsNotBusy(handedOff);
+            assertEquals(1, connectionPool.dataStructure.getFreeListSize());
+        } finally {
+            threadPool.shutdownNow();
+        }
+
+        cleanupConnectionPool();
+    }
+
+    /**
+     * Many short-lived threads, virtual ones when the runtime has them, share a small pool. None of them may pin
+     * the pool, and the pool never grows beyond its maximum size.
+     */
+    @Test
+    @Timeout(value = 60)
+    void manyShortLivedThreadsTest() throws Exception {
+        int maxConnectionPoolSize = 50;
+        createConnectionPool(maxConnectionPoolSize, 0, 1);
+
+        ResourceAllocator alloc = new LocalTxConnectorAllocator(null, managedConnectionFactory, resourceSpec, null,
+                null, null, null, false);
+
+        final Set<ResourceHandle> usedResourceHandles = Collections.synchronizedSet(new HashSet<>());
+        AtomicInteger numberOfThreadsFinished = new AtomicInteger();
+
+        int taskCount = 10_000;
+        List<Callable<Void>> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(() -> {
+                ResourceHandle resource = connectionPool.getResource(resourceSpec, alloc, javaEETransaction);
+                assertNotNull(resource);
+                usedResourceHandles.add(resource);
+                Thread.yield();
+                connectionPool.resourceClosed(resource);
+                numberOfThreadsFinished.incrementAndGet();
+                return null;
+            });
+        }
+
+        ExecutorService threadPool = newThreadPerTaskExecutor();
+        try {
+            List<Future<Void>> futures = threadPool.invokeAll(tasks, 50, TimeUnit.SECONDS);
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            threadPool.shutdownNow();
+        }
+
+        assertEquals(taskCount, numberOfThreadsFinished.get());
+        assertEquals(0, connectionPool.getWaitQueueLength());
+        assertTrue(usedResourceHandles.size() <= maxConnectionPoolSize, "failed, size=" + usedResourceHandles.size());
+        assertEquals(usedResourceHandles.size(), connectionPool.dataStructure.getFreeListSize());
+
+        cleanupConnectionPool();
+    }
+
+    /**
+     * @return an executor starting a virtual thread per task, or a pool of platform threads if the runtime has no
+     *         virtual threads
+     */
+    private static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(200);
+        }
+    }
+
     private void runTheTasks(List<Callable<Void>> tasks) throws Exception {
         ExecutorService threadPool = Executors.newFixedThreadPool(1000);
         List<Future<Void>> futures = threadPool.invokeAll(tasks, 30, TimeUnit.SECONDS);
@@ -47,10 +47,13 @@ import static org.easymock.EasyMock.createNiceMock;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -292,6 +295,30 @@ public class RWLockDataStructureTest {
         threadPool.shutdownNow();
     }
 
+    @Test
+    public void testTakeResource() throws PoolingException {
+
+        DataStructure dataStructure = new RWLockDataStructure(null, RESOURCE_COUNT, handler, null);
+        assertThat("Add Resources", dataStructure.addResource(allocator, 2), equalTo(2));
+
+        ResourceHandle resource = dataStructure.getAllResources().get(0);
+        assertTrue(dataStructure.takeResource(resource));
+        assertFalse(dataStructure.takeResource(resource));
+        assertThat("Free List Size", dataStructure.getFreeListSize(), equalTo(1));
+
+        ResourceHandle other = dataStructure.getResource();
+        assertThat(other, not(sameInstance(resource)));
+        assertThat(dataStructure.getResource(), nullValue());
+        assertFalse(dataStructure.takeResource(other));
+
+        dataStructure.returnResource(resource);
+        assertThat("Free List Size", dataStructure.getFreeListSize(), equalTo(1));
+        assertTrue(dataStructure.takeResource(resource));
+
+        dataStructure.removeResource(resource);
+        assertFalse(dataStructure.takeResource(resource));
+    }
+
     @Test
     public void testRemoveAll() throws PoolingException {
 
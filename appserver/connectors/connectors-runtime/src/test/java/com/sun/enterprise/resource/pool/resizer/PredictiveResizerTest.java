@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.resource.pool.resizer;
+
+import com.sun.enterprise.resource.ResourceHandle;
+import com.sun.enterprise.resource.pool.PoolProperties;
+import com.sun.enterprise.resource.pool.ResourceHandler;
+import com.sun.enterprise.resource.pool.datastructure.DataStructure;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.glassfish.api.naming.SimpleJndiName;
+import org.glassfish.resourcebase.resources.api.PoolInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PredictiveResizerTest {
+
+    private static final int STEADY_POOL_SIZE = 2;
+    private static final int MAX_POOL_SIZE = 10;
+    private static final int RESIZE_QUANTITY = 2;
+
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger free = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private PredictiveResizer resizer;
+
+    @BeforeEach
+    public void createResizer() throws Exception {
+        DataStructure dataStructure = createNiceMock(DataStructure.class);
+        expect(dataStructure.getResourcesSize()).andAnswer(size::get).anyTimes();
+        expect(dataStructure.getFreeListSize()).andAnswer(free::get).anyTimes();
+        expect(dataStructure.getResource()).andAnswer(() -> {
+            if (free.get() == 0) {
+                return null;
+            }
+            free.decrementAndGet();
+            return createNiceMock(ResourceHandle.class);
+        }).anyTimes();
+        dataStructure.removeResource(anyObject(ResourceHandle.class));
+        expectLastCall().andAnswer(() -> {
+            size.decrementAndGet();
+            return null;
+        }).anyTimes();
+
+        ResourceHandler handler = createNiceMock(ResourceHandler.class);
+        handler.createResourceAndAddToPool();
+        expectLastCall().andAnswer(() -> {
+            size.incrementAndGet();
+            free.incrementAndGet();
+            return null;
+        }).anyTimes();
+        replay(dataStructure, handler);
+
+        PoolInfo poolInfo = new PoolInfo(new SimpleJndiName("test-pool"));
+        resizer = new PredictiveResizer(poolInfo, dataStructure, new TestPoolProperties(), handler, false);
+    }
+
+    @AfterEach
+    public void cancelResizer() {
+        resizer.cancel();
+    }
+
+    @Test
+    public void testGrowsAheadOfWaitingRequests() {
+        size.set(4);
+        free.set(0);
+        waiting.set(3);
+
+        // 4 in use and 3 waiting, plus the resize quantity
+        assertEquals(9, resizer.sample(nextSampleTime()));
+        resizer.growPool();
+        assertEquals(9, size.get());
+        assertEquals(5, free.get());
+    }
+
+    @Test
+    public void testGrowsWithAcquireRate() {
+        size.set(4);
+        free.set(2);
+        for (int i = 0; i < 10; i++) {
+            resizer.resourceAcquired();
+        }
+
+        // 2 in use, plus the resize quantity as the acquire rate grows
+        assertEquals(4, resizer.sample(nextSampleTime()));
+    }
+
+    @Test
+    public void testTargetIsBounded() {
+        size.set(MAX_POOL_SIZE);
+        free.set(0);
+        waiting.set(20);
+        assertEquals(MAX_POOL_SIZE, resizer.sample(nextSampleTime()));
+
+        size.set(4);
+        free.set(4);
+        waiting.set(0);
+        // the average demand decreases sample after sample
+        int target = MAX_POOL_SIZE;
+        for (int i = 0; i < 20; i++) {
+            target = resizer.sample(nextSampleTime() + i * 1000L);
+        }
+        assertEquals(STEADY_POOL_SIZE, target);
+    }
+
+    @Test
+    public void testShrinksGradually() {
+        size.set(8);
+        free.set(8);
+        assertEquals(STEADY_POOL_SIZE, resizer.sample(nextSampleTime()));
+
+        resizer.shrinkPool();
+        assertEquals(7, size.get());
+        resizer.shrinkPool();
+        assertEquals(6, size.get());
+    }
+
+    @Test
+    public void testDoesNotShrinkBelowDemand() {
+        size.set(8);
+        free.set(1);
+        // 7 in use
+        assertEquals(7, resizer.sample(nextSampleTime()));
+        resizer.shrinkPool();
+        assertEquals(7, size.get());
+        resizer.shrinkPool();
+        assertEquals(7, size.get());
+    }
+
+    private static long nextSampleTime() {
+        return System.currentTimeMillis() + PredictiveResizer.DEFAULT_SAMPLE_PERIOD;
+    }
+
+    private class TestPoolProperties implements PoolProperties {
+
+        @Override
+        public int getMaxPoolSize() {
+            return MAX_POOL_SIZE;
+        }
+
+        @Override
+        public int getResizeQuantity() {
+            return RESIZE_QUANTITY;
+        }
+
+        @Override
+        public long getIdleTimeout() {
+            return 60_000L;
+        }
+
+        @Override
+        public int getWaitQueueLength() {
+            return waiting.get();
+        }
+
+        @Override
+        public int getSteadyPoolSize() {
+            return STEADY_POOL_SIZE;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.resource.pool.waitqueue;
+
+import com.sun.enterprise.resource.ResourceHandle;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentPoolWaitQueueTest {
+
+    @Test
+    public void testFifoOrder() {
+        PoolWaitQueue queue = new ConcurrentPoolWaitQueue();
+        Object first = new Object();
+        Object second = new Object();
+        Object third = new Object();
+        queue.addToQueue(first);
+        queue.addToQueue(second);
+        queue.addToQueue(third);
+
+        assertAll(
+            () -> assertThat(queue.getQueueLength(), equalTo(3)),
+            () -> assertThat(queue.peek(), sameInstance(first)),
+            () -> assertThat(new ArrayList<Object>(queue.getQueueContents()), contains(first, second, third))
+        );
+
+        assertTrue(queue.removeFromQueue(second));
+        assertFalse(queue.removeFromQueue(second));
+        assertAll(
+            () -> assertThat(queue.getQueueLength(), equalTo(2)),
+            () -> assertThat(queue.remove(), sameInstance(first)),
+            () -> assertThat(queue.remove(), sameInstance(third)),
+            () -> assertThat(queue.remove(), nullValue()),
+            () -> assertThat(queue.getQueueLength(), equalTo(0))
+        );
+    }
+
+    @Test
+    public void testRequeue() {
+        PoolWaitQueue queue = new ConcurrentPoolWaitQueue();
+        Object first = new Object();
+        Object second = new Object();
+        queue.addToQueue(first);
+        queue.addToQueue(second);
+        queue.removeFromQueue(first);
+        queue.addToQueue(first);
+
+        assertAll(
+            () -> assertThat(queue.remove(), sameInstance(second)),
+            () -> assertThat(queue.remove(), sameInstance(first)),
+            () -> assertThat(queue.remove(), nullValue())
+        );
+    }
+
+    @Test
+    public void testManyCancellations() {
+        PoolWaitQueue queue = new ConcurrentPoolWaitQueue();
+        Object oldest = new Object();
+        queue.addToQueue(oldest);
+        for (int i = 0; i < 10_000; i++) {
+            Object waiter = new Object();
+            queue.addToQueue(waiter);
+            queue.removeFromQueue(waiter);
+        }
+
+        assertAll(
+            () -> assertThat(queue.getQueueLength(), equalTo(1)),
+            () -> assertThat(queue.remove(), sameInstance(oldest)),
+            () -> assertThat(queue.remove(), nullValue())
+        );
+    }
+
+    @Test
+    @Timeout(10)
+    public void testWaiter() throws Exception {
+        ResourceHandle resource = createNiceMock(ResourceHandle.class);
+        ExecutorService threadPool = Executors.newSingleThreadExecutor();
+        try {
+            PoolWaitQueue queue = new ConcurrentPoolWaitQueue();
+            Future<ResourceHandle> handedOff = threadPool.submit(() -> {
+                PoolWaiter waiter = new PoolWaiter();
+                queue.addToQueue(waiter);
+                return waiter.await(0);
+            });
+            PoolWaiter waiter = pollWaiter(queue);
+            assertTrue(waiter.handOff(resource));
+            assertAll(
+                () -> assertThat(handedOff.get(), sameInstance(resource)),
+                () -> assertFalse(waiter.handOff(resource)),
+                () -> assertFalse(waiter.signal()),
+                () -> assertFalse(waiter.cancel())
+            );
+
+            Future<ResourceHandle> signalled = threadPool.submit(() -> {
+                PoolWaiter signalledWaiter = new PoolWaiter();
+                queue.addToQueue(signalledWaiter);
+                return signalledWaiter.await(0);
+            });
+            assertTrue(pollWaiter(queue).signal());
+            assertThat(signalled.get(), nullValue());
+        } finally {
+            threadPool.shutdownNow();
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    public void testWaiterTimeout() throws Exception {
+        ResourceHandle resource = createNiceMock(ResourceHandle.class);
+        PoolWaiter waiter = new PoolWaiter();
+
+        assertThat(waiter.await(50L), nullValue());
+        assertAll(
+            () -> assertTrue(waiter.isCancelled()),
+            () -> assertThat(waiter.getWaitTime(), greaterThanOrEqualTo(50L)),
+            () -> assertFalse(waiter.handOff(resource)),
+            () -> assertFalse(waiter.signal())
+        );
+    }
+
+    @Test
+    @Timeout(10)
+    public void testWaiterInterrupted() throws Exception {
+        PoolWaiter waiter = new PoolWaiter();
+        Thread.currentThread().interrupt();
+
+        assertThrows(InterruptedException.class, () -> waiter.await(0));
+        assertTrue(waiter.isCancelled());
+    }
+
+    private static PoolWaiter pollWaiter(PoolWaitQueue queue) throws InterruptedException {
+        while (queue.getQueueLength() == 0) {
+            TimeUnit.MILLISECONDS.sleep(1L);
+        }
+        return (PoolWaiter) queue.remove();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.connectors.work;
+
+import jakarta.resource.spi.work.WorkException;
+import jakarta.resource.spi.work.WorkRejectedException;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the work on a bounded pool of platform threads owned by the work manager.
+ * <p>
+ * The work waiting for a thread is queued in two lanes: the work of {@code doWork} and
+ * {@code startWork}, whose submitters are blocked until it starts, is taken before the work of
+ * {@code scheduleWork}. Within a lane, the work is taken in submission order. Idle threads end
+ * after a minute.
+ */
+final class BoundedWorkExecutor implements WorkExecutor {
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param raName name of the resource adapter, used to name the threads
+     * @param maxThreads maximum number of threads
+     */
+    BoundedWorkExecutor(String raName, int maxThreads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            new PriorityBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, raName + "-work-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(OneWork work, int waitMode) throws WorkRejectedException {
+        execute(work::doWork, waitMode != WorkCoordinator.NO_WAIT);
+    }
+
+    /**
+     * @param task the task to run
+     * @param awaited whether the submitter is blocked until the task starts or finishes, such a task is run before
+     *            the tasks queued by submitters that do not wait
+     */
+    void execute(Runnable task, boolean awaited) throws WorkRejectedException {
+        try {
+            executor.execute(new QueuedWork(task, awaited, sequence.incrementAndGet()));
+        } catch (RejectedExecutionException e) {
+            WorkRejectedException we = new WorkRejectedException(e.getMessage(), WorkException.INTERNAL);
+            we.initCause(e);
+            throw we;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Work ordered by lane, and then by submission.
+     */
+    private static final class QueuedWork implements Runnable, Comparable<QueuedWork> {
+
+        private final Runnable task;
+        private final boolean awaited;
+        private final long sequence;
+
+        QueuedWork(Runnable task, boolean awaited, long sequence) {
+            this.task = task;
+            this.awaited = awaited;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public int compareTo(QueuedWork other) {
+            if (awaited != other.awaited) {
+                return awaited ? -1 : 1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
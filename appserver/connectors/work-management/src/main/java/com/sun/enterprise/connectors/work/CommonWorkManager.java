@@ -47,14 +47,32 @@ import org.glassfish.logging.annotation.LogMessageInfo;
 
 /**
  * WorkManager implementation.
+ * <p>
+ * The work runs on the executor named by the system property {@value #WORK_EXECUTOR}:
+ * <ul>
+ * <li>{@value #THREAD_POOL_EXECUTOR}, the default: the ORB thread pool of the resource adapter</li>
+ * <li>{@value #BOUNDED_EXECUTOR}: a pool of at most {@value #WORK_EXECUTOR_MAX_THREADS} platform
+ * threads of the work manager, running the work of {@code doWork} and {@code startWork} before
+ * the one of {@code scheduleWork}</li>
+ * <li>{@value #VIRTUAL_EXECUTOR}: a virtual thread per work, or the bounded pool if the runtime
+ * has no virtual threads</li>
+ * </ul>
  *
  * @author Binod P.G
  */
 
 public final class CommonWorkManager implements WorkManager {
 
-    private ThreadPoolManager tpm;
-    private ThreadPool tp;
+    public static final String WORK_EXECUTOR = "workmanager.executor";
+    public static final String WORK_EXECUTOR_MAX_THREADS = "workmanager.executor.max-threads";
+
+    public static final String THREAD_POOL_EXECUTOR = "thread-pool";
+    public static final String BOUNDED_EXECUTOR = "bounded";
+    public static final String VIRTUAL_EXECUTOR = "virtual";
+
+    private static final int DEFAULT_MAX_THREADS = 200;
+
+    private WorkExecutor executor;
 
     private static final Logger logger = LogFacade.getLogger();
 
@@ -84,6 +102,24 @@ public final class CommonWorkManager implements WorkManager {
             publish = true)
     private static final String RAR_DEFAULT_THREAD_POOL_NOT_FOUND = "AS-RAR-05002";
 
+    @LogMessageInfo(
+            message = "Unknown work executor [ {0} ] for resource adapter [ {1} ], using the thread-pool.",
+            comment = "Unknown work executor type.",
+            level = "WARNING",
+            cause = "The workmanager.executor system property is not thread-pool, bounded or virtual.",
+            action = "Check the workmanager.executor system property.",
+            publish = true)
+    private static final String RAR_UNKNOWN_WORK_EXECUTOR = "AS-RAR-05013";
+
+    @LogMessageInfo(
+            message = "Virtual threads are not available, the work of resource adapter [ {0} ] runs on a bounded thread pool.",
+            comment = "Virtual threads are not supported by the runtime.",
+            level = "WARNING",
+            cause = "The Java runtime does not support virtual threads.",
+            action = "Run the server on a Java runtime supporting virtual threads, or use another work executor.",
+            publish = true)
+    private static final String RAR_VIRTUAL_THREADS_NOT_AVAILABLE = "AS-RAR-05014";
+
     /**
      * Private constructor.
      *
@@ -97,39 +133,66 @@ public final class CommonWorkManager implements WorkManager {
             this.runtime = runtime;
             this.raName = raName;
             this.rarClassLoader = cl;
-            tpm = S1ASThreadPoolManager.getThreadPoolManager();
+            executor = createExecutor(threadPoolId, raName);
+            registerWithMonitoringService();
+        }
+    }
 
-            if (threadPoolId == null || threadPoolId.isEmpty()) {
-                tp = tpm.getDefaultThreadPool();
-            } else {
-                try {
-                    tp = tpm.getThreadPool(threadPoolId);
-                    if(logger.isLoggable(Level.FINEST)){
-                        logger.finest("Got the thread pool [ "+threadPoolId+" ] for WorkManager of RAR [ "+raName+" ]");
-                    }
-                } catch (NoSuchThreadPoolException e) {
-                    logger.log(Level.SEVERE, RAR_THREAD_POOL_NOT_FOUND, new Object[]{threadPoolId, raName});
-                    ConnectorRuntimeException cre = new ConnectorRuntimeException(e.getMessage());
-                    cre.initCause(e);
-                    throw cre;
+    private static WorkExecutor createExecutor(String threadPoolId, String raName) throws ConnectorRuntimeException {
+        String executorType = System.getProperty(WORK_EXECUTOR, THREAD_POOL_EXECUTOR);
+        int maxThreads = Integer.getInteger(WORK_EXECUTOR_MAX_THREADS, DEFAULT_MAX_THREADS);
+        switch (executorType) {
+            case THREAD_POOL_EXECUTOR:
+                return new ThreadPoolWorkExecutor(getThreadPool(threadPoolId, raName));
+            case BOUNDED_EXECUTOR:
+                return new BoundedWorkExecutor(raName, maxThreads);
+            case VIRTUAL_EXECUTOR:
+                WorkExecutor virtualExecutor = VirtualThreadWorkExecutor.create();
+                if (virtualExecutor == null) {
+                    logger.log(Level.WARNING, RAR_VIRTUAL_THREADS_NOT_AVAILABLE, raName);
+                    return new BoundedWorkExecutor(raName, maxThreads);
                 }
-            }
-            if (tp == null) {
-                // in case the default thread-pool was not available.
-                // Set the message appropriately.
-                String format = null;
-                format = logger.getResourceBundle().getString(RAR_DEFAULT_THREAD_POOL_NOT_FOUND);
-                if (format.trim().equals("")) {
-                    format = "Failed to get the default thread-pool for resource adapter "+raName+".";
-                } else {
-                    format = MessageFormat.format(format, raName);
+                return virtualExecutor;
+            default:
+                logger.log(Level.WARNING, RAR_UNKNOWN_WORK_EXECUTOR, new Object[]{executorType, raName});
+                return new ThreadPoolWorkExecutor(getThreadPool(threadPoolId, raName));
+        }
+    }
+
+    private static ThreadPool getThreadPool(String threadPoolId, String raName) throws ConnectorRuntimeException {
+        ThreadPoolManager tpm = S1ASThreadPoolManager.getThreadPoolManager();
+        ThreadPool tp;
+
+        if (threadPoolId == null || threadPoolId.isEmpty()) {
+            tp = tpm.getDefaultThreadPool();
+        } else {
+            try {
+                tp = tpm.getThreadPool(threadPoolId);
+                if(logger.isLoggable(Level.FINEST)){
+                    logger.finest("Got the thread pool [ "+threadPoolId+" ] for WorkManager of RAR [ "+raName+" ]");
                 }
-                ConnectorRuntimeException cre =  new ConnectorRuntimeException(format);
-                logger.log(Level.SEVERE, RAR_DEFAULT_THREAD_POOL_NOT_FOUND, raName);
+            } catch (NoSuchThreadPoolException e) {
+                logger.log(Level.SEVERE, RAR_THREAD_POOL_NOT_FOUND, new Object[]{threadPoolId, raName});
+                ConnectorRuntimeException cre = new ConnectorRuntimeException(e.getMessage());
+                cre.initCause(e);
                 throw cre;
             }
-            registerWithMonitoringService();
         }
+        if (tp == null) {
+            // in case the default thread-pool was not available.
+            // Set the message appropriately.
+            String format = null;
+            format = logger.getResourceBundle().getString(RAR_DEFAULT_THREAD_POOL_NOT_FOUND);
+            if (format.trim().equals("")) {
+                format = "Failed to get the default thread-pool for resource adapter "+raName+".";
+            } else {
+                format = MessageFormat.format(format, raName);
+            }
+            ConnectorRuntimeException cre =  new ConnectorRuntimeException(format);
+            logger.log(Level.SEVERE, RAR_DEFAULT_THREAD_POOL_NOT_FOUND, raName);
+            throw cre;
+        }
+        return tp;
     }
 
     private void registerWithMonitoringService() {
@@ -183,6 +246,9 @@ public final class CommonWorkManager implements WorkManager {
         if (runtime != null && runtime.isServer()) {
             deregisterFromMonitoringService();
         }
+        if (executor != null) {
+            executor.shutdown();
+        }
     }
 
     /**
@@ -218,7 +284,7 @@ public final class CommonWorkManager implements WorkManager {
         }
 
         WorkCoordinator wc = new WorkCoordinator
-                (work, startTimeout, execContext, tp.getAnyWorkQueue(), workListener,
+                (work, startTimeout, execContext, executor, workListener,
                         this.probeProvider, runtime, raName, contextHandler);
         wc.submitWork(WorkCoordinator.WAIT_UNTIL_FINISH);
         wc.lock();
@@ -275,7 +341,7 @@ public final class CommonWorkManager implements WorkManager {
         long acceptanceTime = System.currentTimeMillis();
 
         WorkCoordinator wc = new WorkCoordinator
-                (work, startTimeout, execContext, tp.getAnyWorkQueue(), workListener,
+                (work, startTimeout, execContext, executor, workListener,
                         this.probeProvider, runtime, raName, contextHandler);
         wc.submitWork(WorkCoordinator.WAIT_UNTIL_START);
         wc.lock();
@@ -338,7 +404,7 @@ public final class CommonWorkManager implements WorkManager {
         }
 
         WorkCoordinator wc = new WorkCoordinator
-                (work, startTimeout, execContext, tp.getAnyWorkQueue(), workListener,
+                (work, startTimeout, execContext, executor, workListener,
                         this.probeProvider, runtime, raName, contextHandler);
         wc.submitWork(WorkCoordinator.NO_WAIT);
         wc.lock();
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.connectors.work;
+
+import jakarta.resource.spi.work.WorkException;
+import jakarta.resource.spi.work.WorkRejectedException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs each work on a new virtual thread, so that the number of concurrent works is only bounded
+ * by the resource adapter.
+ */
+final class VirtualThreadWorkExecutor implements WorkExecutor {
+
+    private final ExecutorService executor;
+
+    private VirtualThreadWorkExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @return the executor, or null if the runtime has no virtual threads
+     */
+    static VirtualThreadWorkExecutor create() {
+        try {
+            // Looked up, the build targets a release without virtual threads
+            ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            return new VirtualThreadWorkExecutor(executor);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void execute(OneWork work, int waitMode) throws WorkRejectedException {
+        execute(work::doWork);
+    }
+
+    void execute(Runnable task) throws WorkRejectedException {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            WorkRejectedException we = new WorkRejectedException(e.getMessage(), WorkException.INTERNAL);
+            we.initCause(e);
+            throw we;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -17,7 +17,6 @@
 package com.sun.enterprise.connectors.work;
 
 import com.sun.appserv.connectors.internal.api.ConnectorRuntime;
-import com.sun.corba.ee.spi.threadpool.WorkQueue;
 import com.sun.enterprise.connectors.work.context.WorkContextHandlerImpl;
 import com.sun.enterprise.connectors.work.monitor.WorkManagementProbeProvider;
 import com.sun.enterprise.security.SecurityContext;
@@ -75,8 +74,9 @@ public final class WorkCoordinator {
     private final jakarta.resource.spi.work.Work work;
     private final long timeout;
     private long startTime;
+    private long executionStartTime;
     private final ExecutionContext ec;
-    private final WorkQueue queue;
+    private final WorkExecutor executor;
     private final WorkListener listener;
     private volatile WorkException exception;
     private final Object lock;
@@ -96,16 +96,16 @@ public final class WorkCoordinator {
      * @param work A work object as submitted by the resource adapter
      * @param timeout timeout for the work instance
      * @param ec ExecutionContext object.
-     * @param queue WorkQueue of the threadpool, to which the work will be submitted
+     * @param executor WorkExecutor to which the work will be submitted
      * @param listener WorkListener object from the resource adapter.
      */
-    public WorkCoordinator(jakarta.resource.spi.work.Work work, long timeout, ExecutionContext ec, WorkQueue queue, WorkListener listener,
+    public WorkCoordinator(jakarta.resource.spi.work.Work work, long timeout, ExecutionContext ec, WorkExecutor executor, WorkListener listener,
             WorkManagementProbeProvider probeProvider, ConnectorRuntime runtime, String raName, WorkContextHandlerImpl handler) {
 
         this.work = work;
         this.timeout = timeout;
         this.ec = ec;
-        this.queue = queue;
+        this.executor = executor;
         this.listener = listener;
         this.id = increaseSeed();
         this.runtime = runtime;
@@ -133,7 +133,17 @@ public final class WorkCoordinator {
             probeProvider.workQueued(raName);
         }
 
-        queue.addWork(new OneWork(work, this, Thread.currentThread().getContextClassLoader()));
+        try {
+            executor.execute(new OneWork(work, this, Thread.currentThread().getContextClassLoader()), waitModeValue);
+        } catch (WorkRejectedException e) {
+            setException(e);
+            if (probeProvider != null) {
+                probeProvider.workDequeued(raName);
+            }
+            if (listener != null) {
+                listener.workRejected(new WorkEvent(this, WorkEvent.WORK_REJECTED, work, e));
+            }
+        }
     }
 
     /**
@@ -146,17 +156,14 @@ public final class WorkCoordinator {
      * </pre>
      */
     public void preInvoke() {
-        // If the work is just scheduled, check whether it has timed out or not.
-        if (waitMode == NO_WAIT && timeout > -1) {
-            long elapsedTime = System.currentTimeMillis() - startTime;
-
-            if (probeProvider != null) {
-                probeProvider.workWaitedFor(raName, elapsedTime);
-            }
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        if (probeProvider != null) {
+            probeProvider.workWaitedFor(raName, elapsedTime);
+        }
 
-            if (elapsedTime > timeout) {
-                workTimedOut();
-            }
+        // If the work is just scheduled, check whether it has timed out or not.
+        if (waitMode == NO_WAIT && timeout > -1 && elapsedTime > timeout) {
+            workTimedOut();
         }
 
         // If the work is timed out then return.
@@ -166,6 +173,7 @@ public final class WorkCoordinator {
             }
             return;
         } else {
+            executionStartTime = System.currentTimeMillis();
             if (probeProvider != null) {
                 probeProvider.workProcessingStarted(raName);
                 probeProvider.workDequeued(raName);
@@ -226,6 +234,7 @@ public final class WorkCoordinator {
                     if (probeProvider != null) {
                         probeProvider.workProcessingCompleted(raName);
                         probeProvider.workProcessed(raName);
+                        probeProvider.workExecutionTime(raName, System.currentTimeMillis() - executionStartTime);
                     }
 
                     // If exception is not null, the work has already been rejected.
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.connectors.work;
+
+import jakarta.resource.spi.work.WorkRejectedException;
+
+/**
+ * Runs the work submitted to a {@link CommonWorkManager}.
+ *
+ * @see CommonWorkManager#WORK_EXECUTOR
+ */
+public interface WorkExecutor {
+
+    /**
+     * Runs the work asynchronously.
+     *
+     * @param work the work to run
+     * @param waitMode how the submitter waits for the work, {@link WorkCoordinator#WAIT_UNTIL_START},
+     *            {@link WorkCoordinator#WAIT_UNTIL_FINISH} or {@link WorkCoordinator#NO_WAIT}
+     * @throws WorkRejectedException if the work cannot be accepted
+     */
+    void execute(OneWork work, int waitMode) throws WorkRejectedException;
+
+    /**
+     * Stops accepting work. The work already accepted still runs.
+     */
+    void shutdown();
+}
@@ -47,6 +47,12 @@ public class WorkManagementProbeProvider {
             @ProbeParam("elapsedTime") long elapsedTime
     ) {}
 
+    @Probe(name = "workExecutionTime")
+    public void workExecutionTime(
+            @ProbeParam("raName") String raName,
+            @ProbeParam("elapsedTime") long elapsedTime
+    ) {}
+
     @Probe(name = "workDequeued")
     public void workDequeued(
             @ProbeParam("raName") String raName
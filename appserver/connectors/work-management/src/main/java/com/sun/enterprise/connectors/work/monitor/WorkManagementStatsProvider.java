@@ -69,6 +69,9 @@ public class WorkManagementStatsProvider {
             new RangeStatisticImpl(0, 0, 0, "WorkRequestWaitTime", StatisticImpl.UNIT_COUNT,
                     "Wait time of a work object before it gets executed", time, time);
 
+    private final RangeStatisticImpl workExecutionTime =
+            new RangeStatisticImpl(0, 0, 0, "WorkExecutionTime", StatisticImpl.UNIT_MILLISECOND,
+                    "Execution time of a work object", time, time);
 
     @ManagedAttribute(id = "submittedworkcount")
     @Description("Number of work objects submitted by a connector module for execution")
@@ -106,6 +109,12 @@ public class WorkManagementStatsProvider {
         return workRequestWaitTime;
     }
 
+    @ManagedAttribute(id = "workexecutiontime")
+    @Description("Execution time of a work object")
+    public RangeStatistic getWorkExecutionTime() {
+        return workExecutionTime;
+    }
+
     private boolean isValidEvent(String raName) {
         return (raName != null && moduleName.equals(raName));
     }
@@ -142,6 +151,16 @@ public class WorkManagementStatsProvider {
         }
     }
 
+    @ProbeListener(DOTTED_NAME + "workExecutionTime")
+    public void workExecutionTime(
+            @ProbeParam("raName") String raName,
+            @ProbeParam("elapsedTime") long elapsedTime
+    ) {
+        if (isValidEvent(raName)) {
+            workExecutionTime.setCurrent(elapsedTime);
+        }
+    }
+
     @ProbeListener(DOTTED_NAME + "workDequeued")
     public void workDequeued(
             @ProbeParam("raName") String raName
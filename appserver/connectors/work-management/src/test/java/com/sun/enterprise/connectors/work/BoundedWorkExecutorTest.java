@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.connectors.work;
+
+import jakarta.resource.spi.work.WorkException;
+import jakarta.resource.spi.work.WorkRejectedException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedWorkExecutorTest {
+
+    private final BoundedWorkExecutor executor = new BoundedWorkExecutor("test-ra", 1);
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void awaitedWorkIsRunBeforeScheduledWork() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        }, false);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // The only thread is busy, so these are queued
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(4);
+        executor.execute(() -> record(order, "scheduled-1", done), false);
+        executor.execute(() -> record(order, "awaited-1", done), true);
+        executor.execute(() -> record(order, "scheduled-2", done), false);
+        executor.execute(() -> record(order, "awaited-2", done), true);
+        release.countDown();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertThat(order, contains("awaited-1", "awaited-2", "scheduled-1", "scheduled-2"));
+    }
+
+    @Test
+    public void threadsAreNamedAfterTheResourceAdapter() throws Exception {
+        List<String> names = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(() -> record(names, Thread.currentThread().getName(), done), true);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertThat(names.get(0), startsWith("test-ra-work-"));
+    }
+
+    @Test
+    public void workIsRejectedAfterShutdown() {
+        executor.shutdown();
+
+        WorkRejectedException e = assertThrows(WorkRejectedException.class, () -> executor.execute(() -> {}, true));
+        assertThat(e.getErrorCode(), equalTo(WorkException.INTERNAL));
+        assertThat(e.getCause(), instanceOf(RejectedExecutionException.class));
+    }
+
+    static void record(List<String> events, String event, CountDownLatch done) {
+        events.add(event);
+        done.countDown();
+    }
+
+    static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
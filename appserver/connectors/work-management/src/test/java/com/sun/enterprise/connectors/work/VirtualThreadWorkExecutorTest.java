@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.connectors.work;
+
+import jakarta.resource.spi.work.WorkException;
+import jakarta.resource.spi.work.WorkRejectedException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class VirtualThreadWorkExecutorTest {
+
+    private static final boolean VIRTUAL_THREADS = Runtime.version().feature() >= 21;
+
+    @Test
+    public void notCreatedWithoutVirtualThreads() {
+        assumeFalse(VIRTUAL_THREADS);
+
+        assertThat(VirtualThreadWorkExecutor.create(), nullValue());
+    }
+
+    @Test
+    public void workRunsOnVirtualThreads() throws Exception {
+        assumeTrue(VIRTUAL_THREADS);
+        VirtualThreadWorkExecutor executor = VirtualThreadWorkExecutor.create();
+        assertThat(executor, notNullValue());
+
+        List<Object> virtual = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                try {
+                    virtual.add(Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+                } catch (ReflectiveOperationException e) {
+                    virtual.add(e);
+                }
+                done.countDown();
+            });
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertThat(virtual, contains(Boolean.TRUE));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void workIsRejectedAfterShutdown() {
+        assumeTrue(VIRTUAL_THREADS);
+        VirtualThreadWorkExecutor executor = VirtualThreadWorkExecutor.create();
+        executor.shutdown();
+
+        WorkRejectedException e = assertThrows(WorkRejectedException.class, () -> executor.execute(() -> {}));
+        assertThat(e.getErrorCode(), equalTo(WorkException.INTERNAL));
+        assertThat(e.getCause(), instanceOf(RejectedExecutionException.class));
+    }
+}
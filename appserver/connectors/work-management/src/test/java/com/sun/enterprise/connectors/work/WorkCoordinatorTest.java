@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.connectors.work;
+
+import jakarta.resource.spi.work.Work;
+import jakarta.resource.spi.work.WorkAdapter;
+import jakarta.resource.spi.work.WorkEvent;
+import jakarta.resource.spi.work.WorkException;
+import jakarta.resource.spi.work.WorkRejectedException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class WorkCoordinatorTest {
+
+    @Test
+    public void workRejectedByTheExecutorIsReported() {
+        BoundedWorkExecutor executor = new BoundedWorkExecutor("test-ra", 1);
+        executor.shutdown();
+        List<Integer> events = new CopyOnWriteArrayList<>();
+        List<Exception> rejections = new CopyOnWriteArrayList<>();
+        WorkAdapter listener = new WorkAdapter() {
+            @Override
+            public void workAccepted(WorkEvent e) {
+                events.add(e.getType());
+            }
+
+            @Override
+            public void workRejected(WorkEvent e) {
+                events.add(e.getType());
+                rejections.add(e.getException());
+            }
+        };
+        Work work = new Work() {
+            @Override
+            public void run() {
+            }
+
+            @Override
+            public void release() {
+            }
+        };
+        WorkCoordinator coordinator =
+            new WorkCoordinator(work, -1, null, executor, listener, null, null, "test-ra", null);
+
+        coordinator.submitWork(WorkCoordinator.WAIT_UNTIL_FINISH);
+        // Does not block, the work will never run
+        coordinator.lock();
+
+        WorkException exception = coordinator.getException();
+        assertThat(exception, instanceOf(WorkRejectedException.class));
+        assertThat(exception.getErrorCode(), equalTo(WorkException.INTERNAL));
+        assertThat(events, contains(WorkEvent.WORK_ACCEPTED, WorkEvent.WORK_REJECTED));
+        assertThat(rejections.get(0), sameInstance(exception));
+        assertThat(coordinator.getState(), equalTo(WorkCoordinator.CREATED));
+    }
+}
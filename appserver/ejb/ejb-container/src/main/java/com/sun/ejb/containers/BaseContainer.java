@@ -28,6 +28,9 @@ import com.sun.ejb.codegen.EjbOptionalIntfGenerator;
 import com.sun.ejb.containers.interceptors.InterceptorManager;
 import com.sun.ejb.containers.interceptors.SystemInterceptorProxy;
 import com.sun.ejb.containers.util.MethodMap;
+import com.sun.ejb.containers.util.pool.ConcurrentNonBlockingPool;
+import com.sun.ejb.containers.util.pool.NonBlockingPool;
+import com.sun.ejb.containers.util.pool.ObjectFactory;
 import com.sun.ejb.monitoring.probes.EjbCacheProbeProvider;
 import com.sun.ejb.monitoring.probes.EjbMonitoringProbeProvider;
 import com.sun.ejb.monitoring.probes.EjbTimedObjectProbeProvider;
@@ -236,6 +239,12 @@ public abstract class BaseContainer implements Container, EjbContainerFacade, Ja
 
     protected static final String SINGLETON_BEAN_POOL_PROP = "singleton-bean-pool";
 
+    /**
+     * Enterprise beans property selecting the {@link ConcurrentNonBlockingPool} for the pooled beans of the module: either
+     * true for all of them, or a comma separated list of bean names.
+     */
+    protected static final String CONCURRENT_BEAN_POOL_PROP = "concurrent-bean-pool";
+
     protected final ClassLoader loader;
     protected Class<?> ejbClass;
     protected Class<?> sfsbSerializedClass;
@@ -901,6 +910,40 @@ public abstract class BaseContainer implements Container, EjbContainerFacade, Ja
         return ejbDescriptor.getApplication().getUniqueId();
     }
 
+    /**
+     * Creates the pool of bean instances, a {@link ConcurrentNonBlockingPool} if selected by the
+     * {@value #CONCURRENT_BEAN_POOL_PROP} property and the singleton bean pool is not, else a {@link NonBlockingPool}.
+     */
+    protected NonBlockingPool createNonBlockingPool(String poolName, ObjectFactory factory, int steadyPoolSize, int resizeQuantity,
+            int maxPoolSize, int idleTimeoutInSeconds) {
+        EjbBundleDescriptor bundle = ejbDescriptor.getEjbBundleDescriptor();
+        boolean singletonBeanPool = Boolean.parseBoolean(bundle.getEnterpriseBeansProperty(SINGLETON_BEAN_POOL_PROP));
+        if (!singletonBeanPool && isEnabledForThisBean(bundle.getEnterpriseBeansProperty(CONCURRENT_BEAN_POOL_PROP))) {
+            _logger.log(Level.FINE, "Using a concurrent bean pool for {0}", ejbDescriptor.getName());
+            return new ConcurrentNonBlockingPool(getContainerId(), poolName, factory, steadyPoolSize, resizeQuantity, maxPoolSize,
+                idleTimeoutInSeconds, loader);
+        }
+        return new NonBlockingPool(getContainerId(), poolName, factory, steadyPoolSize, resizeQuantity, maxPoolSize,
+            idleTimeoutInSeconds, loader, singletonBeanPool);
+    }
+
+    /**
+     * @param value the value of an enterprise beans property, either true for all the beans of the module, or a
+     *            comma separated list of bean names
+     * @return true if the property selects this bean
+     */
+    protected boolean isEnabledForThisBean(String value) {
+        if (value == null) {
+            return false;
+        }
+        for (String name : value.split(",")) {
+            if (name.trim().equalsIgnoreCase("true") || name.trim().equals(ejbDescriptor.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public final EjbDescriptor getEjbDescriptor() {
         return ejbDescriptor;
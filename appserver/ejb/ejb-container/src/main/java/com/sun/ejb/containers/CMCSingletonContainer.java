@@ -20,6 +20,11 @@ import com.sun.ejb.ComponentContext;
 import com.sun.ejb.EjbInvocation;
 import com.sun.ejb.InvocationInfo;
 import com.sun.ejb.MethodLockInfo;
+import com.sun.ejb.containers.util.lock.FairReadWriteLock;
+import com.sun.ejb.containers.util.lock.InstrumentedReadWriteLock;
+import com.sun.ejb.containers.util.lock.StripedReadWriteLock;
+import com.sun.ejb.monitoring.stats.EjbMonitoringStatsProvider;
+import com.sun.ejb.monitoring.stats.SingletonBeanStatsProvider;
 import com.sun.enterprise.security.SecurityManager;
 
 import jakarta.ejb.ConcurrentAccessException;
@@ -28,7 +33,7 @@ import jakarta.ejb.IllegalLoopbackException;
 import jakarta.ejb.LockType;
 
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
 
 import org.glassfish.ejb.deployment.descriptor.EjbDescriptor;
 
@@ -38,11 +43,17 @@ import org.glassfish.ejb.deployment.descriptor.EjbDescriptor;
 public class CMCSingletonContainer
         extends AbstractSingletonContainer {
 
-    private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock(true);
+    /**
+     * Enterprise beans property selecting the {@link StripedReadWriteLock} for the singletons of the module: either
+     * true for all of them, or a comma separated list of bean names. The default is a {@link FairReadWriteLock}.
+     */
+    private static final String READER_BIASED_LOCK_PROP = "reader-biased-singleton-lock";
 
-    private final ReentrantReadWriteLock.ReadLock readLock = rwLock.readLock();
+    private final InstrumentedReadWriteLock rwLock;
 
-    private final ReentrantReadWriteLock.WriteLock writeLock = rwLock.writeLock();
+    private final Lock readLock;
+
+    private final Lock writeLock;
 
     private final static long NO_BLOCKING = 0;
     private final static long BLOCK_INDEFINITELY = -1;
@@ -53,12 +64,28 @@ public class CMCSingletonContainer
             throws Exception {
         super(desc, cl, sm);
 
+        String readerBiasedLock = desc.getEjbBundleDescriptor().getEnterpriseBeansProperty(READER_BIASED_LOCK_PROP);
+        if (isEnabledForThisBean(readerBiasedLock)) {
+            _logger.log(Level.FINE, "Using a reader-biased lock for {0}", desc.getName());
+            rwLock = new StripedReadWriteLock();
+        } else {
+            rwLock = new FairReadWriteLock();
+        }
+        readLock = rwLock.readLock();
+        writeLock = rwLock.writeLock();
+
         // In absence of any method lock info default is WRITE lock with no timeout.
         defaultMethodLockInfo = new MethodLockInfo();
         defaultMethodLockInfo.setLockType(LockType.WRITE);
 
     }
 
+    @Override
+    protected EjbMonitoringStatsProvider getMonitoringStatsProvider(
+            String appName, String modName, String ejbName) {
+        return new SingletonBeanStatsProvider(getContainerId(), appName, modName, ejbName, rwLock);
+    }
+
     /*
      * Findbugs complains that the lock acquired in this method is not
      *  unlocked on all paths in this method.
@@ -98,7 +125,7 @@ public class CMCSingletonContainer
                 ? defaultMethodLockInfo : invInfo.methodLockInfo;
         Lock theLock = lockInfo.isReadLockedMethod() ? readLock : writeLock;
 
-        if ( (rwLock.getReadHoldCount() > 0) &&
+        if ( (rwLock.isReadLockedByCurrentThread()) &&
              (!rwLock.isWriteLockedByCurrentThread()) ) {
             if( lockInfo.isWriteLockedMethod() ) {
                 throw new IllegalLoopbackException("Illegal Reentrant Access : Attempt to make " +
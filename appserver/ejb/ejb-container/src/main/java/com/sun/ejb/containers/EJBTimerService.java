@@ -332,11 +332,15 @@ public class EJBTimerService {
         }
     }
 
-    private void shutdown() {
+    protected void shutdown() {
         // Set flag to prevent any new timer expirations.
         shutdown_ = true;
     }
 
+    protected boolean isShutdown() {
+        return shutdown_;
+    }
+
     /**
      * Destroy all timers associated with a particular ejb container
      * This is typically called when an ejb is undeployed.  It expunges
@@ -446,8 +450,7 @@ public class EJBTimerService {
                     timerState.scheduled(timerTask);
                 }
 
-                java.util.Timer jdkTimer = ejbContainerUtil.getTimer();
-                jdkTimer.schedule(timerTask, timerExpiration);
+                timerTask.schedule(ejbContainerUtil.getScheduler());
             }
         } else {
 
@@ -1367,7 +1370,7 @@ public class EJBTimerService {
 
     /**
      * This method is called back from the EJBTimerTask object
-     * on the JDK Timer Thread.  Work performed in this callback
+     * on a dispatch thread of the scheduler.  Work performed in this callback
      * should be short-lived, so do a little bookkeeping and then
      * launch a separate thread to invoke ejbTimeout, etc.
      */
@@ -17,20 +17,22 @@
 package com.sun.ejb.containers;
 
 
+import com.sun.ejb.containers.util.TimingWheelScheduler;
+
 import java.util.Date;
-import java.util.TimerTask;
 
 
 /*
- * JDK timer task for timer expirations.
+ * Scheduler task for timer expirations.
  *
  * @author Kenneth Saks
  */
-public class EJBTimerTask extends TimerTask {
+public class EJBTimerTask implements Runnable {
 
     private Date timeout_;
     private TimerPrimaryKey timerId_;
     private EJBTimerService timerService_;
+    private TimingWheelScheduler.ScheduledTask scheduledTask_;
 
     EJBTimerTask(Date timeout, TimerPrimaryKey timerId,
                  EJBTimerService timerService)
@@ -49,5 +51,13 @@ public class EJBTimerTask extends TimerTask {
         return timeout_;
     }
 
+    void schedule(TimingWheelScheduler scheduler) {
+        scheduledTask_ = scheduler.schedule(this, timeout_.getTime() - System.currentTimeMillis());
+    }
+
+    public boolean cancel() {
+        return scheduledTask_ != null && scheduledTask_.cancel();
+    }
+
 }
 
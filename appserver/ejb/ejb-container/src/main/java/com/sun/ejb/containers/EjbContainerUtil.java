@@ -17,6 +17,7 @@
 
 package com.sun.ejb.containers;
 
+import com.sun.ejb.containers.util.TimingWheelScheduler;
 import com.sun.enterprise.admin.monitor.callflow.Agent;
 import com.sun.enterprise.container.common.spi.util.ComponentEnvManager;
 import com.sun.enterprise.container.common.spi.util.InjectionManager;
@@ -80,8 +81,18 @@ public interface EjbContainerUtil {
 
     ClassLoader getClassLoader(long id);
 
+    /**
+     * @return a JDK timer, only created when first requested. The container schedules its own
+     *         timeouts with {@link #getScheduler()}.
+     */
     Timer getTimer();
 
+    /**
+     * @return the scheduler of the timeouts of the container, such as the non persistent EJB
+     *         timers and the periodic tasks of the bean pools and caches
+     */
+    TimingWheelScheduler getScheduler();
+
     void setInsideContainer(boolean bool);
 
     boolean isInsideContainer();
@@ -19,6 +19,8 @@ package com.sun.ejb.containers;
 
 import com.sun.ejb.base.io.EJBObjectInputStreamHandler;
 import com.sun.ejb.base.io.EJBObjectOutputStreamHandler;
+import com.sun.ejb.containers.util.TimingWheelScheduler;
+import com.sun.ejb.monitoring.stats.EjbTimerSchedulerStatsProvider;
 import com.sun.enterprise.admin.monitor.callflow.Agent;
 import com.sun.enterprise.config.serverbeans.Config;
 import com.sun.enterprise.config.serverbeans.Domain;
@@ -99,6 +101,22 @@ public class EjbContainerUtilImpl implements PostConstruct, PreDestroy, EjbConta
 
     private Timer _timer;
 
+    /**
+     * Ejb container property setting the duration of a tick of the timer scheduler, in milliseconds.
+     */
+    static final String TIMER_SCHEDULER_TICK_MILLIS = "timer-scheduler-tick-millis";
+
+    /**
+     * Ejb container property setting the number of threads executing the expired timeouts.
+     */
+    static final String TIMER_SCHEDULER_DISPATCH_THREADS = "timer-scheduler-dispatch-threads";
+
+    static final int DEFAULT_TIMER_SCHEDULER_DISPATCH_THREADS = 4;
+
+    private TimingWheelScheduler scheduler;
+    private ThreadPoolExecutor schedulerDispatchExecutor;
+    private EjbTimerSchedulerStatsProvider schedulerStatsProvider;
+
     private boolean _insideContainer = true;
 
     @Inject
@@ -169,18 +187,12 @@ public class EjbContainerUtilImpl implements PostConstruct, PreDestroy, EjbConta
 
         defaultThreadPoolExecutor = createThreadPoolExecutor(DEFAULT_THREAD_POOL_NAME);
 
-        //avoid starting JDK timer in application class loader.  The life of _timer
-        //field is longer than deployed apps, and any reference to app class loader
-        //in JDK timer thread will cause class loader leak.  Issue 17468
-        ClassLoader originalClassLoader = null;
-        try {
-            originalClassLoader = Utility.setContextClassLoader(ejbImplClassLoader);
-            _timer = new Timer(true);
-        } finally {
-            if (originalClassLoader != null) {
-                Utility.setContextClassLoader(originalClassLoader);
-            }
-        }
+        schedulerDispatchExecutor = createSchedulerDispatchExecutor();
+        scheduler = new TimingWheelScheduler("ejb-timer-scheduler",
+                initLongProperty(TIMER_SCHEDULER_TICK_MILLIS, TimingWheelScheduler.DEFAULT_TICK_MILLIS),
+                schedulerDispatchExecutor);
+        schedulerStatsProvider = new EjbTimerSchedulerStatsProvider(scheduler);
+        schedulerStatsProvider.register();
 
         EJBObjectOutputStreamHandler.setJavaEEIOUtils(javaEEIOUtils);
         javaEEIOUtils.addGlassFishOutputStreamHandler(new EJBObjectOutputStreamHandler());
@@ -194,6 +206,20 @@ public class EjbContainerUtilImpl implements PostConstruct, PreDestroy, EjbConta
             defaultThreadPoolExecutor.shutdown();
             defaultThreadPoolExecutor = null;
         }
+        if (schedulerStatsProvider != null) {
+            schedulerStatsProvider.unregister();
+            schedulerStatsProvider = null;
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+            schedulerDispatchExecutor.shutdown();
+        }
+        synchronized (this) {
+            if (_timer != null) {
+                _timer.cancel();
+                _timer = null;
+            }
+        }
         EJBTimerService.onShutdown();
         EJBTimerService.unsetEJBTimerService();
     }
@@ -259,10 +285,29 @@ public class EjbContainerUtilImpl implements PostConstruct, PreDestroy, EjbConta
     }
 
     @Override
-    public  Timer getTimer() {
+    public synchronized Timer getTimer() {
+        if (_timer == null) {
+            //avoid starting JDK timer in application class loader.  The life of _timer
+            //field is longer than deployed apps, and any reference to app class loader
+            //in JDK timer thread will cause class loader leak.  Issue 17468
+            ClassLoader originalClassLoader = null;
+            try {
+                originalClassLoader = Utility.setContextClassLoader(EjbContainerUtilImpl.class.getClassLoader());
+                _timer = new Timer(true);
+            } finally {
+                if (originalClassLoader != null) {
+                    Utility.setContextClassLoader(originalClassLoader);
+                }
+            }
+        }
         return _timer;
     }
 
+    @Override
+    public TimingWheelScheduler getScheduler() {
+        return scheduler;
+    }
+
     @Override
     public  void setInsideContainer(boolean bool) {
         _insideContainer = bool;
@@ -513,6 +558,31 @@ public class EjbContainerUtilImpl implements PostConstruct, PreDestroy, EjbConta
         return result;
     }
 
+    private ThreadPoolExecutor createSchedulerDispatchExecutor() {
+        int threads = (int) initLongProperty(TIMER_SCHEDULER_DISPATCH_THREADS, DEFAULT_TIMER_SCHEDULER_DISPATCH_THREADS);
+        ThreadPoolExecutor result = new EjbThreadPoolExecutor(threads, threads,
+                EjbContainer.DEFAULT_THREAD_KEEP_ALIVE_SECONDS, new LinkedBlockingQueue<Runnable>(), "ejb-timer-dispatcher-");
+        result.allowCoreThreadTimeOut(true);
+        return result;
+    }
+
+    private long initLongProperty(String name, long defaultValue) {
+        String val = ejbContainer.getPropertyValue(name);
+        if (val == null) {
+            return defaultValue;
+        }
+        try {
+            long value = Long.parseLong(val.trim());
+            if (value > 0) {
+                return value;
+            }
+            _logger.warning(name + " <= 0 using default value " + defaultValue);
+        } catch (NumberFormatException e) {
+            _logger.warning(name + " is not a number, using default value " + defaultValue);
+        }
+        return defaultValue;
+    }
+
     static int initCorePoolSize(String propertyValue) {
         int corePoolSize = EjbContainer.DEFAULT_THREAD_CORE_POOL_SIZE;
         if (propertyValue == null) {
@@ -27,6 +27,7 @@ import com.sun.ejb.MethodLockInfo;
 import com.sun.ejb.base.stats.HAStatefulSessionStoreMonitor;
 import com.sun.ejb.base.stats.StatefulSessionStoreMonitor;
 import com.sun.ejb.containers.EJBContextImpl.BeanState;
+import com.sun.ejb.containers.util.TimingWheelScheduler.ScheduledTask;
 import com.sun.ejb.containers.util.cache.LruSessionCache;
 import com.sun.ejb.monitoring.probes.EjbCacheProbeProvider;
 import com.sun.ejb.monitoring.stats.EjbCacheStatsProvider;
@@ -94,8 +95,6 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -2568,9 +2567,8 @@ public final class StatefulSessionContainer
 
     @Override
     public void invokePeriodically(long delay, long periodicity, Runnable target) {
-        Timer timer = ejbContainerUtilImpl.getTimer();
-        TimerTask timerTask = new PeriodicTask(super.loader, target, ejbContainerUtilImpl);
-        timer.scheduleAtFixedRate(timerTask, delay, periodicity);
+        ScheduledTask timerTask = ejbContainerUtilImpl.getScheduler()
+            .scheduleAtFixedRate(new PeriodicTask(super.loader, target, ejbContainerUtilImpl), delay, periodicity);
         scheduledTimerTasks.add(timerTask);
     }
 
@@ -2715,7 +2713,7 @@ public final class StatefulSessionContainer
         try {
             int size = scheduledTimerTasks.size();
             for (int i = 0; i < size; i++) {
-                TimerTask task = (TimerTask) scheduledTimerTasks.get(i);
+                ScheduledTask task = (ScheduledTask) scheduledTimerTasks.get(i);
                 task.cancel();
             }
         } catch (Exception ex) {
@@ -3292,7 +3290,7 @@ public final class StatefulSessionContainer
 }
 
 
-class PeriodicTask extends TimerTask {
+class PeriodicTask implements Runnable {
 
     AsynchronousTask task;
     EjbContainerUtil ejbContainerUtil;
@@ -3309,14 +3307,6 @@ class PeriodicTask extends TimerTask {
             ejbContainerUtil.addWork(task);
         }
     }
-
-
-    @Override
-    public boolean cancel() {
-        boolean cancelled = super.cancel();
-        this.task = null;
-        return cancelled;
-    }
 }
 
 
@@ -31,6 +31,7 @@ import jakarta.ejb.EJBException;
 import jakarta.interceptor.InvocationContext;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InaccessibleObjectException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -40,6 +41,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -93,6 +95,9 @@ public class InterceptorManager {
 
     List<InterceptorDescriptor> frameworkInterceptors = new LinkedList<>();
 
+    // Around invoke chains of the methods of a non-ejb, built on their first invocation
+    private final Map<Method, InterceptorChain> aroundInvokeChains = new ConcurrentHashMap<>();
+
     public InterceptorManager(Logger _logger, BaseContainer container, Class<?>[] lcAnnotationClasses, String[] pre30LCMethodNames) throws Exception {
         this._logger = _logger;
         this.container = container;
@@ -220,7 +225,18 @@ public class InterceptorManager {
                 interceptorDescriptor.getInterceptorClass() != null ? interceptorDescriptor.getInterceptorClass().getClassLoader() : loader);
         }
 
-        return new AroundInvokeChainImpl(interceptors.toArray(new AroundInvokeInterceptor[interceptors.size()]));
+        // The bean methods of an ejb are invoked by the container, through its security manager
+        MethodHandle beanMethodHandle = ejbDesc == null ? InterceptorMethodHandles.compileBeanMethod(beanMethod) : null;
+        return new AroundInvokeChainImpl(interceptors.toArray(new AroundInvokeInterceptor[interceptors.size()]), beanMethodHandle);
+    }
+
+    /**
+     * Returns the around invoke chain of a method of a non-ejb, built once for each method.
+     *
+     * @param beanMethod the method of the bean class
+     */
+    public InterceptorManager.InterceptorChain getAroundInvokeChain(Method beanMethod) {
+        return aroundInvokeChains.computeIfAbsent(beanMethod, method -> getAroundInvokeChain(null, method));
     }
 
     public InterceptorManager.InterceptorChain getAroundTimeoutChain(MethodDescriptor methodDescriptor, Method beanMethod) {
@@ -695,15 +711,29 @@ class AroundInvokeChainImpl implements InterceptorManager.InterceptorChain {
     protected AroundInvokeInterceptor[] interceptors;
     protected int size;
 
+    // Compiled bean method, invoked at the end of the chain instead of the invocation context
+    private final MethodHandle beanMethodHandle;
+
     protected AroundInvokeChainImpl(AroundInvokeInterceptor[] interceptors) {
+        this(interceptors, null);
+    }
+
+    AroundInvokeChainImpl(AroundInvokeInterceptor[] interceptors, MethodHandle beanMethodHandle) {
 
         this.interceptors = interceptors;
         this.size = (interceptors == null) ? 0 : interceptors.length;
+        this.beanMethodHandle = beanMethodHandle;
     }
 
     @Override
     public Object invokeNext(int index, InterceptorManager.AroundInvokeContext inv) throws Throwable {
-        return (index < size) ? interceptors[index].intercept(inv) : inv.invokeBeanMethod();
+        if (index < size) {
+            return interceptors[index].intercept(inv);
+        }
+        if (beanMethodHandle != null) {
+            return (Object) beanMethodHandle.invokeExact(inv.getTarget(), inv.getParameters());
+        }
+        return inv.invokeBeanMethod();
     }
 
     @Override
@@ -721,7 +751,14 @@ class AroundInvokeInterceptor {
     protected int index;
     protected Method method;
 
+    // Compiled method, or null to invoke it through reflection
+    protected MethodHandle handle;
+
     AroundInvokeInterceptor(int index, Method method) {
+        this(index, method, true);
+    }
+
+    AroundInvokeInterceptor(int index, Method method, boolean compile) {
         this.index = index;
         this.method = method;
 
@@ -746,9 +783,15 @@ class AroundInvokeInterceptor {
             throw new EJBException(e);
         }
 
+        if (compile) {
+            handle = InterceptorMethodHandles.compileInterceptorMethod(method);
+        }
     }
 
     Object intercept(final InterceptorManager.AroundInvokeContext invCtx) throws Throwable {
+        if (handle != null) {
+            return (Object) handle.invokeExact(invCtx.getInterceptorInstances()[index], (InvocationContext) invCtx);
+        }
         try {
             final Object[] interceptors = invCtx.getInterceptorInstances();
 
@@ -792,6 +835,9 @@ class BeanAroundInvokeInterceptor extends AroundInvokeInterceptor {
 
     @Override
     Object intercept(final InterceptorManager.AroundInvokeContext invCtx) throws Throwable {
+        if (handle != null) {
+            return (Object) handle.invokeExact(invCtx.getTarget(), (InvocationContext) invCtx);
+        }
         try {
 
             if (System.getSecurityManager() != null) {
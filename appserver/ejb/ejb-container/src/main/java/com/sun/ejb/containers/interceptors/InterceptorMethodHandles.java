@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package com.sun.ejb.containers.interceptors;
+
+import com.sun.logging.LogDomains;
+
+import jakarta.interceptor.InvocationContext;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.logging.Logger;
+
+import static com.sun.logging.LogDomains.EJB_LOGGER;
+import static java.util.logging.Level.FINE;
+
+/**
+ * Compiles the interceptor methods and the business methods invoked by the around invoke chains to
+ * method handles, adapted to a fixed type so that the chains invoke them exactly, as direct calls the
+ * JIT compiler can inline, instead of through reflection.
+ * <p>
+ * The chains fall back to reflection when a method cannot be compiled, when a security manager is
+ * installed, as reflection then invokes the methods in privileged blocks, or when the
+ * {@value #REFLECTIVE_DISPATCH_PROP} system property is true.
+ */
+final class InterceptorMethodHandles {
+
+    /**
+     * System property making the interceptor chains invoke all the methods through reflection.
+     */
+    static final String REFLECTIVE_DISPATCH_PROP = "org.glassfish.ejb.interceptors.reflectiveDispatch";
+
+    private static final Logger LOG = LogDomains.getLogger(InterceptorMethodHandles.class, EJB_LOGGER, false);
+
+    /**
+     * Type of the compiled interceptor methods: the interceptor instance and the invocation context.
+     */
+    static final MethodType INTERCEPTOR_METHOD_TYPE = MethodType.methodType(Object.class, Object.class, InvocationContext.class);
+
+    /**
+     * Type of the compiled business methods: the bean instance and the parameters.
+     */
+    static final MethodType BEAN_METHOD_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private static final boolean REFLECTIVE_DISPATCH = Boolean.getBoolean(REFLECTIVE_DISPATCH_PROP);
+
+    private InterceptorMethodHandles() {
+    }
+
+    /**
+     * @param method an around invoke or around timeout method, already made accessible
+     * @return a handle of type {@link #INTERCEPTOR_METHOD_TYPE}, or null to use reflection
+     */
+    static MethodHandle compileInterceptorMethod(Method method) {
+        if (!isEnabled()) {
+            return null;
+        }
+        try {
+            return MethodHandles.lookup().unreflect(method).asType(INTERCEPTOR_METHOD_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            LOG.log(FINE, e, () -> "Using reflection to invoke the interceptor method " + method);
+            return null;
+        }
+    }
+
+    /**
+     * The handle converts its parameters as reflection does, unboxing and widening them to the
+     * primitive parameter types of the method, and returns null for a void method.
+     *
+     * @param method a business method of the bean class
+     * @return a handle of type {@link #BEAN_METHOD_TYPE}, or null to use reflection
+     */
+    static MethodHandle compileBeanMethod(Method method) {
+        if (!isEnabled()) {
+            return null;
+        }
+        try {
+            return MethodHandles.lookup().unreflect(method)
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(BEAN_METHOD_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            LOG.log(FINE, e, () -> "Using reflection to invoke the bean method " + method);
+            return null;
+        }
+    }
+
+    private static boolean isEnabled() {
+        return !REFLECTIVE_DISPATCH && System.getSecurityManager() == null;
+    }
+}
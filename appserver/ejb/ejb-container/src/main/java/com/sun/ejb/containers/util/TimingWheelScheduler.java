@@ -0,0 +1,422 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.ejb.containers.util;
+
+import com.sun.ejb.containers.EjbContainerUtilImpl;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A hashed hierarchical timing wheel, used instead of a {@link java.util.Timer} to schedule the
+ * timeouts of the container.
+ * <p>
+ * The wheel has {@value #LEVELS} levels of {@value #WHEEL_SIZE} buckets. A bucket of the first
+ * level holds the tasks expiring at one tick, and a bucket of a higher level the tasks expiring
+ * in a whole turn of the level below it, which are moved down when that level wraps around.
+ * Scheduling and cancelling a task are constant time, whatever the number of scheduled tasks.
+ * <p>
+ * A single thread advances the wheel. It only moves the tasks between the buckets: expired tasks
+ * are handed to the dispatch executor, so that a slow task does not delay the other ones. The
+ * ticks are computed from the start time of the wheel, so a late tick is caught up by the next
+ * ones rather than shifting all the following timeouts.
+ * <p>
+ * A periodic task runs at a fixed rate, but never concurrently with itself: its next execution
+ * is scheduled when the previous one completes.
+ */
+public class TimingWheelScheduler {
+
+    private static final Logger _logger = EjbContainerUtilImpl.getLogger();
+
+    public static final long DEFAULT_TICK_MILLIS = 10;
+
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+
+    /**
+     * Number of ticks covered by the whole wheel. Tasks expiring later wait in the highest level
+     * and are placed again each time their bucket is moved down.
+     */
+    private static final long MAX_TICKS = 1L << (WHEEL_BITS * LEVELS);
+
+    private static final int PENDING = 0;
+    private static final int EXPIRED = 1;
+    private static final int CANCELLED = 2;
+
+    private final String name;
+    private final long tickNanos;
+    private final Executor executor;
+    private final Bucket[][] wheel = new Bucket[LEVELS][WHEEL_SIZE];
+
+    private final Queue<ScheduledTask> addedTasks = new ConcurrentLinkedQueue<>();
+    private final Queue<ScheduledTask> cancelledTasks = new ConcurrentLinkedQueue<>();
+
+    private final Thread tickThread;
+    private final long startNanos;
+    private volatile boolean shutdown;
+
+    /**
+     * Last tick processed. Only accessed by the tick thread.
+     */
+    private long currentTick;
+
+    private final AtomicInteger scheduledTaskCount = new AtomicInteger();
+    private final AtomicLong dispatchedTaskCount = new AtomicLong();
+    private volatile long tickLag;
+    private volatile long maxTickLag;
+    private volatile long dispatchLatency;
+    private final AtomicLong maxDispatchLatency = new AtomicLong();
+
+    /**
+     * Creates and starts the scheduler.
+     *
+     * @param name the name of the tick thread
+     * @param tickMillis the duration of a tick, which is the precision of the timeouts
+     * @param executor runs the expired tasks
+     */
+    public TimingWheelScheduler(String name, long tickMillis, Executor executor) {
+        this.name = name;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis > 0 ? tickMillis : DEFAULT_TICK_MILLIS);
+        this.executor = executor;
+        for (Bucket[] level : wheel) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                level[i] = new Bucket();
+            }
+        }
+
+        this.startNanos = System.nanoTime();
+        this.tickThread = new Thread(this::run, name);
+        this.tickThread.setDaemon(true);
+        // Do not keep the loader of the thread creating the scheduler
+        this.tickThread.setContextClassLoader(TimingWheelScheduler.class.getClassLoader());
+        this.tickThread.start();
+    }
+
+    /**
+     * Schedules a task for one execution.
+     *
+     * @param task the task
+     * @param delayMillis the delay before the execution, a negative delay meaning as soon as possible
+     * @return the handle to cancel the task
+     */
+    public ScheduledTask schedule(Runnable task, long delayMillis) {
+        return add(new ScheduledTask(task, deadline(delayMillis), 0));
+    }
+
+    /**
+     * Schedules a task for repeated executions at a fixed rate.
+     *
+     * @param task the task
+     * @param delayMillis the delay before the first execution
+     * @param periodMillis the time between the start of two executions
+     * @return the handle to cancel the task
+     */
+    public ScheduledTask scheduleAtFixedRate(Runnable task, long delayMillis, long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Non-positive period: " + periodMillis);
+        }
+        return add(new ScheduledTask(task, deadline(delayMillis), Math.max(1, TimeUnit.MILLISECONDS.toNanos(periodMillis) / tickNanos)));
+    }
+
+    /**
+     * Stops the tick thread. The scheduled tasks are not executed anymore.
+     */
+    public void shutdown() {
+        shutdown = true;
+        LockSupport.unpark(tickThread);
+    }
+
+    /**
+     * @return the number of tasks waiting for their timeout
+     */
+    public int getScheduledTaskCount() {
+        return scheduledTaskCount.get();
+    }
+
+    /**
+     * @return the number of tasks handed to the dispatch executor
+     */
+    public long getDispatchedTaskCount() {
+        return dispatchedTaskCount.get();
+    }
+
+    /**
+     * @return the delay of the last tick after its theoretical time, in milliseconds
+     */
+    public long getTickLag() {
+        return tickLag;
+    }
+
+    public long getMaxTickLag() {
+        return maxTickLag;
+    }
+
+    /**
+     * @return the time between the timeout of the last executed task and the start of its
+     *         execution, in milliseconds
+     */
+    public long getDispatchLatency() {
+        return dispatchLatency;
+    }
+
+    public long getMaxDispatchLatency() {
+        return maxDispatchLatency.get();
+    }
+
+    /**
+     * @return the first tick at or after the delay, so the task never runs before its delay
+     *         elapsed, which the timers recomputing their next expiration from the current time
+     *         rely on
+     */
+    private long deadline(long delayMillis) {
+        long delayNanos = delayMillis <= 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        return (System.nanoTime() - startNanos + delayNanos + tickNanos - 1) / tickNanos;
+    }
+
+    private ScheduledTask add(ScheduledTask task) {
+        if (shutdown) {
+            throw new IllegalStateException("Scheduler " + name + " is shut down");
+        }
+        addedTasks.add(task);
+        return task;
+    }
+
+    private void run() {
+        while (!shutdown) {
+            long nextTick = currentTick + 1;
+            long waitNanos = startNanos + nextTick * tickNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(this, waitNanos);
+                continue;
+            }
+
+            long lag = TimeUnit.NANOSECONDS.toMillis(-waitNanos);
+            tickLag = lag;
+            if (lag > maxTickLag) {
+                maxTickLag = lag;
+            }
+
+            try {
+                tick(nextTick);
+            } catch (Throwable t) {
+                _logger.log(Level.WARNING, "[" + name + "]: Error while processing timer tick", t);
+            }
+        }
+
+        addedTasks.clear();
+        cancelledTasks.clear();
+    }
+
+    private void tick(long tick) {
+        currentTick = tick;
+
+        ScheduledTask task;
+        while ((task = cancelledTasks.poll()) != null) {
+            if (task.bucket != null) {
+                task.bucket.remove(task);
+                scheduledTaskCount.decrementAndGet();
+            }
+        }
+
+        // Move the tasks of the higher levels down, from the highest one which wraps around
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((tick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                cascade(wheel[level][(int) (tick >>> (WHEEL_BITS * level)) & WHEEL_MASK]);
+            }
+        }
+
+        Bucket bucket = wheel[0][(int) tick & WHEEL_MASK];
+        while ((task = bucket.poll()) != null) {
+            scheduledTaskCount.decrementAndGet();
+            dispatch(task);
+        }
+
+        // Added last, so that they are never put in a bucket processed by this tick
+        while ((task = addedTasks.poll()) != null) {
+            if (task.state.get() == PENDING) {
+                place(task);
+            }
+        }
+    }
+
+    private void cascade(Bucket bucket) {
+        ScheduledTask task;
+        while ((task = bucket.poll()) != null) {
+            scheduledTaskCount.decrementAndGet();
+            place(task);
+        }
+    }
+
+    /**
+     * Puts the task in its bucket, or dispatches it if it has expired.
+     */
+    private void place(ScheduledTask task) {
+        long remaining = task.deadline - currentTick;
+        if (remaining <= 0) {
+            dispatch(task);
+            return;
+        }
+
+        long deadline = remaining < MAX_TICKS ? task.deadline : currentTick + MAX_TICKS - 1;
+        int level = 0;
+        while (level < LEVELS - 1 && (deadline - currentTick) >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        wheel[level][(int) (deadline >>> (WHEEL_BITS * level)) & WHEEL_MASK].add(task);
+        scheduledTaskCount.incrementAndGet();
+    }
+
+    private void dispatch(ScheduledTask task) {
+        if (task.period == 0 && !task.state.compareAndSet(PENDING, EXPIRED)) {
+            return;
+        }
+        if (task.state.get() == CANCELLED) {
+            return;
+        }
+
+        try {
+            executor.execute(task);
+            dispatchedTaskCount.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            _logger.log(Level.WARNING, "[" + name + "]: Could not execute expired task " + task.task, e);
+            if (task.period > 0) {
+                task.deadline = currentTick + task.period;
+                place(task);
+            }
+        }
+    }
+
+    /**
+     * A task scheduled by a {@link TimingWheelScheduler}.
+     */
+    public final class ScheduledTask implements Runnable {
+
+        private final Runnable task;
+        private final long period;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        /**
+         * The tick at which the task expires.
+         */
+        private volatile long deadline;
+
+        // Only accessed by the tick thread
+        private Bucket bucket;
+        private ScheduledTask previous;
+        private ScheduledTask next;
+
+        ScheduledTask(Runnable task, long deadline, long period) {
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        /**
+         * Cancels the task. An execution in progress is not interrupted, but is the last one.
+         *
+         * @return false if the task was already cancelled, or was not periodic and has already
+         *         been executed
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            cancelledTasks.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /**
+         * Executes the task on a thread of the dispatch executor.
+         */
+        @Override
+        public void run() {
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - (startNanos + deadline * tickNanos));
+            dispatchLatency = Math.max(0, latency);
+            maxDispatchLatency.accumulateAndGet(latency, Math::max);
+
+            try {
+                task.run();
+            } catch (Throwable t) {
+                _logger.log(Level.WARNING, "[" + name + "]: Exception in scheduled task " + task, t);
+            } finally {
+                if (period > 0 && state.get() == PENDING && !shutdown) {
+                    deadline += period;
+                    addedTasks.add(this);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "ScheduledTask[" + task + "]";
+        }
+    }
+
+    /**
+     * A doubly linked list of tasks, only accessed by the tick thread.
+     */
+    private static final class Bucket {
+
+        private ScheduledTask head;
+
+        void add(ScheduledTask task) {
+            task.bucket = this;
+            task.previous = null;
+            task.next = head;
+            if (head != null) {
+                head.previous = task;
+            }
+            head = task;
+        }
+
+        void remove(ScheduledTask task) {
+            if (task.previous == null) {
+                head = task.next;
+            } else {
+                task.previous.next = task.next;
+            }
+            if (task.next != null) {
+                task.next.previous = task.previous;
+            }
+            task.bucket = null;
+            task.previous = null;
+            task.next = null;
+        }
+
+        ScheduledTask poll() {
+            ScheduledTask task = head;
+            if (task != null) {
+                remove(task);
+            }
+            return task;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package com.sun.ejb.containers.util.lock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The default lock of the singletons with container managed concurrency: a fair
+ * {@link ReentrantReadWriteLock}, granting the lock in arrival order.
+ */
+public class FairReadWriteLock extends InstrumentedReadWriteLock {
+
+    private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock(true);
+    private final Lock readLock = new InstrumentedLock(rwLock.readLock());
+    private final Lock writeLock = new InstrumentedLock(rwLock.writeLock());
+
+    @Override
+    public Lock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return writeLock;
+    }
+
+    @Override
+    public boolean isReadLockedByCurrentThread() {
+        return rwLock.getReadHoldCount() > 0;
+    }
+
+    @Override
+    public boolean isWriteLockedByCurrentThread() {
+        return rwLock.isWriteLockedByCurrentThread();
+    }
+
+    /**
+     * Only times the acquisitions which cannot get the lock at once.
+     */
+    private final class InstrumentedLock implements Lock {
+
+        private final Lock delegate;
+
+        InstrumentedLock(Lock delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void lock() {
+            if (!tryLockNow()) {
+                long start = System.nanoTime();
+                delegate.lock();
+                recordWait(start);
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            if (!delegate.tryLock(0, TimeUnit.NANOSECONDS)) {
+                long start = System.nanoTime();
+                try {
+                    delegate.lockInterruptibly();
+                } finally {
+                    recordWait(start);
+                }
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            return delegate.tryLock();
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            if (delegate.tryLock(0, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            long start = System.nanoTime();
+            try {
+                return delegate.tryLock(time, unit);
+            } finally {
+                recordWait(start);
+            }
+        }
+
+        @Override
+        public void unlock() {
+            delegate.unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            return delegate.newCondition();
+        }
+
+        /**
+         * Unlike {@link Lock#tryLock()}, honours the fairness of the lock.
+         */
+        private boolean tryLockNow() {
+            try {
+                return delegate.tryLock(0, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                // lock() is not interruptible
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package com.sun.ejb.containers.util.lock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * A {@link ReadWriteLock} guarding the business methods of a singleton with container
+ * managed concurrency, which counts the acquisitions that had to wait for the lock
+ * and the time they waited.
+ */
+public abstract class InstrumentedReadWriteLock implements ReadWriteLock {
+
+    private final LongAdder contentionCount = new LongAdder();
+    private final LongAdder waitTime = new LongAdder();
+
+    /**
+     * @return true if the current thread holds the read lock
+     */
+    public abstract boolean isReadLockedByCurrentThread();
+
+    /**
+     * @return true if the current thread holds the write lock
+     */
+    public abstract boolean isWriteLockedByCurrentThread();
+
+    /**
+     * @return the number of acquisitions of the read or write lock which did not
+     *         succeed immediately
+     */
+    public long getContentionCount() {
+        return contentionCount.sum();
+    }
+
+    /**
+     * @return the total time the contended acquisitions waited for the lock, in milliseconds
+     */
+    public long getWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(waitTime.sum());
+    }
+
+    /**
+     * Records a contended acquisition, successful or not.
+     *
+     * @param startNanos the value of {@link System#nanoTime()} when the acquisition started
+     */
+    protected void recordWait(long startNanos) {
+        contentionCount.increment();
+        waitTime.add(System.nanoTime() - startNanos);
+    }
+}
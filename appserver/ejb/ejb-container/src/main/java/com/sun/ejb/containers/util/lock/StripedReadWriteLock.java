@@ -0,0 +1,434 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package com.sun.ejb.containers.util.lock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A reader-biased {@link InstrumentedReadWriteLock}, for singletons whose business methods
+ * are mostly read methods.
+ * <p>
+ * Readers announce themselves by incrementing a counter chosen by their thread among
+ * several stripes, padded apart so that they do not share a cache line, and only check that
+ * no writer is pending: uncontended readers on different cores neither write a common
+ * location nor take a lock.
+ * <p>
+ * A writer first takes a fair mutex, which orders the writers among themselves, then marks
+ * itself pending and waits until the reader counters drain. New readers seeing a pending
+ * writer back off and queue on the same mutex, so a steady flow of readers cannot starve the
+ * writers, and the readers which arrived during a write get the lock before the next writer.
+ * Timed acquisitions of the write lock give up after their timeout, whether they were waiting
+ * for the mutex or for the readers.
+ * <p>
+ * Both locks are reentrant, and the writer may take the read lock. Upgrading the read lock
+ * to the write lock is not supported, as with {@link java.util.concurrent.locks.ReentrantReadWriteLock},
+ * and neither lock supports conditions.
+ */
+public class StripedReadWriteLock extends InstrumentedReadWriteLock {
+
+    private static final int MAX_STRIPES = 64;
+
+    /**
+     * Distance between the counters of two stripes, 128 bytes.
+     */
+    private static final int PADDING = 16;
+
+    /**
+     * Number of times a writer checks the readers before parking.
+     */
+    private static final int SPINS = 64;
+
+    /**
+     * Upper bound of a park of the writer, in case it misses the wake up of the last reader.
+     */
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int stripeMask;
+    private final AtomicLongArray readers;
+    private final ThreadLocal<ReadHolds> readHolds = ThreadLocal.withInitial(() -> new ReadHolds(currentStripeIndex()));
+
+    /**
+     * Held by the writer from the start of its acquisition to its release, and briefly
+     * by the readers which backed off.
+     */
+    private final ReentrantLock writerMutex = new ReentrantLock(true);
+    private volatile boolean writerPending;
+    private volatile Thread writer;
+    private int writeHolds;
+
+    private final Lock readLock = new ReadLock();
+    private final Lock writeLock = new WriteLock();
+
+    public StripedReadWriteLock() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism the expected number of concurrent readers, which sizes the stripes
+     */
+    public StripedReadWriteLock(int parallelism) {
+        int targetStripes = Math.min(Math.max(parallelism, 1) * 2, MAX_STRIPES);
+        int stripes = 1;
+        while (stripes < targetStripes) {
+            stripes <<= 1;
+        }
+        stripeMask = stripes - 1;
+        readers = new AtomicLongArray(stripes * PADDING);
+    }
+
+    @Override
+    public Lock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return writeLock;
+    }
+
+    @Override
+    public boolean isReadLockedByCurrentThread() {
+        return readHolds.get().count > 0;
+    }
+
+    @Override
+    public boolean isWriteLockedByCurrentThread() {
+        return writer == Thread.currentThread();
+    }
+
+    /**
+     * @return the number of threads holding the read lock
+     */
+    public long getReadLockCount() {
+        long count = 0;
+        for (int i = 0; i < readers.length(); i += PADDING) {
+            count += readers.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Takes the read lock without waiting if no writer is pending, or if the current
+     * thread already holds the read or the write lock.
+     */
+    private boolean tryReadFast(ReadHolds holds) {
+        if (holds.count > 0) {
+            holds.count++;
+            return true;
+        }
+        if (writer == Thread.currentThread()) {
+            readers.incrementAndGet(holds.index);
+            holds.count = 1;
+            return true;
+        }
+        if (!writerPending) {
+            readers.incrementAndGet(holds.index);
+            if (!writerPending) {
+                holds.count = 1;
+                return true;
+            }
+            // the writer may wait for this stripe already
+            releaseRead(holds.index);
+        }
+        return false;
+    }
+
+    /**
+     * Takes the read lock once the caller holds the writer mutex, which no writer holds then.
+     */
+    private void acquireReadUnderMutex(ReadHolds holds) {
+        try {
+            readers.incrementAndGet(holds.index);
+            holds.count = 1;
+        } finally {
+            writerMutex.unlock();
+        }
+    }
+
+    private void releaseRead(int index) {
+        readers.decrementAndGet(index);
+        if (writerPending) {
+            Thread pendingWriter = writer;
+            if (pendingWriter != null) {
+                LockSupport.unpark(pendingWriter);
+            }
+        }
+    }
+
+    /**
+     * @param timed whether the acquisition gives up after {@code nanos}
+     * @param interruptible whether the acquisition gives up when the thread is interrupted
+     * @return false if the timeout elapsed
+     */
+    private boolean acquireWrite(boolean timed, long nanos, boolean interruptible) throws InterruptedException {
+        Thread current = Thread.currentThread();
+        if (writer == current) {
+            writeHolds++;
+            return true;
+        }
+
+        long start = System.nanoTime();
+        boolean contended = false;
+        if (writerMutex.hasQueuedThreads() || !writerMutex.tryLock()) {
+            contended = true;
+            if (timed) {
+                if (!writerMutex.tryLock(nanos, TimeUnit.NANOSECONDS)) {
+                    recordWait(start);
+                    return false;
+                }
+            } else if (interruptible) {
+                try {
+                    writerMutex.lockInterruptibly();
+                } catch (InterruptedException e) {
+                    recordWait(start);
+                    throw e;
+                }
+            } else {
+                writerMutex.lock();
+            }
+        }
+
+        writer = current;
+        writerPending = true;
+        boolean interrupted = false;
+        for (int spins = 0; getReadLockCount() != 0; spins++) {
+            contended = true;
+            if (spins < SPINS) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long parkNanos = MAX_PARK_NANOS;
+            if (timed) {
+                long remaining = nanos - (System.nanoTime() - start);
+                if (remaining <= 0) {
+                    abortWrite(start, interrupted);
+                    return false;
+                }
+                parkNanos = Math.min(parkNanos, remaining);
+            }
+            LockSupport.parkNanos(this, parkNanos);
+            if (Thread.interrupted()) {
+                if (timed || interruptible) {
+                    abortWrite(start, false);
+                    throw new InterruptedException();
+                }
+                interrupted = true;
+            }
+        }
+
+        writeHolds = 1;
+        if (contended) {
+            recordWait(start);
+        }
+        if (interrupted) {
+            current.interrupt();
+        }
+        return true;
+    }
+
+    private void abortWrite(long start, boolean interrupted) {
+        releaseWrite();
+        recordWait(start);
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void releaseWrite() {
+        writer = null;
+        writerPending = false;
+        writerMutex.unlock();
+    }
+
+    private final class ReadLock implements Lock {
+
+        @Override
+        public void lock() {
+            ReadHolds holds = readHolds.get();
+            if (!tryReadFast(holds)) {
+                long start = System.nanoTime();
+                writerMutex.lock();
+                acquireReadUnderMutex(holds);
+                recordWait(start);
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            ReadHolds holds = readHolds.get();
+            if (!tryReadFast(holds)) {
+                long start = System.nanoTime();
+                try {
+                    writerMutex.lockInterruptibly();
+                } finally {
+                    recordWait(start);
+                }
+                acquireReadUnderMutex(holds);
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            ReadHolds holds = readHolds.get();
+            if (tryReadFast(holds)) {
+                return true;
+            }
+            if (writerMutex.tryLock()) {
+                acquireReadUnderMutex(holds);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            ReadHolds holds = readHolds.get();
+            if (tryReadFast(holds)) {
+                return true;
+            }
+            long start = System.nanoTime();
+            try {
+                if (!writerMutex.tryLock(time, unit)) {
+                    return false;
+                }
+            } finally {
+                recordWait(start);
+            }
+            acquireReadUnderMutex(holds);
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+            ReadHolds holds = readHolds.get();
+            if (holds.count <= 0) {
+                throw new IllegalMonitorStateException();
+            }
+            if (--holds.count == 0) {
+                releaseRead(holds.index);
+            }
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final class WriteLock implements Lock {
+
+        @Override
+        public void lock() {
+            try {
+                acquireWrite(false, 0, false);
+            } catch (InterruptedException e) {
+                // not thrown by an uninterruptible acquisition
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            acquireWrite(false, 0, true);
+        }
+
+        @Override
+        public boolean tryLock() {
+            Thread current = Thread.currentThread();
+            if (writer == current) {
+                writeHolds++;
+                return true;
+            }
+            if (!writerMutex.tryLock()) {
+                return false;
+            }
+            if (getReadLockCount() != 0) {
+                writerMutex.unlock();
+                return false;
+            }
+            writer = current;
+            writerPending = true;
+            if (getReadLockCount() != 0) {
+                // a reader came in before seeing the writer pending
+                releaseWrite();
+                return false;
+            }
+            writeHolds = 1;
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            return acquireWrite(true, unit.toNanos(time), true);
+        }
+
+        @Override
+        public void unlock() {
+            if (writer != Thread.currentThread()) {
+                throw new IllegalMonitorStateException();
+            }
+            if (--writeHolds == 0) {
+                releaseWrite();
+            }
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * @return the index of the counter of the stripe of the current thread
+     */
+    private int currentStripeIndex() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return ((hash ^ (hash >>> 16)) & stripeMask) * PADDING;
+    }
+
+    /**
+     * The read holds of a thread, and the index of the counter of its stripe.
+     * <p>
+     * Static, so that the value kept by a thread does not keep the lock reachable after its bean is gone.
+     */
+    private static final class ReadHolds {
+
+        private final int index;
+        private int count;
+
+        ReadHolds(int index) {
+            this.index = index;
+        }
+    }
+}
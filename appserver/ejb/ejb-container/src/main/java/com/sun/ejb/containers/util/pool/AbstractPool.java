@@ -24,6 +24,7 @@
 package com.sun.ejb.containers.util.pool;
 
 import com.sun.ejb.containers.EjbContainerUtilImpl;
+import com.sun.ejb.containers.util.TimingWheelScheduler.ScheduledTask;
 import com.sun.ejb.monitoring.probes.EjbPoolProbeProvider;
 import com.sun.ejb.monitoring.stats.EjbMonitoringUtils;
 
@@ -64,7 +65,7 @@ public abstract class AbstractPool implements Pool {
     protected long maxWaitTimeInMillis;
     protected int idleTimeoutInSeconds;
 
-    private AbstractPoolTimerTask poolTimerTask;
+    private ScheduledTask poolTimerTask;
 
     // class loader used as context class loader for asynchronous operations
     protected ClassLoader containerClassLoader;
@@ -117,10 +118,10 @@ public abstract class AbstractPool implements Pool {
 
         if (this.idleTimeoutInSeconds > 0) {
             try {
-                this.poolTimerTask = new AbstractPoolTimerTask();
-                EjbContainerUtilImpl.getInstance()
-                                    .getTimer()
-                                    .scheduleAtFixedRate(poolTimerTask, idleTimeoutInSeconds * 1000L, idleTimeoutInSeconds * 1000L);
+                this.poolTimerTask = EjbContainerUtilImpl.getInstance()
+                                    .getScheduler()
+                                    .scheduleAtFixedRate(new AbstractPoolTimerTask(), idleTimeoutInSeconds * 1000L,
+                                        idleTimeoutInSeconds * 1000L);
             } catch (Throwable th) {
                 _logger.log(WARNING, "[AbstractPool]: Could not add AbstractPoolTimerTask" + " ... Continuing anyway...");
             }
@@ -334,7 +335,7 @@ public abstract class AbstractPool implements Pool {
 
     protected abstract void removeIdleObjects();
 
-    private class AbstractPoolTimerTask extends java.util.TimerTask {
+    private class AbstractPoolTimerTask implements Runnable {
 
         AbstractPoolTimerTask() {
         }
@@ -435,9 +436,9 @@ public abstract class AbstractPool implements Pool {
     // Methods on EJBPoolStatsProvider
     public void appendStats(StringBuffer sbuf) {
         sbuf.append("[Pool: ")
-            .append("SZ=").append(pooledObjects.size()).append("; ")
-            .append("CC=").append(createdCount).append("; ")
-            .append("DC=").append(destroyedCount).append("; ")
+            .append("SZ=").append(getSize()).append("; ")
+            .append("CC=").append(getCreatedCount()).append("; ")
+            .append("DC=").append(getDestroyedCount()).append("; ")
             .append("WC=").append(waitCount).append("; ")
             .append("MSG=0");
 
@@ -453,7 +454,7 @@ public abstract class AbstractPool implements Pool {
     }
 
     public int getNumBeansInPool() {
-        return pooledObjects.size();
+        return getSize();
     }
 
     public int getNumThreadsWaiting() {
@@ -461,11 +462,11 @@ public abstract class AbstractPool implements Pool {
     }
 
     public int getTotalBeansCreated() {
-        return createdCount;
+        return getCreatedCount();
     }
 
     public int getTotalBeansDestroyed() {
-        return destroyedCount;
+        return getDestroyedCount();
     }
 
     public String getAllMonitoredAttrbuteValues() {
@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.ejb.containers.util.pool;
+
+import com.sun.ejb.containers.EJBContextImpl;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.sun.enterprise.util.Utility.setContextClassLoader;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+/**
+ * A {@link NonBlockingPool} which does not take a lock to get or return an object.
+ * <p>
+ * A returned object is put in a slot local to the returning thread, shared by the threads
+ * mapped to the same slot, from which the next {@link #getObject(Object)} of that thread takes
+ * it back. If the slot is already taken, the object goes on a shared lock-free stack, from
+ * which the threads missing their slot take the most recently returned objects, and from the
+ * bottom of which the idle objects are removed. The number of slots is about twice the number
+ * of processors.
+ * <p>
+ * The steady pool size, maximum pool size and idle timeout work as in {@link NonBlockingPool},
+ * except that a resize is only requested when a thread misses its slot. The singleton bean
+ * pool is not supported.
+ */
+public class ConcurrentNonBlockingPool extends NonBlockingPool {
+
+    /**
+     * Distance between two slots in the slot array, so that each slot has its own cache line.
+     */
+    private static final int SLOT_SPACING = 16;
+
+    private final AtomicReferenceArray<Object> slots;
+    private final int slotMask;
+
+    private final Deque<Object> sharedObjects = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger sharedCount = new AtomicInteger();
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger destroyed = new AtomicInteger();
+    private final LongAdder successes = new LongAdder();
+
+    private final AtomicBoolean resizeTaskAdded = new AtomicBoolean();
+    private final AtomicBoolean resizing = new AtomicBoolean();
+
+    public ConcurrentNonBlockingPool(long beanId, String poolName, ObjectFactory factory, int steadyPoolSize, int resizeQuantity,
+            int maxPoolSize, int idleTimeoutInSeconds, ClassLoader loader) {
+        int slotCount = Integer.highestOneBit(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 2,
+            maxPoolSize <= 0 ? Integer.MAX_VALUE : maxPoolSize)));
+        this.slots = new AtomicReferenceArray<>(slotCount * SLOT_SPACING);
+        this.slotMask = slotCount - 1;
+        this.poolName = poolName;
+        this.beanId = beanId;
+        initializePool(factory, steadyPoolSize, resizeQuantity, maxPoolSize, idleTimeoutInSeconds, loader);
+    }
+
+    @Override
+    public Object getObject(Object param) {
+        int home = homeSlot();
+        Object pooledObject = slots.getAndSet(home, null);
+        if (pooledObject != null) {
+            successes.increment();
+            return pooledObject;
+        }
+
+        pooledObject = sharedObjects.pollFirst();
+        if (pooledObject != null) {
+            if (sharedCount.decrementAndGet() < steadyPoolSize) {
+                requestResize();
+            }
+            successes.increment();
+            return pooledObject;
+        }
+
+        pooledObject = takeFromOtherSlot(home);
+        if (pooledObject != null) {
+            requestResize();
+            successes.increment();
+            return pooledObject;
+        }
+
+        requestResize();
+        poolProbeNotifier.ejbObjectAddedEvent(beanId, appName, modName, ejbName);
+        created.incrementAndGet();
+        try {
+            return pooledObjectFactory.create(param);
+        } catch (RuntimeException th) {
+            poolProbeNotifier.ejbObjectAddFailedEvent(beanId, appName, modName, ejbName);
+            created.decrementAndGet();
+            throw th;
+        }
+    }
+
+    @Override
+    public void returnObject(Object object) {
+        if (!poolClosed) {
+            if (slots.compareAndSet(homeSlot(), null, object)) {
+                return;
+            }
+            if (pushShared(object)) {
+                return;
+            }
+        }
+
+        poolProbeNotifier.ejbObjectDestroyedEvent(beanId, appName, modName, ejbName);
+        destroyed.incrementAndGet();
+        try {
+            pooledObjectFactory.destroy(object);
+        } catch (Exception ex) {
+            _logger.log(FINE, "exception in returnObj", ex);
+        }
+    }
+
+    @Override
+    public void destroyObject(Object object) {
+        poolProbeNotifier.ejbObjectDestroyedEvent(beanId, appName, modName, ejbName);
+        destroyed.incrementAndGet();
+        try {
+            pooledObjectFactory.destroy(object);
+        } catch (Exception ex) {
+            _logger.log(FINE, "exception in destroyObject", ex);
+        }
+    }
+
+    @Override
+    protected void preload(int count) {
+        List<Object> newInstances = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                newInstances.add(pooledObjectFactory.create(null));
+            }
+        } catch (Exception ex) {
+            // Need not throw this exception up since we are pre-populating
+        }
+
+        created.addAndGet(newInstances.size());
+        for (Object newInstance : newInstances) {
+            if (poolClosed || !pushShared(newInstance)) {
+                destroyObject(newInstance);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        poolClosed = true;
+        if (poolTimerTask != null) {
+            try {
+                poolTimerTask.cancel();
+                _logger.log(FINE, () -> "[Pool-" + poolName + "]: Cancelled pool timer task " + " at: " + (new java.util.Date()));
+            } catch (Throwable th) {
+                // Can safely ignore this!!
+            }
+        }
+
+        List<Object> removeList = new ArrayList<>();
+        drain(removeList, Integer.MAX_VALUE);
+        _logger.log(FINE, () -> "[Pool-" + poolName + "]: Destroying " + removeList.size() + " beans from the pool...");
+
+        // Since we're calling into EJB code, we need to set context class loader
+        ClassLoader origLoader = setContextClassLoader(containerClassLoader);
+        try {
+            for (Object pooledObject : removeList) {
+                try {
+                    destroyObject(pooledObject);
+                } catch (Throwable th) {
+                    _logger.log(WARNING, "[Pool-" + poolName + "]: Error while destroying", th);
+                }
+            }
+            _logger.log(FINE, "Pool-" + poolName + "]: Pool closed....");
+            unregisterProbeProvider();
+        } finally {
+            setContextClassLoader(origLoader);
+        }
+
+        this.poolTimerTask = null;
+        this.containerClassLoader = null;
+    }
+
+    @Override
+    protected void remove(int count) {
+        List<Object> removeList = new ArrayList<>();
+        drain(removeList, count);
+        for (Object pooledObject : removeList) {
+            destroyObject(pooledObject);
+        }
+    }
+
+    @Override
+    protected boolean startResizing() {
+        return !poolClosed && resizing.compareAndSet(false, true);
+    }
+
+    @Override
+    protected void endResizing() {
+        resizing.set(false);
+    }
+
+    @Override
+    protected void resizeTaskCompleted() {
+        resizeTaskAdded.set(false);
+    }
+
+    /**
+     * Removes the idle objects from the bottom of the shared stack first, since they were
+     * returned first, and then from the slots.
+     */
+    @Override
+    protected long prepareResize(List<Object> removeList) {
+        int curSize = getSize();
+        if (curSize > steadyPoolSize) {
+            if ((idleTimeoutInSeconds <= 0) || (resizeQuantity <= 0)) {
+                return 0;
+            }
+            int victimCount = (curSize > (steadyPoolSize + resizeQuantity)) ? resizeQuantity : (curSize - steadyPoolSize);
+            long allowedIdleTime = System.currentTimeMillis() - idleTimeoutInSeconds * 1000L;
+            _logger.log(FINE, () -> "[Pool-" + poolName + "]: Resize:: reducing " + " pool size by: " + victimCount);
+
+            int removed = 0;
+            while (removed < victimCount) {
+                Object pooledObject = sharedObjects.pollLast();
+                if (pooledObject == null) {
+                    break;
+                }
+                if (!isIdle(pooledObject, allowedIdleTime)) {
+                    sharedObjects.offerLast(pooledObject);
+                    break;
+                }
+                sharedCount.decrementAndGet();
+                removeList.add(pooledObject);
+                removed++;
+            }
+            for (int i = 0; i < slots.length() && removed < victimCount; i += SLOT_SPACING) {
+                Object pooledObject = slots.get(i);
+                if (pooledObject != null && isIdle(pooledObject, allowedIdleTime) && slots.compareAndSet(i, pooledObject, null)) {
+                    removeList.add(pooledObject);
+                    removed++;
+                }
+            }
+            for (int i = 0; i < removed; i++) {
+                poolProbeNotifier.ejbObjectDestroyedEvent(beanId, appName, modName, ejbName);
+                destroyed.incrementAndGet();
+            }
+        } else if (curSize < steadyPoolSize && maintainSteadySize) {
+            return getPopulateCount(curSize);
+        }
+        return 0;
+    }
+
+    /**
+     * @param pooledObject an object of the pool
+     * @param allowedIdleTime the time before which the object must have been used last to be idle
+     * @return true if the object has not been used since the given time
+     */
+    protected boolean isIdle(Object pooledObject, long allowedIdleTime) {
+        return !(pooledObject instanceof EJBContextImpl) || ((EJBContextImpl) pooledObject).getLastTimeUsed() <= allowedIdleTime;
+    }
+
+    private int homeSlot() {
+        return ((int) Thread.currentThread().getId() & slotMask) * SLOT_SPACING;
+    }
+
+    private Object takeFromOtherSlot(int home) {
+        for (int i = 0; i < slots.length(); i += SLOT_SPACING) {
+            if (i != home && slots.get(i) != null) {
+                Object pooledObject = slots.getAndSet(i, null);
+                if (pooledObject != null) {
+                    return pooledObject;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return false if the pool is full
+     */
+    private boolean pushShared(Object object) {
+        int size = sharedCount.incrementAndGet();
+        // Only count the occupied slots when the pool may be full
+        if (size > maxPoolSize - (slotMask + 1) && size + getOccupiedSlotCount() > maxPoolSize) {
+            sharedCount.decrementAndGet();
+            return false;
+        }
+        sharedObjects.offerFirst(object);
+        return true;
+    }
+
+    private void drain(List<Object> removeList, int count) {
+        Object pooledObject;
+        while (removeList.size() < count && (pooledObject = sharedObjects.pollFirst()) != null) {
+            sharedCount.decrementAndGet();
+            removeList.add(pooledObject);
+        }
+        for (int i = 0; i < slots.length() && removeList.size() < count; i += SLOT_SPACING) {
+            pooledObject = slots.getAndSet(i, null);
+            if (pooledObject != null) {
+                removeList.add(pooledObject);
+            }
+        }
+    }
+
+    private void requestResize() {
+        if (maintainSteadySize && !resizeTaskAdded.get() && resizeTaskAdded.compareAndSet(false, true)) {
+            addResizeTaskForImmediateExecution();
+        }
+    }
+
+    private int getOccupiedSlotCount() {
+        int count = 0;
+        for (int i = 0; i < slots.length(); i += SLOT_SPACING) {
+            if (slots.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int getSize() {
+        return Math.max(0, sharedCount.get()) + getOccupiedSlotCount();
+    }
+
+    @Override
+    public int getCreatedCount() {
+        return created.get();
+    }
+
+    @Override
+    public int getDestroyedCount() {
+        return destroyed.get();
+    }
+
+    @Override
+    public int getPoolSuccess() {
+        return successes.intValue();
+    }
+
+    @Override
+    public String getAllMonitoredAttrbuteValues() {
+        StringBuffer sbuf = new StringBuffer();
+        sbuf.append("createdCount=").append(getCreatedCount()).append(";")
+            .append("destroyedCount=").append(getDestroyedCount()).append(";")
+            .append("waitCount=").append(waitCount).append(";")
+            .append("size=").append(getSize()).append(";");
+        sbuf.append("maxPoolSize=").append(maxPoolSize).append(";");
+
+        return sbuf.toString();
+    }
+}
@@ -24,12 +24,12 @@ package com.sun.ejb.containers.util.pool;
 
 import com.sun.ejb.containers.EJBContextImpl;
 import com.sun.ejb.containers.EjbContainerUtilImpl;
+import com.sun.ejb.containers.util.TimingWheelScheduler.ScheduledTask;
 
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.TimerTask;
 
 import static com.sun.enterprise.util.Utility.setContextClassLoader;
 import static java.security.AccessController.doPrivileged;
@@ -61,9 +61,8 @@ public class NonBlockingPool extends AbstractPool {
     volatile protected boolean addedIdleBeanWork;
     protected boolean inResizing;
 
-    private String poolName;
-    private TimerTask poolTimerTask;
-    private boolean maintainSteadySize;
+    protected ScheduledTask poolTimerTask;
+    protected boolean maintainSteadySize;
 
     /**
      * If glassfish-ejb-jar.xml <enterprise-beans><property>singleton-bean-pool is true, steadyPoolSize is 1, and
@@ -74,7 +73,7 @@ public class NonBlockingPool extends AbstractPool {
 
     // Set to true after close(). Prevents race condition
     // of async resize task kicking in after close().
-    private boolean poolClosed;
+    protected volatile boolean poolClosed;
 
 
     protected NonBlockingPool() {
@@ -109,11 +108,10 @@ public class NonBlockingPool extends AbstractPool {
 
         if (this.idleTimeoutInSeconds > 0 && this.resizeQuantity > 0) {
             try {
-                this.poolTimerTask = new PoolResizeTimerTask();
-                EjbContainerUtilImpl.getInstance()
-                                    .getTimer()
+                this.poolTimerTask = EjbContainerUtilImpl.getInstance()
+                                    .getScheduler()
                                     .scheduleAtFixedRate(
-                                        poolTimerTask, idleTimeoutInSeconds * 1000L, idleTimeoutInSeconds * 1000L);
+                                        new PoolResizeTimerTask(), idleTimeoutInSeconds * 1000L, idleTimeoutInSeconds * 1000L);
 
                 _logger.log(FINE, () -> "[Pool-" + poolName + "]: Added PoolResizeTimerTask...");
             } catch (Throwable th) {
@@ -200,15 +198,13 @@ public class NonBlockingPool extends AbstractPool {
         }
     }
 
-    private void addResizeTaskForImmediateExecution() {
+    protected void addResizeTaskForImmediateExecution() {
         try {
             ReSizeWork work = new ReSizeWork();
             EjbContainerUtilImpl.getInstance().addWork(work);
             _logger.log(FINE, () -> "[Pool-" + poolName + "]: Added PoolResizeTimerTask...");
         } catch (Exception ex) {
-            synchronized (pooledObjects) {
-                addedResizeTask = false;
-            }
+            resizeTaskCompleted();
             _logger.log(WARNING, ex, () -> "[Pool-" + poolName + "]: Cannot perform " + " pool resize task");
         }
     }
@@ -394,6 +390,16 @@ public class NonBlockingPool extends AbstractPool {
     protected void removeIdleObjects() {
     }
 
+    /**
+     * Called when the resize task added by {@link #addResizeTaskForImmediateExecution()} is done or could not be added,
+     * so that the next one can be added.
+     */
+    protected void resizeTaskCompleted() {
+        synchronized (pooledObjects) {
+            addedResizeTask = false;
+        }
+    }
+
     protected void doResize() {
         if (poolClosed) {
             return;
@@ -422,58 +428,13 @@ public class NonBlockingPool extends AbstractPool {
                         + steadyPoolSize + " resizeQuantity ::" + resizeQuantity + " maxPoolSize ::" + maxPoolSize);
             startTime = System.currentTimeMillis();
 
-            List<Object> removeList = new ArrayList<>();
-            long populateCount = 0;
-            synchronized (pooledObjects) {
-                if ((inResizing == true) || poolClosed) {
-                    return;
-                }
-
-                enteredResizeBlock = true;
-                inResizing = true;
-
-                int curSize = pooledObjects.size();
-
-                if (curSize > steadyPoolSize) {
-
-                    // possible to reduce pool size....
-                    if ((idleTimeoutInSeconds <= 0) || (resizeQuantity <= 0)) {
-                        return;
-                    }
-                    int victimCount = (curSize > (steadyPoolSize + resizeQuantity)) ? resizeQuantity : (curSize - steadyPoolSize);
-                    long allowedIdleTime = System.currentTimeMillis() - idleTimeoutInSeconds * 1000L;
-                    _logger.log(FINE, () -> "[Pool-" + poolName + "]: Resize:: reducing " + " pool size by: " + victimCount);
-
-                    for (int i = 0; i < victimCount; i++) {
-                        EJBContextImpl ejbContext = (EJBContextImpl) pooledObjects.get(0);
-                        if (ejbContext.getLastTimeUsed() <= allowedIdleTime) {
-                            removeList.add(pooledObjects.remove(0));
-
-                            poolProbeNotifier.ejbObjectDestroyedEvent(beanId, appName, modName, ejbName);
-                            destroyedCount++;
-                        } else {
-                            break;
-                        }
-                    }
-                } else if (curSize < steadyPoolSize) {
-
-                    // Need to populate....
-                    if (maintainSteadySize == false) {
-                        return;
-                    }
-
-                    if (resizeQuantity <= 0) {
-                        populateCount = steadyPoolSize - curSize;
-                    } else {
-                        while ((curSize + populateCount) < steadyPoolSize) {
-                            populateCount += resizeQuantity;
-                        }
-                        if ((curSize + populateCount) > maxPoolSize) {
-                            populateCount -= (curSize + populateCount) - maxPoolSize;
-                        }
-                    }
-                }
+            if (!startResizing()) {
+                return;
             }
+            enteredResizeBlock = true;
+
+            List<Object> removeList = new ArrayList<>();
+            long populateCount = prepareResize(removeList);
 
             if (removeList.size() > 0) {
                 int sz = removeList.size();
@@ -491,13 +452,13 @@ public class NonBlockingPool extends AbstractPool {
 
                 if (_logger.isLoggable(FINE)) {
                     _logger.log(FINE, "[Pool-" + poolName + "]: Attempting to preload " + populateCount
-                            + " beans. CurSize/MaxPoolSize: " + pooledObjects.size() + "/" + maxPoolSize);
+                            + " beans. CurSize/MaxPoolSize: " + getSize() + "/" + maxPoolSize);
                 }
 
                 preload((int) populateCount);
 
                 _logger.log(FINE,
-                        () -> "[Pool-" + poolName + "]: After preload " + "CurSize/MaxPoolSize: " + pooledObjects.size() + "/" + maxPoolSize);
+                        () -> "[Pool-" + poolName + "]: After preload " + "CurSize/MaxPoolSize: " + getSize() + "/" + maxPoolSize);
             }
 
         } catch (Throwable th) {
@@ -505,9 +466,7 @@ public class NonBlockingPool extends AbstractPool {
 
         } finally {
             if (enteredResizeBlock) {
-                synchronized (pooledObjects) {
-                    inResizing = false;
-                }
+                endResizing();
             }
 
             if (System.getSecurityManager() == null) {
@@ -531,11 +490,96 @@ public class NonBlockingPool extends AbstractPool {
         }
     }
 
+    /**
+     * Marks the pool as being resized.
+     *
+     * @return false if the pool is already being resized or is closed
+     */
+    protected boolean startResizing() {
+        synchronized (pooledObjects) {
+            if (inResizing || poolClosed) {
+                return false;
+            }
+            inResizing = true;
+            return true;
+        }
+    }
+
+    protected void endResizing() {
+        synchronized (pooledObjects) {
+            inResizing = false;
+        }
+    }
+
+    /**
+     * Removes from the pool the objects idle for longer than the idle timeout, above the steady pool size, or computes
+     * how many objects must be added to the pool to get back to the steady pool size.
+     *
+     * @param removeList receives the removed objects, to be destroyed by the caller
+     * @return the number of objects to add to the pool
+     */
+    protected long prepareResize(List<Object> removeList) {
+        long populateCount = 0;
+        synchronized (pooledObjects) {
+            int curSize = pooledObjects.size();
+
+            if (curSize > steadyPoolSize) {
+
+                // possible to reduce pool size....
+                if ((idleTimeoutInSeconds <= 0) || (resizeQuantity <= 0)) {
+                    return 0;
+                }
+                int victimCount = (curSize > (steadyPoolSize + resizeQuantity)) ? resizeQuantity : (curSize - steadyPoolSize);
+                long allowedIdleTime = System.currentTimeMillis() - idleTimeoutInSeconds * 1000L;
+                _logger.log(FINE, () -> "[Pool-" + poolName + "]: Resize:: reducing " + " pool size by: " + victimCount);
+
+                for (int i = 0; i < victimCount; i++) {
+                    EJBContextImpl ejbContext = (EJBContextImpl) pooledObjects.get(0);
+                    if (ejbContext.getLastTimeUsed() <= allowedIdleTime) {
+                        removeList.add(pooledObjects.remove(0));
+
+                        poolProbeNotifier.ejbObjectDestroyedEvent(beanId, appName, modName, ejbName);
+                        destroyedCount++;
+                    } else {
+                        break;
+                    }
+                }
+            } else if (curSize < steadyPoolSize) {
+
+                // Need to populate....
+                if (maintainSteadySize == false) {
+                    return 0;
+                }
+                populateCount = getPopulateCount(curSize);
+            }
+        }
+        return populateCount;
+    }
+
+    /**
+     * @param curSize the current size of the pool, below the steady pool size
+     * @return the number of objects to add to the pool to reach the steady pool size, in steps of the resize quantity
+     */
+    protected long getPopulateCount(int curSize) {
+        long populateCount = 0;
+        if (resizeQuantity <= 0) {
+            populateCount = steadyPoolSize - curSize;
+        } else {
+            while ((curSize + populateCount) < steadyPoolSize) {
+                populateCount += resizeQuantity;
+            }
+            if ((curSize + populateCount) > maxPoolSize) {
+                populateCount -= (curSize + populateCount) - maxPoolSize;
+            }
+        }
+        return populateCount;
+    }
+
     @Override
     public String getAllAttrValues() {
         StringBuffer sbuf = new StringBuffer("[Pool-" + poolName + "] ");
-        sbuf.append("CC=").append(createdCount).append("; ").append("DC=").append(destroyedCount).append("; ").append("CS=")
-                .append(pooledObjects.size()).append("; ").append("SS=").append(steadyPoolSize).append("; ").append("MS=").append(maxPoolSize)
+        sbuf.append("CC=").append(getCreatedCount()).append("; ").append("DC=").append(getDestroyedCount()).append("; ").append("CS=")
+                .append(getSize()).append("; ").append("SS=").append(steadyPoolSize).append("; ").append("MS=").append(maxPoolSize)
                 .append(";");
         return sbuf.toString();
     }
@@ -548,9 +592,7 @@ public class NonBlockingPool extends AbstractPool {
             } catch (Exception ex) {
                 _logger.log(WARNING, "[Pool-" + poolName + "]: Exception during reSize", ex);
             } finally {
-                synchronized (pooledObjects) {
-                    addedResizeTask = false;
-                }
+                resizeTaskCompleted();
             }
         }
     }
@@ -567,7 +609,7 @@ public class NonBlockingPool extends AbstractPool {
         }
     }
 
-    private class PoolResizeTimerTask extends java.util.TimerTask {
+    private class PoolResizeTimerTask implements Runnable {
         PoolResizeTimerTask() {
         }
 
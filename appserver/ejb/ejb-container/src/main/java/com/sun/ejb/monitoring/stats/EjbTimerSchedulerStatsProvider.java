@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.ejb.monitoring.stats;
+
+import com.sun.ejb.containers.EjbContainerUtilImpl;
+import com.sun.ejb.containers.util.TimingWheelScheduler;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.glassfish.external.probe.provider.PluginPoint;
+import org.glassfish.external.probe.provider.StatsProviderManager;
+import org.glassfish.external.statistics.CountStatistic;
+import org.glassfish.external.statistics.RangeStatistic;
+import org.glassfish.external.statistics.impl.CountStatisticImpl;
+import org.glassfish.external.statistics.impl.RangeStatisticImpl;
+import org.glassfish.gmbal.AMXMetadata;
+import org.glassfish.gmbal.Description;
+import org.glassfish.gmbal.ManagedAttribute;
+import org.glassfish.gmbal.ManagedObject;
+
+/**
+ * Statistics of the {@link TimingWheelScheduler} of the EJB container.
+ */
+@AMXMetadata(type="ejb-timer-scheduler-mon", group="monitoring", isSingleton=true)
+@ManagedObject
+@Description("Ejb Timer Scheduler Statistics")
+public class EjbTimerSchedulerStatsProvider {
+
+    private static final Logger _logger = EjbContainerUtilImpl.getLogger();
+
+    private static final String TIMER_SCHEDULER_NODE = "ejb/timer-scheduler";
+
+    private final TimingWheelScheduler delegate;
+
+    private final RangeStatisticImpl tickLagStat;
+    private final RangeStatisticImpl dispatchLatencyStat;
+    private final CountStatisticImpl scheduledTasksStat;
+    private final CountStatisticImpl dispatchedTasksStat;
+
+    private boolean registered;
+
+    public EjbTimerSchedulerStatsProvider(TimingWheelScheduler delegate) {
+        this.delegate = delegate;
+
+        long now = System.currentTimeMillis();
+        tickLagStat = new RangeStatisticImpl(0, 0, 0,
+            "TickLag", "millisecond", "Delay of the last tick of the timer scheduler", now, now);
+        dispatchLatencyStat = new RangeStatisticImpl(0, 0, 0,
+            "DispatchLatency", "millisecond", "Time between the timeout of the last task and the start of its execution", now, now);
+        scheduledTasksStat = new CountStatisticImpl(
+            "NumScheduledTasks", "count", "Number of tasks waiting for their timeout");
+        dispatchedTasksStat = new CountStatisticImpl(
+            "NumDispatchedTasks", "count", "Number of expired tasks handed to the dispatch threads");
+    }
+
+    public void register() {
+        try {
+            StatsProviderManager.register(EjbMonitoringUtils.EJB_MONITORING_NODE, PluginPoint.SERVER, TIMER_SCHEDULER_NODE, this);
+            registered = true;
+        } catch (Exception ex) {
+            _logger.log(Level.FINE, "Could not register the timer scheduler statistics", ex);
+        }
+    }
+
+    public void unregister() {
+        if (registered) {
+            registered = false;
+            StatsProviderManager.unregister(this);
+        }
+    }
+
+    @ManagedAttribute(id="ticklag")
+    @Description("Delay of the last tick of the timer scheduler")
+    public RangeStatistic getTickLag() {
+        tickLagStat.setCurrent(delegate.getTickLag());
+        if (delegate.getMaxTickLag() > tickLagStat.getHighWaterMark()) {
+            tickLagStat.setHighWaterMark(delegate.getMaxTickLag());
+        }
+        return tickLagStat;
+    }
+
+    @ManagedAttribute(id="dispatchlatency")
+    @Description("Time between the timeout of the last task and the start of its execution")
+    public RangeStatistic getDispatchLatency() {
+        dispatchLatencyStat.setCurrent(delegate.getDispatchLatency());
+        if (delegate.getMaxDispatchLatency() > dispatchLatencyStat.getHighWaterMark()) {
+            dispatchLatencyStat.setHighWaterMark(delegate.getMaxDispatchLatency());
+        }
+        return dispatchLatencyStat;
+    }
+
+    @ManagedAttribute(id="numscheduledtasks")
+    @Description("Number of tasks waiting for their timeout")
+    public CountStatistic getNumScheduledTasks() {
+        scheduledTasksStat.setCount(delegate.getScheduledTaskCount());
+        return scheduledTasksStat;
+    }
+
+    @ManagedAttribute(id="numdispatchedtasks")
+    @Description("Number of expired tasks handed to the dispatch threads")
+    public CountStatistic getNumDispatchedTasks() {
+        dispatchedTasksStat.setCount(delegate.getDispatchedTaskCount());
+        return dispatchedTasksStat;
+    }
+}
@@ -16,7 +16,13 @@
 
 package com.sun.ejb.monitoring.stats;
 
+import com.sun.ejb.containers.util.lock.InstrumentedReadWriteLock;
+
+import org.glassfish.external.statistics.CountStatistic;
+import org.glassfish.external.statistics.impl.CountStatisticImpl;
 import org.glassfish.gmbal.AMXMetadata;
+import org.glassfish.gmbal.Description;
+import org.glassfish.gmbal.ManagedAttribute;
 import org.glassfish.gmbal.ManagedObject;
 
 /**
@@ -28,8 +34,42 @@ import org.glassfish.gmbal.ManagedObject;
 @ManagedObject
 public class SingletonBeanStatsProvider extends EjbMonitoringStatsProvider {
 
+    private final InstrumentedReadWriteLock lock;
+
+    private final CountStatisticImpl lockContentionStat = new CountStatisticImpl(
+        "LockContentionCount", "count", "Number of business method calls which waited for the concurrency lock");
+    private final CountStatisticImpl lockWaitTimeStat = new CountStatisticImpl(
+        "LockWaitTime", "millisecond", "Total time business method calls waited for the concurrency lock");
+
     public SingletonBeanStatsProvider(long beanId, String appName,
             String moduleName, String beanName) {
+        this(beanId, appName, moduleName, beanName, null);
+    }
+
+    /**
+     * @param lock the concurrency lock of a singleton with container managed concurrency, or null
+     */
+    public SingletonBeanStatsProvider(long beanId, String appName,
+            String moduleName, String beanName, InstrumentedReadWriteLock lock) {
         super(beanId, appName, moduleName, beanName);
+        this.lock = lock;
+    }
+
+    @ManagedAttribute(id="lockcontentioncount")
+    @Description("Number of business method calls which waited for the concurrency lock")
+    public CountStatistic getLockContentionCount() {
+        if (lock != null) {
+            lockContentionStat.setCount(lock.getContentionCount());
+        }
+        return lockContentionStat;
+    }
+
+    @ManagedAttribute(id="lockwaittime")
+    @Description("Total time business method calls waited for the concurrency lock")
+    public CountStatistic getLockWaitTime() {
+        if (lock != null) {
+            lockWaitTimeStat.setCount(lock.getWaitTime());
+        }
+        return lockWaitTimeStat;
     }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package com.sun.ejb.containers.interceptors;
+
+import jakarta.interceptor.InvocationContext;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Measures a business method call through a chain of three around invoke interceptors, with the
+ * interceptor and bean methods invoked through reflection, as before, and through compiled method
+ * handles.
+ * <p>
+ * The measurement times are kept short, so that the benchmark can run with the tests. Increase the
+ * times to get representative results.
+ */
+public class InterceptorChainBenchmarkTest {
+
+    @Test
+    public void interceptorChain() throws Exception {
+        Options options = new OptionsBuilder()
+            .include(getClass().getName() + ".*")
+            .warmupIterations(1).warmupTime(TimeValue.milliseconds(200L))
+            .measurementIterations(1).measurementTime(TimeValue.milliseconds(500L))
+            .forks(1).timeout(TimeValue.seconds(10L))
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.NANOSECONDS)
+            .shouldFailOnError(true)
+            .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+        assertThat(results, hasSize(2));
+    }
+
+    @Test
+    public void compiledChainBehavesAsReflectiveChain() throws Throwable {
+        Chains chains = new Chains();
+        chains.createChains();
+        assertThat(chains.compiledChain, notNullValue());
+
+        assertThat(chains.invoke(chains.reflectiveChain, 1, 2), equalTo(3));
+        assertThat(chains.invoke(chains.compiledChain, 1, 2), equalTo(3));
+        // widened as by reflection
+        assertThat(chains.invoke(chains.compiledChain, (byte) 1, 'a'), equalTo(98));
+
+        Method fail = Bean.class.getMethod("fail", String.class);
+        IllegalStateException reflective = assertThrows(IllegalStateException.class,
+            () -> chains.invoke(chains.createChain(fail, false), fail, "reflective"));
+        IllegalStateException compiled = assertThrows(IllegalStateException.class,
+            () -> chains.invoke(chains.createChain(fail, true), fail, "compiled"));
+        assertThat(reflective.getMessage(), equalTo("reflective"));
+        assertThat(compiled.getMessage(), equalTo("compiled"));
+
+        Method reset = Bean.class.getMethod("reset");
+        assertThat(chains.invoke(chains.createChain(reset, true), reset), equalTo(null));
+    }
+
+    @Benchmark
+    public Object reflectiveChain(Chains chains) throws Throwable {
+        return chains.invoke(chains.reflectiveChain, 1, 2);
+    }
+
+    @Benchmark
+    public Object compiledChain(Chains chains) throws Throwable {
+        return chains.invoke(chains.compiledChain, 1, 2);
+    }
+
+    /**
+     * The chains of the business method, built once as at deployment time.
+     */
+    @State(Scope.Thread)
+    public static class Chains {
+
+        final Bean target = new Bean();
+        final Object[] interceptorInstances = {new FirstInterceptor(), new SecondInterceptor(), new ThirdInterceptor()};
+        Method beanMethod;
+        InterceptorManager.InterceptorChain reflectiveChain;
+        InterceptorManager.InterceptorChain compiledChain;
+
+        @Setup
+        public void createChains() throws Exception {
+            beanMethod = Bean.class.getMethod("add", int.class, int.class);
+            reflectiveChain = createChain(beanMethod, false);
+            compiledChain = createChain(beanMethod, true);
+        }
+
+        InterceptorManager.InterceptorChain createChain(Method method, boolean compile) throws Exception {
+            AroundInvokeInterceptor[] interceptors = new AroundInvokeInterceptor[interceptorInstances.length];
+            for (int i = 0; i < interceptors.length; i++) {
+                Method aroundInvoke = interceptorInstances[i].getClass().getDeclaredMethod("aroundInvoke", InvocationContext.class);
+                interceptors[i] = new AroundInvokeInterceptor(i, aroundInvoke, compile);
+            }
+            return new AroundInvokeChainImpl(interceptors, compile ? InterceptorMethodHandles.compileBeanMethod(method) : null);
+        }
+
+        Object invoke(InterceptorManager.InterceptorChain chain, Object... params) throws Throwable {
+            return invoke(chain, beanMethod, params);
+        }
+
+        Object invoke(InterceptorManager.InterceptorChain chain, Method method, Object... params) throws Throwable {
+            AroundInvokeInvocationContext ctx = new AroundInvokeInvocationContext(target, interceptorInstances, chain, method, params);
+            return chain.invokeNext(0, ctx);
+        }
+    }
+
+    public static class Bean {
+
+        private int calls;
+
+        public int add(int a, int b) {
+            calls++;
+            return a + b;
+        }
+
+        public void fail(String message) {
+            throw new IllegalStateException(message);
+        }
+
+        public void reset() {
+            calls = 0;
+        }
+    }
+
+    static class FirstInterceptor {
+
+        private Object aroundInvoke(InvocationContext ctx) throws Exception {
+            return ctx.proceed();
+        }
+    }
+
+    static class SecondInterceptor {
+
+        private Object aroundInvoke(InvocationContext ctx) throws Exception {
+            return ctx.proceed();
+        }
+    }
+
+    static class ThirdInterceptor {
+
+        private Object aroundInvoke(InvocationContext ctx) throws Exception {
+            return ctx.proceed();
+        }
+    }
+}
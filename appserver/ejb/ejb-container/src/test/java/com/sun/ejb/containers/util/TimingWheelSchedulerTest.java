@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.ejb.containers.util;
+
+import com.sun.ejb.containers.util.TimingWheelScheduler.ScheduledTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelSchedulerTest {
+
+    private ExecutorService executor;
+    private TimingWheelScheduler scheduler;
+
+    @BeforeEach
+    public void createScheduler() {
+        executor = Executors.newFixedThreadPool(2, r -> new Thread(r, "dispatcher"));
+        scheduler = new TimingWheelScheduler("test-scheduler", 1, executor);
+    }
+
+    @AfterEach
+    public void shutdownScheduler() {
+        scheduler.shutdown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void taskRunsAfterItsDelayOnTheExecutor() throws Exception {
+        CountDownLatch executed = new CountDownLatch(1);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        long start = System.nanoTime();
+        scheduler.schedule(() -> {
+            threadName.set(Thread.currentThread().getName());
+            executed.countDown();
+        }, 50);
+
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), greaterThanOrEqualTo(50L));
+        assertThat(threadName.get(), startsWith("dispatcher"));
+    }
+
+    @Test
+    public void tasksNeverRunBeforeTheirDelay() throws Exception {
+        TimingWheelScheduler coarseScheduler = new TimingWheelScheduler("coarse-scheduler", 10, executor);
+        try {
+            int tasks = 20;
+            CountDownLatch executed = new CountDownLatch(tasks);
+            List<Long> earlyTasks = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                // schedule at various offsets within a tick
+                Thread.sleep(i % 7);
+                long delay = 1 + i % 15;
+                long scheduled = System.nanoTime();
+                coarseScheduler.schedule(() -> {
+                    long elapsed = System.nanoTime() - scheduled;
+                    if (elapsed < TimeUnit.MILLISECONDS.toNanos(delay)) {
+                        synchronized (earlyTasks) {
+                            earlyTasks.add(elapsed);
+                        }
+                    }
+                    executed.countDown();
+                }, delay);
+            }
+
+            assertTrue(executed.await(5, TimeUnit.SECONDS));
+            assertThat(earlyTasks, equalTo(List.of()));
+        } finally {
+            coarseScheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void taskBeyondTheFirstLevelRunsOnTime() throws Exception {
+        CountDownLatch executed = new CountDownLatch(1);
+        long start = System.nanoTime();
+        scheduler.schedule(executed::countDown, 700);
+
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertThat(elapsed, greaterThanOrEqualTo(700L));
+        assertThat(elapsed, lessThan(1500L));
+    }
+
+    @Test
+    public void cancelledTasksAreRemoved() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        List<ScheduledTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            tasks.add(scheduler.schedule(executions::incrementAndGet, 60_000 + i));
+        }
+        waitFor(() -> scheduler.getScheduledTaskCount() == tasks.size());
+
+        for (ScheduledTask task : tasks) {
+            assertTrue(task.cancel());
+        }
+        waitFor(() -> scheduler.getScheduledTaskCount() == 0);
+
+        assertFalse(tasks.get(0).cancel());
+        assertTrue(tasks.get(0).isCancelled());
+        assertThat(executions.get(), equalTo(0));
+    }
+
+    @Test
+    public void periodicTaskRunsUntilCancelled() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        ScheduledTask task = scheduler.scheduleAtFixedRate(() -> {
+            if (running.incrementAndGet() > 1) {
+                overlaps.incrementAndGet();
+            }
+            executions.incrementAndGet();
+            sleep(5);
+            running.decrementAndGet();
+        }, 0, 2);
+
+        waitFor(() -> executions.get() >= 10);
+        assertTrue(task.cancel());
+        Thread.sleep(50);
+        int executionsAfterCancel = executions.get();
+        Thread.sleep(100);
+
+        assertThat(executions.get(), equalTo(executionsAfterCancel));
+        assertThat(overlaps.get(), equalTo(0));
+    }
+
+    @Test
+    public void slowTaskDoesNotDelayOtherTasks() throws Exception {
+        CountDownLatch slowTaskStarted = new CountDownLatch(1);
+        CountDownLatch executed = new CountDownLatch(1);
+        AtomicReference<String> tickThread = new AtomicReference<>();
+        scheduler.schedule(() -> {
+            slowTaskStarted.countDown();
+            sleep(2000);
+        }, 0);
+        assertTrue(slowTaskStarted.await(5, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        scheduler.schedule(() -> {
+            tickThread.set(Thread.currentThread().getName());
+            executed.countDown();
+        }, 10);
+
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(1000L));
+        assertThat(tickThread.get(), not(equalTo("test-scheduler")));
+        assertThat(scheduler.getDispatchedTaskCount(), equalTo(2L));
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.isTrue()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Condition {
+        boolean isTrue();
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package com.sun.ejb.containers.util.lock;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StripedReadWriteLockTest {
+
+    private ExecutorService executor;
+    private StripedReadWriteLock lock;
+
+    @BeforeEach
+    public void createLock() {
+        executor = Executors.newCachedThreadPool();
+        lock = new StripedReadWriteLock(4);
+    }
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void readersShareTheLock() throws Exception {
+        lock.readLock().lock();
+        try {
+            assertTrue(executor.submit(() -> tryAndRelease(lock.readLock())).get(5, TimeUnit.SECONDS));
+            assertFalse(executor.submit(() -> tryAndRelease(lock.writeLock())).get(5, TimeUnit.SECONDS));
+            assertThat(lock.getReadLockCount(), equalTo(1L));
+            assertTrue(lock.isReadLockedByCurrentThread());
+        } finally {
+            lock.readLock().unlock();
+        }
+        assertThat(lock.getReadLockCount(), equalTo(0L));
+        assertFalse(lock.isReadLockedByCurrentThread());
+    }
+
+    @Test
+    public void locksAreReentrantAndTheWriterMayRead() {
+        lock.writeLock().lock();
+        lock.writeLock().lock();
+        lock.readLock().lock();
+        lock.readLock().lock();
+        assertTrue(lock.isWriteLockedByCurrentThread());
+        assertTrue(lock.isReadLockedByCurrentThread());
+        lock.readLock().unlock();
+        lock.readLock().unlock();
+        lock.writeLock().unlock();
+        assertTrue(lock.isWriteLockedByCurrentThread());
+        lock.writeLock().unlock();
+        assertFalse(lock.isWriteLockedByCurrentThread());
+        assertThrows(IllegalMonitorStateException.class, () -> lock.writeLock().unlock());
+        assertThrows(IllegalMonitorStateException.class, () -> lock.readLock().unlock());
+    }
+
+    @Test
+    public void timedWriterGivesUpWhileReadersHoldTheLock() throws Exception {
+        lock.readLock().lock();
+        try {
+            Future<Boolean> writer = executor.submit(() -> lock.writeLock().tryLock(50, TimeUnit.MILLISECONDS));
+            assertFalse(writer.get(5, TimeUnit.SECONDS));
+        } finally {
+            lock.readLock().unlock();
+        }
+        assertThat(lock.getContentionCount(), greaterThan(0L));
+        // the failed writer left no trace
+        assertTrue(tryAndRelease(lock.writeLock()));
+    }
+
+    @Test
+    public void pendingWriterBlocksNewReaders() throws Exception {
+        CountDownLatch writerLocked = new CountDownLatch(1);
+        CountDownLatch readerLocked = new CountDownLatch(1);
+        AtomicReference<Thread> writerThread = new AtomicReference<>();
+        lock.readLock().lock();
+        Future<?> writer = executor.submit(() -> {
+            writerThread.set(Thread.currentThread());
+            lock.writeLock().lock();
+            writerLocked.countDown();
+            lock.writeLock().unlock();
+        });
+        awaitParked(writerThread);
+
+        executor.submit(() -> {
+            lock.readLock().lock();
+            readerLocked.countDown();
+            lock.readLock().unlock();
+        });
+        assertFalse(readerLocked.await(100, TimeUnit.MILLISECONDS));
+        assertThat(writerLocked.getCount(), equalTo(1L));
+
+        lock.readLock().unlock();
+        assertTrue(writerLocked.await(5, TimeUnit.SECONDS));
+        assertTrue(readerLocked.await(5, TimeUnit.SECONDS));
+        writer.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void writersExcludeEachOtherAndTheReaders() throws Exception {
+        int[] counter = new int[2];
+        int threads = 8;
+        int iterations = 20_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            boolean writerThread = t % 4 == 0;
+            executor.submit(() -> {
+                try {
+                    for (int i = 0; i < iterations; i++) {
+                        if (writerThread && i % 8 == 0) {
+                            lock.writeLock().lock();
+                            try {
+                                counter[0]++;
+                                counter[1]++;
+                            } finally {
+                                lock.writeLock().unlock();
+                            }
+                        } else {
+                            lock.readLock().lock();
+                            try {
+                                if (counter[0] != counter[1]) {
+                                    throw new IllegalStateException("Read during a write");
+                                }
+                            } finally {
+                                lock.readLock().unlock();
+                            }
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+                return null;
+            });
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        assertThat(counter[0], equalTo(2 * iterations / 8));
+        assertThat(lock.getReadLockCount(), equalTo(0L));
+    }
+
+    /**
+     * Waits until the writer parks, waiting for the readers.
+     */
+    @Test
+    public void threadsDoNotKeepADiscardedLock() throws Exception {
+        WeakReference<StripedReadWriteLock> discarded = readAndDiscard();
+
+        // The read holds of this thread are still set for the discarded lock
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (discarded.get() != null) {
+            assertTrue(System.nanoTime() - deadline < 0, "The discarded lock is still reachable");
+            System.gc();
+            Thread.sleep(10L);
+        }
+    }
+
+    private static WeakReference<StripedReadWriteLock> readAndDiscard() {
+        StripedReadWriteLock discarded = new StripedReadWriteLock(4);
+        discarded.readLock().lock();
+        discarded.readLock().unlock();
+        return new WeakReference<>(discarded);
+    }
+
+    private static void awaitParked(AtomicReference<Thread> thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.get() == null || thread.get().getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static boolean tryAndRelease(Lock lock) {
+        if (lock.tryLock()) {
+            lock.unlock();
+            return true;
+        }
+        return false;
+    }
+}
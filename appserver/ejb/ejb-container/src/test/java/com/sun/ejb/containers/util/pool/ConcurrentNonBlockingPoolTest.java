@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.ejb.containers.util.pool;
+
+import com.sun.ejb.monitoring.probes.EjbPoolProbeProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ConcurrentNonBlockingPoolTest {
+
+    @Test
+    public void returnedObjectIsReused() {
+        ConcurrentNonBlockingPool pool = createPool(10);
+        Object first = pool.getObject(null);
+        pool.returnObject(first);
+
+        assertThat(pool.getObject(null), sameInstance(first));
+        assertThat(pool.getCreatedCount(), equalTo(1));
+        assertThat(pool.getPoolSuccess(), equalTo(1));
+    }
+
+    @Test
+    public void poolIsBoundedByMaxPoolSize() {
+        ConcurrentNonBlockingPool pool = createPool(4);
+        List<Object> objects = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            objects.add(pool.getObject(null));
+        }
+        objects.forEach(pool::returnObject);
+
+        assertThat(pool.getSize(), equalTo(4));
+        assertThat(pool.getCreatedCount(), equalTo(10));
+        assertThat(pool.getDestroyedCount(), equalTo(6));
+    }
+
+    @Test
+    public void resizeRemovesIdleObjectsDownToSteadyPoolSize() {
+        ConcurrentNonBlockingPool pool = createPool(10);
+        List<Object> objects = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            objects.add(pool.getObject(null));
+        }
+        objects.forEach(pool::returnObject);
+        pool.steadyPoolSize = 1;
+        pool.resizeQuantity = 2;
+        pool.idleTimeoutInSeconds = 1;
+
+        pool.doResize();
+        assertThat(pool.getSize(), equalTo(3));
+        pool.doResize();
+        assertThat(pool.getSize(), equalTo(1));
+        pool.doResize();
+        assertThat(pool.getSize(), equalTo(1));
+        assertThat(pool.getDestroyedCount(), equalTo(4));
+    }
+
+    @Test
+    public void objectIsNeverSharedBetweenThreads() throws Exception {
+        ConcurrentNonBlockingPool pool = createPool(16);
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                tasks.add(() -> {
+                    for (int j = 0; j < 10_000; j++) {
+                        PooledObject object = (PooledObject) pool.getObject(null);
+                        if (!object.inUse.compareAndSet(false, true)) {
+                            conflicts.incrementAndGet();
+                        }
+                        object.inUse.set(false);
+                        pool.returnObject(object);
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(conflicts.get(), equalTo(0));
+        assertThat(pool.getCreatedCount() - pool.getDestroyedCount(), equalTo(pool.getSize()));
+        assertThat(pool.getSize(), lessThanOrEqualTo(16));
+
+        pool.close();
+        assertThat(pool.getSize(), equalTo(0));
+        assertThat(pool.getCreatedCount(), equalTo(pool.getDestroyedCount()));
+    }
+
+    private static ConcurrentNonBlockingPool createPool(int maxPoolSize) {
+        ConcurrentNonBlockingPool pool = new ConcurrentNonBlockingPool(1L, "test", new PooledObjectFactory(), 0, 0, maxPoolSize, 0,
+            ConcurrentNonBlockingPoolTest.class.getClassLoader());
+        pool.poolProbeNotifier = new EjbPoolProbeProvider();
+        return pool;
+    }
+
+    private static final class PooledObject {
+        private final AtomicBoolean inUse = new AtomicBoolean();
+    }
+
+    private static final class PooledObjectFactory implements ObjectFactory {
+
+        @Override
+        public Object create(Object param) {
+            return new PooledObject();
+        }
+
+        @Override
+        public void destroy(Object obj) {
+        }
+    }
+}
@@ -357,16 +357,13 @@ public final class MessageBeanContainer extends BaseContainer implements Message
         // on message bean resources independent of the pool.
 
         messageBeanPool =
-            new NonBlockingPool(
-                getContainerId(),
+            createNonBlockingPool(
                 appEJBName_,
                 new MessageBeanContextFactory(),
                 beanPoolDescriptor.getSteadyPoolSize(),
                 beanPoolDescriptor.getPoolResizeQuantity(),
                 beanPoolDescriptor.getMaxPoolSize(),
-                beanPoolDescriptor.getPoolIdleTimeoutInSeconds(),
-                loader,
-                Boolean.parseBoolean(descriptor.getEjbBundleDescriptor().getEnterpriseBeansProperty(SINGLETON_BEAN_POOL_PROP)));
+                beanPoolDescriptor.getPoolIdleTimeoutInSeconds());
     }
 
     protected static int stringToInt(String val, String appName, Logger logger) {
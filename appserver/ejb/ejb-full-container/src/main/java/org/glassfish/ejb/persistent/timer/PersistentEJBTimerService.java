@@ -25,6 +25,7 @@ import com.sun.ejb.containers.EjbContainerUtil;
 import com.sun.ejb.containers.EjbContainerUtilImpl;
 import com.sun.ejb.containers.RuntimeTimerState;
 import com.sun.ejb.containers.TimerPrimaryKey;
+import com.sun.ejb.containers.util.TimingWheelScheduler.ScheduledTask;
 import com.sun.enterprise.config.serverbeans.ServerTags;
 import com.sun.enterprise.deployment.MethodDescriptor;
 import com.sun.enterprise.deployment.ScheduledTimerDescriptor;
@@ -51,6 +52,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -112,6 +114,30 @@ public class PersistentEJBTimerService extends EJBTimerService {
     // Possible values "redeliver" and "stop"
     private String operationOnConnectionFailure;
 
+    // Interval between the batch updates of the last expiration of the periodic
+    // timers, 0 to update it in the transaction of each expiration
+    private static final String BATCH_UPDATE_INTERVAL = "batch-update-interval-in-millis";
+    private static final String BATCH_UPDATE_SIZE = "batch-update-size";
+
+    // Only the timers expiring within this window are restored, the other ones
+    // when they come into the window. 0 to restore all the timers at once
+    private static final String RESTORE_LOOKAHEAD_WINDOW = "restore-lookahead-window-in-millis";
+
+    // Number of partitions in which the timers of another server are migrated
+    private static final String MIGRATION_PARTITIONS = "migration-partitions";
+    private static final int DEFAULT_MIGRATION_PARTITIONS = 16;
+
+    private long batchUpdateInterval;
+    private int batchUpdateSize = TimerStateBatchUpdater.DEFAULT_BATCH_SIZE;
+    private TimerStateBatchUpdater batchUpdater;
+    private ScheduledTask batchUpdateTask;
+
+    private long restoreLookaheadWindow;
+    private int migrationPartitions = DEFAULT_MIGRATION_PARTITIONS;
+
+    private final TimerRestoreWindow restoreWindow;
+    private ScheduledTask restoreTask;
+
     private PersistentEJBTimerService(String ejbName, boolean removeOldTimers) throws Exception {
         super();
 
@@ -121,6 +147,7 @@ public class PersistentEJBTimerService extends EJBTimerService {
         this.removeOldTimers = removeOldTimers;
 
         initProperties();
+        restoreWindow = new TimerRestoreWindow(restoreLookaheadWindow, System.currentTimeMillis());
 
         // Verify that the DataSource ref is correct and store it to check if connections can be aquired if
         // the timeout fails
@@ -129,6 +156,19 @@ public class PersistentEJBTimerService extends EJBTimerService {
         // The default value for ReadDBBeforeTimeout in case of PE
         // is false.
         setPerformDBReadBeforeTimeout(!isDas);
+
+        if (batchUpdateInterval > 0) {
+            batchUpdater = new TimerStateBatchUpdater(timerDataSource, ownerIdOfThisServer_, batchUpdateSize,
+                    timerId -> expungeTimer(timerId, false));
+            batchUpdateTask = ejbContainerUtil.getScheduler().scheduleAtFixedRate(
+                    new BackgroundWork(batchUpdater::flush), batchUpdateInterval, batchUpdateInterval);
+        }
+
+        if (restoreWindow.isEnabled()) {
+            long period = Math.max(restoreLookaheadWindow / 2, 1);
+            restoreTask = ejbContainerUtil.getScheduler().scheduleAtFixedRate(
+                    new BackgroundWork(this::restoreTimersAhead), period, period);
+        }
     }
 
     private void initProperties() {
@@ -148,6 +188,12 @@ public class PersistentEJBTimerService extends EJBTimerService {
                     getDBReadBeforeTimeoutProperty();
 
                 operationOnConnectionFailure = ejbt.getPropertyValue(ON_CONECTION_FAILURE);
+
+                batchUpdateInterval = getLongProperty(BATCH_UPDATE_INTERVAL, 0);
+                batchUpdateSize = (int) getLongProperty(BATCH_UPDATE_SIZE, TimerStateBatchUpdater.DEFAULT_BATCH_SIZE);
+                restoreLookaheadWindow = getLongProperty(RESTORE_LOOKAHEAD_WINDOW, 0);
+                migrationPartitions = (int) Math.max(1,
+                        getLongProperty(MIGRATION_PARTITIONS, DEFAULT_MIGRATION_PARTITIONS));
             }
 
         } catch(Exception e) {
@@ -157,6 +203,20 @@ public class PersistentEJBTimerService extends EJBTimerService {
 
     }
 
+    private long getLongProperty(String name, long defaultValue) {
+        String value = ejbt.getPropertyValue(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            logger.log(Level.WARNING, "Invalid value " + value + " of the timer service property "
+                    + name + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
     /**
      *--------------------------------------------------------------
      * Methods to be implemented for Admin CLI
@@ -203,17 +263,47 @@ public class PersistentEJBTimerService extends EJBTimerService {
         logger.log(Level.INFO, "Beginning timer migration process from " +
                    "owner " + fromOwnerId + " to " + ownerIdOfThisServer);
 
+        // Claim the timers partition by partition.  Each server instance starts
+        // with a different partition, so that the instances migrating the timers
+        // of the same server at the same time mostly claim different partitions,
+        // while any of them claims all the partitions left by the others.
+        // Timers created before their hash code was stored all are in partition 0.
+        int firstPartition = Math.floorMod(ownerIdOfThisServer.hashCode(), migrationPartitions);
+        int totalTimersMigrated = 0;
+        for (int i = 0; i < migrationPartitions; i++) {
+            synchronized (restoreWindow) {
+                totalTimersMigrated += migrateTimers(fromOwnerId, ownerIdOfThisServer,
+                        (firstPartition + i) % migrationPartitions);
+            }
+        }
+
+        if( totalTimersMigrated == 0 ) {
+            logger.log(Level.INFO, fromOwnerId + " has 0 timers in need of migration");
+        }
+
+        return totalTimersMigrated;
+
+    } //migrateTimers()
+
+    /**
+     * Take ownership of the timers of one partition of another server's timers.
+     */
+    private int migrateTimers(String fromOwnerId, String ownerIdOfThisServer, int partition) {
+
         TransactionManager tm = ejbContainerUtil.getTransactionManager();
 
-        Set toRestore = null;
+        Set<TimerState> toRestore = null;
         int totalTimersMigrated = 0;
 
         try {
 
             tm.begin();
 
-            toRestore = timerLocal_.findTimersOwnedBy(fromOwnerId);
-            totalTimersMigrated = timerLocal_.migrateTimers(fromOwnerId, ownerIdOfThisServer);
+            toRestore = timerLocal_.findTimersOwnedBy(fromOwnerId, partition, migrationPartitions);
+            if( !toRestore.isEmpty() ) {
+                totalTimersMigrated = timerLocal_.migrateTimers(fromOwnerId, ownerIdOfThisServer,
+                        partition, migrationPartitions);
+            }
 
             tm.commit();
 
@@ -235,7 +325,6 @@ public class PersistentEJBTimerService extends EJBTimerService {
             throw ejbEx;
         }
 
-// XXX if( totalTimersMigrated  == toRestore.size() ) { XXX ???
         if( totalTimersMigrated > 0 ) {
 
             boolean success = false;
@@ -243,12 +332,12 @@ public class PersistentEJBTimerService extends EJBTimerService {
 
                 logger.log(Level.INFO, "Timer migration phase 1 complete. " +
                            "Changed ownership of " + toRestore.size() +
-                           " timers.  Now reactivating timers...");
+                           " timers of partition " + partition + ".  Now reactivating timers...");
 
                 _notifyContainers(toRestore);
 
                 tm.begin();
-                _restoreTimers(toRestore);
+                _restoreTimers(restoreWindow.expiringBeforeHorizon(toRestore));
                 success = true;
 
             } catch(Exception e) {
@@ -275,13 +364,11 @@ public class PersistentEJBTimerService extends EJBTimerService {
                     }
                 }
             }
-        } else {
-            logger.log(Level.INFO, fromOwnerId + " has 0 timers in need of migration");
         }
 
         return totalTimersMigrated;
 
-    } //migrateTimers()
+    }
 
     @Override
     public boolean isPersistent() {
@@ -351,7 +438,7 @@ public class PersistentEJBTimerService extends EJBTimerService {
                 restoreTimers();
                 rc = true;
             } else {
-                int s = timerLocal_.findActiveTimersOwnedByThisServer().size();
+                int s = timerLocal_.countActiveTimersOwnedByThisServer();
                 if (s > 0) {
                     logger.log(Level.INFO, "[" + s + "] EJB Timers owned by this server will be restored when timeout beans are loaded");
                 } else {
@@ -389,7 +476,14 @@ public class PersistentEJBTimerService extends EJBTimerService {
             // is initialized.  In addition, there's an initialization
             // cost to generating the SQL for the underlying
             // jpql queries the first time any TimerBean query is called.
-            _restoreTimers(timerLocal_.findActiveTimersOwnedByThisServer());
+            synchronized (restoreWindow) {
+                if (restoreWindow.isEnabled()) {
+                    _restoreTimers(timerLocal_.findActiveTimersOwnedByThisServerExpiringBetween(
+                            Long.MIN_VALUE, restoreWindow.getHorizon()));
+                } else {
+                    _restoreTimers(timerLocal_.findActiveTimersOwnedByThisServer());
+                }
+            }
 
         } finally {
             // try to commit regardless of success or failure.
@@ -401,6 +495,55 @@ public class PersistentEJBTimerService extends EJBTimerService {
         }
     }
 
+    /**
+     * Periodically called to restore the timers owned by this server which
+     * come into the lookahead window.
+     */
+    private void restoreTimersAhead() {
+        if (isShutdown()) {
+            return;
+        }
+
+        restoreWindow.advance(System.currentTimeMillis(), this::restoreTimersExpiringBetween);
+    }
+
+    private boolean restoreTimersExpiringBetween(long fromTime, long toTime) {
+        TransactionManager tm = ejbContainerUtil.getTransactionManager();
+        boolean success = false;
+        try {
+            tm.begin();
+
+            Set<TimerState> timers = timerLocal_.findActiveTimersOwnedByThisServerExpiringBetween(
+                    fromTime, toTime);
+            if (!timers.isEmpty()) {
+                // Automatic timers restored after the deployment of their
+                // container are not known to it yet
+                _notifyContainers(timers);
+                _restoreTimers(timers);
+                if (logger.isLoggable(Level.FINE)) {
+                    logger.log(Level.FINE, "Restored " + timers.size() +
+                            " timers expiring before " + new Date(toTime));
+                }
+            }
+            success = true;
+
+        } catch(Exception e) {
+            logger.log(Level.WARNING, "Cannot restore the timers expiring before " +
+                       new Date(toTime), e);
+        } finally {
+            // We're not modifying any state in this tx so no harm in
+            // always committing.
+            try {
+                tm.commit();
+            } catch(Exception e) {
+                logger.log(Level.FINE, "timer restoration error", e);
+                success = false;
+            }
+        }
+        // Otherwise retried with the next window
+        return success;
+    }
+
     /**
      * The portion of timer migration that notifies containers about
      * automatic timers being migrated to this instance
@@ -717,8 +860,16 @@ public class PersistentEJBTimerService extends EJBTimerService {
         try {
             tm.begin();
 
-            Set<TimerState> timers = _restoreTimers(
-                    timerLocal_.findActiveTimersOwnedByThisServerByContainer(containerId));
+            Set<TimerState> timers;
+            synchronized (restoreWindow) {
+                if (restoreWindow.isEnabled()) {
+                    timers = _restoreTimers(timerLocal_.findActiveTimersOwnedByThisServerByContainerExpiringBefore(
+                            containerId, restoreWindow.getHorizon()));
+                } else {
+                    timers = _restoreTimers(
+                            timerLocal_.findActiveTimersOwnedByThisServerByContainer(containerId));
+                }
+            }
 
             if (timers.size() > 0) {
                 logger.log(Level.FINE, "Found " + timers.size() +
@@ -1130,6 +1281,10 @@ public class PersistentEJBTimerService extends EJBTimerService {
     protected boolean isValidTimerForThisServer(TimerPrimaryKey timerId,
                                           RuntimeTimerState timerState) {
         if (timerState.isPersistent()) {
+            if (batchUpdater != null && timerState.isPeriodic()) {
+                // Checked when its last expiration is written
+                return true;
+            }
             if( getValidTimerFromDB( timerId ) == null ) {
                 return false;
             }
@@ -1144,6 +1299,11 @@ public class PersistentEJBTimerService extends EJBTimerService {
     protected void resetLastExpiration(TimerPrimaryKey timerId,
                                           RuntimeTimerState timerState) {
         if (timerState.isPersistent()) {
+            if (batchUpdater != null) {
+                batchUpdater.lastExpirationChanged(timerId, System.currentTimeMillis());
+                return;
+            }
+
             TimerState timer = getValidTimerFromDB( timerId );
             if( null == timer ) {
                 return;
@@ -1254,6 +1414,9 @@ public class PersistentEJBTimerService extends EJBTimerService {
         if( removeTimerBean ) {
             removeTimerBean(timerId);
         }
+        if (batchUpdater != null) {
+            batchUpdater.discard(timerId);
+        }
         // And finish in the superclass...
         super.expungeTimer(timerId, removeTimerBean);
     }
@@ -1264,6 +1427,20 @@ public class PersistentEJBTimerService extends EJBTimerService {
         return timerLocal_;
     }
 
+    @Override
+    protected void shutdown() {
+        super.shutdown();
+        if (restoreTask != null) {
+            restoreTask.cancel();
+        }
+        if (batchUpdater != null) {
+            batchUpdateTask.cancel();
+            // Write the last expirations, so that they are not considered
+            // missed when the timers are restored or migrated
+            batchUpdater.flush();
+        }
+    }
+
     @Override
     protected boolean stopOnFailure() {
         return stopOnFailedConnection();
@@ -1500,4 +1677,32 @@ public class PersistentEJBTimerService extends EJBTimerService {
         }
         return upgrade;
     }
+
+    /**
+     * Periodic task of the scheduler, which hands its work to the container
+     * thread pool rather than blocking a dispatch thread of the scheduler.
+     * The work is not queued again until the previous run completed.
+     */
+    private static final class BackgroundWork implements Runnable {
+
+        private final Runnable work;
+        private final AtomicBoolean queued = new AtomicBoolean();
+
+        BackgroundWork(Runnable work) {
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            if (queued.compareAndSet(false, true)) {
+                EjbContainerUtilImpl.getInstance().addWork(() -> {
+                    try {
+                        work.run();
+                    } finally {
+                        queued.set(false);
+                    }
+                });
+            }
+        }
+    }
 }
@@ -29,6 +29,7 @@ import jakarta.ejb.SessionContext;
 import jakarta.ejb.Stateless;
 import jakarta.ejb.TimerConfig;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
 
@@ -185,6 +186,37 @@ public class TimerBean implements TimerLocal {
         return new HashSet(q.getResultList());
     }
 
+    public Set findTimersByOwnerAndStateExpiringBetween
+        (String ownerId, int state, long fromTime, long toTime) {
+        Query q = em.createNamedQuery("findTimersByOwnerAndStateExpiringBetween");
+        q.setParameter(1, ownerId);
+        q.setParameter(2, state);
+        q.setParameter(3, fromTime);
+        q.setParameter(4, toTime);
+        return new HashSet(q.getResultList());
+    }
+
+    public Set findTimersByContainerAndOwnerAndStateExpiringBefore
+        (long containerId, String ownerId, int state, long time) {
+        Query q = em.createNamedQuery("findTimersByContainerAndOwnerAndStateExpiringBefore");
+        q.setParameter(1, containerId);
+        q.setParameter(2, ownerId);
+        q.setParameter(3, state);
+        q.setParameter(4, time);
+        return new HashSet(q.getResultList());
+    }
+
+    public Set findTimersOwnedBy(String ownerId, int partition, int partitionCount) {
+        Query q = em.createNamedQuery("findTimersByOwnerAndPartition");
+        q.setParameter(1, ownerId);
+        q.setParameter(2, partitionCount);
+        q.setParameter(3, partition);
+        // Another server instance migrating the same partition waits for
+        // this transaction, and then finds no timer left to migrate
+        q.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        return new HashSet(q.getResultList());
+    }
+
 
     //
     // Query methods for timer counts
@@ -513,6 +545,20 @@ public class TimerBean implements TimerLocal {
                                 EJBTimerService.STATE_CANCELLED);
     }
 
+    public Set findActiveTimersOwnedByThisServerExpiringBetween
+        (long fromTime, long toTime) {
+        return findTimersByOwnerAndStateExpiringBetween
+                       (getOwnerIdOfThisServer(),
+                                EJBTimerService.STATE_ACTIVE, fromTime, toTime);
+    }
+
+    public Set findActiveTimersOwnedByThisServerByContainerExpiringBefore
+        (long containerId, long time) {
+        return findTimersByContainerAndOwnerAndStateExpiringBefore
+                       (containerId, getOwnerIdOfThisServer(),
+                                EJBTimerService.STATE_ACTIVE, time);
+    }
+
 
     //
     // Helper query methods for timer counts
@@ -649,6 +695,16 @@ public class TimerBean implements TimerLocal {
         return q.executeUpdate();
     }
 
+    public int migrateTimers(String fromOwnerId, String toOwnerId,
+                             int partition, int partitionCount) {
+        Query q = em.createNamedQuery("updateTimersFromOwnerToNewOwnerByPartition");
+        q.setParameter("fromOwner", fromOwnerId);
+        q.setParameter("toOwner", toOwnerId);
+        q.setParameter("partition", partition);
+        q.setParameter("partitions", partitionCount);
+        return q.executeUpdate();
+    }
+
     public int deleteTimersByContainer(long containerId) {
         Query q = em.createNamedQuery("deleteTimersByContainer");
         q.setParameter("containerId", containerId);
@@ -98,6 +98,15 @@ public interface TimerLocal {
     Set findActiveTimersOwnedBy(String owner);
     Set findCancelledTimersOwnedBy(String owner);
 
+    // Timers whose initial expiration is within the given time range, used to
+    // restore the timers owned by this server when they are about to expire
+    Set findActiveTimersOwnedByThisServerExpiringBetween(long fromTime, long toTime);
+    Set findActiveTimersOwnedByThisServerByContainerExpiringBefore(long containerId, long time);
+
+    // Timers of one of the partitions of the timers of a server instance,
+    // locked until the end of the transaction
+    Set findTimersOwnedBy(String owner, int partition, int partitionCount);
+
 
     //
     // Queries returning counts
@@ -129,6 +138,9 @@ public interface TimerLocal {
     // Migrate timers from one server instance to another via bulk update
     int migrateTimers(String fromOwnerId, String toOwnerId);
 
+    // Migrate the timers of one partition from one server instance to another via bulk update
+    int migrateTimers(String fromOwnerId, String toOwnerId, int partition, int partitionCount);
+
     // Delete all timers owned by this EJB (aka containerId)
     int deleteTimersByContainer(long containerId);
 
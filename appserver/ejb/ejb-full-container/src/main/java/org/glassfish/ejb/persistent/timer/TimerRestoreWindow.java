@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.ejb.persistent.timer;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Lookahead window of the restoration of the persistent timers of this server
+ * instance. The timers expiring before the horizon of the window have been
+ * restored, the other ones are restored when the window moves past their
+ * initial expiration.
+ * <p>
+ * The restorations synchronize on the window, so that none of them misses the
+ * timers loaded by another one.
+ */
+class TimerRestoreWindow {
+
+    /**
+     * Restores the timers whose initial expiration is in the given range.
+     */
+    interface Restorer {
+
+        /**
+         * @return false if the timers could not be restored
+         */
+        boolean restore(long fromTime, long toTime);
+    }
+
+    private final long lookahead;
+
+    // Guarded by this
+    private long horizon;
+
+    /**
+     * @param lookahead length of the window, 0 to restore all the timers at once
+     * @param now current time
+     */
+    TimerRestoreWindow(long lookahead, long now) {
+        this.lookahead = lookahead;
+        this.horizon = lookahead > 0 ? now + lookahead : Long.MAX_VALUE;
+    }
+
+    boolean isEnabled() {
+        return lookahead > 0;
+    }
+
+    /**
+     * @return the time before which the timers have been restored
+     */
+    synchronized long getHorizon() {
+        return horizon;
+    }
+
+    /**
+     * Moves the window to the given time, restoring the timers which come into
+     * it. The window stays where it is if they cannot be restored, so that they
+     * are restored by the next move.
+     */
+    synchronized void advance(long now, Restorer restorer) {
+        long newHorizon = now + lookahead;
+        if (newHorizon <= horizon) {
+            // The clock went back
+            return;
+        }
+        if (restorer.restore(horizon, newHorizon)) {
+            horizon = newHorizon;
+        }
+    }
+
+    /**
+     * @return the timers to restore among the given ones, the other ones are
+     * restored when they come into the window
+     */
+    synchronized Set<TimerState> expiringBeforeHorizon(Set<TimerState> timers) {
+        if (!isEnabled()) {
+            return timers;
+        }
+        Set<TimerState> result = new HashSet<>();
+        for (TimerState timer : timers) {
+            if (timer.getInitialExpirationRaw() < horizon) {
+                result.add(timer);
+            }
+        }
+        return result;
+    }
+}
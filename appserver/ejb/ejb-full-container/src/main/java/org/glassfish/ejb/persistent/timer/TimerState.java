@@ -27,6 +27,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
 import jakarta.persistence.Lob;
 import jakarta.persistence.NamedQueries;
 import jakarta.persistence.NamedQuery;
@@ -101,6 +102,18 @@ import java.util.logging.Logger;
         name="findTimersByOwnerAndState",
         query="SELECT t FROM Timer t WHERE t.ownerId = ?1 AND t.state=?2"
     ),
+    @NamedQuery(
+        name="findTimersByOwnerAndStateExpiringBetween",
+        query="SELECT t FROM Timer t WHERE t.ownerId = ?1 AND t.state=?2 AND t.initialExpirationRaw >= ?3 AND t.initialExpirationRaw < ?4"
+    ),
+    @NamedQuery(
+        name="findTimersByContainerAndOwnerAndStateExpiringBefore",
+        query="SELECT t FROM Timer t WHERE t.containerId = ?1 AND t.ownerId=?2 AND t.state=?3 AND t.initialExpirationRaw < ?4"
+    ),
+    @NamedQuery(
+        name="findTimersByOwnerAndPartition",
+        query="SELECT t FROM Timer t WHERE t.ownerId = ?1 AND MOD(t.pkHashCode, ?2) = ?3"
+    ),
     @NamedQuery(
         name="countTimersByApplication",
         query="SELECT COUNT(t) FROM Timer t WHERE t.applicationId = ?1"
@@ -135,6 +148,11 @@ import java.util.logging.Logger;
         query="UPDATE Timer t SET t.ownerId = :toOwner WHERE t.ownerId = :fromOwner"
     )
     ,
+    @NamedQuery(
+        name="updateTimersFromOwnerToNewOwnerByPartition",
+        query="UPDATE Timer t SET t.ownerId = :toOwner WHERE t.ownerId = :fromOwner AND MOD(t.pkHashCode, :partitions) = :partition"
+    )
+    ,
     @NamedQuery(
         name="deleteTimersByContainer",
         query="DELETE FROM Timer t WHERE t.containerId = :containerId"
@@ -145,7 +163,8 @@ import java.util.logging.Logger;
         query="DELETE FROM Timer t WHERE t.applicationId = :applicationId"
     )
 })
-@Table(name="EJB__TIMER__TBL")
+@Table(name="EJB__TIMER__TBL",
+    indexes=@Index(name="EJB__TIMER__TBL_OWNER_EXP", columnList="OWNERID,STATE,INITIALEXPIRATIONRAW"))
 @IdClass(com.sun.ejb.containers.TimerPrimaryKey.class)
 public class TimerState {
 
@@ -178,6 +197,8 @@ public class TimerState {
     @Column(name="APPLICATIONID")
     private long applicationId;
 
+    // Non-negative hash code of the timer id, partitions the timers
+    // of a server instance when they are migrated
     @Column(name="PKHASHCODE")
     private int pkHashCode;
 
@@ -331,6 +352,7 @@ public class TimerState {
 
         this.timerId = timerId;
         this.ownerId = ownerId;
+        pkHashCode = timerId.hashCode() & Integer.MAX_VALUE;
 
         creationTime_ = new Date();
         creationTimeRaw = creationTime_.getTime();
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.ejb.persistent.timer;
+
+import com.sun.ejb.containers.TimerPrimaryKey;
+import com.sun.logging.LogDomains;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * Writes the last expiration of the periodic persistent timers to the timer
+ * table with JDBC batches, rather than in the transaction of each expiration.
+ * <p>
+ * The expirations of a timer between two flushes are coalesced into the latest
+ * one, and each flush writes them in a single local transaction. A timer whose
+ * row is not updated was cancelled or migrated to another server instance in
+ * the meantime, and is handed to the handler of the removed timers.
+ * <p>
+ * The expirations not flushed yet when the server instance fails are lost, and
+ * considered missed when the timers are restored.
+ */
+class TimerStateBatchUpdater {
+
+    private static final Logger logger =
+        LogDomains.getLogger(TimerStateBatchUpdater.class, LogDomains.EJB_LOGGER);
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final DataSource dataSource;
+    private final String ownerId;
+    private final int batchSize;
+    private final Consumer<TimerPrimaryKey> removedTimerHandler;
+
+    private final Map<String, Long> pendingUpdates = new ConcurrentHashMap<>();
+
+    /**
+     * Serializes the flushes, so that an older expiration never overwrites a newer one.
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private String updateStatement;
+
+    /**
+     * @param dataSource non transactional data source of the timer table
+     * @param ownerId owner id of this server instance, only its timers are updated
+     * @param batchSize maximum number of updates of a JDBC batch
+     * @param removedTimerHandler called with the timers whose row was not updated
+     */
+    TimerStateBatchUpdater(DataSource dataSource, String ownerId, int batchSize,
+            Consumer<TimerPrimaryKey> removedTimerHandler) {
+        this.dataSource = dataSource;
+        this.ownerId = ownerId;
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        this.removedTimerHandler = removedTimerHandler;
+    }
+
+    /**
+     * Queues the last expiration of the timer until the next flush.
+     */
+    void lastExpirationChanged(TimerPrimaryKey timerId, long lastExpiration) {
+        pendingUpdates.merge(timerId.getTimerId(), lastExpiration, Math::max);
+    }
+
+    /**
+     * Discards the pending update of a timer which does not exist anymore.
+     */
+    void discard(TimerPrimaryKey timerId) {
+        pendingUpdates.remove(timerId.getTimerId());
+    }
+
+    boolean hasPendingUpdates() {
+        return !pendingUpdates.isEmpty();
+    }
+
+    /**
+     * Writes the pending updates to the timer table. Failed updates are kept
+     * for the next flush, unless newer ones were queued in the meantime.
+     */
+    void flush() {
+        if (pendingUpdates.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            Map<String, Long> updates = new HashMap<>();
+            for (String timerId : new ArrayList<>(pendingUpdates.keySet())) {
+                Long lastExpiration = pendingUpdates.remove(timerId);
+                if (lastExpiration != null) {
+                    updates.put(timerId, lastExpiration);
+                }
+            }
+            if (updates.isEmpty()) {
+                return;
+            }
+
+            List<String> removedTimerIds;
+            try {
+                removedTimerIds = write(updates);
+            } catch (SQLException | RuntimeException e) {
+                logger.log(Level.WARNING, "Cannot update the last expiration of "
+                    + updates.size() + " timers, will retry with the next update", e);
+                for (Map.Entry<String, Long> update : updates.entrySet()) {
+                    pendingUpdates.merge(update.getKey(), update.getValue(), Math::max);
+                }
+                return;
+            }
+
+            if (logger.isLoggable(Level.FINE)) {
+                logger.log(Level.FINE, "Updated the last expiration of " + updates.size()
+                    + " timers, " + removedTimerIds.size() + " of them not found");
+            }
+            for (String timerId : removedTimerIds) {
+                removedTimerHandler.accept(new TimerPrimaryKey(timerId));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @return the ids of the timers whose row was not updated
+     */
+    private List<String> write(Map<String, Long> updates) throws SQLException {
+        List<String> removedTimerIds = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(getUpdateStatement(connection))) {
+                List<String> batch = new ArrayList<>(Math.min(batchSize, updates.size()));
+                for (Map.Entry<String, Long> update : updates.entrySet()) {
+                    statement.setLong(1, update.getValue());
+                    statement.setString(2, update.getKey());
+                    statement.setString(3, ownerId);
+                    statement.addBatch();
+                    batch.add(update.getKey());
+                    if (batch.size() == batchSize) {
+                        executeBatch(statement, batch, removedTimerIds);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    executeBatch(statement, batch, removedTimerIds);
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        return removedTimerIds;
+    }
+
+    private static void executeBatch(PreparedStatement statement, List<String> batch,
+            List<String> removedTimerIds) throws SQLException {
+        int[] updateCounts = statement.executeBatch();
+        for (int i = 0; i < updateCounts.length && i < batch.size(); i++) {
+            // Drivers may not report the counts, SUCCESS_NO_INFO is then negative
+            if (updateCounts[i] == 0) {
+                removedTimerIds.add(batch.get(i));
+            }
+        }
+        batch.clear();
+    }
+
+    /**
+     * The timer table is mapped with delimited identifiers, so they are quoted
+     * the way of the database.
+     */
+    private String getUpdateStatement(Connection connection) throws SQLException {
+        if (updateStatement == null) {
+            String quote = connection.getMetaData().getIdentifierQuoteString().trim();
+            updateStatement = "UPDATE " + quote + "EJB__TIMER__TBL" + quote
+                + " SET " + quote + "LASTEXPIRATIONRAW" + quote + " = ?"
+                + " WHERE " + quote + "TIMERID" + quote + " = ?"
+                + " AND " + quote + "OWNERID" + quote + " = ?";
+        }
+        return updateStatement;
+    }
+}
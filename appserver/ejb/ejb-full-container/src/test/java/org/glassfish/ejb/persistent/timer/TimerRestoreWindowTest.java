@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.ejb.persistent.timer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimerRestoreWindowTest {
+
+    private final List<String> restoredRanges = new ArrayList<>();
+
+    @Test
+    public void windowStartsAtTheLookaheadFromNow() {
+        TimerRestoreWindow window = new TimerRestoreWindow(1000, 5000);
+
+        assertTrue(window.isEnabled());
+        assertThat(window.getHorizon(), equalTo(6000L));
+    }
+
+    @Test
+    public void disabledWindowCoversAllTheTimers() {
+        TimerRestoreWindow window = new TimerRestoreWindow(0, 5000);
+        Set<TimerState> timers = timers(Long.MAX_VALUE - 1);
+
+        assertFalse(window.isEnabled());
+        assertThat(window.getHorizon(), equalTo(Long.MAX_VALUE));
+        assertThat(window.expiringBeforeHorizon(timers), sameInstance(timers));
+    }
+
+    @Test
+    public void movingTheWindowRestoresTheTimersComingIntoIt() {
+        TimerRestoreWindow window = new TimerRestoreWindow(1000, 5000);
+
+        window.advance(5500, this::restore);
+        window.advance(7000, this::restore);
+
+        assertThat(restoredRanges, contains("6000-6500", "6500-8000"));
+        assertThat(window.getHorizon(), equalTo(8000L));
+    }
+
+    @Test
+    public void windowStaysWhenTheRestorationFails() {
+        TimerRestoreWindow window = new TimerRestoreWindow(1000, 5000);
+
+        window.advance(5500, (fromTime, toTime) -> false);
+        window.advance(6000, this::restore);
+
+        assertThat(restoredRanges, contains("6000-7000"));
+        assertThat(window.getHorizon(), equalTo(7000L));
+    }
+
+    @Test
+    public void windowDoesNotMoveBack() {
+        TimerRestoreWindow window = new TimerRestoreWindow(1000, 5000);
+
+        window.advance(4000, this::restore);
+
+        assertThat(restoredRanges, empty());
+        assertThat(window.getHorizon(), equalTo(6000L));
+    }
+
+    @Test
+    public void onlyTheTimersExpiringBeforeTheHorizonAreRestored() {
+        TimerRestoreWindow window = new TimerRestoreWindow(1000, 5000);
+        Set<TimerState> timers = timers(5000, 5999, 6000, 9000);
+
+        Set<TimerState> restored = window.expiringBeforeHorizon(timers);
+
+        List<Long> expirations = new ArrayList<>();
+        restored.forEach(timer -> expirations.add(timer.getInitialExpirationRaw()));
+        assertThat(expirations, containsInAnyOrder(5000L, 5999L));
+    }
+
+    private boolean restore(long fromTime, long toTime) {
+        restoredRanges.add(fromTime + "-" + toTime);
+        return true;
+    }
+
+    private static Set<TimerState> timers(long... initialExpirations) {
+        Set<TimerState> timers = new HashSet<>();
+        for (long initialExpiration : initialExpirations) {
+            TimerState timer = new TimerState();
+            timer.setInitialExpirationRaw(initialExpiration);
+            timers.add(timer);
+        }
+        return timers;
+    }
+}
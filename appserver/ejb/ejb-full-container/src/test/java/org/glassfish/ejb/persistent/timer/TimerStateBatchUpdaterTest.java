@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.ejb.persistent.timer;
+
+import com.sun.ejb.containers.TimerPrimaryKey;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimerStateBatchUpdaterTest {
+
+    private static final String OWNER = "server";
+
+    private final StubDatabase database = new StubDatabase();
+    private final List<String> removedTimers = new ArrayList<>();
+
+    @Test
+    public void expirationsOfATimerAreCoalesced() {
+        TimerStateBatchUpdater updater = newUpdater(10);
+        updater.lastExpirationChanged(new TimerPrimaryKey("a"), 100);
+        updater.lastExpirationChanged(new TimerPrimaryKey("a"), 300);
+        updater.lastExpirationChanged(new TimerPrimaryKey("a"), 200);
+        updater.lastExpirationChanged(new TimerPrimaryKey("b"), 400);
+        assertTrue(updater.hasPendingUpdates());
+
+        updater.flush();
+
+        assertThat(database.batches, contains(containsInAnyOrder("a=300", "b=400")));
+        assertThat(database.commits, equalTo(1));
+        assertTrue(database.autoCommit);
+        assertFalse(updater.hasPendingUpdates());
+        assertThat(database.sql, equalTo(
+            "UPDATE \"EJB__TIMER__TBL\" SET \"LASTEXPIRATIONRAW\" = ? WHERE \"TIMERID\" = ? AND \"OWNERID\" = ?"));
+    }
+
+    @Test
+    public void updatesAreSplitInBatches() {
+        TimerStateBatchUpdater updater = newUpdater(2);
+        for (int i = 0; i < 5; i++) {
+            updater.lastExpirationChanged(new TimerPrimaryKey("t" + i), i);
+        }
+
+        updater.flush();
+
+        assertThat(database.batches.size(), equalTo(3));
+        assertThat(database.batches.get(2).size(), equalTo(1));
+        assertThat(database.commits, equalTo(1));
+    }
+
+    @Test
+    public void timersWhoseRowIsNotUpdatedAreRemoved() {
+        TimerStateBatchUpdater updater = newUpdater(10);
+        database.missingTimer = "gone";
+        updater.lastExpirationChanged(new TimerPrimaryKey("gone"), 100);
+        updater.lastExpirationChanged(new TimerPrimaryKey("kept"), 100);
+
+        updater.flush();
+
+        assertThat(removedTimers, contains("gone"));
+    }
+
+    @Test
+    public void failedUpdatesAreRetriedWithTheNextFlush() {
+        TimerStateBatchUpdater updater = newUpdater(10);
+        database.failBatches = true;
+        updater.lastExpirationChanged(new TimerPrimaryKey("a"), 100);
+        updater.lastExpirationChanged(new TimerPrimaryKey("b"), 100);
+
+        updater.flush();
+
+        assertThat(database.rollbacks, equalTo(1));
+        assertThat(database.commits, equalTo(0));
+        assertTrue(database.autoCommit);
+        assertTrue(updater.hasPendingUpdates());
+        assertThat(removedTimers, empty());
+
+        // a newer expiration queued in the meantime wins
+        updater.lastExpirationChanged(new TimerPrimaryKey("a"), 200);
+        database.failBatches = false;
+        database.batches.clear();
+        updater.flush();
+
+        assertThat(database.batches, contains(containsInAnyOrder("a=200", "b=100")));
+        assertFalse(updater.hasPendingUpdates());
+    }
+
+    @Test
+    public void discardedUpdatesAreNotWritten() {
+        TimerStateBatchUpdater updater = newUpdater(10);
+        updater.lastExpirationChanged(new TimerPrimaryKey("a"), 100);
+        updater.lastExpirationChanged(new TimerPrimaryKey("b"), 100);
+        updater.discard(new TimerPrimaryKey("a"));
+
+        updater.flush();
+
+        assertThat(database.batches, contains(contains("b=100")));
+    }
+
+    @Test
+    public void flushWithoutUpdatesDoesNotConnect() {
+        newUpdater(10).flush();
+
+        assertThat(database.connections, equalTo(0));
+    }
+
+    private TimerStateBatchUpdater newUpdater(int batchSize) {
+        return new TimerStateBatchUpdater(database.dataSource(), OWNER, batchSize,
+            timerId -> removedTimers.add(timerId.getTimerId()));
+    }
+
+    /**
+     * Records the batches of updates of the timer table, as "timerId=lastExpiration".
+     */
+    private static class StubDatabase {
+
+        final List<List<String>> batches = new ArrayList<>();
+        String sql;
+        String missingTimer;
+        boolean failBatches;
+        boolean autoCommit = true;
+        int connections;
+        int commits;
+        int rollbacks;
+
+        private final List<String> batch = new ArrayList<>();
+        private long lastExpiration;
+        private String timerId;
+
+        DataSource dataSource() {
+            return proxy(DataSource.class, (name, args) -> {
+                if (name.equals("getConnection")) {
+                    connections++;
+                    return connection();
+                }
+                throw new UnsupportedOperationException(name);
+            });
+        }
+
+        private Connection connection() {
+            return proxy(Connection.class, (name, args) -> {
+                switch (name) {
+                    case "getAutoCommit":
+                        return autoCommit;
+                    case "setAutoCommit":
+                        autoCommit = (Boolean) args[0];
+                        return null;
+                    case "getMetaData":
+                        return proxy(DatabaseMetaData.class, (metaDataName, metaDataArgs) -> "\" ");
+                    case "prepareStatement":
+                        sql = (String) args[0];
+                        return statement();
+                    case "commit":
+                        commits++;
+                        return null;
+                    case "rollback":
+                        rollbacks++;
+                        return null;
+                    case "close":
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(name);
+                }
+            });
+        }
+
+        private PreparedStatement statement() {
+            return proxy(PreparedStatement.class, (name, args) -> {
+                switch (name) {
+                    case "setLong":
+                        lastExpiration = (Long) args[1];
+                        return null;
+                    case "setString":
+                        if ((Integer) args[0] == 2) {
+                            timerId = (String) args[1];
+                        } else if (!OWNER.equals(args[1])) {
+                            throw new SQLException("Unexpected owner " + args[1]);
+                        }
+                        return null;
+                    case "addBatch":
+                        batch.add(timerId + "=" + lastExpiration);
+                        return null;
+                    case "executeBatch":
+                        if (failBatches) {
+                            batch.clear();
+                            throw new SQLException("Batch failed");
+                        }
+                        int[] counts = new int[batch.size()];
+                        for (int i = 0; i < counts.length; i++) {
+                            counts[i] = batch.get(i).startsWith(missingTimer + "=") ? 0 : 1;
+                        }
+                        batches.add(new ArrayList<>(batch));
+                        batch.clear();
+                        return counts;
+                    case "close":
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(name);
+                }
+            });
+        }
+
+        private interface Handler {
+            Object invoke(String name, Object[] args) throws Exception;
+        }
+
+        private static <T> T proxy(Class<T> type, Handler handler) {
+            return type.cast(Proxy.newProxyInstance(TimerStateBatchUpdaterTest.class.getClassLoader(),
+                new Class<?>[] { type }, (proxy, method, args) -> handler.invoke(method.getName(), args)));
+        }
+    }
+}
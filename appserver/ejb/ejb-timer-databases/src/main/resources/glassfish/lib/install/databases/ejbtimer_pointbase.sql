@@ -29,3 +29,5 @@ SCHEDULE             VARCHAR(255) NULL,
 APPLICATIONID        BIGINT       NOT NULL,
 CONSTRAINT PK_EJB__TIMER__TBL PRIMARY KEY (TIMERID)
 );
+
+CREATE INDEX EJB__TIMER__TBL_OWNER_EXP ON "EJB__TIMER__TBL" (OWNERID, STATE, INITIALEXPIRATIONRAW);
@@ -29,4 +29,6 @@ CREATE TABLE "EJB__TIMER__TBL" (
 "SCHEDULE"             CHARACTER VARYING(255),
 "APPLICATIONID"        BIGINT                 NOT NULL,
 CONSTRAINT "EJB__TIMER__TBL_pkey" PRIMARY KEY ("TIMERID")
-)
+);
+
+CREATE INDEX "EJB__TIMER__TBL_OWNER_EXP" ON "EJB__TIMER__TBL" ("OWNERID", "STATE", "INITIALEXPIRATIONRAW");
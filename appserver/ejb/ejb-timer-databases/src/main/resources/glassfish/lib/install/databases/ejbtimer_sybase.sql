@@ -28,4 +28,6 @@ LASTEXPIRATIONRAW    NUMERIC(20,0)  NOT NULL,
 SCHEDULE             VARCHAR(255)   NULL,
 APPLICATIONID        NUMERIC(20,0)  NOT NULL,
 CONSTRAINT PK_EJB__TIMER__TBL PRIMARY KEY (TIMERID)
-)
+);
+
+CREATE INDEX EJB__TIMER__TBL_OWNER_EXP ON EJB__TIMER__TBL (OWNERID, STATE, INITIALEXPIRATIONRAW);
@@ -31,3 +31,5 @@ PRIMARY KEY (TIMERID)
 );
 CREATE INDEX EJB__TIMER__TBL.IDX1 KEY(TIMERID)
 ;
+CREATE INDEX EJB__TIMER__TBL.IDX2 KEY(OWNERID, STATE, INITIALEXPIRATIONRAW)
+;
@@ -16,3 +16,4 @@
 
 ALTER TABLE EJB__TIMER__TBL ADD SCHEDULE VARCHAR(255) NULL
 ALTER TABLE EJB__TIMER__TBL ADD APPLICATIONID BIGINT DEFAULT 0
+CREATE INDEX EJB__TIMER__TBL_OWNER_EXP ON EJB__TIMER__TBL (OWNERID, STATE, INITIALEXPIRATIONRAW)
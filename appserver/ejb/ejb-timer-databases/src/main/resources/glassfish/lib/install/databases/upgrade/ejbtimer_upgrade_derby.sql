@@ -16,3 +16,4 @@
 
 ALTER TABLE EJB__TIMER__TBL ADD COLUMN SCHEDULE VARCHAR(255)
 ALTER TABLE EJB__TIMER__TBL ADD COLUMN APPLICATIONID BIGINT DEFAULT 0
+CREATE INDEX EJB__TIMER__TBL_OWNER_EXP ON EJB__TIMER__TBL (OWNERID, STATE, INITIALEXPIRATIONRAW)
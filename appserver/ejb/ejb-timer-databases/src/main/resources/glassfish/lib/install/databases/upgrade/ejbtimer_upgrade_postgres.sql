@@ -17,3 +17,4 @@
 
 ALTER TABLE "EJB__TIMER__TBL" ADD COLUMN "SCHEDULE" CHARACTER VARYING(255) NULL
 ALTER TABLE "EJB__TIMER__TBL" ADD COLUMN "APPLICATIONID" BIGINT DEFAULT 0
+CREATE INDEX "EJB__TIMER__TBL_OWNER_EXP" ON "EJB__TIMER__TBL" ("OWNERID", "STATE", "INITIALEXPIRATIONRAW")
@@ -14,4 +14,4 @@
  * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
  */
 
--- This file is intentionally left empty
+CREATE INDEX EJB__TIMER__TBL.IDX2 KEY(OWNERID, STATE, INITIALEXPIRATIONRAW)
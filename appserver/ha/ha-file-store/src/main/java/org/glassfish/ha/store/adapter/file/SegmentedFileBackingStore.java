@@ -0,0 +1,874 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.ha.store.adapter.file;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import org.glassfish.ha.store.api.BackingStore;
+import org.glassfish.ha.store.api.BackingStoreConfiguration;
+import org.glassfish.ha.store.api.BackingStoreException;
+import org.glassfish.ha.store.api.BackingStoreFactory;
+
+/**
+ * An implementation of BackingStore that appends the data to a few large
+ * segment files, instead of writing a file per key.
+ * <p>
+ * Each save, remove and timestamp update appends a record to the active
+ * segment, which is sealed and replaced by a new one once it reaches the
+ * maximum segment size. An in-memory index maps each key to the location of
+ * its last saved record and its timestamp, so expiry never scans the
+ * directory. Sealed segments whose live records fall below the compaction
+ * threshold are compacted in the background, by copying their live records
+ * to the active segment and deleting them.
+ * <p>
+ * On initialization the index is rebuilt by replaying the segments in order.
+ * A record torn by a crash ends the replay of its segment, which is truncated
+ * before it.
+ * <p>
+ * The following vendor specific settings are supported:
+ * <ul>
+ * <li>max.idle.timeout.in.seconds - the idle time after which
+ * {@link #removeExpired()} removes an entry</li>
+ * <li>segment.size.in.bytes - the maximum size of a segment</li>
+ * <li>compaction.threshold - the ratio of live records below which a sealed
+ * segment is compacted</li>
+ * </ul>
+ */
+public class SegmentedFileBackingStore<K extends Serializable, V extends Serializable>
+        extends BackingStore<K, V> {
+
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024L * 1024L;
+
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 0.5d;
+
+    static final String SEGMENT_PREFIX = "segment-";
+
+    static final String SEGMENT_SUFFIX = ".log";
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final byte TOUCH = 3;
+
+    /**
+     * A record is made of its body length, the CRC32 of its body, and its
+     * body: the record type, the timestamp, the key length, the serialized key
+     * and, for a put, the serialized value.
+     */
+    private static final int RECORD_HEADER_SIZE = 4 + 4;
+    private static final int BODY_HEADER_SIZE = 1 + 8 + 4;
+
+    /**
+     * The time close waits for a running compaction to notice the shutdown.
+     */
+    private static final long COMPACTION_SHUTDOWN_TIMEOUT_SECONDS = 30L;
+
+    protected Logger logger =
+            Logger.getLogger(SegmentedFileBackingStore.class.getName());
+
+    protected File baseDir;
+
+    private volatile boolean shutdown;
+
+    private static Level TRACE_LEVEL = Level.FINE;
+
+    private String debugStr;
+
+    private SegmentedFileBackingStoreFactory factory;
+
+    private long defaultMaxIdleTimeoutInSeconds = 10L * 60L;
+
+    private long segmentSize = DEFAULT_SEGMENT_SIZE;
+
+    private double compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+
+    private final Map<K, Location> index = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    /**
+     * Guards the appends to the active segment and the updates of the index.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile Segment activeSegment;
+
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+
+    /**
+     * Runs the compactions of this store, one at a time.
+     */
+    private ExecutorService compactor;
+
+    /**
+     * No arg constructor
+     */
+    public SegmentedFileBackingStore() {
+    }
+
+    @Override
+    protected void initialize(BackingStoreConfiguration<K, V> conf)
+        throws BackingStoreException {
+
+        if (conf.getLogger() != null) {
+            logger = conf.getLogger();
+        }
+
+        super.initialize(conf);
+        debugStr = "[SegmentedFileBackingStore - " + conf.getStoreName() + "] ";
+
+        Map<String, Object> vendorMap = conf.getVendorSpecificSettings();
+        String value = getSetting(vendorMap, "max.idle.timeout.in.seconds");
+        if (value != null) {
+            try {
+                defaultMaxIdleTimeoutInSeconds = Long.parseLong(value);
+            } catch (NumberFormatException ex) {
+                logInvalidSetting("max.idle.timeout.in.seconds", value, defaultMaxIdleTimeoutInSeconds);
+            }
+        }
+        value = getSetting(vendorMap, "segment.size.in.bytes");
+        if (value != null) {
+            try {
+                segmentSize = Long.parseLong(value);
+            } catch (NumberFormatException ex) {
+                segmentSize = -1L;
+            }
+            if (segmentSize <= 0L) {
+                segmentSize = DEFAULT_SEGMENT_SIZE;
+                logInvalidSetting("segment.size.in.bytes", value, segmentSize);
+            }
+        }
+        value = getSetting(vendorMap, "compaction.threshold");
+        if (value != null) {
+            try {
+                compactionThreshold = Double.parseDouble(value);
+            } catch (NumberFormatException ex) {
+                compactionThreshold = -1d;
+            }
+            if (!(compactionThreshold >= 0d && compactionThreshold <= 1d)) {
+                compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+                logInvalidSetting("compaction.threshold", value, compactionThreshold);
+            }
+        }
+
+        baseDir = conf.getBaseDirectory();
+        if ((baseDir.mkdirs() == false) && (! baseDir.isDirectory())) {
+            throw new BackingStoreException("[SegmentedFileBackingStore::initialize] Create base directory ("
+                    + baseDir.getAbsolutePath() + ") failed");
+        }
+
+        String storeName = conf.getStoreName();
+        compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "SegmentedFileBackingStore-compactor-" + storeName);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            long lastSegmentId = recover();
+            activeSegment = openSegment(lastSegmentId + 1);
+        } catch (IOException ex) {
+            throw new BackingStoreException(debugStr + "Failed to open the segments in " + baseDir.getAbsolutePath(), ex);
+        }
+        logger.log(Level.INFO, "[SegmentedFileBackingStore::initialize] Successfully Created and initialized store. "
+                + "Working dir: " + baseDir + "; Recovered entries: " + index.size() + "; Configuration: " + conf);
+        scheduleCompaction();
+    }
+
+    private static String getSetting(Map<String, Object> vendorMap, String name) {
+        Object value = vendorMap.get(name);
+        return value == null ? null : value.toString().trim();
+    }
+
+    private void logInvalidSetting(String name, String value, Object defaultValue) {
+        logger.log(Level.WARNING, debugStr + "Invalid value " + value + " of " + name + ", using " + defaultValue);
+    }
+
+    /*package*/ void setSegmentedFileBackingStoreFactory(SegmentedFileBackingStoreFactory factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public BackingStoreFactory getBackingStoreFactory() {
+        return factory;
+    }
+
+    @Override
+    public V load(K key, String version) throws BackingStoreException {
+        if (logger.isLoggable(TRACE_LEVEL)) {
+            logger.log(TRACE_LEVEL, debugStr + "Entered load(" + key + ", " + version + ")");
+        }
+
+        Location location = index.get(key);
+        while (location != null) {
+            try {
+                ByteBuffer record = location.segment.read(location.offset, location.length);
+                int keyLength = record.getInt(RECORD_HEADER_SIZE + 1 + 8);
+                int valueOffset = RECORD_HEADER_SIZE + BODY_HEADER_SIZE + keyLength;
+                V value = (V) deserialize(record.array(), valueOffset, location.length - valueOffset);
+                if (logger.isLoggable(TRACE_LEVEL)) {
+                    logger.log(TRACE_LEVEL, debugStr + "Done load(" + key + ", " + version + ")");
+                }
+                return value;
+            } catch (ClosedChannelException ex) {
+                // the segment was compacted meanwhile, the record was moved
+                Location moved = index.get(key);
+                if (moved == location) {
+                    break;
+                }
+                location = moved;
+            } catch (Exception ex) {
+                logger.log(Level.WARNING, debugStr + "Failed to load(" + key + ", " + version + ")", ex);
+                break;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String save(K sessionKey, V value, boolean isNew)
+            throws BackingStoreException {
+        if (logger.isLoggable(TRACE_LEVEL)) {
+            logger.log(TRACE_LEVEL, debugStr + "Entered save(" + sessionKey + ")");
+        }
+
+        long now = System.currentTimeMillis();
+        ByteBuffer record = encode(PUT, now, serialize(sessionKey), serialize(value));
+        writeLock.lock();
+        try {
+            Location location = append(record, now);
+            location.segment.liveBytes.addAndGet(location.length);
+            Location previous = index.put(sessionKey, location);
+            if (previous != null) {
+                previous.segment.liveBytes.addAndGet(-previous.length);
+            }
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, debugStr + "save(" + sessionKey + ") failed", ex);
+            throw new BackingStoreException("Could not save session: " + sessionKey, ex);
+        } finally {
+            writeLock.unlock();
+        }
+
+        if (logger.isLoggable(TRACE_LEVEL)) {
+            logger.log(TRACE_LEVEL, debugStr + "Done save(" + sessionKey + ")");
+        }
+        return getBackingStoreConfiguration().getInstanceName();
+    }
+
+    @Override
+    public void remove(K sessionKey) throws BackingStoreException {
+        if (logger.isLoggable(TRACE_LEVEL)) {
+            logger.log(TRACE_LEVEL, debugStr + "Entered remove(" + sessionKey + ")");
+        }
+        Location previous = index.get(sessionKey);
+        boolean status = previous != null && remove(sessionKey, null);
+        if (logger.isLoggable(TRACE_LEVEL)) {
+            logger.log(TRACE_LEVEL, debugStr + "Done remove( " + sessionKey + "); status => " + status);
+        }
+    }
+
+    /**
+     * Removes the entry of the key, if it is still at the expected location.
+     *
+     * @param expected the expected location, or null to remove the entry unconditionally
+     * @return true if the entry was removed
+     */
+    private boolean remove(K sessionKey, Location expected) throws BackingStoreException {
+        ByteBuffer record = encode(REMOVE, System.currentTimeMillis(), serialize(sessionKey), null);
+        writeLock.lock();
+        try {
+            Location previous = index.get(sessionKey);
+            if (previous == null || (expected != null && previous != expected)) {
+                return false;
+            }
+            append(record, 0L);
+            index.remove(sessionKey);
+            previous.segment.liveBytes.addAndGet(-previous.length);
+            return true;
+        } catch (IOException ex) {
+            throw new BackingStoreException("Could not remove session: " + sessionKey, ex);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public String updateTimestamp(K sessionKey, String version, Long time)
+            throws BackingStoreException {
+        updateTimestamp(sessionKey, time);
+        return getBackingStoreConfiguration().getInstanceName();
+    }
+
+    @Override
+    public void updateTimestamp(K sessionKey, long time)
+            throws BackingStoreException {
+        if (logger.isLoggable(TRACE_LEVEL)) {
+            logger.log(TRACE_LEVEL, debugStr + "Entered updateTimestamp(" + sessionKey + ", " + time + ")");
+        }
+        if (index.get(sessionKey) == null) {
+            logger.log(Level.WARNING, debugStr
+                    + ": Cannot update timsestamp for: " + sessionKey
+                    + "; Entry does not exist");
+            return;
+        }
+
+        ByteBuffer record = encode(TOUCH, time, serialize(sessionKey), null);
+        writeLock.lock();
+        try {
+            Location location = index.get(sessionKey);
+            if (location != null) {
+                append(record, time);
+                index.put(sessionKey, location.withTimestamp(time));
+            }
+        } catch (IOException ex) {
+            throw new BackingStoreException("Cannot update timsestamp for: " + sessionKey, ex);
+        } finally {
+            writeLock.unlock();
+        }
+        if (logger.isLoggable(TRACE_LEVEL)) {
+            logger.log(TRACE_LEVEL, debugStr + "Done updateTimestamp(" + sessionKey + ", " + time + ")");
+        }
+    }
+
+    @Override
+    public int removeExpired() {
+        return removeExpired(defaultMaxIdleTimeoutInSeconds * 1000L);
+    }
+
+    @Override
+    public int removeExpired(long idleForMillis) {
+        long threshold = System.currentTimeMillis() - idleForMillis;
+        int expiredSessions = 0;
+        if (logger.isLoggable(TRACE_LEVEL)) {
+            logger.log(TRACE_LEVEL, debugStr + "Entered removeExpired()");
+        }
+        try {
+            for (Map.Entry<K, Location> entry : index.entrySet()) {
+                if (shutdown) {
+                    break;
+                }
+                Location location = entry.getValue();
+                if (location.timestamp < threshold && remove(entry.getKey(), location)) {
+                    expiredSessions++;
+                }
+            }
+            if (logger.isLoggable(TRACE_LEVEL)) {
+                logger.log(TRACE_LEVEL, debugStr + "Done removeExpired()");
+            }
+        } catch (Exception ex) {
+            logger.log(Level.WARNING, debugStr + " Exception while removing expired entries", ex);
+        }
+        if (expiredSessions > 0) {
+            scheduleCompaction();
+        }
+        return expiredSessions;
+    }
+
+    @Override
+    public int size() throws BackingStoreException {
+        return index.size();
+    }
+
+    @Override
+    public void close() throws BackingStoreException {
+        shutdown();
+        awaitCompaction();
+        writeLock.lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.close(true);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            if (logger.isLoggable(TRACE_LEVEL)) {
+                logger.log(TRACE_LEVEL, debugStr + "Entered destroy()");
+            }
+            shutdown();
+            awaitCompaction();
+            writeLock.lock();
+            try {
+                index.clear();
+                for (Segment segment : segments.values()) {
+                    segment.close(false);
+                    if (!segment.file.delete() && segment.file.exists()) {
+                        logger.log(Level.WARNING, debugStr + " Couldn't remove file: " + segment.file);
+                    }
+                }
+                segments.clear();
+            } finally {
+                writeLock.unlock();
+            }
+
+            if (baseDir.delete() == false) {
+                if (baseDir.exists()) {
+                    logger.log(Level.WARNING, debugStr + " destroy() failed to remove dir: " + baseDir.getAbsolutePath());
+                }
+            }
+            if (logger.isLoggable(TRACE_LEVEL)) {
+                logger.log(TRACE_LEVEL, debugStr + "Done destroy()");
+            }
+        } catch (Throwable th) {
+            logger.log(Level.WARNING, debugStr + " destroy() failed ", th);
+        } finally {
+            SegmentedFileBackingStoreFactory.removemapping(getBackingStoreConfiguration().getStoreName());
+        }
+    }
+
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    /**
+     * Waits for a running compaction, which stops at its next record once the
+     * store is shut down, so that it does not use the closed segments.
+     */
+    private void awaitCompaction() {
+        if (compactor == null) {
+            return;
+        }
+        compactor.shutdown();
+        try {
+            if (!compactor.awaitTermination(COMPACTION_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.log(Level.WARNING, debugStr + "Compaction still running after "
+                        + COMPACTION_SHUTDOWN_TIMEOUT_SECONDS + " seconds, closing the store anyway");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Appends the record to the active segment, sealing it first if the record
+     * would not fit. Must be called while holding the write lock.
+     */
+    private Location append(ByteBuffer record, long timestamp) throws IOException {
+        Segment segment = activeSegment;
+        int length = record.remaining();
+        if (segment.size > 0 && segment.size + length > segmentSize) {
+            segment.channel.force(false);
+            Segment next = openSegment(segment.id + 1);
+            activeSegment = next;
+            segment = next;
+            scheduleCompaction();
+        }
+
+        long offset = segment.size;
+        long position = offset;
+        while (record.hasRemaining()) {
+            position += segment.channel.write(record, position);
+        }
+        segment.size = position;
+        return new Location(segment, offset, length, timestamp);
+    }
+
+    private void scheduleCompaction() {
+        if (shutdown || !compactionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            compactor.execute(() -> {
+                compactionScheduled.set(false);
+                try {
+                    compact();
+                } catch (Exception ex) {
+                    logger.log(Level.WARNING, debugStr + " Exception during compaction", ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // closed meanwhile
+            compactionScheduled.set(false);
+        }
+    }
+
+    /**
+     * Compacts the sealed segments whose live records fell below the
+     * compaction threshold.
+     */
+    private void compact() throws IOException, BackingStoreException {
+        for (Segment segment : segments.values()) {
+            if (shutdown) {
+                return;
+            }
+            if (segment == activeSegment || segment.liveBytes.get() > segment.size * compactionThreshold) {
+                continue;
+            }
+            compact(segment);
+        }
+    }
+
+    private void compact(Segment segment) throws IOException, BackingStoreException {
+        if (logger.isLoggable(TRACE_LEVEL)) {
+            logger.log(TRACE_LEVEL, debugStr + "Compacting " + segment.file + "; live bytes: "
+                    + segment.liveBytes.get() + " of " + segment.size);
+        }
+        // tombstones and timestamps are only needed while an older segment may still
+        // hold a previous record of their key
+        boolean hasOlderSegment = segments.lowerKey(segment.id) != null;
+        Set<K> touchedKeys = new HashSet<>();
+
+        try (DataInputStream in = segment.newInputStream()) {
+            long offset = 0;
+            while (offset < segment.size && !shutdown) {
+                int bodyLength = in.readInt();
+                in.readInt();
+                byte[] body = new byte[bodyLength];
+                in.readFully(body);
+                int length = RECORD_HEADER_SIZE + bodyLength;
+
+                ByteBuffer bodyBuffer = ByteBuffer.wrap(body);
+                byte type = bodyBuffer.get();
+                bodyBuffer.getLong();
+                int keyLength = bodyBuffer.getInt();
+                K key = (K) deserialize(body, BODY_HEADER_SIZE, keyLength);
+                if (type == PUT) {
+                    writeLock.lock();
+                    try {
+                        Location current = index.get(key);
+                        if (current != null && current.segment == segment && current.offset == offset) {
+                            byte[] value = Arrays.copyOfRange(body, BODY_HEADER_SIZE + keyLength, bodyLength);
+                            byte[] keyBytes = Arrays.copyOfRange(body, BODY_HEADER_SIZE, BODY_HEADER_SIZE + keyLength);
+                            Location moved = append(encode(PUT, current.timestamp, keyBytes, value), current.timestamp);
+                            moved.segment.liveBytes.addAndGet(moved.length);
+                            index.put(key, moved);
+                            segment.liveBytes.addAndGet(-current.length);
+                        }
+                    } finally {
+                        writeLock.unlock();
+                    }
+                } else if (hasOlderSegment && touchedKeys.add(key)) {
+                    byte[] keyBytes = Arrays.copyOfRange(body, BODY_HEADER_SIZE, BODY_HEADER_SIZE + keyLength);
+                    writeLock.lock();
+                    try {
+                        Location current = index.get(key);
+                        if (current == null) {
+                            append(encode(REMOVE, System.currentTimeMillis(), keyBytes, null), 0L);
+                        } else if (current.segment.id < segment.id) {
+                            append(encode(TOUCH, current.timestamp, keyBytes, null), current.timestamp);
+                        }
+                    } finally {
+                        writeLock.unlock();
+                    }
+                }
+                offset += length;
+            }
+        } catch (ClassNotFoundException ex) {
+            logger.log(Level.WARNING, debugStr + " Cannot compact " + segment.file, ex);
+            return;
+        }
+        if (shutdown) {
+            return;
+        }
+
+        writeLock.lock();
+        try {
+            activeSegment.channel.force(false);
+            segments.remove(segment.id);
+            segment.close(false);
+        } finally {
+            writeLock.unlock();
+        }
+        if (!segment.file.delete() && segment.file.exists()) {
+            logger.log(Level.WARNING, debugStr + " Couldn't remove file: " + segment.file);
+        }
+    }
+
+    /**
+     * Rebuilds the index from the segments found in the base directory.
+     *
+     * @return the id of the last segment, or 0 if there is none
+     */
+    private long recover() throws IOException {
+        File[] files = baseDir.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            return 0L;
+        }
+
+        long[] ids = new long[files.length];
+        int count = 0;
+        for (File file : files) {
+            String name = file.getName();
+            try {
+                ids[count] = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                count++;
+            } catch (NumberFormatException ex) {
+                logger.log(Level.WARNING, debugStr + " Ignoring unexpected file: " + file);
+            }
+        }
+        ids = Arrays.copyOf(ids, count);
+        Arrays.sort(ids);
+
+        for (long id : ids) {
+            Segment segment = openSegment(id);
+            replay(segment);
+        }
+        return count == 0 ? 0L : ids[count - 1];
+    }
+
+    private void replay(Segment segment) throws IOException {
+        long fileSize = segment.channel.size();
+        long offset = 0;
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = segment.newInputStream()) {
+            while (offset < fileSize) {
+                int bodyLength = in.readInt();
+                int checksum = in.readInt();
+                if (bodyLength < BODY_HEADER_SIZE || offset + RECORD_HEADER_SIZE + bodyLength > fileSize) {
+                    break;
+                }
+                byte[] body = new byte[bodyLength];
+                in.readFully(body);
+                crc.reset();
+                crc.update(body, 0, bodyLength);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                int length = RECORD_HEADER_SIZE + bodyLength;
+                ByteBuffer bodyBuffer = ByteBuffer.wrap(body);
+                byte type = bodyBuffer.get();
+                long timestamp = bodyBuffer.getLong();
+                int keyLength = bodyBuffer.getInt();
+                try {
+                    K key = (K) deserialize(body, BODY_HEADER_SIZE, keyLength);
+                    apply(key, type, new Location(segment, offset, length, timestamp));
+                } catch (ClassNotFoundException ex) {
+                    logger.log(Level.WARNING, debugStr + " Skipping a record of " + segment.file, ex);
+                }
+                offset += length;
+            }
+        } catch (EOFException ex) {
+            // torn record
+        }
+
+        if (offset < fileSize) {
+            logger.log(Level.WARNING, debugStr + " Truncating " + segment.file + " from " + fileSize
+                    + " to " + offset + " bytes, after its last complete record");
+            segment.channel.truncate(offset);
+        }
+        segment.size = offset;
+    }
+
+    private void apply(K key, byte type, Location location) {
+        Location previous;
+        switch (type) {
+            case PUT:
+                location.segment.liveBytes.addAndGet(location.length);
+                previous = index.put(key, location);
+                break;
+            case REMOVE:
+                previous = index.remove(key);
+                break;
+            case TOUCH:
+                index.computeIfPresent(key, (k, current) -> current.withTimestamp(location.timestamp));
+                previous = null;
+                break;
+            default:
+                throw new IllegalStateException("Unknown record type: " + type);
+        }
+        if (previous != null) {
+            previous.segment.liveBytes.addAndGet(-previous.length);
+        }
+    }
+
+    private Segment openSegment(long id) throws IOException {
+        File file = new File(baseDir, String.format("%s%016d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Segment segment = new Segment(id, file, channel);
+        segment.size = channel.size();
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private static ByteBuffer encode(byte type, long timestamp, byte[] key, byte[] value) {
+        int bodyLength = BODY_HEADER_SIZE + key.length + (value == null ? 0 : value.length);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + bodyLength);
+        record.putInt(bodyLength).putInt(0);
+        record.put(type).putLong(timestamp).putInt(key.length).put(key);
+        if (value != null) {
+            record.put(value);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), RECORD_HEADER_SIZE, bodyLength);
+        record.putInt(4, (int) crc.getValue());
+        record.flip();
+        return record;
+    }
+
+    private byte[] serialize(Object obj) throws BackingStoreException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(obj);
+        } catch (IOException ioEx) {
+            throw new BackingStoreException("Error during serialize", ioEx);
+        }
+        return bos.toByteArray();
+    }
+
+    private Object deserialize(byte[] data, int offset, int length) throws IOException, ClassNotFoundException {
+        ByteArrayInputStream bis = new ByteArrayInputStream(data, offset, length);
+        // the stream of the super class resolves the classes with the loader of the value class
+        Class<V> valueClazz = getBackingStoreConfiguration().getValueClazz();
+        try (ObjectInputStream ois = valueClazz == null || valueClazz.getClassLoader() == null
+                ? new ObjectInputStream(bis) : super.createObjectInputStream(bis)) {
+            return ois.readObject();
+        }
+    }
+
+    /**
+     * The location of the last record saved for a key.
+     */
+    private static final class Location {
+
+        final Segment segment;
+        final long offset;
+        final int length;
+        final long timestamp;
+
+        Location(Segment segment, long offset, int length, long timestamp) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.timestamp = timestamp;
+        }
+
+        Location withTimestamp(long newTimestamp) {
+            return new Location(segment, offset, length, newTimestamp);
+        }
+    }
+
+    private static final class Segment {
+
+        final long id;
+        final File file;
+        final FileChannel channel;
+
+        /**
+         * The number of bytes of the records which are the last one of their key.
+         */
+        final AtomicLong liveBytes = new AtomicLong();
+
+        /**
+         * Only changed while holding the write lock.
+         */
+        volatile long size;
+
+        Segment(long id, File file, FileChannel channel) {
+            this.id = id;
+            this.file = file;
+            this.channel = channel;
+        }
+
+        ByteBuffer read(long offset, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of " + file);
+                }
+                position += read;
+            }
+            return buffer;
+        }
+
+        DataInputStream newInputStream() {
+            // an independent stream, so the channel position is not shared
+            return new DataInputStream(new BufferedInputStream(new PositionalInputStream(channel), 64 * 1024));
+        }
+
+        void close(boolean force) {
+            try {
+                if (force && channel.isOpen()) {
+                    channel.force(false);
+                }
+                channel.close();
+            } catch (IOException ex) {
+                // nothing to do
+            }
+        }
+    }
+
+    /**
+     * Reads a channel from its start with positional reads.
+     */
+    private static final class PositionalInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private long position;
+
+        PositionalInputStream(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = channel.read(ByteBuffer.wrap(b, off, len), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() {
+            // the channel belongs to the segment
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.ha.store.adapter.file;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.glassfish.ha.store.api.BackingStore;
+import org.glassfish.ha.store.api.BackingStoreConfiguration;
+import org.glassfish.ha.store.api.BackingStoreFactory;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * Compares the {@link SegmentedFileBackingStore} with the file per key {@link FileBackingStore}.
+ * Each iteration saves the given number of 200 bytes entries, then removes half of them and
+ * rewrites a quarter, then runs an expiry sweep which finds no expired entry.
+ * <p>
+ * The benchmark runs with 10k entries, so that it can run with the tests. Run it with
+ * {@code -Dbenchmark.entries=10000,100000,1000000} to get the results of larger stores.
+ * Each operation is timed once in a new JVM without warmup, e.g.
+ * <pre>
+ * entries  store           save     remove/update  expiry sweep
+ * 10k      file            2.06 s   310 ms         42 ms
+ * 10k      segmented-file  249 ms   115 ms         8 ms
+ * 100k     file            21.5 s   2.30 s         230 ms
+ * 100k     segmented-file  1.57 s   498 ms         33 ms
+ * 1M       file            268 s    41.8 s         2.82 s
+ * 1M       segmented-file  7.03 s   5.81 s         441 ms
+ * </pre>
+ */
+public class SegmentedFileBackingStoreBenchmarkTest {
+
+    private static final String VALUE = "v".repeat(200);
+
+    @Test
+    public void saveRemoveAndExpire() throws Exception {
+        String entries = System.getProperty("benchmark.entries", "10000");
+        Options options = new OptionsBuilder()
+            .include(getClass().getName() + ".*")
+            .param("entries", entries.split(","))
+            .warmupIterations(0)
+            .measurementIterations(1)
+            .forks(1).threads(1).timeout(TimeValue.minutes(30L))
+            .timeUnit(TimeUnit.MILLISECONDS)
+            .mode(Mode.SingleShotTime).shouldFailOnError(true)
+            .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+        assertThat(results, hasSize(3 * 2 * entries.split(",").length));
+    }
+
+    @State(Scope.Thread)
+    public abstract static class Store {
+
+        @Param({"file", "segmented-file"})
+        String type;
+
+        @Param({"10000"})
+        int entries;
+
+        File baseDir;
+        BackingStore<String, String> store;
+
+        void open() throws Exception {
+            baseDir = Files.createTempDirectory("store-benchmark").toFile();
+            Logger logger = Logger.getAnonymousLogger();
+            logger.setLevel(java.util.logging.Level.WARNING);
+            BackingStoreConfiguration<String, String> conf = new BackingStoreConfiguration<>();
+            conf.setStoreName("benchmark-" + type).setInstanceName("instance1").setBaseDirectory(baseDir)
+                .setKeyClazz(String.class).setValueClazz(String.class).setLogger(logger);
+            BackingStoreFactory factory = type.equals("file") ? new FileBackingStoreFactory()
+                : new SegmentedFileBackingStoreFactory();
+            store = factory.createBackingStore(conf);
+        }
+
+        void saveAll() throws Exception {
+            for (int i = 0; i < entries; i++) {
+                store.save("key-" + i, VALUE, true);
+            }
+        }
+
+        void removeAndUpdate() throws Exception {
+            for (int i = 0; i < entries; i += 2) {
+                store.remove("key-" + i);
+            }
+            for (int i = 1; i < entries; i += 4) {
+                store.save("key-" + i, VALUE, false);
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void destroy() throws Exception {
+            store.destroy();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class EmptyStore extends Store {
+
+        @Setup(Level.Iteration)
+        public void setUp() throws Exception {
+            open();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FilledStore extends Store {
+
+        @Setup(Level.Iteration)
+        public void setUp() throws Exception {
+            open();
+            saveAll();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class UpdatedStore extends Store {
+
+        @Setup(Level.Iteration)
+        public void setUp() throws Exception {
+            open();
+            saveAll();
+            removeAndUpdate();
+        }
+    }
+
+    @Benchmark
+    public void save(EmptyStore store) throws Exception {
+        store.saveAll();
+    }
+
+    @Benchmark
+    public void removeAndUpdate(FilledStore store) throws Exception {
+        store.removeAndUpdate();
+    }
+
+    @Benchmark
+    public int removeExpired(UpdatedStore store) throws Exception {
+        return store.store.removeExpired(TimeUnit.HOURS.toMillis(1L));
+    }
+}
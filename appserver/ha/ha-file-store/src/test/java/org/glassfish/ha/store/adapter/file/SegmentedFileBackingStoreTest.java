@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.glassfish.ha.store.adapter.file;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.glassfish.ha.store.api.BackingStore;
+import org.glassfish.ha.store.api.BackingStoreConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SegmentedFileBackingStoreTest {
+
+    private static final String VALUE = "v".repeat(200);
+
+    @TempDir
+    File baseDir;
+
+    private final List<LogRecord> warnings = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch compacting = new CountDownLatch(1);
+    private volatile long compactionDelay;
+    private volatile boolean compactionResumed;
+    private Logger logger;
+    private BackingStore<String, String> store;
+
+    @BeforeEach
+    public void createLogger() {
+        logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new Handler() {
+
+            @Override
+            public void publish(LogRecord record) {
+                if (record.getLevel().intValue() >= Level.WARNING.intValue()) {
+                    warnings.add(record);
+                } else if (record.getMessage().contains("Compacting")) {
+                    // slows down the compaction, on its thread
+                    compacting.countDown();
+                    try {
+                        Thread.sleep(compactionDelay);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    compactionResumed = true;
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+
+    @AfterEach
+    public void closeStore() throws Exception {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    public void savedEntriesAreLoaded() throws Exception {
+        store = open(null, null);
+        store.save("a", "value-a", true);
+        store.save("b", "value-b", true);
+        store.save("a", "value-a2", false);
+
+        assertThat(store.load("a", null), equalTo("value-a2"));
+        assertThat(store.load("b", null), equalTo("value-b"));
+        assertThat(store.load("c", null), nullValue());
+        assertThat(store.size(), equalTo(2));
+    }
+
+    @Test
+    public void removedEntriesAreNotLoaded() throws Exception {
+        store = open(null, null);
+        store.save("a", "value-a", true);
+        store.save("b", "value-b", true);
+
+        store.remove("a");
+        store.remove("unknown");
+
+        assertThat(store.load("a", null), nullValue());
+        assertThat(store.load("b", null), equalTo("value-b"));
+        assertThat(store.size(), equalTo(1));
+    }
+
+    @Test
+    public void expiryUsesTheTimestampsOfTheIndex() throws Exception {
+        store = open(null, null);
+        long hourAgo = System.currentTimeMillis() - 3600_000L;
+        for (int i = 0; i < 10; i++) {
+            store.save("key-" + i, VALUE, true);
+        }
+        for (int i = 0; i < 4; i++) {
+            store.updateTimestamp("key-" + i, hourAgo);
+        }
+
+        assertThat(store.removeExpired(60_000L), equalTo(4));
+        assertThat(store.size(), equalTo(6));
+        assertThat(store.load("key-0", null), nullValue());
+        assertThat(store.load("key-4", null), equalTo(VALUE));
+    }
+
+    @Test
+    public void recoveryReplaysTheSegments() throws Exception {
+        // a few records per segment, never compacted
+        store = open("1024", "0");
+        long hourAgo = System.currentTimeMillis() - 3600_000L;
+        for (int i = 0; i < 100; i++) {
+            store.save("key-" + i, VALUE + i, true);
+        }
+        for (int i = 0; i < 30; i++) {
+            store.save("key-" + i, "updated-" + i, false);
+        }
+        for (int i = 30; i < 50; i++) {
+            store.remove("key-" + i);
+        }
+        for (int i = 50; i < 60; i++) {
+            store.updateTimestamp("key-" + i, hourAgo);
+        }
+        store.close();
+
+        store = open("1024", "0");
+        assertThat(store.size(), equalTo(80));
+        assertThat(store.load("key-0", null), equalTo("updated-0"));
+        assertThat(store.load("key-29", null), equalTo("updated-29"));
+        assertThat(store.load("key-30", null), nullValue());
+        assertThat(store.load("key-49", null), nullValue());
+        assertThat(store.load("key-99", null), equalTo(VALUE + 99));
+        // the timestamps are replayed too
+        assertThat(store.removeExpired(60_000L), equalTo(10));
+        assertThat(warnings, empty());
+    }
+
+    @Test
+    public void tornRecordIsTruncatedOnRecovery() throws Exception {
+        store = open(null, null);
+        store.save("a", "value-a", true);
+        store.save("b", "value-b", true);
+        store.close();
+
+        File segment = lastSegmentFile();
+        long length = segment.length();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(segment, true))) {
+            // the header of a record whose body was not written
+            out.writeInt(100);
+            out.writeInt(42);
+            out.write(new byte[10]);
+        }
+
+        store = open(null, null);
+        assertThat(store.size(), equalTo(2));
+        assertThat(store.load("b", null), equalTo("value-b"));
+        assertThat(segment.length(), equalTo(length));
+        assertThat(warnings, hasSize(1));
+        assertThat(warnings.get(0).getMessage(), containsString("Truncating"));
+
+        // the store appends after the last complete record
+        store.save("c", "value-c", true);
+        store.close();
+        store = open(null, null);
+        assertThat(store.size(), equalTo(3));
+        assertThat(store.load("c", null), equalTo("value-c"));
+    }
+
+    @Test
+    public void corruptedRecordEndsTheReplayOfItsSegment() throws Exception {
+        store = open(null, null);
+        store.save("a", "value-a", true);
+        store.close();
+        store = open(null, null);
+        store.save("b", "value-b", true);
+        store.close();
+
+        // the segment of b is the one opened by the second store
+        File segment = lastSegmentFile();
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(file.length() - 1);
+            int last = file.read();
+            file.seek(file.length() - 1);
+            file.write(last ^ 0xFF);
+        }
+
+        store = open(null, null);
+        assertThat(store.load("a", null), equalTo("value-a"));
+        assertThat(store.load("b", null), nullValue());
+        assertThat(segment.length(), equalTo(0L));
+    }
+
+    @Test
+    public void compactionDeletesTheSegmentsOfOverwrittenEntries() throws Exception {
+        store = open("4096", "0.5");
+        for (int round = 0; round < 200; round++) {
+            for (int i = 0; i < 10; i++) {
+                store.save("key-" + i, VALUE + round, false);
+            }
+        }
+        waitFor(() -> segmentFiles().size() < 10);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(store.load("key-" + i, null), equalTo(VALUE + 199));
+        }
+        store.close();
+
+        store = open("4096", "0.5");
+        assertThat(store.size(), equalTo(10));
+        for (int i = 0; i < 10; i++) {
+            assertThat(store.load("key-" + i, null), equalTo(VALUE + 199));
+        }
+        assertThat(warnings, empty());
+    }
+
+    @Test
+    public void compactionKeepsTheTombstonesOfOlderSegments() throws Exception {
+        store = open("4096", "0.5");
+        store.save("removed", VALUE, true);
+        for (int i = 0; !segmentFile(2).exists(); i++) {
+            store.save("kept-" + i, VALUE, true);
+        }
+        int kept = store.size() - 1;
+        // the first segment stays mostly live, the second one only holds the tombstone
+        // and overwritten entries, so only the second one is compacted
+        store.remove("removed");
+        while (!segmentFile(4).exists()) {
+            store.save("overwritten", VALUE, false);
+        }
+        waitFor(() -> !segmentFile(2).exists());
+        assertTrue(segmentFile(1).exists());
+        store.close();
+
+        store = open("4096", "0.5");
+        assertThat(store.load("removed", null), nullValue());
+        assertThat(store.load("overwritten", null), equalTo(VALUE));
+        assertThat(store.size(), equalTo(kept + 1));
+    }
+
+    @Test
+    public void closeWaitsForTheCompaction() throws Exception {
+        logger.setLevel(Level.FINE);
+        compactionDelay = 300L;
+        store = open("4096", "0.9");
+        for (int i = 0; compacting.getCount() > 0; i++) {
+            store.save("key-" + (i % 10), VALUE, false);
+        }
+        assertTrue(compacting.await(10, TimeUnit.SECONDS));
+        store.close();
+        store = null;
+
+        assertTrue(compactionResumed);
+        assertThat(warnings, empty());
+        store = open("4096", "0.9");
+        assertThat(store.size(), equalTo(10));
+    }
+
+    @Test
+    public void invalidSettingsAreLogged() throws Exception {
+        store = open("many", "2");
+
+        assertThat(warnings, hasSize(2));
+        assertThat(warnings.get(0).getMessage(), containsString("segment.size.in.bytes"));
+        assertThat(warnings.get(1).getMessage(), containsString("compaction.threshold"));
+        store.save("a", "value-a", true);
+        assertThat(segmentFiles(), hasSize(1));
+    }
+
+    private BackingStore<String, String> open(String segmentSize, String compactionThreshold) throws Exception {
+        BackingStoreConfiguration<String, String> conf = new BackingStoreConfiguration<>();
+        conf.setStoreName("test-store").setInstanceName("instance1").setBaseDirectory(baseDir)
+            .setKeyClazz(String.class).setValueClazz(String.class).setLogger(logger);
+        if (segmentSize != null) {
+            conf.getVendorSpecificSettings().put("segment.size.in.bytes", segmentSize);
+        }
+        if (compactionThreshold != null) {
+            conf.getVendorSpecificSettings().put("compaction.threshold", compactionThreshold);
+        }
+        return new SegmentedFileBackingStoreFactory().createBackingStore(conf);
+    }
+
+    private List<File> segmentFiles() {
+        List<File> files = new ArrayList<>();
+        for (File file : baseDir.listFiles()) {
+            if (file.getName().startsWith(SegmentedFileBackingStore.SEGMENT_PREFIX)) {
+                files.add(file);
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    private File segmentFile(long id) {
+        return new File(baseDir, String.format("%s%016d%s", SegmentedFileBackingStore.SEGMENT_PREFIX, id,
+            SegmentedFileBackingStore.SEGMENT_SUFFIX));
+    }
+
+    private File lastSegmentFile() throws IOException {
+        List<File> files = segmentFiles();
+        // the last file is the empty active segment of the closed store
+        for (int i = files.size() - 1; i >= 0; i--) {
+            if (files.get(i).length() > 0) {
+                return files.get(i);
+            }
+        }
+        throw new IOException("No segment with records in " + baseDir);
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.isTrue()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Condition {
+        boolean isTrue();
+    }
+}
@@ -72,7 +72,7 @@ import org.jvnet.hk2.config.types.PropertyBag;
 @UniqueResourceNameConstraint(message ="{resourcename.isnot.unique}", payload = JdbcConnectionPool.class)
 public interface JdbcConnectionPool extends ConfigBeanProxy, Resource, ResourcePool, PropertyBag {
 
-    String CONNECTION_VALIDATION_METHODS = "(auto-commit|meta-data|custom-validation|table)";
+    String CONNECTION_VALIDATION_METHODS = "(auto-commit|meta-data|custom-validation|table|is-valid)";
 
     String ISOLATION_LEVELS = "(read-uncommitted|read-committed|repeatable-read|serializable)";
 
@@ -338,6 +338,7 @@ public interface JdbcConnectionPool extends ConfigBeanProxy, Resource, ResourceP
      * <li>{@code auto-commit} using connection.autoCommit()</li>
      * <li>{@code meta-data} using connection.getMetaData()</li>
      * <li>{@code table} performing a query on a user specified table(see validation-table-name)</li>
+     * <li>{@code is-valid} using connection.isValid(timeout)</li>
      * </ul>
      *
      * @return possible object is {@link String}
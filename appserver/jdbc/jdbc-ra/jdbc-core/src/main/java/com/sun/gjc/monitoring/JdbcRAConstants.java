@@ -37,11 +37,21 @@ public interface JdbcRAConstants {
      */
     public static final String STATEMENT_CACHE_MISS = "statementCacheMissEvent";
 
+    /**
+     * Represents the statement cache eviction monitoring event.
+     */
+    public static final String STATEMENT_CACHE_EVICTION = "statementCacheEvictionEvent";
+
     /**
      * Represents caching of sql query event.
      */
     public static final String TRACE_SQL = "traceSQLEvent";
 
+    /**
+     * Represents the end of the execution of a traced sql query event.
+     */
+    public static final String SQL_EXECUTED = "sqlExecutedEvent";
+
     public static final String POTENTIAL_STATEMENT_LEAK = "potentialStatementLeakEvent";
 
     /**
@@ -89,4 +99,10 @@ public interface JdbcRAConstants {
      */
     public static final List<String> validSqlTracingMethodNames = Collections.unmodifiableList(Arrays.asList(
             "nativeSQL", "prepareCall", "prepareStatement", "addBatch", "execute", "executeQuery", "executeUpdate"));
+
+    /**
+     * List of method names executing a sql query, whose execution times are reported.
+     */
+    public static final List<String> sqlExecutionMethodNames = Collections.unmodifiableList(Arrays.asList(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch"));
 }
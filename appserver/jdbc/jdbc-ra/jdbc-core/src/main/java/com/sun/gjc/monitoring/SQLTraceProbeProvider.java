@@ -43,4 +43,21 @@ public class SQLTraceProbeProvider {
             @ProbeParam("sql") String sql) {
 
     }
+
+    /**
+     * Emits probe event/notification that the given connection pool
+     * <code>poolName</code>has executed a traced sql query
+     *
+     * @param poolName for which the sql query was executed
+     * @param sql sql query that was executed
+     * @param executionTime execution time in nanoseconds
+     */
+    @Probe(name=JdbcRAConstants.SQL_EXECUTED)
+    public void sqlExecutedEvent(@ProbeParam("poolName") String poolName,
+                                 @ProbeParam("appName") String appName,
+                                 @ProbeParam("moduleName") String moduleName,
+                                 @ProbeParam("sql") String sql,
+                                 @ProbeParam("executionTime") long executionTime) {
+
+    }
 }
@@ -22,6 +22,7 @@ import com.sun.enterprise.util.i18n.StringManager;
 import com.sun.gjc.common.DataSourceObjectBuilder;
 import com.sun.gjc.common.DataSourceSpec;
 import com.sun.gjc.monitoring.JdbcStatsProvider;
+import com.sun.gjc.spi.base.datastructure.PoolStatementCacheState;
 import com.sun.gjc.util.SQLTraceDelegator;
 import com.sun.logging.LogDomains;
 
@@ -103,6 +104,11 @@ public abstract class ManagedConnectionFactoryImpl
     private static Logger _logger = LogDomains.getLogger(ManagedConnectionFactoryImpl.class, LogDomains.RSR_LOGGER);
     protected static final StringManager localStrings = StringManager.getManager(DataSourceObjectBuilder.class);
 
+    /**
+     * Seconds given to the driver by the is-valid validation when no statement timeout is set.
+     */
+    private static final int DEFAULT_IS_VALID_TIMEOUT = 5;
+
     @Inject
     protected InvocationManager invocationManager;
 
@@ -121,6 +127,9 @@ public abstract class ManagedConnectionFactoryImpl
     private long statementLeakTimeout;
     private boolean statementLeakReclaim;
 
+    // State shared by the LFU statement caches of the connections of the pool
+    private transient PoolStatementCacheState statementCacheState;
+
     // Jdbc Stats provider that is created
     private JdbcStatsProvider jdbcStatsProvider;
 
@@ -345,6 +354,9 @@ public abstract class ManagedConnectionFactoryImpl
             isValidByMetaData(connection);
         } else if (validationMethod.equals("table")) {
             isValidByTableQuery(connection, spec.getDetail(DataSourceSpec.VALIDATIONTABLENAME));
+        } else if (validationMethod.equals("is-valid")) {
+            int timeout = managedConnectionImpl.getStatementTimeout();
+            isValidByIsValid(connection, timeout > 0 ? timeout : DEFAULT_IS_VALID_TIMEOUT);
         } else {
             throw new ResourceException("The validation method is not proper");
         }
@@ -442,6 +454,33 @@ public abstract class ManagedConnectionFactoryImpl
         }
     }
 
+    /**
+     * Checks if a <code>java.sql.Connection</code> is valid or not by asking the
+     * driver, which usually does a lightweight ping of the database.
+     *
+     * @param connection <code>java.sql.Connection</code> to be validated
+     * @param timeout seconds to wait for the database
+     * @throws ResourceException if the connection is not valid
+     */
+    protected void isValidByIsValid(Connection connection, int timeout) throws ResourceException {
+        if (connection == null) {
+            throw new ResourceException("The connection is not valid as the connection is null");
+        }
+
+        boolean isValid;
+        try {
+            isValid = connection.isValid(timeout);
+        } catch (Exception sqle) {
+            _logger.log(INFO, "jdbc.exc_is_valid_validation");
+            throw new ResourceException(sqle);
+        }
+
+        if (!isValid) {
+            _logger.log(INFO, "jdbc.exc_is_valid_validation");
+            throw new ResourceException("Connection.isValid detected invalid connection");
+        }
+    }
+
     /**
      * Checks if a <code>java.sql.Connection</code> is valid or not by querying a
      * table.
@@ -939,6 +978,26 @@ public abstract class ManagedConnectionFactoryImpl
         return spec.getDetail(DataSourceSpec.JDBC30DATASOURCE);
     }
 
+    /**
+     * Sets whether the JDBC objects are wrapped by generated classes rather than proxies.
+     *
+     * @param booleanValue <code>String</code>
+     * @see <code>getGeneratedJdbcWrappers</code>
+     */
+    public void setGeneratedJdbcWrappers(String booleanValue) {
+        spec.setDetail(DataSourceSpec.GENERATEDJDBCWRAPPERS, booleanValue);
+    }
+
+    /**
+     * Gets whether the JDBC objects are wrapped by generated classes rather than proxies.
+     *
+     * @return booleanValue
+     * @see <code>setGeneratedJdbcWrappers</code>
+     */
+    public String getGeneratedJdbcWrappers() {
+        return spec.getDetail(DataSourceSpec.GENERATEDJDBCWRAPPERS);
+    }
+
     /**
      * Sets the database name.
      *
@@ -1276,6 +1335,20 @@ public abstract class ManagedConnectionFactoryImpl
         return new PoolInfo(getPoolName(), getApplicationName(), getModuleName());
     }
 
+    /**
+     * Returns the state shared by the LFU statement caches of the connections of the pool,
+     * replaced by a new one when the statement cache size changes.
+     *
+     * @param cacheSize statement cache size of the connections
+     * @return the statement cache state of the pool
+     */
+    synchronized PoolStatementCacheState getStatementCacheState(int cacheSize) {
+        if (statementCacheState == null || statementCacheState.getCacheSize() != cacheSize) {
+            statementCacheState = new PoolStatementCacheState(cacheSize);
+        }
+        return statementCacheState;
+    }
+
     protected ManagedConnectionImpl constructManagedConnection(PooledConnection pc, Connection sqlCon,
             PasswordCredential passCred, ManagedConnectionFactoryImpl mcf) throws ResourceException {
         return new ManagedConnectionImpl(pc, sqlCon, passCred, mcf, getPoolInfo(), statementCacheSize,
@@ -1429,6 +1502,10 @@ public abstract class ManagedConnectionFactoryImpl
             jdbcStatsProvider = null;
             _logger.finest("Unregistered JDBCRA Stats Provider");
         }
+
+        synchronized (this) {
+            statementCacheState = null;
+        }
     }
 
     private void detectStatementLeakSupport() {
@@ -26,6 +26,7 @@ import com.sun.gjc.spi.base.ConnectionWrapper;
 import com.sun.gjc.spi.base.PreparedStatementWrapper;
 import com.sun.gjc.spi.base.datastructure.Cache;
 import com.sun.gjc.spi.base.datastructure.CacheFactory;
+import com.sun.gjc.spi.base.datastructure.PoolStatementCacheState;
 import com.sun.gjc.util.SQLTraceDelegator;
 import com.sun.gjc.util.StatementLeakDetector;
 import com.sun.logging.LogDomains;
@@ -217,7 +218,10 @@ public class ManagedConnectionImpl
         cacheType = statementCacheType;
         if (cacheSize > 0) {
             try {
-                statementCache = CacheFactory.getDataStructure(poolInfo, cacheType, cacheSize);
+                PoolStatementCacheState cacheState = "LFU".equals(cacheType)
+                    ? ((ManagedConnectionFactoryImpl) managedConnectionFactory).getStatementCacheState(cacheSize)
+                    : null;
+                statementCache = CacheFactory.getDataStructure(poolInfo, cacheType, cacheSize, cacheState);
                 statementCaching = true;
             } catch (ResourceException ex) {
                 _logger.severe(ex.getMessage());
@@ -59,6 +59,9 @@ public abstract class PreparedStatementWrapper extends StatementWrapper implemen
     private int currentFetchSize;
     private boolean valid = true;
 
+    // SQL of the statement, set when the calls are traced
+    private String sql;
+
     /**
      * Abstract class for wrapping PreparedStatement <br>
      *
@@ -95,6 +98,17 @@ public abstract class PreparedStatementWrapper extends StatementWrapper implemen
         }
     }
 
+    /**
+     * @return the SQL the statement was prepared with, if its calls are traced
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
     /**
      * Executes the SQL statement in this <code>PreparedStatement</code> object,
      * which must be an SQL <code>INSERT</code>, <code>UPDATE</code> or
@@ -43,6 +43,15 @@ public class CacheFactory {
     protected final static StringManager localStrings = StringManager.getManager(DataSourceObjectBuilder.class);
 
     public static Cache getDataStructure(PoolInfo poolInfo, String cacheType, int maxSize) throws ResourceException {
+        return getDataStructure(poolInfo, cacheType, maxSize, null);
+    }
+
+    /**
+     * @param poolState state shared by the LFU caches of the connections of the pool, or null
+     * to use a state private to the new cache
+     */
+    public static Cache getDataStructure(PoolInfo poolInfo, String cacheType, int maxSize,
+            PoolStatementCacheState poolState) throws ResourceException {
         Cache stmtCacheStructure;
 
         if (cacheType == null || cacheType.trim().equals("")) {
@@ -51,6 +60,11 @@ public class CacheFactory {
         } else if (cacheType.equals("FIXED")) {
             debug("Initializing FIXED Cache Implementation");
             stmtCacheStructure = new FIXEDCacheImpl(poolInfo, maxSize);
+        } else if (cacheType.equals("LFU")) {
+            debug("Initializing LFU Cache Implementation");
+            stmtCacheStructure = poolState == null
+                ? new LFUCacheImpl(poolInfo, maxSize)
+                : new LFUCacheImpl(poolInfo, maxSize, poolState);
         } else { // consider the value of cacheType as a className
             stmtCacheStructure = initCustomCacheStructurePrivileged(cacheType, maxSize);
         }
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.gjc.spi.base.datastructure;
+
+import com.sun.appserv.util.cache.FrequencySketch;
+import com.sun.gjc.monitoring.StatementCacheProbeProvider;
+import com.sun.gjc.spi.base.CacheObjectKey;
+import com.sun.gjc.spi.base.PreparedStatementWrapper;
+import com.sun.logging.LogDomains;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.glassfish.resourcebase.resources.api.PoolInfo;
+
+/**
+ * Concurrent statement cache with a frequency aware eviction policy.
+ * <p>
+ * Lookups do not take any lock. When the cache is full, the new statement only replaces the
+ * least frequently used statement which is not in use, the least recently used one among
+ * equally frequent statements, if it has been used more often than this statement. Otherwise
+ * the new statement is not cached, so a set of queries larger than the cache does not keep
+ * evicting the frequently used statements.
+ * <p>
+ * The access frequencies and the sql strings of the cached statements are shared by the caches
+ * of all the connections of the pool, see {@link PoolStatementCacheState}.
+ */
+public class LFUCacheImpl implements Cache {
+
+    protected final static Logger _logger = LogDomains.getLogger(LFUCacheImpl.class, LogDomains.RSR_LOGGER);
+
+    private final Map<CacheObjectKey, CacheEntry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Serializes the changes of the cache content.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong clock = new AtomicLong();
+
+    private final int maxSize;
+    private final PoolInfo poolInfo;
+    private final PoolStatementCacheState poolState;
+    private StatementCacheProbeProvider probeProvider;
+
+    public LFUCacheImpl(PoolInfo poolInfo, int maxSize) {
+        this(poolInfo, maxSize, new PoolStatementCacheState(maxSize));
+    }
+
+    public LFUCacheImpl(PoolInfo poolInfo, int maxSize, PoolStatementCacheState poolState) {
+        this.maxSize = maxSize;
+        this.poolInfo = poolInfo;
+        this.poolState = poolState;
+
+        try {
+            probeProvider = new StatementCacheProbeProvider();
+        } catch (Exception ex) {
+            _logger.log(Level.FINE, "Unable to create the statement cache probe provider", ex);
+        }
+    }
+
+    @Override
+    public Object checkAndUpdateCache(CacheObjectKey key) {
+        poolState.getFrequencies().increment(key);
+
+        CacheEntry entry = entries.get(key);
+        if (entry != null) {
+            entry.lastAccess = clock.incrementAndGet();
+            _logger.finest("Cache Hit");
+            if (probeProvider != null) {
+                probeProvider.statementCacheHitEvent(poolInfo.getName().toString(), poolInfo.getApplicationName(),
+                    poolInfo.getModuleName());
+            }
+            return entry.entryObj;
+        }
+
+        _logger.finest("Cache Miss");
+        if (probeProvider != null) {
+            probeProvider.statementCacheMissEvent(poolInfo.getName().toString(), poolInfo.getApplicationName(),
+                poolInfo.getModuleName());
+        }
+        return null;
+    }
+
+    @Override
+    public void addToCache(CacheObjectKey key, Object o, boolean force) {
+        lock.lock();
+        try {
+            CacheEntry existing = entries.get(key);
+            if (existing != null) {
+                if (force) {
+                    // the cached key keeps its interned sql
+                    entries.put(key, new CacheEntry(o, clock.incrementAndGet()));
+                    uncache(existing.entryObj, !((PreparedStatementWrapper) existing.entryObj).isBusy());
+                } else {
+                    uncache(o, false);
+                }
+                return;
+            }
+
+            if (entries.size() >= maxSize && !evictFor(key)) {
+                _logger.finest("Statement not admitted in the cache");
+                uncache(o, false);
+                return;
+            }
+
+            key.setSql(poolState.intern(key.getSql()));
+            entries.put(key, new CacheEntry(o, clock.incrementAndGet()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clearCache() {
+        _logger.fine("clearing objects in cache");
+        lock.lock();
+        try {
+            for (CacheObjectKey key : new ArrayList<>(entries.keySet())) {
+                if (entries.remove(key) != null) {
+                    poolState.release(key.getSql());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void flushCache() {
+        lock.lock();
+        try {
+            for (Map.Entry<CacheObjectKey, CacheEntry> entry : new ArrayList<>(entries.entrySet())) {
+                remove(entry.getKey());
+                uncache(entry.getValue().entryObj, true);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the least valuable statement which is not in use.
+     */
+    @Override
+    public void purge() {
+        lock.lock();
+        try {
+            CacheObjectKey victim = findVictim();
+            if (victim != null) {
+                evict(victim);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Used only for purging the bad statements.
+    @Override
+    public void purge(Object obj) {
+        lock.lock();
+        try {
+            for (Map.Entry<CacheObjectKey, CacheEntry> entry : entries.entrySet()) {
+                if (entry.getValue().entryObj.equals(obj)) {
+                    _logger.log(Level.FINEST, "Purging an entry from cache");
+                    remove(entry.getKey());
+                    uncache(obj, true);
+                    return;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public boolean isSynchronized() {
+        return true;
+    }
+
+    /**
+     * Evicts a statement to make room for the candidate, if the candidate is used more often.
+     *
+     * @return false if the candidate is not to be cached
+     */
+    private boolean evictFor(CacheObjectKey candidate) {
+        CacheObjectKey victim = findVictim();
+        if (victim == null) {
+            return false;
+        }
+        FrequencySketch frequencies = poolState.getFrequencies();
+        if (frequencies.frequency(candidate) <= frequencies.frequency(victim)) {
+            return false;
+        }
+        evict(victim);
+        return true;
+    }
+
+    /**
+     * @return the least frequently, then least recently, used statement which is not in use
+     */
+    private CacheObjectKey findVictim() {
+        FrequencySketch frequencies = poolState.getFrequencies();
+        CacheObjectKey victim = null;
+        int victimFrequency = Integer.MAX_VALUE;
+        long victimAccess = Long.MAX_VALUE;
+        for (Map.Entry<CacheObjectKey, CacheEntry> entry : entries.entrySet()) {
+            CacheEntry cacheEntry = entry.getValue();
+            if (((PreparedStatementWrapper) cacheEntry.entryObj).isBusy()) {
+                continue;
+            }
+            int frequency = frequencies.frequency(entry.getKey());
+            if (frequency < victimFrequency || (frequency == victimFrequency && cacheEntry.lastAccess < victimAccess)) {
+                victim = entry.getKey();
+                victimFrequency = frequency;
+                victimAccess = cacheEntry.lastAccess;
+            }
+        }
+        return victim;
+    }
+
+    private void evict(CacheObjectKey key) {
+        CacheEntry entry = remove(key);
+        if (entry == null) {
+            return;
+        }
+        uncache(entry.entryObj, true);
+        if (probeProvider != null) {
+            probeProvider.statementCacheEvictionEvent(poolInfo.getName().toString(), poolInfo.getApplicationName(),
+                poolInfo.getModuleName());
+        }
+    }
+
+    private CacheEntry remove(CacheObjectKey key) {
+        CacheEntry entry = entries.remove(key);
+        if (entry != null) {
+            poolState.release(key.getSql());
+        }
+        return entry;
+    }
+
+    /**
+     * Marks the statement as not cached, so that it is closed by the application, and closes
+     * it if requested.
+     */
+    private static void uncache(Object entryObj, boolean close) {
+        PreparedStatementWrapper ps = (PreparedStatementWrapper) entryObj;
+        ps.setCached(false);
+        if (close) {
+            try {
+                ps.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Cache object that has an entry, and the time of its last access.
+     */
+    private static final class CacheEntry {
+
+        private final Object entryObj;
+        private volatile long lastAccess;
+
+        CacheEntry(Object o, long lastAccess) {
+            this.entryObj = o;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
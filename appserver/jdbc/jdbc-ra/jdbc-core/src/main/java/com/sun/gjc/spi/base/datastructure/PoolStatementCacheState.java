@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.gjc.spi.base.datastructure;
+
+import com.sun.appserv.util.cache.FrequencySketch;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * State shared by the statement caches of all the connections of a pool: the interned sql
+ * strings of the cached statements and the access frequencies of the statements.
+ * <p>
+ * An sql string is kept as long as a statement of one of the caches uses it, so the caches of
+ * a pool hold a single copy of each query. The state is held by the managed connection factory
+ * of the pool, so it goes away with the pool and is replaced when the statement cache size
+ * changes.
+ *
+ * @see LFUCacheImpl
+ */
+public final class PoolStatementCacheState {
+
+    private final Map<String, InternedSql> sqlStrings = new ConcurrentHashMap<>();
+    private final FrequencySketch frequencies;
+    private final int cacheSize;
+
+    /**
+     * @param cacheSize size of the statement cache of each connection
+     */
+    public PoolStatementCacheState(int cacheSize) {
+        this.frequencies = new FrequencySketch(cacheSize);
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * @return the size of the statement cache of each connection
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    FrequencySketch getFrequencies() {
+        return frequencies;
+    }
+
+    /**
+     * Returns the shared copy of the sql string, which is kept until it is released as many
+     * times as it was interned.
+     */
+    String intern(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        return sqlStrings.compute(sql, (key, interned) -> {
+            if (interned == null) {
+                interned = new InternedSql(key);
+            }
+            interned.references++;
+            return interned;
+        }).sql;
+    }
+
+    void release(String sql) {
+        if (sql == null) {
+            return;
+        }
+        sqlStrings.computeIfPresent(sql, (key, interned) -> --interned.references == 0 ? null : interned);
+    }
+
+    /**
+     * An sql string and the number of cached statements using it, only accessed in the
+     * remapping functions of the map.
+     */
+    private static final class InternedSql {
+
+        private final String sql;
+        private int references;
+
+        InternedSql(String sql) {
+            this.sql = sql;
+        }
+    }
+}
@@ -20,10 +20,13 @@ package com.sun.gjc.util;
 import com.sun.logging.LogDomains;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Timer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -32,14 +35,32 @@ import org.glassfish.api.naming.SimpleJndiName;
 /**
  * Maintains the Sql Tracing Cache used to store SQL statements used by the
  * applications. This is used by the JDBCRA monitoring to display the most
- * frequently used queries by applications.
+ * frequently used queries by applications, and their execution times.
+ * <p>
+ * The most frequently used queries are found with the Space-Saving algorithm:
+ * a bounded number of queries is tracked, and a new query replaces the least
+ * used tracked query, inheriting its number of executions as an overestimate.
+ * Any query executed more than once in every {@code capacity} executions is
+ * tracked. Tracing an already tracked query does not take any lock.
+ * <p>
+ * Each tracked query has a {@link LatencyHistogram} of its execution times.
  *
  * @author Shalini M
  */
 public class SQLTraceCache {
 
-    // List of sql trace objects
-    private final List<SQLTrace> list;
+    /**
+     * Number of tracked queries for each query to report.
+     */
+    private static final int CAPACITY_FACTOR = 10;
+
+    private static final int MIN_CAPACITY = 64;
+
+    // Tracked queries by sql
+    private final Map<String, TracedQuery> queries = new ConcurrentHashMap<>();
+    // Serializes the replacements of tracked queries
+    private final ReentrantLock replacementLock = new ReentrantLock();
+    private final int capacity;
     // Maximum size of the cache.
     private int numTopQueriesToReport = 10;
     private long timeToKeepQueries = 60 * 1000;
@@ -55,11 +76,18 @@ public class SQLTraceCache {
         this.appName = appName;
         this.moduleName = moduleName;
         this.numTopQueriesToReport = maxSize;
-        list = new ArrayList<>();
+        this.capacity = Math.max(MIN_CAPACITY, maxSize * CAPACITY_FACTOR);
         this.timeToKeepQueries = timeToKeepQueries * 60 * 1000;
     }
 
+    /**
+     * @return the top queries, most frequently used first
+     */
     public List<SQLTrace> getSqlTraceList() {
+        List<SQLTrace> list = new ArrayList<>();
+        for (TracedQuery query : getTopTracedQueries()) {
+            list.add(new SQLTrace(query.sql, (int) Math.min(Integer.MAX_VALUE, query.executions.sum()), query.lastUsageTime));
+        }
         return list;
     }
 
@@ -116,57 +144,70 @@ public class SQLTraceCache {
     }
 
     /**
-     * Request for adding a sql query in the form of SQLTrace to this cache. If the
-     * query is already found in the list, the number of times it is executed is
-     * incremented by one along with the timestamp. If the query is a new one, it is
-     * added to the list.
+     * Request for adding a sql query in the form of SQLTrace to this cache.
      *
      * @param cacheObj
-     * @return
+     * @see #checkAndUpdateCache(String)
      */
     public void checkAndUpdateCache(SQLTrace cacheObj) {
-        synchronized (list) {
-            if (cacheObj != null) {
-                int index = list.indexOf(cacheObj);
-                if (index != -1) {
-                    // If already found in the cache
-                    // equals is invoked here and hence comparison based on query name is done
-                    // Get the object at the index to update the numExecutions
-                    SQLTrace cache = list.get(index);
-                    cache.setNumExecutions(cache.getNumExecutions() + 1);
-                    cache.setLastUsageTime(System.currentTimeMillis());
-                } else {
-                    // First occurrence of the query. query to be added.
-                    cacheObj.setNumExecutions(1);
-                    cacheObj.setLastUsageTime(System.currentTimeMillis());
-                    list.add(cacheObj);
-                }
-            }
+        if (cacheObj != null) {
+            checkAndUpdateCache(cacheObj.getQueryName());
         }
     }
 
     /**
-     * Entries are removed from the list after sorting them in the least frequently
-     * used order. Only numTopQueriesToReport number of entries are maintained in
-     * the list after the purgeEntries.
+     * Counts an execution of the sql query. If the query is not tracked yet, it
+     * replaces the least used tracked query when the cache is full.
+     *
+     * @param sql sql query
+     */
+    public void checkAndUpdateCache(String sql) {
+        if (sql == null) {
+            return;
+        }
+        TracedQuery query = queries.get(sql);
+        if (query == null) {
+            query = track(sql);
+        }
+        query.executions.increment();
+        query.lastUsageTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Records the execution time of the sql query, if it is tracked.
+     *
+     * @param sql sql query
+     * @param nanos execution time in nanoseconds
+     */
+    public void recordExecutionTime(String sql, long nanos) {
+        if (sql == null) {
+            return;
+        }
+        TracedQuery query = queries.get(sql);
+        if (query != null) {
+            query.latencies.record(nanos);
+        }
+    }
+
+    /**
+     * Stops tracking the queries which were not used during the last time to keep
+     * queries.
      */
     public void purgeEntries() {
-        synchronized (list) {
-            Collections.sort(list, Collections.reverseOrder());
-            Iterator<SQLTrace> i = list.iterator();
-            while (i.hasNext()) {
-                SQLTrace cacheObj = i.next();
-                if (list.size() > numTopQueriesToReport) {
-                    if (_logger.isLoggable(Level.FINEST)) {
-                        _logger.finest("removing sql=" + cacheObj.getQueryName());
-                    }
-                    i.remove();
-                } else {
-                    break;
+        long oldestUsageTime = System.currentTimeMillis() - timeToKeepQueries;
+        replacementLock.lock();
+        try {
+            queries.values().removeIf(query -> {
+                if (query.lastUsageTime >= oldestUsageTime) {
+                    return false;
                 }
-            }
-            // sort by most frequently used queries first
-            Collections.sort(list);
+                if (_logger.isLoggable(Level.FINEST)) {
+                    _logger.finest("removing sql=" + query.sql);
+                }
+                return true;
+            });
+        } finally {
+            replacementLock.unlock();
         }
     }
 
@@ -179,12 +220,89 @@ public class SQLTraceCache {
      * @return string representation of the list of sql queries sorted
      */
     public String getTopQueries() {
-        purgeEntries();
-        StringBuffer sb = new StringBuffer();
-        for (SQLTrace cache : list) {
+        StringBuilder sb = new StringBuilder();
+        for (TracedQuery query : getTopTracedQueries()) {
             sb.append(LINE_BREAK);
-            sb.append(cache.getQueryName());
+            sb.append(query.sql);
         }
         return sb.toString();
     }
+
+    /**
+     * Returns the String representation of the execution times of the top queries,
+     * in the order of {@link #getTopQueries()}.
+     *
+     * @return the number of executions, the median, 99th percentile and maximum
+     *         execution times, and the sql of each query
+     */
+    public String getTopQueryExecutionTimes() {
+        StringBuilder sb = new StringBuilder();
+        for (TracedQuery query : getTopTracedQueries()) {
+            sb.append(LINE_BREAK);
+            sb.append(query.latencies);
+            sb.append(' ');
+            sb.append(query.sql);
+        }
+        return sb.toString();
+    }
+
+    private TracedQuery track(String sql) {
+        replacementLock.lock();
+        try {
+            TracedQuery query = queries.get(sql);
+            if (query != null) {
+                return query;
+            }
+            long inheritedExecutions = 0;
+            if (queries.size() >= capacity) {
+                TracedQuery leastUsed = null;
+                long leastExecutions = Long.MAX_VALUE;
+                for (TracedQuery candidate : queries.values()) {
+                    long executions = candidate.executions.sum();
+                    if (executions < leastExecutions) {
+                        leastUsed = candidate;
+                        leastExecutions = executions;
+                    }
+                }
+                if (leastUsed != null) {
+                    queries.remove(leastUsed.sql);
+                    inheritedExecutions = leastExecutions;
+                }
+            }
+            query = new TracedQuery(sql, inheritedExecutions);
+            queries.put(sql, query);
+            return query;
+        } finally {
+            replacementLock.unlock();
+        }
+    }
+
+    /**
+     * @return the numTopQueriesToReport most frequently used queries, the most
+     *         recently used first among equally used ones
+     */
+    private List<TracedQuery> getTopTracedQueries() {
+        List<TracedQuery> list = new ArrayList<>(queries.values());
+        // sort by most frequently used queries first
+        list.sort(Comparator.comparingLong((TracedQuery query) -> query.executions.sum())
+            .thenComparingLong(query -> query.lastUsageTime).reversed());
+        return list.size() > numTopQueriesToReport ? list.subList(0, numTopQueriesToReport) : list;
+    }
+
+    /**
+     * A tracked query. Executions counted by a thread while the query is being
+     * replaced may be lost, which Space-Saving tolerates.
+     */
+    private static final class TracedQuery {
+
+        private final String sql;
+        private final LongAdder executions = new LongAdder();
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private volatile long lastUsageTime;
+
+        TracedQuery(String sql, long inheritedExecutions) {
+            this.sql = sql;
+            this.executions.add(inheritedExecutions);
+        }
+    }
 }
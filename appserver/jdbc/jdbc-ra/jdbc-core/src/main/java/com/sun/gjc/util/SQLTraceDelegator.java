@@ -18,6 +18,7 @@ package com.sun.gjc.util;
 
 import com.sun.gjc.monitoring.JdbcRAConstants;
 import com.sun.gjc.monitoring.SQLTraceProbeProvider;
+import com.sun.gjc.spi.base.PreparedStatementWrapper;
 import com.sun.logging.LogDomains;
 
 import java.util.ArrayList;
@@ -109,6 +110,29 @@ public class SQLTraceDelegator implements SQLTraceListener {
         }
     }
 
+    /**
+     * Reports the execution time of a traced call which executed a sql query. The calls preparing
+     * a statement are not reported, and the calls of a prepared statement without a sql query are
+     * reported with the query of the statement.
+     *
+     * @param record record of the call, passed to {@link #sqlTrace(SQLTraceRecord)} before the call
+     * @param target the object the call was made on
+     * @param executionTime execution time of the call in nanoseconds
+     */
+    public void sqlExecuted(SQLTraceRecord record, Object target, long executionTime) {
+        if (record == null || !JdbcRAConstants.sqlExecutionMethodNames.contains(record.getMethodName())) {
+            return;
+        }
+        String sqlQuery = record.getSqlQuery().orElse(null);
+        if (sqlQuery == null && target instanceof PreparedStatementWrapper) {
+            sqlQuery = ((PreparedStatementWrapper) target).getSql();
+        }
+        if (sqlQuery != null) {
+            probeProvider.sqlExecutedEvent(poolName.toString(), record.getApplicationName(), record.getModuleName(),
+                    sqlQuery, executionTime);
+        }
+    }
+
     private Optional<StackWalker.StackFrame> getCallingApplicationStackFrame() {
         Set<Class<?>> checkedClasses = new HashSet<>();
         checkedClasses.add(this.getClass());
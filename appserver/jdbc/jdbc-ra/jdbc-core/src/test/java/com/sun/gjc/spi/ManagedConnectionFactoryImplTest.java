@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.gjc.spi;
+
+import com.sun.gjc.spi.base.datastructure.PoolStatementCacheState;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ManagedConnectionFactoryImplTest {
+
+    @Test
+    public void connectionsShareTheStatementCacheState() {
+        ManagedConnectionFactoryImpl factory = new DSManagedConnectionFactory();
+        PoolStatementCacheState state = factory.getStatementCacheState(10);
+
+        assertThat(state.getCacheSize(), equalTo(10));
+        assertThat(factory.getStatementCacheState(10), sameInstance(state));
+    }
+
+    @Test
+    public void statementCacheStateIsReplacedWhenTheCacheSizeChanges() {
+        ManagedConnectionFactoryImpl factory = new DSManagedConnectionFactory();
+        PoolStatementCacheState state = factory.getStatementCacheState(10);
+
+        PoolStatementCacheState resized = factory.getStatementCacheState(20);
+
+        assertThat(resized, not(sameInstance(state)));
+        assertThat(resized.getCacheSize(), equalTo(20));
+    }
+
+    @Test
+    public void statementCacheStateIsDroppedWithThePool() {
+        ManagedConnectionFactoryImpl factory = new DSManagedConnectionFactory();
+        PoolStatementCacheState state = factory.getStatementCacheState(10);
+
+        factory.mcfDestroyed();
+
+        assertThat(factory.getStatementCacheState(10), not(sameInstance(state)));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package com.sun.gjc.util;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void emptyHistogramHasNoPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.getCount(), equalTo(0L));
+        assertThat(histogram.getPercentile(50), equalTo(0L));
+        assertThat(histogram.getPercentile(99), equalTo(0L));
+        assertThat(histogram.getMax(), equalTo(0L));
+    }
+
+    @Test
+    public void percentilesAreUpperBoundsOfTheBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(MICROSECONDS.toNanos(100));
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(MICROSECONDS.toNanos(5000));
+        }
+
+        assertThat(histogram.getCount(), equalTo(100L));
+        // 100us is in the bucket of the times below 128us
+        assertThat(histogram.getPercentile(50), equalTo(128L));
+        assertThat(histogram.getPercentile(90), equalTo(128L));
+        // 5000us is in the bucket of the times below 8192us, bounded by the maximum
+        assertThat(histogram.getPercentile(91), equalTo(5000L));
+        assertThat(histogram.getPercentile(99), equalTo(5000L));
+        assertThat(histogram.getPercentile(100), equalTo(5000L));
+        assertThat(histogram.getMax(), equalTo(5000L));
+    }
+
+    @Test
+    public void smallestPercentileIsTheFirstExecution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(MICROSECONDS.toNanos(3));
+        histogram.record(MICROSECONDS.toNanos(1000));
+
+        assertThat(histogram.getPercentile(0), equalTo(4L));
+        assertThat(histogram.getPercentile(50), equalTo(4L));
+        assertThat(histogram.getPercentile(51), equalTo(1000L));
+    }
+
+    @Test
+    public void subMicrosecondAndNegativeTimesAreRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(500);
+        histogram.record(-1);
+
+        assertThat(histogram.getCount(), equalTo(2L));
+        assertThat(histogram.getPercentile(99), equalTo(0L));
+        assertThat(histogram.getMax(), equalTo(0L));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package com.sun.gjc.util;
+
+import java.util.List;
+
+import org.glassfish.api.naming.SimpleJndiName;
+import org.junit.jupiter.api.Test;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+
+public class SQLTraceCacheTest {
+
+    private static final String LINE_BREAK = "%%%EOL%%%";
+
+    @Test
+    public void topQueriesAreTheMostFrequentlyExecuted() {
+        SQLTraceCache cache = newCache(2);
+        execute(cache, "SELECT A", 3);
+        execute(cache, "SELECT B", 5);
+        execute(cache, "SELECT C", 1);
+
+        List<SQLTrace> top = cache.getSqlTraceList();
+        assertThat(top, hasSize(2));
+        assertThat(top.get(0).getQueryName(), equalTo("SELECT B"));
+        assertThat(top.get(0).getNumExecutions(), equalTo(5));
+        assertThat(top.get(1).getQueryName(), equalTo("SELECT A"));
+        assertThat(top.get(1).getNumExecutions(), equalTo(3));
+        assertThat(cache.getTopQueries(), equalTo(LINE_BREAK + "SELECT B" + LINE_BREAK + "SELECT A"));
+    }
+
+    @Test
+    public void newQueryReplacesTheLeastExecutedWhenFull() {
+        // 2 top queries are reported out of at least 64 tracked ones
+        SQLTraceCache cache = newCache(2);
+        for (int i = 0; i < 64; i++) {
+            execute(cache, "SELECT " + i, i == 0 ? 1 : 2);
+        }
+        execute(cache, "SELECT HOT", 3);
+
+        // the hot query inherits the single execution of the replaced one, as in Space-Saving
+        List<SQLTrace> top = cache.getSqlTraceList();
+        assertThat(top.get(0).getQueryName(), equalTo("SELECT HOT"));
+        assertThat(top.get(0).getNumExecutions(), equalTo(4));
+
+        SQLTraceCache all = newCache(100);
+        for (int i = 0; i < 64; i++) {
+            execute(all, "SELECT " + i, i == 0 ? 1 : 2);
+        }
+        execute(all, "SELECT HOT", 3);
+        assertThat(all.getSqlTraceList(), hasSize(65));
+    }
+
+    @Test
+    public void frequentQueryIsReportedAfterManyRareOnes() {
+        SQLTraceCache cache = newCache(1);
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 100; i++) {
+                execute(cache, "SELECT RARE " + round + " " + i, 1);
+            }
+            execute(cache, "SELECT FREQUENT", 10);
+        }
+
+        assertThat(cache.getSqlTraceList().get(0).getQueryName(), equalTo("SELECT FREQUENT"));
+    }
+
+    @Test
+    public void executionTimesAreRecordedForTrackedQueriesOnly() {
+        SQLTraceCache cache = newCache(10);
+        execute(cache, "SELECT A", 1);
+        cache.recordExecutionTime("SELECT A", MICROSECONDS.toNanos(100));
+        cache.recordExecutionTime("SELECT UNKNOWN", MICROSECONDS.toNanos(100));
+        cache.recordExecutionTime(null, MICROSECONDS.toNanos(100));
+
+        String times = cache.getTopQueryExecutionTimes();
+        assertThat(times, equalTo(LINE_BREAK + "count=1 p50=100us p99=100us max=100us SELECT A"));
+        assertThat(times, not(containsString("UNKNOWN")));
+    }
+
+    @Test
+    public void purgeRemovesQueriesNotUsedRecently() throws Exception {
+        SQLTraceCache cache = new SQLTraceCache(new SimpleJndiName("jdbc/test"), null, null, 10, 0);
+        execute(cache, "SELECT A", 1);
+        Thread.sleep(5);
+        cache.purgeEntries();
+
+        assertThat(cache.getSqlTraceList(), hasSize(0));
+    }
+
+    private static SQLTraceCache newCache(int numTopQueriesToReport) {
+        return new SQLTraceCache(new SimpleJndiName("jdbc/test"), null, null, numTopQueriesToReport, 5);
+    }
+
+    private static void execute(SQLTraceCache cache, String sql, int times) {
+        for (int i = 0; i < times; i++) {
+            cache.checkAndUpdateCache(sql);
+        }
+    }
+}
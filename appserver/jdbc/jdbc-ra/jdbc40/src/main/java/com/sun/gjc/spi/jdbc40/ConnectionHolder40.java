@@ -59,6 +59,9 @@ public class ConnectionHolder40 extends ConnectionHolder {
     protected Properties defaultClientInfo;
     protected boolean jdbc30Connection;
 
+    // indicates whether objects are wrapped by generated classes rather than proxies
+    protected boolean generatedWrappers;
+
     /**
      * Connection wrapper given to application program
      *
@@ -74,6 +77,10 @@ public class ConnectionHolder40 extends ConnectionHolder {
         }
     }
 
+    void setGeneratedWrappers(boolean generatedWrappers) {
+        this.generatedWrappers = generatedWrappers;
+    }
+
     /**
      * cache the default client info which can will set back during close()<br>
      * as this connection may be re-used by connection pool of application
@@ -502,6 +509,13 @@ public class ConnectionHolder40 extends ConnectionHolder {
      */
     @SuppressWarnings("unchecked")
     private <T> T getProxyObject(final Object actualObject, Class<T>[] ifaces) throws SQLException {
+        if (generatedWrappers) {
+            T wrapper = JdbcWrapperGenerator.newUnwrapWrapper(actualObject, ifaces, this);
+            if (wrapper != null) {
+                return wrapper;
+            }
+        }
+
         InvocationHandler invocationHandler;
         try {
             invocationHandler = new InvocationHandler() {
@@ -25,7 +25,10 @@ import com.sun.gjc.util.SQLTraceDelegator;
 import jakarta.resource.spi.ConnectionManager;
 
 import java.lang.reflect.Method;
+import java.sql.CallableStatement;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
 import java.util.logging.Level;
 
 import javax.sql.DataSource;
@@ -39,12 +42,20 @@ public class Jdbc40ObjectsFactory extends JdbcObjectsFactory {
 
     private static final long serialVersionUID = 1L;
 
+    private static final Class<?>[] TRACED_INTERFACES = { Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class };
+
     // indicates whether JDBC 3.0 Connection (and hence JDBC 3.0 DataSource) is used
     private boolean jdbc30Connection;
 
     // indicates whether detection of JDBC 3.0 Datasource in JDK 1.6 is done or not
     private boolean initJDBC30Connection;
 
+    // indicates whether JDBC objects are wrapped by generated classes rather than proxies
+    private boolean generatedWrappers;
+
+    // indicates whether detection of the generated wrappers is done or not
+    private boolean initGeneratedWrappers;
+
     /**
      * To get an instance of ConnectionHolder40.<br>
      * Will return a ConnectionHolder40 with or without wrapper<br>
@@ -58,10 +69,13 @@ public class Jdbc40ObjectsFactory extends JdbcObjectsFactory {
     @Override
     public ConnectionHolder getConnection(Connection conObject, ManagedConnectionImpl mcObject,
             jakarta.resource.spi.ConnectionRequestInfo criObject, boolean statementWrapping, SQLTraceDelegator sqlTraceDelegator) {
-        ConnectionHolder connection = null;
+        ConnectionHolder40 connection = null;
         if (!initJDBC30Connection) {
             detectJDBC30Connection(conObject, mcObject);
         }
+        if (!initGeneratedWrappers) {
+            detectGeneratedWrappers(mcObject, sqlTraceDelegator != null);
+        }
 
         if (statementWrapping) {
             if (sqlTraceDelegator != null) {
@@ -74,9 +88,24 @@ public class Jdbc40ObjectsFactory extends JdbcObjectsFactory {
         } else {
             connection = new ConnectionHolder40(conObject, mcObject, criObject, jdbc30Connection);
         }
+        connection.setGeneratedWrappers(generatedWrappers);
         return connection;
     }
 
+    /**
+     * Wraps the object in a generated tracing wrapper if the pool uses them, or in a proxy.
+     */
+    @Override
+    protected <T> T getProxyObject(Object actualObject, Class<T>[] ifaces, SQLTraceDelegator sqlTraceDelegator) throws Exception {
+        if (generatedWrappers) {
+            T wrapper = JdbcWrapperGenerator.newTracingWrapper(actualObject, ifaces, sqlTraceDelegator);
+            if (wrapper != null) {
+                return wrapper;
+            }
+        }
+        return super.getProxyObject(actualObject, ifaces, sqlTraceDelegator);
+    }
+
     /**
      * Returns a DataSource instance for JDBC 4.0
      *
@@ -101,6 +130,31 @@ public class Jdbc40ObjectsFactory extends JdbcObjectsFactory {
         return initJDBC30Connection;
     }
 
+    public boolean isGeneratedWrappers() {
+        return generatedWrappers;
+    }
+
+    /**
+     * Detects whether the pool asked for generated wrappers, and generates the classes of
+     * the tracing wrappers of the standard interfaces up front when SQL is traced.
+     *
+     * @param mcObject ManagedConnection
+     * @param sqlTracing whether SQL is traced
+     */
+    public void detectGeneratedWrappers(ManagedConnectionImpl mcObject, boolean sqlTracing) {
+        boolean requested = Boolean.parseBoolean(mcObject.getManagedConnectionFactory().getGeneratedJdbcWrappers());
+        generatedWrappers = requested && JdbcWrapperGenerator.isAvailable();
+        if (requested && !generatedWrappers) {
+            _logger.log(Level.WARNING, "ASM is not available to the JDBC resource adapter, JDBC objects are wrapped by proxies");
+        }
+        if (generatedWrappers && sqlTracing) {
+            for (Class<?> iface : TRACED_INTERFACES) {
+                JdbcWrapperGenerator.prepareTracingWrapper(new Class<?>[] { iface });
+            }
+        }
+        initGeneratedWrappers = true;
+    }
+
     public void detectJDBC30Connection(Connection con, ManagedConnectionImpl mcObject) {
         String dataSourceProperty = mcObject.getManagedConnectionFactory().getJdbc30DataSource();
         if (dataSourceProperty != null) {
@@ -0,0 +1,346 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package com.sun.gjc.spi.jdbc40;
+
+import com.sun.gjc.util.SQLTraceDelegator;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.glassfish.api.jdbc.SQLTraceRecord;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import static org.objectweb.asm.Opcodes.AASTORE;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ACC_SYNTHETIC;
+import static org.objectweb.asm.Opcodes.ACONST_NULL;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ANEWARRAY;
+import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.ATHROW;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.DCONST_0;
+import static org.objectweb.asm.Opcodes.DUP;
+import static org.objectweb.asm.Opcodes.FCONST_0;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.ICONST_0;
+import static org.objectweb.asm.Opcodes.ILOAD;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.IRETURN;
+import static org.objectweb.asm.Opcodes.ISTORE;
+import static org.objectweb.asm.Opcodes.LCONST_0;
+import static org.objectweb.asm.Opcodes.LLOAD;
+import static org.objectweb.asm.Opcodes.LSTORE;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V11;
+
+/**
+ * Writes the classes of the wrappers generated by {@link JdbcWrapperGenerator}.
+ * <p>
+ * A generated class holds the wrapped object and a handler, the {@link SQLTraceDelegator}
+ * of a tracing wrapper or the connection holder of an unwrap wrapper, and has a public
+ * constructor taking both of them. It implements <code>equals</code>, <code>hashCode</code>,
+ * <code>toString</code> and the methods of its interfaces, which are all passed to the
+ * proxies it replaces.
+ * <p>
+ * This class is kept apart from {@link JdbcWrapperGenerator} so that only loading it
+ * requires ASM.
+ */
+final class JdbcWrapperClassWriter {
+
+    private static final String GENERATOR = Type.getInternalName(JdbcWrapperGenerator.class);
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String OBJECT_DESC = Type.getDescriptor(Object.class);
+    private static final String CONNECTION_DESC = Type.getDescriptor(Connection.class);
+    private static final String DELEGATOR_DESC = Type.getDescriptor(SQLTraceDelegator.class);
+    private static final String RECORD_DESC = Type.getDescriptor(SQLTraceRecord.class);
+
+    private static final String DELEGATE = "delegate";
+    private static final String HANDLER = "handler";
+
+    private JdbcWrapperClassWriter() {
+    }
+
+    /**
+     * @param wrapperClassName the binary name of the generated class
+     * @param tracing true for a tracing wrapper, false for an unwrap wrapper
+     * @param ifaces the interfaces implemented by the generated class
+     * @return the bytes of the generated class
+     */
+    static byte[] generate(String wrapperClassName, boolean tracing, Class<?>[] ifaces) throws NoSuchMethodException {
+        String className = wrapperClassName.replace('.', '/');
+        String handlerDesc = tracing ? DELEGATOR_DESC : CONNECTION_DESC;
+        String[] interfaces = Arrays.stream(ifaces).map(Type::getInternalName).toArray(String[]::new);
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // only reached for the locals of the generated methods, which are never merged
+                return OBJECT;
+            }
+        };
+        cw.visit(V11, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, className, null, OBJECT, interfaces);
+        cw.visitField(ACC_PRIVATE | ACC_FINAL, DELEGATE, OBJECT_DESC, null, null).visitEnd();
+        cw.visitField(ACC_PRIVATE | ACC_FINAL, HANDLER, handlerDesc, null, null).visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(" + OBJECT_DESC + handlerDesc + ")V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitFieldInsn(PUTFIELD, className, DELEGATE, OBJECT_DESC);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitFieldInsn(PUTFIELD, className, HANDLER, handlerDesc);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        for (Method method : methodsOf(ifaces)) {
+            String[] exceptions = Arrays.stream(method.getExceptionTypes()).map(Type::getInternalName).toArray(String[]::new);
+            mv = cw.visitMethod(ACC_PUBLIC, method.getName(), Type.getMethodDescriptor(method), null, exceptions);
+            mv.visitCode();
+            if (tracing) {
+                generateTracingMethod(mv, className, method);
+            } else if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                generateCloseMethod(mv, className, method);
+            } else {
+                invokeDelegate(mv, className, method);
+                mv.visitInsn(Type.getReturnType(method).getOpcode(IRETURN));
+            }
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * <pre>
+     * SQLTraceRecord record = JdbcWrapperGenerator.traceCall(handler, delegate, name, args);
+     * long start = System.nanoTime();
+     * try {
+     *     return ((Interface) delegate).method(args);
+     * } finally {
+     *     JdbcWrapperGenerator.traceCompleted(handler, delegate, record, start);
+     * }
+     * </pre>
+     */
+    private static void generateTracingMethod(MethodVisitor mv, String className, Method method) {
+        Type[] argumentTypes = Type.getArgumentTypes(method);
+        Type returnType = Type.getReturnType(method);
+        int recordSlot = argumentsSize(argumentTypes);
+        int startSlot = recordSlot + 1;
+        int resultSlot = startSlot + 2;
+
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, className, HANDLER, DELEGATOR_DESC);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, className, DELEGATE, OBJECT_DESC);
+        mv.visitLdcInsn(method.getName());
+        if (argumentTypes.length == 0) {
+            // like the proxies, which get null arguments for methods without parameters
+            mv.visitInsn(ACONST_NULL);
+        } else {
+            mv.visitLdcInsn(argumentTypes.length);
+            mv.visitTypeInsn(ANEWARRAY, OBJECT);
+            int slot = 1;
+            for (int i = 0; i < argumentTypes.length; i++) {
+                mv.visitInsn(DUP);
+                mv.visitLdcInsn(i);
+                mv.visitVarInsn(argumentTypes[i].getOpcode(ILOAD), slot);
+                box(mv, argumentTypes[i]);
+                mv.visitInsn(AASTORE);
+                slot += argumentTypes[i].getSize();
+            }
+        }
+        mv.visitMethodInsn(INVOKESTATIC, GENERATOR, "traceCall",
+            "(" + DELEGATOR_DESC + OBJECT_DESC + Type.getDescriptor(String.class) + Type.getDescriptor(Object[].class) + ")" + RECORD_DESC, false);
+        mv.visitVarInsn(ASTORE, recordSlot);
+        mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(System.class), "nanoTime", "()J", false);
+        mv.visitVarInsn(LSTORE, startSlot);
+
+        Label tryStart = new Label();
+        Label tryEnd = new Label();
+        Label handler = new Label();
+        mv.visitTryCatchBlock(tryStart, tryEnd, handler, null);
+        mv.visitLabel(tryStart);
+        invokeDelegate(mv, className, method);
+        if (returnType.getSort() != Type.VOID) {
+            mv.visitVarInsn(returnType.getOpcode(ISTORE), resultSlot);
+        }
+        mv.visitLabel(tryEnd);
+        traceCompleted(mv, className, recordSlot, startSlot);
+        if (returnType.getSort() != Type.VOID) {
+            mv.visitVarInsn(returnType.getOpcode(ILOAD), resultSlot);
+        }
+        mv.visitInsn(returnType.getOpcode(IRETURN));
+
+        mv.visitLabel(handler);
+        mv.visitVarInsn(ASTORE, resultSlot);
+        traceCompleted(mv, className, recordSlot, startSlot);
+        mv.visitVarInsn(ALOAD, resultSlot);
+        mv.visitInsn(ATHROW);
+    }
+
+    private static void traceCompleted(MethodVisitor mv, String className, int recordSlot, int startSlot) {
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, className, HANDLER, DELEGATOR_DESC);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, className, DELEGATE, OBJECT_DESC);
+        mv.visitVarInsn(ALOAD, recordSlot);
+        mv.visitVarInsn(LLOAD, startSlot);
+        mv.visitMethodInsn(INVOKESTATIC, GENERATOR, "traceCompleted", "(" + DELEGATOR_DESC + OBJECT_DESC + RECORD_DESC + "J)V", false);
+    }
+
+    /**
+     * <pre>
+     * JdbcWrapperGenerator.close(handler, delegate);
+     * </pre>
+     */
+    private static void generateCloseMethod(MethodVisitor mv, String className, Method method) {
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, className, HANDLER, CONNECTION_DESC);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, className, DELEGATE, OBJECT_DESC);
+        mv.visitMethodInsn(INVOKESTATIC, GENERATOR, "close", "(" + CONNECTION_DESC + OBJECT_DESC + ")V", false);
+
+        Type returnType = Type.getReturnType(method);
+        switch (returnType.getSort()) {
+            case Type.VOID:
+                break;
+            case Type.LONG:
+                mv.visitInsn(LCONST_0);
+                break;
+            case Type.FLOAT:
+                mv.visitInsn(FCONST_0);
+                break;
+            case Type.DOUBLE:
+                mv.visitInsn(DCONST_0);
+                break;
+            case Type.OBJECT:
+            case Type.ARRAY:
+                mv.visitInsn(ACONST_NULL);
+                break;
+            default:
+                mv.visitInsn(ICONST_0);
+        }
+        mv.visitInsn(returnType.getOpcode(IRETURN));
+    }
+
+    /**
+     * <pre>
+     * ((Interface) delegate).method(args)
+     * </pre>
+     */
+    private static void invokeDelegate(MethodVisitor mv, String className, Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        String owner = Type.getInternalName(declaringClass);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, className, DELEGATE, OBJECT_DESC);
+        if (declaringClass != Object.class) {
+            mv.visitTypeInsn(CHECKCAST, owner);
+        }
+        int slot = 1;
+        for (Type argumentType : Type.getArgumentTypes(method)) {
+            mv.visitVarInsn(argumentType.getOpcode(ILOAD), slot);
+            slot += argumentType.getSize();
+        }
+        if (declaringClass.isInterface()) {
+            mv.visitMethodInsn(INVOKEINTERFACE, owner, method.getName(), Type.getMethodDescriptor(method), true);
+        } else {
+            mv.visitMethodInsn(INVOKEVIRTUAL, owner, method.getName(), Type.getMethodDescriptor(method), false);
+        }
+    }
+
+    private static void box(MethodVisitor mv, Type type) {
+        Type boxed;
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                boxed = Type.getType(Boolean.class);
+                break;
+            case Type.CHAR:
+                boxed = Type.getType(Character.class);
+                break;
+            case Type.BYTE:
+                boxed = Type.getType(Byte.class);
+                break;
+            case Type.SHORT:
+                boxed = Type.getType(Short.class);
+                break;
+            case Type.INT:
+                boxed = Type.getType(Integer.class);
+                break;
+            case Type.FLOAT:
+                boxed = Type.getType(Float.class);
+                break;
+            case Type.LONG:
+                boxed = Type.getType(Long.class);
+                break;
+            case Type.DOUBLE:
+                boxed = Type.getType(Double.class);
+                break;
+            default:
+                return;
+        }
+        mv.visitMethodInsn(INVOKESTATIC, boxed.getInternalName(), "valueOf", Type.getMethodDescriptor(boxed, type), false);
+    }
+
+    private static int argumentsSize(Type[] argumentTypes) {
+        int size = 1;
+        for (Type argumentType : argumentTypes) {
+            size += argumentType.getSize();
+        }
+        return size;
+    }
+
+    /**
+     * @return the methods of <code>Object</code> passed to the proxies, and the methods
+     * of the interfaces, once for each name and descriptor
+     */
+    private static Collection<Method> methodsOf(Class<?>[] ifaces) throws NoSuchMethodException {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        for (Method method : new Method[] { Object.class.getMethod("equals", Object.class), Object.class.getMethod("hashCode"),
+            Object.class.getMethod("toString") }) {
+            methods.put(method.getName() + Type.getMethodDescriptor(method), method);
+        }
+        for (Class<?> iface : ifaces) {
+            for (Method method : iface.getMethods()) {
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    methods.putIfAbsent(method.getName() + Type.getMethodDescriptor(method), method);
+                }
+            }
+        }
+        return methods.values();
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package com.sun.gjc.spi.jdbc40;
+
+import com.sun.gjc.util.SQLTraceDelegator;
+import com.sun.logging.LogDomains;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.glassfish.api.jdbc.SQLTraceRecord;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+/**
+ * Generates the classes of the wrappers of JDBC objects, as an alternative to
+ * the <code>java.lang.reflect.Proxy</code> instances built by the resource adapter.
+ * <p>
+ * A class is generated once for each set of interfaces, and implements each of their
+ * methods with a direct call to the wrapped object, without going through an
+ * <code>InvocationHandler</code> and <code>Method.invoke</code>. Two kinds of
+ * wrappers are generated:
+ * <ul>
+ * <li>tracing wrappers, which report each call to a {@link SQLTraceDelegator} like
+ * the proxies of {@link Jdbc40ObjectsFactory} and {@link ProfiledConnectionWrapper40}.
+ * The arguments are still collected in an array, since they are part of the trace
+ * record.</li>
+ * <li>unwrap wrappers, which redirect <code>close()</code> to the connection holder
+ * like the proxies of {@link ConnectionHolder40#unwrap(Class)}, and pass the other
+ * calls and their arguments as they are.</li>
+ * </ul>
+ * The classes are written by {@link JdbcWrapperClassWriter}, and defined in this
+ * package by the class loader of the resource adapter. Interfaces which are not public
+ * or not visible from this class loader, and all interfaces when ASM is not available
+ * at runtime, are left to the proxies: the methods creating wrappers then return
+ * <code>null</code>.
+ */
+final class JdbcWrapperGenerator {
+
+    private static final Logger _logger = LogDomains.getLogger(JdbcWrapperGenerator.class, LogDomains.RSR_LOGGER);
+
+    private static final boolean AVAILABLE = isAsmAvailable();
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object.class, Object.class);
+
+    private static final AtomicInteger classCounter = new AtomicInteger();
+
+    /**
+     * Constructors of the generated classes, or nothing for the interface sets left to the proxies.
+     */
+    private static final Map<WrapperKey, Optional<MethodHandle>> constructors = new ConcurrentHashMap<>();
+
+    private JdbcWrapperGenerator() {
+    }
+
+    /**
+     * @return true if ASM can be loaded, so that wrapper classes can be generated
+     */
+    static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Creates a wrapper reporting each call to the delegator before passing it to the
+     * wrapped object, and its execution time after.
+     *
+     * @param actualObject the wrapped object
+     * @param ifaces the interfaces implemented by the wrapper
+     * @param sqlTraceDelegator the delegator the calls are reported to
+     * @return the wrapper, or null if no class can be generated for the interfaces
+     */
+    static <T> T newTracingWrapper(Object actualObject, Class<?>[] ifaces, SQLTraceDelegator sqlTraceDelegator) {
+        return newWrapper(true, actualObject, ifaces, sqlTraceDelegator);
+    }
+
+    /**
+     * Creates a wrapper closing the given connection holder rather than the wrapped
+     * object on <code>close()</code>.
+     *
+     * @param actualObject the wrapped object, unwrapped from a vendor connection
+     * @param ifaces the interfaces implemented by the wrapper
+     * @param connectionHolder the connection closed instead of the wrapped object
+     * @return the wrapper, or null if no class can be generated for the interfaces
+     */
+    static <T> T newUnwrapWrapper(Object actualObject, Class<?>[] ifaces, Connection connectionHolder) {
+        return newWrapper(false, actualObject, ifaces, connectionHolder);
+    }
+
+    /**
+     * Generates the class of the tracing wrappers of the interfaces, if not done yet.
+     *
+     * @param ifaces the interfaces implemented by the wrappers
+     * @return true if the class is generated, false if the interfaces are left to the proxies
+     */
+    static boolean prepareTracingWrapper(Class<?>[] ifaces) {
+        return AVAILABLE && constructors.computeIfAbsent(new WrapperKey(true, ifaces), JdbcWrapperGenerator::generate).isPresent();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T newWrapper(boolean tracing, Object actualObject, Class<?>[] ifaces, Object handler) {
+        if (!AVAILABLE) {
+            return null;
+        }
+        Optional<MethodHandle> constructor = constructors.computeIfAbsent(new WrapperKey(tracing, ifaces), JdbcWrapperGenerator::generate);
+        if (constructor.isEmpty()) {
+            return null;
+        }
+        try {
+            Object wrapper = constructor.get().invokeExact(actualObject, handler);
+            return (T) wrapper;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Called by the tracing wrappers before each call.
+     */
+    static SQLTraceRecord traceCall(SQLTraceDelegator sqlTraceDelegator, Object actualObject, String methodName, Object[] args) {
+        SQLTraceRecord record = new SQLTraceRecord();
+        record.setMethodName(methodName);
+        record.setParams(args);
+        record.setClassName(actualObject.getClass().getName());
+        record.setThreadName(Thread.currentThread().getName());
+        record.setThreadID(Thread.currentThread().getId());
+        record.setTimeStamp(System.currentTimeMillis());
+        sqlTraceDelegator.sqlTrace(record);
+        return record;
+    }
+
+    /**
+     * Called by the tracing wrappers after each call, whether it failed or not.
+     */
+    static void traceCompleted(SQLTraceDelegator sqlTraceDelegator, Object actualObject, SQLTraceRecord record, long start) {
+        sqlTraceDelegator.sqlExecuted(record, actualObject, System.nanoTime() - start);
+    }
+
+    /**
+     * Called by the unwrap wrappers on <code>close()</code>.
+     */
+    static void close(Connection connectionHolder, Object actualObject) throws SQLException {
+        if (_logger.isLoggable(FINE)) {
+            _logger.log(FINE, ConnectionHolder40.localStrings.getString("jdbc.close_called_on_proxy_object", actualObject));
+        }
+        connectionHolder.close();
+    }
+
+    private static Optional<MethodHandle> generate(WrapperKey key) {
+        for (Class<?> iface : key.ifaces) {
+            if (!iface.isInterface() || !Modifier.isPublic(iface.getModifiers()) || !isVisible(iface)) {
+                _logger.log(FINE, "No wrapper class generated for {0}, proxies are used instead", iface);
+                return Optional.empty();
+            }
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            String className = JdbcWrapperGenerator.class.getPackageName() + (key.tracing ? ".TracingWrapper_" : ".UnwrapWrapper_")
+                + key.ifaces[0].getSimpleName() + '_' + classCounter.incrementAndGet();
+            Class<?> wrapperClass = lookup.defineClass(JdbcWrapperClassWriter.generate(className, key.tracing, key.ifaces));
+            Class<?> handlerType = key.tracing ? SQLTraceDelegator.class : Connection.class;
+            MethodHandle constructor = lookup.findConstructor(wrapperClass, MethodType.methodType(void.class, Object.class, handlerType));
+            return Optional.of(constructor.asType(CONSTRUCTOR_TYPE));
+        } catch (Exception | LinkageError e) {
+            _logger.log(WARNING, "Failed to generate the wrapper class for " + Arrays.toString(key.ifaces) + ", proxies are used instead", e);
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isVisible(Class<?> iface) {
+        try {
+            return Class.forName(iface.getName(), false, JdbcWrapperGenerator.class.getClassLoader()) == iface;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static boolean isAsmAvailable() {
+        try {
+            Class.forName("org.objectweb.asm.ClassWriter", false, JdbcWrapperGenerator.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            _logger.log(FINE, "ASM is not available, JDBC wrapper classes are not generated", e);
+            return false;
+        }
+    }
+
+    /**
+     * The kind of wrapper and the interfaces it implements.
+     */
+    private static final class WrapperKey {
+
+        private final boolean tracing;
+        private final Class<?>[] ifaces;
+
+        WrapperKey(boolean tracing, Class<?>[] ifaces) {
+            this.tracing = tracing;
+            this.ifaces = ifaces.clone();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof WrapperKey)) {
+                return false;
+            }
+            WrapperKey other = (WrapperKey) obj;
+            return tracing == other.tracing && Arrays.equals(ifaces, other.ifaces);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Boolean.hashCode(tracing) + Arrays.hashCode(ifaces);
+        }
+    }
+}
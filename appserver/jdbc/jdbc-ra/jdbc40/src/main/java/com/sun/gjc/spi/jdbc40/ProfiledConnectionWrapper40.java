@@ -18,6 +18,7 @@ package com.sun.gjc.spi.jdbc40;
 
 import com.sun.gjc.spi.ManagedConnectionImpl;
 import com.sun.gjc.spi.base.ConnectionWrapper;
+import com.sun.gjc.spi.base.PreparedStatementWrapper;
 import com.sun.gjc.util.SQLTraceDelegator;
 
 import jakarta.resource.spi.ConnectionRequestInfo;
@@ -351,45 +352,60 @@ public class ProfiledConnectionWrapper40 extends ConnectionHolder40 implements C
 
     @Override
     public PreparedStatementWrapper40 prepareCachedStatement(String sql, int resultSetType, int resultSetConcurrency, boolean enableCaching) throws SQLException {
-        return new PreparedStatementWrapper40(this, super.prepareStatement(sql, resultSetType, resultSetConcurrency), enableCaching);
+        return traced(sql, new PreparedStatementWrapper40(this, super.prepareStatement(sql, resultSetType, resultSetConcurrency), enableCaching));
     }
 
     @Override
     public PreparedStatementWrapper40 prepareCachedStatement(String sql, String[] columnNames, boolean enableCaching) throws SQLException {
-        return new PreparedStatementWrapper40(this, super.prepareStatement(sql, columnNames), enableCaching);
+        return traced(sql, new PreparedStatementWrapper40(this, super.prepareStatement(sql, columnNames), enableCaching));
     }
 
     @Override
     public PreparedStatementWrapper40 prepareCachedStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability, boolean enableCaching) throws SQLException {
-        return new PreparedStatementWrapper40(this, super.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability),
-                enableCaching);
+        return traced(sql, new PreparedStatementWrapper40(this, super.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability),
+                enableCaching));
     }
 
     @Override
     public PreparedStatementWrapper40 prepareCachedStatement(String sql, int[] columnIndexes, boolean enableCaching) throws SQLException {
-        return new PreparedStatementWrapper40(this, super.prepareStatement(sql, columnIndexes), enableCaching);
+        return traced(sql, new PreparedStatementWrapper40(this, super.prepareStatement(sql, columnIndexes), enableCaching));
     }
 
     @Override
     public PreparedStatementWrapper40 prepareCachedStatement(String sql, int autoGeneratedKeys, boolean enableCaching) throws SQLException {
-        return new PreparedStatementWrapper40(this, super.prepareStatement(sql, autoGeneratedKeys), enableCaching);
+        return traced(sql, new PreparedStatementWrapper40(this, super.prepareStatement(sql, autoGeneratedKeys), enableCaching));
     }
 
     @Override
     public CallableStatementWrapper40 callableCachedStatement(String sql, int resultSetType, int resultSetConcurrency,
             boolean enableCaching) throws SQLException {
-        return new CallableStatementWrapper40(this, super.prepareCall(sql, resultSetType, resultSetConcurrency), enableCaching);
+        return traced(sql, new CallableStatementWrapper40(this, super.prepareCall(sql, resultSetType, resultSetConcurrency), enableCaching));
     }
 
     @Override
     public CallableStatementWrapper40 callableCachedStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability, boolean enableCaching) throws SQLException {
-        return new CallableStatementWrapper40(this, super.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability),
-                enableCaching);
+        return traced(sql, new CallableStatementWrapper40(this, super.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability),
+                enableCaching));
+    }
+
+    /**
+     * Keeps the SQL of the statement, to report the execution times of its calls without SQL.
+     */
+    private static <T extends PreparedStatementWrapper> T traced(String sql, T statement) {
+        statement.setSql(sql);
+        return statement;
     }
 
     // TODO refactor this method and move to a higher level
     @SuppressWarnings("unchecked")
     private <T> T getProxyObject(final Object actualObject, Class<?>[] ifaces) throws Exception {
+        if (generatedWrappers) {
+            T wrapper = JdbcWrapperGenerator.newTracingWrapper(actualObject, ifaces, sqlTraceDelegator);
+            if (wrapper != null) {
+                return wrapper;
+            }
+        }
+
         InvocationHandler ih = new InvocationHandler() {
 
             @Override
@@ -402,7 +418,13 @@ public class ProfiledConnectionWrapper40 extends ConnectionHolder40 implements C
                 record.setThreadID(Thread.currentThread().getId());
                 record.setTimeStamp(System.currentTimeMillis());
                 sqlTraceDelegator.sqlTrace(record);
-                return method.invoke(actualObject, args);
+
+                long start = System.nanoTime();
+                try {
+                    return method.invoke(actualObject, args);
+                } finally {
+                    sqlTraceDelegator.sqlExecuted(record, actualObject, System.nanoTime() - start);
+                }
             }
         };
 
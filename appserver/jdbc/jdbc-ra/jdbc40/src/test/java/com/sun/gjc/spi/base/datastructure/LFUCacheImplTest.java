@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.gjc.spi.base.datastructure;
+
+import com.sun.gjc.spi.DSManagedConnectionFactory;
+import com.sun.gjc.spi.ManagedConnectionImpl;
+import com.sun.gjc.spi.base.CacheObjectKey;
+import com.sun.gjc.spi.base.PreparedStatementWrapper;
+import com.sun.gjc.spi.jdbc40.ConnectionHolder40;
+import com.sun.gjc.spi.jdbc40.PreparedStatementWrapper40;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.glassfish.api.naming.SimpleJndiName;
+import org.glassfish.resourcebase.resources.api.PoolInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LFUCacheImplTest {
+
+    private static final PoolInfo POOL_INFO = new PoolInfo(SimpleJndiName.of("jdbc/lfu"));
+
+    private final Map<PreparedStatementWrapper, PreparedStatement> actualStatements = new IdentityHashMap<>();
+    private final Map<PreparedStatementWrapper, CacheObjectKey> addedKeys = new IdentityHashMap<>();
+    private final Set<PreparedStatement> closedStatements = Collections.newSetFromMap(new IdentityHashMap<>());
+    private Connection connectionHolder;
+
+    @BeforeEach
+    public void createConnection() throws Exception {
+        Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] { Connection.class }, (proxy, method, args) -> defaultValue(method.getReturnType()));
+        ManagedConnectionImpl managedConnection = new ManagedConnectionImpl(null, connection, null,
+            new DSManagedConnectionFactory(), POOL_INFO, 0, null, null, 0L, false);
+        connectionHolder = new ConnectionHolder40(connection, managedConnection, null, true);
+    }
+
+    @Test
+    public void frequentStatementsAreNotEvictedByOneOffStatements() throws Exception {
+        LFUCacheImpl cache = new LFUCacheImpl(POOL_INFO, 2);
+        PreparedStatementWrapper first = use(cache, "SELECT 1", 3);
+        PreparedStatementWrapper second = use(cache, "SELECT 2", 3);
+
+        PreparedStatementWrapper oneOff = use(cache, "SELECT 3", 1);
+
+        assertThat(cache.getSize(), equalTo(2));
+        assertThat(cache.checkAndUpdateCache(key("SELECT 3")), nullValue());
+        assertFalse(oneOff.getCached());
+        assertTrue(first.getCached());
+        assertTrue(second.getCached());
+    }
+
+    @Test
+    public void moreFrequentStatementEvictsTheLeastFrequentOne() throws Exception {
+        LFUCacheImpl cache = new LFUCacheImpl(POOL_INFO, 2);
+        PreparedStatementWrapper frequent = use(cache, "SELECT 1", 4);
+        PreparedStatementWrapper rare = use(cache, "SELECT 2", 1);
+
+        PreparedStatementWrapper candidate = use(cache, "SELECT 3", 3);
+
+        assertThat(cache.getSize(), equalTo(2));
+        assertThat(cache.checkAndUpdateCache(key("SELECT 3")), sameInstance(candidate));
+        assertThat(cache.checkAndUpdateCache(key("SELECT 2")), nullValue());
+        assertFalse(rare.getCached());
+        assertTrue(closedStatements.contains(actualStatements.get(rare)));
+        assertTrue(frequent.getCached());
+    }
+
+    @Test
+    public void busyStatementsAreNotEvicted() throws Exception {
+        LFUCacheImpl cache = new LFUCacheImpl(POOL_INFO, 1);
+        PreparedStatementWrapper busy = use(cache, "SELECT 1", 1);
+        busy.setBusy(true);
+
+        PreparedStatementWrapper candidate = use(cache, "SELECT 2", 5);
+
+        assertThat(cache.checkAndUpdateCache(key("SELECT 1")), sameInstance(busy));
+        assertTrue(busy.getCached());
+        assertFalse(candidate.getCached());
+        assertFalse(closedStatements.contains(actualStatements.get(candidate)));
+    }
+
+    @Test
+    public void cachesOfAPoolShareTheFrequenciesAndTheSql() throws Exception {
+        PoolStatementCacheState poolState = new PoolStatementCacheState(1);
+        LFUCacheImpl firstCache = new LFUCacheImpl(POOL_INFO, 1, poolState);
+        LFUCacheImpl secondCache = new LFUCacheImpl(POOL_INFO, 1, poolState);
+        use(secondCache, "SELECT 1", 1);
+        use(firstCache, "SELECT 1", 1);
+        PreparedStatementWrapper first = use(firstCache, "SELECT 2", 3);
+
+        // the accesses through the first cache make the second statement worth caching
+        PreparedStatementWrapper candidate = use(secondCache, new String("SELECT 2"), 1);
+
+        assertThat(secondCache.checkAndUpdateCache(key("SELECT 2")), sameInstance(candidate));
+        assertThat(firstCache.checkAndUpdateCache(key("SELECT 2")), sameInstance(first));
+        assertThat(addedKeys.get(candidate).getSql(), sameInstance(addedKeys.get(first).getSql()));
+    }
+
+    /**
+     * Looks up the statement the given number of times, then adds it to the cache if it was not
+     * found, like the connection does.
+     */
+    private PreparedStatementWrapper use(LFUCacheImpl cache, String sql, int times) throws Exception {
+        PreparedStatementWrapper statement = null;
+        for (int i = 0; i < times; i++) {
+            statement = (PreparedStatementWrapper) cache.checkAndUpdateCache(key(sql));
+        }
+        if (statement == null) {
+            PreparedStatement actualStatement = newStatement();
+            statement = new PreparedStatementWrapper40(connectionHolder, actualStatement, true);
+            actualStatements.put(statement, actualStatement);
+            CacheObjectKey key = key(sql);
+            addedKeys.put(statement, key);
+            cache.addToCache(key, statement, false);
+        }
+        return statement;
+    }
+
+    private static CacheObjectKey key(String sql) {
+        return new CacheObjectKey(sql, "ps", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    }
+
+    private PreparedStatement newStatement() {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                if (method.getName().equals("close")) {
+                    closedStatements.add((PreparedStatement) proxy);
+                }
+                return defaultValue(method.getReturnType());
+            });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package com.sun.gjc.spi.jdbc40;
+
+import com.sun.gjc.util.SQLTraceDelegator;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.api.jdbc.SQLTraceRecord;
+import org.glassfish.api.naming.SimpleJndiName;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import static com.sun.gjc.spi.jdbc40.JdbcWrapperGeneratorTest.createResultSet;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * Compares the overhead of the tracing wrappers generated by {@link JdbcWrapperGenerator}
+ * with the one of the proxies, on a query reading all the rows of its result set. The
+ * statement and the result set are both wrapped, and the SQL trace delegator does nothing,
+ * so that only the cost of the wrappers themselves is measured.
+ * <p>
+ * The measurement times are kept short, so that the benchmark can run with the tests.
+ * Increase them to get representative results.
+ */
+public class JdbcWrapperBenchmarkTest {
+
+    private static final String SQL = "SELECT VALUE FROM NUMBERS";
+
+    private static final int ROWS = 16;
+
+    @Test
+    public void executeQueryAndNext() throws Exception {
+        Options options = new OptionsBuilder()
+            .include(getClass().getName() + ".*")
+            .warmupIterations(1).warmupTime(TimeValue.milliseconds(200L))
+            .measurementIterations(1).measurementTime(TimeValue.milliseconds(500L))
+            .forks(1).threads(1).timeout(TimeValue.seconds(10L))
+            .timeUnit(TimeUnit.MICROSECONDS)
+            .mode(Mode.AverageTime).shouldFailOnError(true)
+            .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+        assertThat(results, hasSize(3));
+    }
+
+    @State(Scope.Thread)
+    public static class Statements {
+
+        Statement direct;
+        Statement proxy;
+        Statement generated;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setUp() throws Exception {
+            SQLTraceDelegator delegator = new NoOpSQLTraceDelegator();
+            Class<Statement>[] statementIntf = new Class[] { Statement.class };
+            Class<ResultSet>[] resultSetIntf = new Class[] { ResultSet.class };
+            Jdbc40ObjectsFactory factory = new Jdbc40ObjectsFactory();
+
+            direct = new StubStatement(createResultSet(ROWS));
+            ResultSet proxiedResultSet = factory.getProxyObject(createResultSet(ROWS), resultSetIntf, delegator);
+            proxy = factory.getProxyObject(new StubStatement(proxiedResultSet), statementIntf, delegator);
+            ResultSet generatedResultSet = JdbcWrapperGenerator.newTracingWrapper(createResultSet(ROWS), resultSetIntf, delegator);
+            generated = JdbcWrapperGenerator.newTracingWrapper(new StubStatement(generatedResultSet), statementIntf, delegator);
+        }
+    }
+
+    @Benchmark
+    public int direct(Statements statements) throws SQLException {
+        return readAll(statements.direct);
+    }
+
+    @Benchmark
+    public int proxy(Statements statements) throws SQLException {
+        return readAll(statements.proxy);
+    }
+
+    @Benchmark
+    public int generated(Statements statements) throws SQLException {
+        return readAll(statements.generated);
+    }
+
+    private static int readAll(Statement statement) throws SQLException {
+        ResultSet resultSet = statement.executeQuery(SQL);
+        int rows = 0;
+        while (resultSet.next()) {
+            rows++;
+        }
+        return rows;
+    }
+
+    private static class NoOpSQLTraceDelegator extends SQLTraceDelegator {
+
+        NoOpSQLTraceDelegator() {
+            super(new SimpleJndiName("jdbc/benchmark"), null);
+        }
+
+        @Override
+        public void sqlTrace(SQLTraceRecord record) {
+        }
+
+        @Override
+        public void sqlExecuted(SQLTraceRecord record, Object target, long executionTime) {
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package com.sun.gjc.spi.jdbc40;
+
+import com.sun.gjc.util.SQLTraceDelegator;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+import org.glassfish.api.jdbc.SQLTraceRecord;
+import org.glassfish.api.naming.SimpleJndiName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JdbcWrapperGeneratorTest {
+
+    @Test
+    public void tracingWrapperTracesAndTimesCalls() throws Exception {
+        ResultSet resultSet = createResultSet(3);
+        RecordingSQLTraceDelegator delegator = new RecordingSQLTraceDelegator();
+        StubStatement actualStatement = new StubStatement(resultSet);
+        Statement statement = JdbcWrapperGenerator.newTracingWrapper(actualStatement, new Class<?>[] { Statement.class }, delegator);
+
+        assertNotNull(statement);
+        assertFalse(Proxy.isProxyClass(statement.getClass()));
+
+        statement.setMaxRows(5);
+        assertThat(statement.executeQuery("SELECT VALUE FROM NUMBERS"), sameInstance(resultSet));
+        statement.close();
+
+        assertThat(delegator.methodNames(), contains("setMaxRows", "executeQuery", "close"));
+        assertThat(delegator.records.get(0).getParams(), arrayContaining(5));
+        assertThat(delegator.records.get(1).getParams(), arrayContaining("SELECT VALUE FROM NUMBERS"));
+        assertThat(delegator.records.get(2).getParams(), nullValue());
+        assertThat(delegator.records.get(1).getClassName(), equalTo(StubStatement.class.getName()));
+        assertThat(delegator.executed.get(), equalTo(3));
+        assertThat(delegator.targets.get(1), sameInstance(actualStatement));
+        assertTrue(statement.isClosed());
+    }
+
+    @Test
+    public void tracingWrapperThrowsExceptionsOfWrappedObject() throws Exception {
+        RecordingSQLTraceDelegator delegator = new RecordingSQLTraceDelegator();
+        ResultSet resultSet = JdbcWrapperGenerator.newTracingWrapper(createResultSet(1), new Class<?>[] { ResultSet.class }, delegator);
+
+        assertTrue(resultSet.next());
+        assertThat(resultSet.getInt(1), equalTo(0));
+        assertThrows(SQLException.class, () -> resultSet.getInt(2));
+        assertThat(delegator.methodNames(), contains("next", "getInt", "getInt"));
+        assertThat(delegator.executed.get(), equalTo(3));
+    }
+
+    @Test
+    public void unwrapWrapperClosesConnectionHolder() throws Exception {
+        AtomicInteger closed = new AtomicInteger();
+        Connection connectionHolder = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals("close")) {
+                    closed.incrementAndGet();
+                }
+                return null;
+            });
+        ResultSet resultSet = createResultSet(2);
+        StubStatement actualStatement = new StubStatement(resultSet);
+        Statement statement = JdbcWrapperGenerator.newUnwrapWrapper(actualStatement, new Class<?>[] { Statement.class }, connectionHolder);
+
+        assertThat(statement.executeQuery("SELECT VALUE FROM NUMBERS"), sameInstance(resultSet));
+        assertThat(statement.toString(), equalTo(actualStatement.toString()));
+        statement.close();
+
+        assertThat(closed.get(), equalTo(1));
+        assertFalse(actualStatement.isClosed());
+    }
+
+    @Test
+    public void wrapperClassIsGeneratedOncePerInterfaceSet() throws Exception {
+        RecordingSQLTraceDelegator delegator = new RecordingSQLTraceDelegator();
+        Class<?>[] ifaces = { Statement.class };
+        Statement first = JdbcWrapperGenerator.newTracingWrapper(new StubStatement(null), ifaces, delegator);
+        Statement second = JdbcWrapperGenerator.newTracingWrapper(new StubStatement(null), ifaces, delegator);
+
+        assertThat(second.getClass(), sameInstance(first.getClass()));
+        assertTrue(JdbcWrapperGenerator.prepareTracingWrapper(ifaces));
+    }
+
+    static CachedRowSet createResultSet(int rows) throws SQLException {
+        CachedRowSet resultSet = RowSetProvider.newFactory().createCachedRowSet();
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(1);
+        metaData.setColumnType(1, Types.INTEGER);
+        resultSet.setMetaData(metaData);
+        for (int i = 0; i < rows; i++) {
+            resultSet.moveToInsertRow();
+            resultSet.updateInt(1, i);
+            resultSet.insertRow();
+            resultSet.moveToCurrentRow();
+        }
+        resultSet.beforeFirst();
+        return resultSet;
+    }
+
+    private static class RecordingSQLTraceDelegator extends SQLTraceDelegator {
+
+        final List<SQLTraceRecord> records = new ArrayList<>();
+        final AtomicInteger executed = new AtomicInteger();
+        final List<Object> targets = new ArrayList<>();
+
+        RecordingSQLTraceDelegator() {
+            super(new SimpleJndiName("jdbc/test"), null);
+        }
+
+        @Override
+        public void sqlTrace(SQLTraceRecord record) {
+            records.add(record);
+        }
+
+        @Override
+        public void sqlExecuted(SQLTraceRecord record, Object target, long executionTime) {
+            executed.incrementAndGet();
+            targets.add(target);
+        }
+
+        List<String> methodNames() {
+            List<String> methodNames = new ArrayList<>();
+            for (SQLTraceRecord record : records) {
+                methodNames.add(record.getMethodName());
+            }
+            return methodNames;
+        }
+    }
+}
@@ -36,6 +36,7 @@ import com.sun.enterprise.deployment.ConnectorConfigProperty;
 import com.sun.enterprise.deployment.ConnectorDescriptor;
 import com.sun.enterprise.resource.pool.ResourcePool;
 import com.sun.enterprise.resource.pool.waitqueue.PoolWaitQueue;
+import com.sun.enterprise.resource.pool.waitqueue.PoolWaiter;
 import com.sun.enterprise.util.i18n.StringManager;
 import com.sun.logging.LogDomains;
 
@@ -485,11 +486,22 @@ public class JdbcConnectionPoolDeployer implements ResourceDeployer<JdbcConnecti
                 } else if ("JDBC30DATASOURCE".equals(name.toUpperCase(LOCALE))) {
                     configProperties.add(new ConnectorConfigProperty("JDBC30DataSource", adminPoolProperty.getValue(), "JDBC30DataSource", String.class.getName()));
 
+                } else if ("GENERATEDJDBCWRAPPERS".equals(name.toUpperCase(LOCALE))) {
+                    configProperties.add(new ConnectorConfigProperty("GeneratedJdbcWrappers", adminPoolProperty.getValue(), "GeneratedJdbcWrappers", String.class.getName()));
+
                 } else if ("PREFER-VALIDATE-OVER-RECREATE".equals(name.toUpperCase(Locale.getDefault()))) {
                     String value = adminPoolProperty.getValue();
                     connectorConnectionPool.setPreferValidateOverRecreate(toBoolean(value, false));
                     LOG.log(Level.FINEST, "PREFER-VALIDATE-OVER-RECREATE: {0}", value);
 
+                } else if ("PREDICTIVE-RESIZE".equals(name.toUpperCase(LOCALE))) {
+                    connectorConnectionPool.setPredictiveResize(toBoolean(adminPoolProperty.getValue(), false));
+                    LOG.log(Level.FINEST, "PREDICTIVE-RESIZE");
+
+                } else if ("ASYNC-VALIDATION".equals(name.toUpperCase(LOCALE))) {
+                    connectorConnectionPool.setAsyncValidation(toBoolean(adminPoolProperty.getValue(), false));
+                    LOG.log(Level.FINEST, "ASYNC-VALIDATION");
+
                 } else if ("STATEMENT-CACHE-TYPE".equals(name.toUpperCase(Locale.getDefault()))) {
                     if (adminPool.getStatementCacheType() != null) {
                         configProperties.add(
@@ -714,8 +726,12 @@ public class JdbcConnectionPoolDeployer implements ResourceDeployer<JdbcConnecti
                     if (reconfigWaitQueue.getQueueContents().size() > 0) {
                         for (Object o : reconfigWaitQueue.getQueueContents()) {
                             LOG.fine("notifying reconfig-wait-queue object [ " + o + " ]");
-                            synchronized (o) {
-                                o.notify();
+                            if (o instanceof PoolWaiter) {
+                                ((PoolWaiter) o).signal();
+                            } else {
+                                synchronized (o) {
+                                    o.notify();
+                                }
                             }
                         }
                     }
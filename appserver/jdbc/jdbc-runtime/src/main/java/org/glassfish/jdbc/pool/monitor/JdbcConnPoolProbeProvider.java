@@ -255,4 +255,30 @@ public class JdbcConnPoolProbeProvider extends ConnectionPoolProbeProvider {
     public void connectionRequestDequeuedEvent(@ProbeParam("poolName") String poolName, @ProbeParam("appName") String appName,
             @ProbeParam("moduleName") String moduleName) {
     }
+
+    /**
+     * Emits probe event/notification that a connection request has left the wait
+     * queue of the given jdbc connection pool <code>poolName</code>
+     *
+     * @param poolName
+     * @param waitTimeInMillis time spent by the request in the wait queue
+     */
+    @Probe(name = "connectionRequestWaitedEvent")
+    @Override
+    public void connectionRequestWaitedEvent(@ProbeParam("poolName") String poolName, @ProbeParam("appName") String appName,
+            @ProbeParam("moduleName") String moduleName, @ProbeParam("waitTimeInMillis") long waitTimeInMillis) {
+    }
+
+    /**
+     * Emits probe event/notification that a connection of the given jdbc
+     * connection pool <code>poolName</code> has been validated
+     *
+     * @param poolName
+     * @param validationTimeInMicros time taken by the validation
+     */
+    @Probe(name = "connectionValidatedEvent")
+    @Override
+    public void connectionValidatedEvent(@ProbeParam("poolName") String poolName, @ProbeParam("appName") String appName,
+            @ProbeParam("moduleName") String moduleName, @ProbeParam("validationTimeInMicros") long validationTimeInMicros) {
+    }
 }
@@ -20,6 +20,7 @@ package org.glassfish.jdbc.pool.monitor;
 import com.sun.enterprise.connectors.ConnectorRuntime;
 import com.sun.enterprise.resource.pool.PoolLifeCycleListenerRegistry;
 import com.sun.enterprise.resource.pool.PoolStatus;
+import com.sun.enterprise.resource.pool.monitor.WaitTimeHistogram;
 
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -29,10 +30,12 @@ import org.glassfish.external.probe.provider.annotations.ProbeListener;
 import org.glassfish.external.probe.provider.annotations.ProbeParam;
 import org.glassfish.external.statistics.CountStatistic;
 import org.glassfish.external.statistics.RangeStatistic;
+import org.glassfish.external.statistics.StringStatistic;
 import org.glassfish.external.statistics.annotations.Reset;
 import org.glassfish.external.statistics.impl.CountStatisticImpl;
 import org.glassfish.external.statistics.impl.RangeStatisticImpl;
 import org.glassfish.external.statistics.impl.StatisticImpl;
+import org.glassfish.external.statistics.impl.StringStatisticImpl;
 import org.glassfish.gmbal.AMXMetadata;
 import org.glassfish.gmbal.Description;
 import org.glassfish.gmbal.ManagedAttribute;
@@ -123,6 +126,19 @@ public class JdbcConnPoolStatsProvider {
     private final CountStatisticImpl waitQueueLength = new CountStatisticImpl(
             "WaitQueueLength", StatisticImpl.UNIT_COUNT,
             "Number of connection requests in the queue waiting to be serviced.");
+    private final StringStatisticImpl connRequestWaitTimeHistogram = new StringStatisticImpl(
+            "ConnRequestWaitTimeHistogram", "List",
+            "Number of connection requests by time spent in the wait queue.");
+    private final WaitTimeHistogram waitTimeHistogram = new WaitTimeHistogram();
+    private final CountStatisticImpl numConnValidated = new CountStatisticImpl(
+            "NumConnValidated", StatisticImpl.UNIT_COUNT,
+            "The total number of connections validated, whether they were found valid or not.");
+    private final CountStatisticImpl totalConnValidationTime = new CountStatisticImpl(
+            "TotalConnValidationTime", StatisticImpl.UNIT_MICROSECOND,
+            "Total time taken by the validations of connections");
+    private final CountStatisticImpl averageConnValidationTime = new CountStatisticImpl(
+            "AverageConnValidationTime", StatisticImpl.UNIT_MICROSECOND,
+            "Average time taken by the validation of a connection");
     private static final String JDBC_PROBE_LISTENER = "glassfish:jdbc:connection-pool:";
 
 
@@ -458,6 +474,10 @@ public class JdbcConnPoolStatsProvider {
         averageConnWaitTime.reset();
         totalConnRequestWaitTime.reset();
         waitQueueLength.reset();
+        waitTimeHistogram.reset();
+        numConnValidated.reset();
+        totalConnValidationTime.reset();
+        averageConnValidationTime.reset();
     }
 
     /**
@@ -542,6 +562,45 @@ public class JdbcConnPoolStatsProvider {
         }
     }
 
+    /**
+     * When an object leaves the wait queue, count its wait time.
+     */
+    @ProbeListener(JDBC_PROBE_LISTENER + "connectionRequestWaitedEvent")
+    public void connectionRequestWaitedEvent(
+            @ProbeParam("poolName") String poolName,
+            @ProbeParam("appName") String appName,
+            @ProbeParam("moduleName") String moduleName,
+            @ProbeParam("waitTimeInMillis") long waitTimeInMillis) {
+
+        PoolInfo poolInfo = new PoolInfo(SimpleJndiName.of(poolName), appName, moduleName);
+        if (this.poolInfo.equals(poolInfo)) {
+            if (logger.isLoggable(Level.FINEST)) {
+                logger.finest("Wait time event received - poolName = " + poolName);
+            }
+            waitTimeHistogram.record(waitTimeInMillis);
+        }
+    }
+
+    /**
+     * When a connection is validated, count it and its validation time.
+     */
+    @ProbeListener(JDBC_PROBE_LISTENER + "connectionValidatedEvent")
+    public void connectionValidatedEvent(
+            @ProbeParam("poolName") String poolName,
+            @ProbeParam("appName") String appName,
+            @ProbeParam("moduleName") String moduleName,
+            @ProbeParam("validationTimeInMicros") long validationTimeInMicros) {
+
+        PoolInfo poolInfo = new PoolInfo(SimpleJndiName.of(poolName), appName, moduleName);
+        if (this.poolInfo.equals(poolInfo)) {
+            if (logger.isLoggable(Level.FINEST)) {
+                logger.finest("Connection validated event received - poolName = " + poolName);
+            }
+            numConnValidated.increment();
+            totalConnValidationTime.increment(validationTimeInMicros);
+        }
+    }
+
     public PoolInfo getPoolInfo() {
         return poolInfo;
     }
@@ -629,4 +688,27 @@ public class JdbcConnPoolStatsProvider {
     public CountStatistic getWaitQueueLength() {
         return waitQueueLength;
     }
+
+    @ManagedAttribute(id="connrequestwaittimehistogram")
+    public StringStatistic getConnRequestWaitTimeHistogram() {
+        connRequestWaitTimeHistogram.setCurrent(waitTimeHistogram.toString());
+        return connRequestWaitTimeHistogram;
+    }
+
+    @ManagedAttribute(id="numconnvalidated")
+    public CountStatistic getNumConnValidated() {
+        return numConnValidated;
+    }
+
+    @ManagedAttribute(id="totalconnvalidationtime")
+    public CountStatistic getTotalConnValidationTime() {
+        return totalConnValidationTime;
+    }
+
+    @ManagedAttribute(id="averageconnvalidationtime")
+    public CountStatistic getAverageConnValidationTime() {
+        long count = numConnValidated.getCount();
+        averageConnValidationTime.setCount(count == 0 ? 0 : totalConnValidationTime.getCount() / count);
+        return averageConnValidationTime;
+    }
 }
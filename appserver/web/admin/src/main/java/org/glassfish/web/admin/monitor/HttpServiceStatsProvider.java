@@ -65,6 +65,12 @@ public class HttpServiceStatsProvider implements PostConstruct {
             "The number of bytes received";
     private static final String COUNT_BYTES_TRANSMITTED_DESCRIPTION =
             "The number of bytes transmitted";
+    private static final String COUNT_BYTES_SENDFILE_DESCRIPTION =
+            "The number of bytes transmitted with zero-copy sendfile";
+    private static final String COUNT_SENDFILE_DESCRIPTION =
+            "The number of responses transmitted with zero-copy sendfile";
+    private static final String COUNT_ACCESS_LOG_DROPPED_DESCRIPTION =
+            "The number of access log entries discarded because the asynchronous access log queue was full";
     private static final String COUNT_OPEN_CONNECTIONS_DESCRIPTION =
             "The number of open connections";
     private static final String COUNT_REQUESTS_DESCRIPTION =
@@ -112,6 +118,12 @@ public class HttpServiceStatsProvider implements PostConstruct {
             StatisticImpl.UNIT_COUNT, COUNT_BYTES_RECEIVED_DESCRIPTION);
     private CountStatisticImpl countBytesTransmitted = new CountStatisticImpl("CountBytesTransmitted",
             StatisticImpl.UNIT_COUNT, COUNT_BYTES_TRANSMITTED_DESCRIPTION);
+    private CountStatisticImpl countBytesSendfile = new CountStatisticImpl("CountBytesSendfile",
+            StatisticImpl.UNIT_COUNT, COUNT_BYTES_SENDFILE_DESCRIPTION);
+    private CountStatisticImpl countSendfile = new CountStatisticImpl("CountSendfile",
+            StatisticImpl.UNIT_COUNT, COUNT_SENDFILE_DESCRIPTION);
+    private CountStatisticImpl countAccessLogDropped = new CountStatisticImpl("CountAccessLogDropped",
+            StatisticImpl.UNIT_COUNT, COUNT_ACCESS_LOG_DROPPED_DESCRIPTION);
     private CountStatisticImpl countOpenConnections = new CountStatisticImpl("CountOpenConnections",
             StatisticImpl.UNIT_COUNT, COUNT_OPEN_CONNECTIONS_DESCRIPTION);
     private CountStatisticImpl countRequests = new CountStatisticImpl("CountRequests",
@@ -209,6 +221,24 @@ public class HttpServiceStatsProvider implements PostConstruct {
         return countBytesTransmitted;
     }
 
+    @ManagedAttribute(id="countbytessendfile")
+    @Description(COUNT_BYTES_SENDFILE_DESCRIPTION)
+    public CountStatistic getCountBytesSendfile() {
+        return countBytesSendfile;
+    }
+
+    @ManagedAttribute(id="countsendfile")
+    @Description(COUNT_SENDFILE_DESCRIPTION)
+    public CountStatistic getCountSendfile() {
+        return countSendfile;
+    }
+
+    @ManagedAttribute(id="countaccesslogdropped")
+    @Description(COUNT_ACCESS_LOG_DROPPED_DESCRIPTION)
+    public CountStatistic getCountAccessLogDropped() {
+        return countAccessLogDropped;
+    }
+
     @ManagedAttribute(id="countopenconnections")
     @Description(COUNT_OPEN_CONNECTIONS_DESCRIPTION)
     public CountStatistic getCountOpenConnections() {
@@ -341,6 +371,25 @@ public class HttpServiceStatsProvider implements PostConstruct {
         }
     }
 
+    @ProbeListener("glassfish:web:http-service:sendfileEvent")
+    public void sendfileEvent(
+        @ProbeParam("size") long size,
+        @ProbeParam("hostName") String hostName) {
+        if ((hostName != null) && (hostName.equals(virtualServerName))) {
+            countBytesSendfile.increment(size);
+            countSendfile.increment();
+        }
+    }
+
+    @ProbeListener("glassfish:web:http-service:accessLogDroppedEvent")
+    public void accessLogDroppedEvent(
+        @ProbeParam("count") long count,
+        @ProbeParam("hostName") String hostName) {
+        if ((hostName != null) && (hostName.equals(virtualServerName))) {
+            countAccessLogDropped.increment(count);
+        }
+    }
+
     @ProbeListener("glassfish:web:http-service:requestStartEvent")
     public void requestStartEvent(
             @ProbeParam("appName") String appName,
@@ -517,6 +566,9 @@ public class HttpServiceStatsProvider implements PostConstruct {
         this.processingTime.reset();
         this.countBytesReceived.reset();
         this.countBytesTransmitted.reset();
+        this.countBytesSendfile.reset();
+        this.countSendfile.reset();
+        this.countAccessLogDropped.reset();
         this.countOpenConnections.reset();
         this.countRequests.reset();
         this.maxOpenConnections.reset();
@@ -57,4 +57,14 @@ public class RequestProbeProvider {
         @ProbeParam("size") long size,
         @ProbeParam("hostName") String hostName) {}
 
+    @Probe(name="sendfileEvent")
+    public void sendfileEvent(
+        @ProbeParam("size") long size,
+        @ProbeParam("hostName") String hostName) {}
+
+    @Probe(name="accessLogDroppedEvent")
+    public void accessLogDroppedEvent(
+        @ProbeParam("count") long count,
+        @ProbeParam("hostName") String hostName) {}
+
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.web.admin.monitor;
+
+import org.glassfish.external.statistics.CountStatistic;
+import org.glassfish.external.statistics.impl.CountStatisticImpl;
+import org.glassfish.external.statistics.impl.StatisticImpl;
+import org.glassfish.gmbal.AMXMetadata;
+import org.glassfish.gmbal.Description;
+import org.glassfish.gmbal.ManagedAttribute;
+import org.glassfish.gmbal.ManagedObject;
+
+/**
+ * Provides the static resource cache statistics of a web module. The values
+ * are read from the cache whenever they are requested.
+ */
+@AMXMetadata(type="resourcecache-mon", group="monitoring")
+@ManagedObject
+@Description( "Web Module Resource Cache Statistics" )
+public class ResourceCacheStatsProvider {
+
+    private static final String HITS_DESCRIPTION =
+        "Number of resource lookups served from the cache";
+    private static final String MISSES_DESCRIPTION =
+        "Number of resource lookups not served from the cache";
+    private static final String EVICTIONS_DESCRIPTION =
+        "Number of cache entries evicted to make space for new ones";
+    private static final String SIZE_DESCRIPTION =
+        "Current size of the cache";
+
+    /**
+     * Source of the resource cache statistics of a web module.
+     */
+    public interface CacheStatistics {
+
+        long getHitCount();
+
+        long getMissCount();
+
+        long getEvictionCount();
+
+        /**
+         * @return the current size of the cache in KB
+         */
+        long getCacheSize();
+    }
+
+    private final CacheStatistics cacheStatistics;
+
+    private final CountStatisticImpl hitCount = new CountStatisticImpl(
+        "HitCount", StatisticImpl.UNIT_COUNT, HITS_DESCRIPTION);
+    private final CountStatisticImpl missCount = new CountStatisticImpl(
+        "MissCount", StatisticImpl.UNIT_COUNT, MISSES_DESCRIPTION);
+    private final CountStatisticImpl evictionCount = new CountStatisticImpl(
+        "EvictionCount", StatisticImpl.UNIT_COUNT, EVICTIONS_DESCRIPTION);
+    private final CountStatisticImpl cacheSize = new CountStatisticImpl(
+        "CacheSize", "KB", SIZE_DESCRIPTION);
+
+    public ResourceCacheStatsProvider(CacheStatistics cacheStatistics) {
+        this.cacheStatistics = cacheStatistics;
+    }
+
+    @ManagedAttribute(id="hitcount")
+    @Description(HITS_DESCRIPTION)
+    public CountStatistic getHitCount() {
+        hitCount.setCount(cacheStatistics.getHitCount());
+        return hitCount;
+    }
+
+    @ManagedAttribute(id="misscount")
+    @Description(MISSES_DESCRIPTION)
+    public CountStatistic getMissCount() {
+        missCount.setCount(cacheStatistics.getMissCount());
+        return missCount;
+    }
+
+    @ManagedAttribute(id="evictioncount")
+    @Description(EVICTIONS_DESCRIPTION)
+    public CountStatistic getEvictionCount() {
+        evictionCount.setCount(cacheStatistics.getEvictionCount());
+        return evictionCount;
+    }
+
+    @ManagedAttribute(id="cachesize")
+    @Description(SIZE_DESCRIPTION)
+    public CountStatistic getCacheSize() {
+        cacheSize.setCount(cacheStatistics.getCacheSize());
+        return cacheSize;
+    }
+}
@@ -54,6 +54,21 @@ public class ServletInstanceStatsProvider {
 
     private static final String REQUEST_COUNT_DESCRIPTION = "Number of requests processed";
 
+    private static final String LOCKED_ALLOCATION_COUNT_DESCRIPTION = "Number of servlet allocations that had to acquire the lock of the servlet";
+
+    /**
+     * Source of the servlet statistics of a web module which are read from
+     * its servlets rather than collected from probe events.
+     */
+    public interface ServletStatistics {
+
+        /**
+         * @return the number of allocations of the given servlet which could
+         * not be served without locking, or 0 if the servlet is not loaded
+         */
+        long getLockedAllocationCount(String servletName);
+    }
+
     private CountStatisticImpl errorCount = new CountStatisticImpl(
         "ErrorCount", StatisticImpl.UNIT_COUNT, ERROR_COUNT_DESCRIPTION);
 
@@ -74,10 +89,15 @@ public class ServletInstanceStatsProvider {
         "ServiceTime", StatisticImpl.UNIT_MILLISECOND,
         SERVICE_TIME_DESCRIPTION);
 
+    private CountStatisticImpl lockedAllocationCount = new CountStatisticImpl(
+        "LockedAllocationCount", StatisticImpl.UNIT_COUNT,
+        LOCKED_ALLOCATION_COUNT_DESCRIPTION);
+
     private String servletName;
     private String moduleName;
     private String vsName;
     private ServletStatsProvider servletStatsProvider;
+    private ServletStatistics servletStatistics;
 
     private ThreadLocal<TimeStatData> timeStatDataLocal = new ThreadLocal<TimeStatData> (){
         TimeStatData tsd;
@@ -97,10 +117,18 @@ public class ServletInstanceStatsProvider {
     public ServletInstanceStatsProvider(String servletName,
             String moduleName, String vsName,
             ServletStatsProvider servletStatsProvider) {
+        this(servletName, moduleName, vsName, servletStatsProvider, null);
+    }
+
+    public ServletInstanceStatsProvider(String servletName,
+            String moduleName, String vsName,
+            ServletStatsProvider servletStatsProvider,
+            ServletStatistics servletStatistics) {
         this.servletName = servletName;
         this.moduleName = moduleName;
         this.vsName = vsName;
         this.servletStatsProvider = servletStatsProvider;
+        this.servletStatistics = servletStatistics;
     }
 
     public String getModuleName() {
@@ -150,6 +178,20 @@ public class ServletInstanceStatsProvider {
         return requestCount;
     }
 
+    /**
+     * Read from the servlet on every call, so it is not affected by
+     * {@link #reset()}.
+     */
+    @ManagedAttribute(id="lockedallocationcount")
+    @Description(LOCKED_ALLOCATION_COUNT_DESCRIPTION)
+    public CountStatistic getLockedAllocationCount() {
+        if (servletStatistics != null) {
+            lockedAllocationCount.setCount(
+                servletStatistics.getLockedAllocationCount(servletName));
+        }
+        return lockedAllocationCount;
+    }
+
     @ProbeListener("glassfish:web:servlet:beforeServiceEvent")
     public void beforeServiceEvent(
                     @ProbeParam("servletName") String servletName,
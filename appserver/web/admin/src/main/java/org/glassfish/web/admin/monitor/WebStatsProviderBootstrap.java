@@ -93,6 +93,20 @@ public class WebStatsProviderBootstrap implements PostConstruct {
 
     public void registerApplicationStatsProviders(String monitoringName,
             String vsName, List<String> servletNames) {
+        registerApplicationStatsProviders(monitoringName, vsName, servletNames, null);
+    }
+
+    public void registerApplicationStatsProviders(String monitoringName,
+            String vsName, List<String> servletNames,
+            ResourceCacheStatsProvider.CacheStatistics resourceCacheStatistics) {
+        registerApplicationStatsProviders(monitoringName, vsName, servletNames,
+            resourceCacheStatistics, null);
+    }
+
+    public void registerApplicationStatsProviders(String monitoringName,
+            String vsName, List<String> servletNames,
+            ResourceCacheStatsProvider.CacheStatistics resourceCacheStatistics,
+            ServletInstanceStatsProvider.ServletStatistics servletStatistics) {
 
         // try register again as it may be unregistered
         registerWebStatsProviders();
@@ -142,11 +156,20 @@ public class WebStatsProviderBootstrap implements PostConstruct {
         StatsProviderManager.register(
                 "web-container", PluginPoint.APPLICATIONS, node,
                 websp);
+        if (resourceCacheStatistics != null) {
+            ResourceCacheStatsProvider resourceCacheStatsProvider =
+                    new ResourceCacheStatsProvider(resourceCacheStatistics);
+            StatsProviderManager.register(
+                    "web-container", PluginPoint.APPLICATIONS, node,
+                    resourceCacheStatsProvider);
+            statspList.add(resourceCacheStatsProvider);
+        }
 
         for (String servletName : servletNames) {
              ServletInstanceStatsProvider servletInstanceStatsProvider =
                  new ServletInstanceStatsProvider(servletName,
-                     monitoringName, vsName, servletStatsProvider);
+                     monitoringName, vsName, servletStatsProvider,
+                     servletStatistics);
              StatsProviderManager.register(
                      "web-container", PluginPoint.APPLICATIONS,
                      getNodeString(monitoringName, vsName, servletName),
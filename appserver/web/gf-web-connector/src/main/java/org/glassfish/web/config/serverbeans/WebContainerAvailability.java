@@ -107,8 +107,8 @@ public interface WebContainerAvailability extends ConfigBeanProxy, PropertyBag,
      *
      * The persistence scope used by the session persistence framework, when
      * persistence-type = "ha". Values may be "session", "modified-session",
-     * "modified-attribute". If it is missing, then the persistence-type will
-     * revert to "memory".
+     * "modified-attribute", "modified-attribute-batched". If it is missing,
+     * then the persistence-type will revert to "memory".
      *
      * @return possible object is {@link String}
      */
@@ -259,6 +259,41 @@ public final class Globals {
      public static final String SSI_FLAG_ATTR =
          "org.apache.catalina.ssi.SSIServlet";
 
+    /**
+     * The request attribute telling servlets whether the connector supports
+     * zero-copy sendfile for the current request (as an object of type
+     * java.lang.Boolean).
+     */
+    public static final String SENDFILE_SUPPORTED_ATTR =
+        "org.apache.tomcat.sendfile.support";
+
+
+    /**
+     * The request attribute under which a servlet stores the canonical path
+     * of the file the connector should send with sendfile once the servlet
+     * returns (as an object of type java.lang.String).
+     */
+    public static final String SENDFILE_FILENAME_ATTR =
+        "org.apache.tomcat.sendfile.filename";
+
+
+    /**
+     * The request attribute under which a servlet stores the offset of the
+     * first byte to send with sendfile (as an object of type java.lang.Long).
+     */
+    public static final String SENDFILE_FILE_START_ATTR =
+        "org.apache.tomcat.sendfile.start";
+
+
+    /**
+     * The request attribute under which a servlet stores the offset after
+     * the last byte to send with sendfile (as an object of type
+     * java.lang.Long).
+     */
+    public static final String SENDFILE_FILE_END_ATTR =
+        "org.apache.tomcat.sendfile.end";
+
+
     /**
      * Request path.
      */
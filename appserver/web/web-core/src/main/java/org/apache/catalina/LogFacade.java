@@ -3607,4 +3607,10 @@ public class LogFacade {
             level = "WARNING"
     )
     public static final String REPOSITORY_PATH_CONTAIN_NULL_CHARACTER = prefix + "00550";
+
+    @LogMessageInfo(
+            message = "Unable to copy file [{0}] to the response, aborting the connection",
+            level = "WARNING"
+    )
+    public static final String UNABLE_TO_COPY_SENDFILE_REGION = prefix + "00551";
 }
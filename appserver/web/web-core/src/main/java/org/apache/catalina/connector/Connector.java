@@ -1189,6 +1189,19 @@ public class Connector implements org.apache.catalina.Connector, Lifecycle {
         // Deliberate noop
     };
 
+    /**
+     * Fires probe event related to the fact that (part of) a file has been handed over to the network layer for
+     * zero-copy sendfile as the response to the given request.
+     *
+     * @param request the request object
+     * @param host the virtual server to which the request was mapped
+     * @param context the Context to which the request was mapped
+     * @param size the number of bytes sent with sendfile
+     */
+    public void sendfileEvent(HttpServletRequest request, Host host, Context context, long size) {
+        // Deliberate noop
+    }
+
     // ------------------------------------------------------ Lifecycle Methods
 
     /**
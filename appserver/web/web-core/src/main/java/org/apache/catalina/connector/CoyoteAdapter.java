@@ -21,7 +21,14 @@ package org.apache.catalina.connector;
 import com.sun.appserv.ProxyHandler;
 
 import java.io.CharConversionException;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.text.MessageFormat;
@@ -54,6 +61,7 @@ import static jakarta.servlet.http.HttpServletResponse.SC_NOT_FOUND;
 import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.INFO;
 import static java.util.logging.Level.SEVERE;
+import static java.util.logging.Level.WARNING;
 import static org.apache.catalina.Globals.SESSION_PARAMETER_NAME;
 import static org.apache.catalina.LogFacade.FAILED_TO_INITIALIZE_THE_INTERCEPTOR;
 import static org.apache.catalina.LogFacade.HTTP_LISTENER_DISABLED;
@@ -61,6 +69,7 @@ import static org.apache.catalina.LogFacade.INTERNAL_ERROR;
 import static org.apache.catalina.LogFacade.NO_HOST_MATCHES_SERVER_NAME_INFO;
 import static org.apache.catalina.LogFacade.PARSING_CLIENT_CERT_EXCEPTION;
 import static org.apache.catalina.LogFacade.REQUEST_PROCESSING_EXCEPTION;
+import static org.apache.catalina.LogFacade.UNABLE_TO_COPY_SENDFILE_REGION;
 import static org.apache.catalina.connector.Constants.USE_CUSTOM_STATUS_MSG_IN_HEADER;
 import static org.glassfish.internal.api.Globals.getDefaultHabitat;
 
@@ -305,6 +314,84 @@ public class CoyoteAdapter extends HttpHandler {
         }
 
     }
+
+    /**
+     * Transfers the file recorded by a servlet in the sendfile request attributes, if any, with zero-copy sendfile.
+     * <p>
+     * Called by the wrapper valve as soon as the servlet returns, so that the valves and the request end probe, which
+     * run afterwards, see the bytes and the time of the transfer.
+     */
+    public static void processSendfile(Request catalinaRequest, Response catalinaResponse) {
+        Object fileName = catalinaRequest.getAttribute(Globals.SENDFILE_FILENAME_ATTR);
+        if (fileName == null || catalinaRequest.isAsyncStarted() || catalinaResponse.isError()
+            || catalinaResponse.isSuspended()) {
+            return;
+        }
+        // Transfer the file once, even if the request goes through another wrapper valve
+        catalinaRequest.removeAttribute(Globals.SENDFILE_FILENAME_ATTR);
+
+        Long start = (Long) catalinaRequest.getAttribute(Globals.SENDFILE_FILE_START_ATTR);
+        Long end = (Long) catalinaRequest.getAttribute(Globals.SENDFILE_FILE_END_ATTR);
+        if (start == null || end == null) {
+            return;
+        }
+
+        long length = end - start;
+        try {
+            catalinaResponse.sendfile(new File(fileName.toString()), start, length);
+        } catch (IllegalStateException e) {
+            // The servlet did not write the body, so copy the file through the output buffer instead
+            log.log(FINE, "Unable to send file " + fileName + " with sendfile, copying it", e);
+            copyFileRegion(new File(fileName.toString()), start, length, catalinaResponse);
+            return;
+        }
+
+        if (catalinaRequest.getConnector() instanceof Connector) {
+            ((Connector) catalinaRequest.getConnector()).sendfileEvent(catalinaRequest.getRequest(),
+                catalinaRequest.getHost(), catalinaRequest.getContext(), length);
+        }
+    }
+
+    /**
+     * Copies the given region of the file through the output buffer, aborting the connection if that fails.
+     */
+    static void copyFileRegion(File file, long offset, long length, Response catalinaResponse) {
+        try {
+            copyFileRegion(file, offset, length, catalinaResponse.getOutputStream());
+        } catch (IOException e) {
+            // The Content-Length of the whole region has already been set, so the client must not be handed a
+            // truncated body as if it were complete
+            log.log(WARNING, MessageFormat.format(rb.getString(UNABLE_TO_COPY_SENDFILE_REGION), file), e);
+            catalinaResponse.setError();
+            catalinaResponse.setSuspended(true);
+            catalinaResponse.getCoyoteResponse().getRequest().getConnection().closeWithReason(e);
+        }
+    }
+
+    /**
+     * Copies the given region of the file to the output stream.
+     *
+     * @exception EOFException if the file ends before the whole region has been copied
+     */
+    static void copyFileRegion(File file, long offset, long length, OutputStream outputStream) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, OutputBuffer.DEFAULT_BUFFER_SIZE));
+            long position = offset;
+            long remaining = length;
+            while (remaining > 0) {
+                buffer.clear();
+                buffer.limit((int) Math.min(remaining, buffer.capacity()));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new EOFException("File " + file + " ended with " + remaining + " bytes left to copy");
+                }
+                outputStream.write(buffer.array(), 0, read);
+                position += read;
+                remaining -= read;
+            }
+        }
+    }
+
     // ------------------------------------------------------ Protected Methods
 
     /**
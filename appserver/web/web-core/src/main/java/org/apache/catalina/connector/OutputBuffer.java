@@ -21,8 +21,10 @@ import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.nio.channels.InterruptedByTimeoutException;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -40,6 +42,7 @@ import org.apache.catalina.core.StandardContext;
 import org.apache.catalina.core.StandardHost;
 import org.apache.catalina.util.RequestUtil;
 import org.glassfish.common.util.InputValidationUtil;
+import org.glassfish.grizzly.Buffer;
 import org.glassfish.grizzly.WriteHandler;
 import org.glassfish.grizzly.http.util.ByteChunk;
 
@@ -80,6 +83,12 @@ public class OutputBuffer extends Writer
     private int charsWritten = 0;
 
 
+    /**
+     * Number of bytes handed over to the connector for sendfile.
+     */
+    private long sendfileBytesWritten = 0;
+
+
     /**
      * Associated Coyote response.
      */
@@ -179,6 +188,7 @@ public class OutputBuffer extends Writer
 
         bytesWritten = 0;
         charsWritten = 0;
+        sendfileBytesWritten = 0;
 
         suspended = false;
         grizzlyResponse = null;
@@ -286,6 +296,38 @@ public class OutputBuffer extends Writer
     }
 
 
+    /**
+     * Writes the remaining bytes of the given buffer. Bytes of a direct
+     * buffer are copied into a buffer of the connector's memory manager,
+     * without going through a heap array, so the given buffer may be reused
+     * as soon as this method returns.
+     *
+     * @param src The bytes to write
+     */
+    public void write(ByteBuffer src) throws IOException {
+
+        if (suspended)
+            return;
+
+        int len = src.remaining();
+        if (src.hasArray()) {
+            writeBytes(src.array(), src.arrayOffset() + src.position(), len);
+            src.position(src.limit());
+            return;
+        }
+
+        if (grizzlyOutputBuffer.isClosed())
+            return;
+
+        Buffer buffer = grizzlyResponse.getRequest().getConnection().getMemoryManager().allocate(len);
+        buffer.put(src);
+        buffer.flip();
+        grizzlyOutputBuffer.writeBuffer(buffer);
+        bytesWritten += len;
+
+    }
+
+
     private void writeBytes(byte b[], int off, int len)
         throws IOException {
 
@@ -410,7 +452,37 @@ public class OutputBuffer extends Writer
 
 
     public int getContentWritten() {
-        return bytesWritten + charsWritten;
+        return (int) Math.min(bytesWritten + charsWritten + sendfileBytesWritten, Integer.MAX_VALUE);
+    }
+
+
+    public long getSendfileBytesWritten() {
+        return sendfileBytesWritten;
+    }
+
+
+    /**
+     * Transfers the given region of the file to the client with zero-copy
+     * sendfile. Any buffered but not yet committed content is discarded,
+     * and the response is committed with a content length of
+     * <code>length</code>.
+     *
+     * @param file The file to send
+     * @param offset The offset of the first byte to send
+     * @param length The number of bytes to send
+     *
+     * @throws IllegalStateException if the connector does not support
+     * sendfile for this response, or if the response has already been
+     * committed
+     */
+    public void sendfile(File file, long offset, long length) {
+
+        if (suspended)
+            return;
+
+        grizzlyOutputBuffer.sendfile(file, offset, length, null);
+        sendfileBytesWritten += length;
+
     }
 
 
@@ -1175,6 +1175,10 @@ public class Request implements HttpRequest, HttpServletRequest {
             return getRequestPathMB() != null ? getRequestPathMB().toString() : null;
         }
 
+        if (name.equals(Globals.SENDFILE_SUPPORTED_ATTR)) {
+            return grizzlyRequest.getAttribute(org.glassfish.grizzly.http.server.Request.SEND_FILE_ENABLED_ATTR);
+        }
+
         Object attribute = attributes.get(name);
 
         if (attribute != null) {
@@ -1695,7 +1699,7 @@ public class Request implements HttpRequest, HttpServletRequest {
         boolean replaced = false;
 
         // Do the security check before any updates are made
-        if (Globals.IS_SECURITY_ENABLED && name.equals("org.apache.tomcat.sendfile.filename")) {
+        if (Globals.IS_SECURITY_ENABLED && name.equals(Globals.SENDFILE_FILENAME_ATTR)) {
             // Use the canonical file name to avoid any possible symlink and
             // relative path issues
             String canonicalPath;
@@ -24,6 +24,7 @@ import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
@@ -495,6 +496,20 @@ public class Response implements HttpResponse, HttpServletResponse {
         return outputStream;
     }
 
+    /**
+     * Transfers the given region of the file to the client with zero-copy sendfile, bypassing the output buffer.
+     *
+     * @param file The file to send
+     * @param offset The offset of the first byte to send
+     * @param length The number of bytes to send
+     *
+     * @exception IllegalStateException if the connector does not support sendfile for this response, or if the response
+     * has already been committed
+     */
+    public void sendfile(File file, long offset, long length) {
+        outputBuffer.sendfile(file, offset, length);
+    }
+
     /**
      * Perform whatever actions are required to flush and close the output stream or writer, in a single operation.
      *
@@ -57,12 +57,6 @@ final class ApplicationFilterChain implements FilterChain {
     private static final ResourceBundle rb = log.getResourceBundle();
 
 
-    // -------------------------------------------------------------- Constants
-
-
-    public static final int INCREMENT = 10;
-
-
     // ----------------------------------------------------------- Constructors
 
 
@@ -78,10 +72,11 @@ final class ApplicationFilterChain implements FilterChain {
 
 
     /**
-     * Filters.
+     * Filters. This is a template shared with other chains and must not
+     * be modified.
      */
     private ApplicationFilterConfig[] filters =
-        new ApplicationFilterConfig[0];
+        FilterChainTemplateCache.NO_FILTERS;
 
 
     /**
@@ -309,18 +304,15 @@ final class ApplicationFilterChain implements FilterChain {
 
 
     /**
-     * Add a filter to the set of filters that will be executed in this chain.
+     * Set the filters that will be executed in this chain.
      *
-     * @param filterConfig The FilterConfig for the servlet to be executed
+     * @param filters The FilterConfigs of the filters to be executed, in
+     * execution order. The array is not copied and must not be modified.
      */
-    void addFilter(ApplicationFilterConfig filterConfig) {
-        if (n == filters.length) {
-            ApplicationFilterConfig[] newFilters =
-                new ApplicationFilterConfig[n + INCREMENT];
-            System.arraycopy(filters, 0, newFilters, 0, n);
-            filters = newFilters;
-        }
-        filters[n++] = filterConfig;
+    void setFilters(ApplicationFilterConfig[] filters) {
+        this.filters = filters;
+        this.n = filters.length;
+        this.pos = 0;
     }
 
 
@@ -328,6 +320,7 @@ final class ApplicationFilterChain implements FilterChain {
      * Release references to the filters and wrapper executed by this chain.
      */
     void release() {
+        filters = FilterChainTemplateCache.NO_FILTERS;
         n = 0;
         pos = 0;
         servlet = null;
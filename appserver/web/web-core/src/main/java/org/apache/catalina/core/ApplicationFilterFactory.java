@@ -21,7 +21,7 @@ import jakarta.servlet.DispatcherType;
 import jakarta.servlet.Servlet;
 import jakarta.servlet.ServletRequest;
 
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
@@ -33,6 +33,11 @@ import org.apache.catalina.deploy.FilterMap;
 /**
  * Factory for the creation and caching of Filters and creation
  * of Filter Chains.
+ * <p>
+ * The filters matching a given servlet, dispatcher type and request
+ * path are computed once and kept in the
+ * {@link FilterChainTemplateCache} of the owning context, so that
+ * subsequent requests do not walk and match the filter mappings again.
  *
  * @author Greg Murray
  * @author Remy Maucherat
@@ -104,12 +109,10 @@ public final class ApplicationFilterFactory {
             (((StandardWrapper)wrapper).getInstanceSupport());
         */
 
-        // Acquire the filter mappings for this Context
         StandardContext context = (StandardContext) wrapper.getParent();
-        List<FilterMap> filterMaps = context.findFilterMaps();
 
         // If there are no filter mappings, we are done
-        if (filterMaps.isEmpty()) {
+        if (context.findFilterMaps().isEmpty()) {
             return (filterChain);
         }
 
@@ -125,12 +128,65 @@ public final class ApplicationFilterFactory {
         // Acquire the information we will need to match filter mappings
         String servletName = wrapper.getName();
 
-        int n = 0;
+        // Look up the precomputed filters for this servlet, dispatcher
+        // type and request path, and compute them on a cache miss
+        FilterChainTemplateCache templateCache = context.getFilterChainTemplateCache();
+        ApplicationFilterConfig[] filters =
+            templateCache.get(servletName, dispatcher, requestPath);
+        if (filters == null) {
+            FilterChainTemplateCache.Generation generation =
+                templateCache.currentGeneration();
+            filters = matchFilters(context, dispatcher, requestPath,
+                                   servletName);
+            templateCache.put(generation, servletName, dispatcher,
+                              requestPath, filters);
+        }
+
+        // If there are no matching filters, we are done
+        if (filters.length == 0) {
+            return (filterChain);
+        }
+
+        // START IASRI 4665318
+        // Create a filter chain only when there are filters to add
+        filterChain = internalCreateFilterChain(request, wrapper, servlet);
+        // END IASRI 4665318
+        filterChain.setFilters(filters);
+
+        // Return the completed filter chain
+        return (filterChain);
+
+    }
+
+
+    // -------------------------------------------------------- Private Methods
+
+
+    /**
+     * Return the filters, in execution order, whose mappings match the
+     * given dispatcher type and request path or servlet name.
+     *
+     * @param context The context owning the filter mappings
+     * @param dispatcher The dispatcher type of the request
+     * @param requestPath Context-relative request path of the request
+     * @param servletName Name of the servlet being executed
+     */
+    private ApplicationFilterConfig[] matchFilters(StandardContext context,
+            DispatcherType dispatcher, String requestPath,
+            String servletName) {
+
+        // Acquire the filter mappings for this Context
+        List<FilterMap> filterMaps = context.findFilterMaps();
+
+        // If there are no filter mappings, we are done
+        if (filterMaps.isEmpty()) {
+            return FilterChainTemplateCache.NO_FILTERS;
+        }
+
+        List<ApplicationFilterConfig> filters = new ArrayList<>();
 
         // Add the relevant path-mapped filters to this filter chain
-        Iterator<FilterMap> i = filterMaps.iterator();
-        while (i.hasNext()) {
-            FilterMap filterMap = i.next();
+        for (FilterMap filterMap : filterMaps) {
             if (!filterMap.getDispatcherTypes().contains(dispatcher)) {
                 continue;
             }
@@ -149,20 +205,11 @@ public final class ApplicationFilterFactory {
                 // FIXME - log configuration problem
                 continue;
             }
-            // START IASRI 4665318
-            // Create a filter chain only when there are filters to add
-            if (filterChain == null)
-                filterChain = internalCreateFilterChain(request, wrapper,
-                                                        servlet);
-            // END IASRI 4665318
-            filterChain.addFilter(filterConfig);
-            n++;
+            filters.add(filterConfig);
         }
 
         // Add filters that match on servlet name second
-        i = filterMaps.iterator();
-        while (i.hasNext()) {
-            FilterMap filterMap = i.next();
+        for (FilterMap filterMap : filterMaps) {
             if (!filterMap.getDispatcherTypes().contains(dispatcher)) {
                 continue;
             }
@@ -174,25 +221,17 @@ public final class ApplicationFilterFactory {
                 // FIXME - log configuration problem
                 continue;
             }
-            // START IASRI 4665318
-            // Create a filter chain only when there are filters to add
-            if (filterChain == null)
-                filterChain = internalCreateFilterChain(request, wrapper,
-                                                        servlet);
-            // END IASRI 4665318
-            filterChain.addFilter(filterConfig);
-            n++;
+            filters.add(filterConfig);
         }
 
-        // Return the completed filter chain
-        return (filterChain);
+        if (filters.isEmpty()) {
+            return FilterChainTemplateCache.NO_FILTERS;
+        }
 
+        return filters.toArray(new ApplicationFilterConfig[filters.size()]);
     }
 
 
-    // -------------------------------------------------------- Private Methods
-
-
     /**
      * Return <code>true</code> if the context-relative request path
      * matches the requirements of the specified filter mapping;
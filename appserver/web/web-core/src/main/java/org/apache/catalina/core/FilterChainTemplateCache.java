@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.apache.catalina.core;
+
+import jakarta.servlet.DispatcherType;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.catalina.deploy.FilterMap;
+
+/**
+ * Per-context cache of the filters matched for a (servlet name, dispatcher type, request path) combination.
+ * <p>
+ * The cached templates are flat arrays of {@link ApplicationFilterConfig} in the order they have to be executed, so a
+ * filter chain can be set up without walking and URL matching the filter mappings of the context again. The templates
+ * are shared between requests and must never be modified.
+ * <p>
+ * Templates are not keyed on the request path itself but on what the URL patterns of the filter mappings can tell
+ * apart in it: whether it equals one of the patterns, the longest path pattern it falls under, and its extension if an
+ * extension pattern maps it. All the paths under <code>/orders/*</code> thus share one template, and applications
+ * with path parameters do not fill the cache with one entry per request path.
+ * <p>
+ * The whole cache is dropped by {@link #invalidate()} whenever filter definitions, filter mappings or filter
+ * configurations of the owning context change. A template computed concurrently with an invalidation is stored into
+ * the discarded generation only, so stale templates are never served after the change has been published.
+ */
+final class FilterChainTemplateCache {
+
+    /**
+     * Template used when no filter matches, which means no filter chain has to be created at all.
+     */
+    static final ApplicationFilterConfig[] NO_FILTERS = new ApplicationFilterConfig[0];
+
+    /**
+     * Maximum number of templates cached per context. Once reached, further templates are computed but not cached.
+     */
+    private static final int MAX_ENTRIES = 4096;
+
+    private final StandardContext context;
+
+    private volatile Generation generation = new Generation();
+
+    /**
+     * @param context the context whose filter mappings are cached
+     */
+    FilterChainTemplateCache(StandardContext context) {
+        this.context = context;
+    }
+
+    /**
+     * @param servletName name of the target servlet
+     * @param dispatcherType dispatcher type of the request
+     * @param requestPath context relative request path, may be <code>null</code>
+     * @return the cached template, or <code>null</code> if none is cached yet
+     */
+    ApplicationFilterConfig[] get(String servletName, DispatcherType dispatcherType, String requestPath) {
+        Generation currentGeneration = generation;
+        return currentGeneration.templates.get(currentGeneration.keyOf(servletName, dispatcherType, requestPath));
+    }
+
+    /**
+     * Returns the current generation of this cache. Must be obtained <b>before</b> the filter mappings are read to
+     * compute a template that is then stored by {@link #put}.
+     */
+    Generation currentGeneration() {
+        return generation;
+    }
+
+    /**
+     * Stores the given template into the given generation of this cache.
+     */
+    void put(Generation targetGeneration, String servletName, DispatcherType dispatcherType, String requestPath,
+        ApplicationFilterConfig[] template) {
+        if (targetGeneration.size.get() >= MAX_ENTRIES) {
+            return;
+        }
+
+        Key key = targetGeneration.keyOf(servletName, dispatcherType, requestPath);
+        if (targetGeneration.templates.putIfAbsent(key, template) == null) {
+            targetGeneration.size.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drops all cached templates.
+     */
+    void invalidate() {
+        generation = new Generation();
+    }
+
+    int size() {
+        return generation.templates.size();
+    }
+
+    final class Generation {
+        private final Map<Key, ApplicationFilterConfig[]> templates = new ConcurrentHashMap<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private volatile UrlPatterns urlPatterns;
+
+        Key keyOf(String servletName, DispatcherType dispatcherType, String requestPath) {
+            UrlPatterns patterns = urlPatterns;
+            if (patterns == null) {
+                patterns = new UrlPatterns(context.findFilterMaps(), context.isCaseSensitiveMapping());
+                urlPatterns = patterns;
+            }
+            return patterns.keyOf(servletName, dispatcherType, requestPath);
+        }
+    }
+
+    /**
+     * The URL patterns of the filter mappings, sorted by the way
+     * {@link ApplicationFilterFactory} matches them against a request path.
+     */
+    private static final class UrlPatterns {
+        private final boolean caseSensitive;
+
+        /**
+         * All the patterns, each of which matches the request path equal to it.
+         */
+        private final Set<String> exactPatterns = new HashSet<>();
+
+        /**
+         * The path patterns other than <code>/*</code>, without their trailing <code>/*</code>.
+         */
+        private final Set<String> pathPrefixes = new HashSet<>();
+
+        /**
+         * The extension patterns, without their leading <code>*.</code>.
+         */
+        private final Set<String> extensions = new HashSet<>();
+
+        UrlPatterns(Iterable<FilterMap> filterMaps, boolean caseSensitive) {
+            this.caseSensitive = caseSensitive;
+            for (FilterMap filterMap : filterMaps) {
+                String pattern = filterMap.getURLPattern();
+                if (pattern == null) {
+                    continue;
+                }
+                if (!caseSensitive) {
+                    pattern = pattern.toLowerCase(Locale.ENGLISH);
+                }
+                exactPatterns.add(pattern);
+                if (pattern.endsWith("/*")) {
+                    if (!pattern.equals("/*")) {
+                        pathPrefixes.add(pattern.substring(0, pattern.length() - 2));
+                    }
+                } else if (pattern.startsWith("*.")) {
+                    extensions.add(pattern.substring(2));
+                }
+            }
+        }
+
+        Key keyOf(String servletName, DispatcherType dispatcherType, String requestPath) {
+            if (requestPath == null) {
+                return new Key(servletName, dispatcherType, false, null, null, null);
+            }
+
+            String path = caseSensitive ? requestPath : requestPath.toLowerCase(Locale.ENGLISH);
+            String exactMatch = exactPatterns.contains(path) ? path : null;
+
+            // The longest path prefix also tells which shorter ones match
+            String longestPrefix = null;
+            if (!pathPrefixes.isEmpty()) {
+                if (pathPrefixes.contains(path)) {
+                    longestPrefix = path;
+                } else {
+                    for (int slash = path.lastIndexOf('/'); slash >= 0; slash = path.lastIndexOf('/', slash - 1)) {
+                        String prefix = path.substring(0, slash);
+                        if (pathPrefixes.contains(prefix)) {
+                            longestPrefix = prefix;
+                            break;
+                        }
+                    }
+                }
+            }
+
+            String extension = null;
+            if (!extensions.isEmpty()) {
+                int slash = path.lastIndexOf('/');
+                int period = path.lastIndexOf('.');
+                if (slash >= 0 && period > slash && period != path.length() - 1) {
+                    String candidate = path.substring(period + 1);
+                    if (extensions.contains(candidate)) {
+                        extension = candidate;
+                    }
+                }
+            }
+
+            return new Key(servletName, dispatcherType, true, exactMatch, longestPrefix, extension);
+        }
+    }
+
+    private static final class Key {
+        private final String servletName;
+        private final DispatcherType dispatcherType;
+        private final boolean hasPath;
+        private final String exactMatch;
+        private final String longestPrefix;
+        private final String extension;
+        private final int hash;
+
+        Key(String servletName, DispatcherType dispatcherType, boolean hasPath, String exactMatch,
+            String longestPrefix, String extension) {
+            this.servletName = servletName;
+            this.dispatcherType = dispatcherType;
+            this.hasPath = hasPath;
+            this.exactMatch = exactMatch;
+            this.longestPrefix = longestPrefix;
+            this.extension = extension;
+            this.hash = Objects.hash(servletName, dispatcherType, hasPath, exactMatch, longestPrefix, extension);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return dispatcherType == other.dispatcherType && hasPath == other.hasPath
+                && Objects.equals(servletName, other.servletName) && Objects.equals(exactMatch, other.exactMatch)
+                && Objects.equals(longestPrefix, other.longestPrefix) && Objects.equals(extension, other.extension);
+        }
+    }
+}
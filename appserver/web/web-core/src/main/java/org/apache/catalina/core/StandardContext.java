@@ -434,6 +434,12 @@ public class StandardContext extends ContainerBase implements Context, ServletCo
      */
     private final List<FilterMap> filterMaps = new ArrayList<>();
 
+    /**
+     * The filters matched per servlet, dispatcher type and request path, invalidated whenever the filter definitions,
+     * mappings or configurations of this context change.
+     */
+    private final FilterChainTemplateCache filterChainTemplateCache = new FilterChainTemplateCache(this);
+
     /**
      * The list of classnames of InstanceListeners that will be added to each newly created Wrapper by
      * <code>createWrapper()</code>.
@@ -648,6 +654,11 @@ public class StandardContext extends ContainerBase implements Context, ServletCo
      */
     protected int cacheTTL = 5000;
 
+    /**
+     * Resource cache implementation class, <code>null</code> for the default.
+     */
+    protected String cacheClassName;
+
     /**
      * Non proxied resources.
      */
@@ -863,6 +874,7 @@ public class StandardContext extends ContainerBase implements Context, ServletCo
      */
     public void setCaseSensitiveMapping(boolean caseSensitiveMap) {
         caseSensitiveMapping = caseSensitiveMap;
+        filterChainTemplateCache.invalidate();
     }
 
     /**
@@ -914,6 +926,20 @@ public class StandardContext extends ContainerBase implements Context, ServletCo
         this.cacheMaxSize = cacheMaxSize;
     }
 
+    /**
+     * @return the name of the resource cache implementation class, or <code>null</code> for the default.
+     */
+    public String getCacheClassName() {
+        return cacheClassName;
+    }
+
+    /**
+     * Set the name of the resource cache implementation class.
+     */
+    public void setCacheClassName(String cacheClassName) {
+        this.cacheClassName = cacheClassName;
+    }
+
     /**
      * @return the "follow standard delegation model" flag used to configure our ClassLoader.
      */
@@ -1607,6 +1633,9 @@ public class StandardContext extends ContainerBase implements Context, ServletCo
             baseDirContext.setCached(isCachingAllowed());
             baseDirContext.setCacheTTL(getCacheTTL());
             baseDirContext.setCacheMaxSize(getCacheMaxSize());
+            if (getCacheClassName() != null) {
+                baseDirContext.setCacheClassName(getCacheClassName());
+            }
         }
 
         if (resources instanceof FileDirContext) {
@@ -1638,6 +1667,9 @@ public class StandardContext extends ContainerBase implements Context, ServletCo
             ((BaseDirContext) resources).setCached(isCachingAllowed());
             ((BaseDirContext) resources).setCacheTTL(getCacheTTL());
             ((BaseDirContext) resources).setCacheMaxSize(getCacheMaxSize());
+            if (getCacheClassName() != null) {
+                ((BaseDirContext) resources).setCacheClassName(getCacheClassName());
+            }
         }
 
         if (resources instanceof FileDirContext) {
@@ -2032,6 +2064,7 @@ public class StandardContext extends ContainerBase implements Context, ServletCo
         synchronized (filterDefs) {
             filterDefs.put(filterDef.getFilterName(), filterDef);
         }
+        filterChainTemplateCache.invalidate();
 
         if (notifyContainerListeners) {
             fireContainerEvent("addFilterDef", filterDef);
@@ -2118,6 +2151,7 @@ public class StandardContext extends ContainerBase implements Context, ServletCo
         } else {
             filterMaps.add(0, filterMap);
         }
+        filterChainTemplateCache.invalidate();
 
         if (notifyContainerListeners) {
             fireContainerEvent("addFilterMap", filterMap);
@@ -3608,6 +3642,7 @@ public class StandardContext extends ContainerBase implements Context, ServletCo
         synchronized (filterDefs) {
             filterDefs.remove(filterDef.getFilterName());
         }
+        filterChainTemplateCache.invalidate();
 
         if (notifyContainerListeners) {
             fireContainerEvent("removeFilterDef", filterDef);
@@ -3624,6 +3659,7 @@ public class StandardContext extends ContainerBase implements Context, ServletCo
         }
 
         filterMaps.clear();
+        filterChainTemplateCache.invalidate();
     }
 
     @Override
@@ -3900,6 +3936,7 @@ public class StandardContext extends ContainerBase implements Context, ServletCo
                 }
             }
         }
+        filterChainTemplateCache.invalidate();
 
         return ok;
     }
@@ -3922,6 +3959,7 @@ public class StandardContext extends ContainerBase implements Context, ServletCo
             }
             filterConfigs.clear();
         }
+        filterChainTemplateCache.invalidate();
 
         return true;
     }
@@ -3937,6 +3975,13 @@ public class StandardContext extends ContainerBase implements Context, ServletCo
         return filterConfigs.get(name);
     }
 
+    /**
+     * Return the cache of filters matched per servlet, dispatcher type and request path for this Context.
+     */
+    FilterChainTemplateCache getFilterChainTemplateCache() {
+        return filterChainTemplateCache;
+    }
+
     /**
      * Notifies all ServletContextListeners at their contextInitialized method.
      */
@@ -45,6 +45,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
 import javax.management.Notification;
@@ -126,6 +127,12 @@ public class StandardWrapper extends ContainerBase implements ServletConfig, Wra
      */
     private final AtomicInteger countAllocated = new AtomicInteger(0);
 
+    /**
+     * The number of allocations that could not be served from the lock-free fast path and had to acquire the monitor of
+     * this wrapper (first load, SingleThreadModel pool, or racing an unload).
+     */
+    private final AtomicLong lockedAllocationCount = new AtomicLong();
+
     /**
      * The debugging detail level for this component.
      */
@@ -210,7 +217,7 @@ public class StandardWrapper extends ContainerBase implements ServletConfig, Wra
     /**
      * Are we unloading our servlet instance at the moment?
      */
-    private boolean unloading;
+    private volatile boolean unloading;
 
     /**
      * Maximum number of STM instances.
@@ -312,6 +319,15 @@ public class StandardWrapper extends ContainerBase implements ServletConfig, Wra
         return countAllocated.get();
     }
 
+    /**
+     * Return the number of allocations that had to acquire the monitor of this wrapper instead of being served from the
+     * lock-free fast path. For an initialized servlet that does not implement <code>SingleThreadModel</code> this value
+     * stays constant under load.
+     */
+    public long getLockedAllocationCount() {
+        return lockedAllocationCount.get();
+    }
+
     /**
      * Return the debugging detail level for this component.
      */
@@ -941,7 +957,28 @@ public class StandardWrapper extends ContainerBase implements ServletConfig, Wra
      * @exception ServletException if a loading error occurs
      */
     @Override
-    public synchronized Servlet allocate() throws ServletException {
+    public Servlet allocate() throws ServletException {
+        // Fast path: hand out the already initialized non-STM instance without taking the wrapper monitor.
+        // The allocation is counted before checking the unloading flag, so that unload() either sees this
+        // allocation and waits for it, or we see the unloading flag and back off.
+        if (!singleThreadModel) {
+            countAllocated.incrementAndGet();
+            Servlet servlet = instance;
+            if (servlet != null && instanceInitialized && !unloading && !singleThreadModel) {
+                return servlet;
+            }
+            countAllocated.decrementAndGet();
+        }
+
+        lockedAllocationCount.incrementAndGet();
+        return allocateLocked();
+    }
+
+    /**
+     * Allocates an instance while holding the monitor of this wrapper. Used for the first load of the servlet and for
+     * <code>SingleThreadModel</code> servlets.
+     */
+    private synchronized Servlet allocateLocked() throws ServletException {
         // If we are currently unloading this servlet, throw an exception
         if (unloading) {
             throw new ServletException(format(rb.getString(CANNOT_ALLOCATE_SERVLET_EXCEPTION), getName()));
@@ -38,6 +38,7 @@ import org.apache.catalina.LogFacade;
 import org.apache.catalina.Request;
 import org.apache.catalina.Response;
 import org.apache.catalina.connector.ClientAbortException;
+import org.apache.catalina.connector.CoyoteAdapter;
 import org.apache.catalina.connector.RequestFacade;
 import org.apache.catalina.valves.ValveBase;
 import org.glassfish.grizzly.http.util.DataChunk;
@@ -261,6 +262,14 @@ final class StandardWrapperValve extends ValveBase {
             }
         }
 
+        // Send the response body the servlet asked to be sent with sendfile,
+        // before the valves and probes that account for the response
+        if (request instanceof org.apache.catalina.connector.Request
+                && response instanceof org.apache.catalina.connector.Response) {
+            CoyoteAdapter.processSendfile((org.apache.catalina.connector.Request) request,
+                (org.apache.catalina.connector.Response) response);
+        }
+
         // If this servlet has been marked permanently unavailable,
         // unload it and release this instance
         try {
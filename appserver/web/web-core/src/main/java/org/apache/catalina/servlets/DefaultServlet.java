@@ -54,9 +54,13 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
 
 import javax.naming.InitialContext;
 import javax.naming.NameClassPair;
@@ -81,6 +85,7 @@ import org.apache.naming.resources.CacheEntry;
 import org.apache.naming.resources.ProxyDirContext;
 import org.apache.naming.resources.Resource;
 import org.apache.naming.resources.ResourceAttributes;
+import org.apache.naming.resources.ResourceCache;
 import org.apache.tomcat.util.security.PrivilegedGetTccl;
 import org.apache.tomcat.util.security.PrivilegedSetTccl;
 import org.glassfish.grizzly.http.server.util.AlternateDocBase;
@@ -256,6 +261,35 @@ public class DefaultServlet
      */
     protected int maxHeaderRangeItems = 10;
 
+    /**
+     * Content codings of precompressed sibling resources to serve, in order
+     * of preference.
+     */
+    protected CompressionFormat[] precompressedFormats = new CompressionFormat[0];
+
+    /**
+     * Should compressible resources without a precompressed sibling be gzip
+     * compressed once, and the result kept in the resource cache?
+     */
+    protected boolean compressOnTheFly = false;
+
+    /**
+     * Minimum size in bytes of resources compressed on the fly.
+     */
+    protected int compressionMinSize = 1024;
+
+    /**
+     * Mime types of resources compressed on the fly.
+     */
+    protected String[] compressibleMimeTypes = {
+        "text/html", "text/xml", "text/plain", "text/css", "text/javascript",
+        "application/javascript", "application/json", "application/xml", "image/svg+xml" };
+
+    /**
+     * Marker for resources which do not get smaller when compressed.
+     */
+    private static final CacheEntry INCOMPRESSIBLE = new CacheEntry();
+
 
     // ----------------------------------------------------- Static Initializer
 
@@ -363,6 +397,17 @@ public class DefaultServlet
             useAcceptRanges = Boolean.parseBoolean(sc.getInitParameter("useAcceptRanges"));
         }
 
+        precompressedFormats = parsePrecompressed(sc.getInitParameter("precompressed"));
+        compressOnTheFly = Boolean.parseBoolean(sc.getInitParameter("compressOnTheFly"));
+
+        if (sc.getInitParameter("compressionMinSize") != null) {
+            compressionMinSize = Integer.parseInt(sc.getInitParameter("compressionMinSize"));
+        }
+
+        if (sc.getInitParameter("compressibleMimeTypes") != null) {
+            compressibleMimeTypes = sc.getInitParameter("compressibleMimeTypes").trim().split("\\s*,\\s*");
+        }
+
         // Sanity check on the specified buffer sizes
         if (input < 256) {
             input = 256;
@@ -814,19 +859,17 @@ public class DefaultServlet
 
         CacheEntry cacheEntry = null;
         ProxyDirContext proxyDirContext = resources;
-        if (alternateDocBases == null
-                || alternateDocBases.size() == 0) {
-            cacheEntry = proxyDirContext.lookupCache(path);
-        } else {
+        ProxyDirContext resourceContext = proxyDirContext;
+        if (alternateDocBases != null
+                && alternateDocBases.size() > 0) {
             AlternateDocBase match = AlternateDocBase.findMatch(
                                             path, alternateDocBases);
             if (match != null) {
-                cacheEntry = ((ProxyDirContext) ContextsAdapterUtility.unwrap(match.getResources())).lookupCache(path);
-            } else {
-                // None of the url patterns for alternate docbases matched
-                cacheEntry = proxyDirContext.lookupCache(path);
+                resourceContext = (ProxyDirContext) ContextsAdapterUtility.unwrap(match.getResources());
             }
+            // Otherwise none of the url patterns for alternate docbases matched
         }
+        cacheEntry = resourceContext.lookupCache(path);
 
         if (!cacheEntry.exists) {
             // Check if we're included so we can return the appropriate
@@ -882,13 +925,30 @@ public class DefaultServlet
             }
         }
 
-        // Check if the conditions specified in the optional If headers are
-        // satisfied.
+        // Find content type.
+        String contentType = cacheEntry.attributes.getMimeType();
+        if (contentType == null && !cacheEntry.attributes.isMimeTypeInitialized()) {
+            contentType = getServletContext().getMimeType(cacheEntry.name);
+            cacheEntry.attributes.setMimeType(contentType);
+        }
+
+        // Select the representation to serve, and check if the conditions
+        // specified in the optional If headers are satisfied.
+        String contentEncoding = null;
         if (cacheEntry.context == null) {
 
-            // Checking If headers
             boolean included =
                 (request.getAttribute(RequestDispatcher.INCLUDE_CONTEXT_PATH) != null);
+            if (!included) {
+                CompressedVariant variant = selectCompressedVariant(
+                    request, response, cacheEntry, contentType, resourceContext);
+                if (variant != null) {
+                    cacheEntry = variant.entry;
+                    contentEncoding = variant.encoding;
+                }
+            }
+
+            // Checking If headers
             if (!included
                 && !checkIfHeaders(request, response, cacheEntry.attributes)) {
                 return;
@@ -896,13 +956,6 @@ public class DefaultServlet
 
         }
 
-        // Find content type.
-        String contentType = cacheEntry.attributes.getMimeType();
-        if (contentType == null && !cacheEntry.attributes.isMimeTypeInitialized()) {
-            contentType = getServletContext().getMimeType(cacheEntry.name);
-            cacheEntry.attributes.setMimeType(contentType);
-        }
-
         ArrayList<Range> ranges = null;
         long contentLength = -1L;
 
@@ -938,6 +991,10 @@ public class DefaultServlet
             response.setHeader("Last-Modified",
                     cacheEntry.attributes.getLastModifiedHttp());
 
+            if (contentEncoding != null) {
+                response.setHeader("Content-Encoding", contentEncoding);
+            }
+
             // Get content length
             contentLength = cacheEntry.attributes.getContentLength();
             // Special case for zero length files, which would cause a
@@ -959,10 +1016,11 @@ public class DefaultServlet
                 ostream = response.getOutputStream();
             } catch (IllegalStateException e) {
                 // If it fails, we try to get a Writer instead if we're
-                // trying to serve a text file
-                if ( (contentType == null)
-                     || (contentType.startsWith("text"))
-                     || (contentType.startsWith("xml")) ) {
+                // trying to serve an uncompressed text file
+                if ( (contentEncoding == null)
+                     && ( (contentType == null)
+                          || (contentType.startsWith("text"))
+                          || (contentType.startsWith("xml")) ) ) {
                     writer = response.getWriter();
                 } else {
                     throw e;
@@ -1928,7 +1986,225 @@ public class DefaultServlet
 
 
     /**
-     * Check if sendfile can be used.
+     * Parse the value of the <code>precompressed</code> init parameter, which
+     * is either a boolean, or a comma separated list of
+     * <code>content-coding=file-extension</code> pairs in order of
+     * preference, e.g. <code>br=.br,gzip=.gz</code>.
+     */
+    protected CompressionFormat[] parsePrecompressed(String precompressed) {
+        if (precompressed == null || "false".equalsIgnoreCase(precompressed.trim())) {
+            return new CompressionFormat[0];
+        }
+        if ("true".equalsIgnoreCase(precompressed.trim())) {
+            return new CompressionFormat[] {
+                new CompressionFormat("br", ".br"), new CompressionFormat("gzip", ".gz") };
+        }
+
+        List<CompressionFormat> formats = new ArrayList<>();
+        for (String format : precompressed.split(",")) {
+            int equals = format.indexOf('=');
+            if (equals <= 0 || equals == format.trim().length() - 1) {
+                throw new IllegalArgumentException("Invalid precompressed format: " + format);
+            }
+            formats.add(new CompressionFormat(format.substring(0, equals).trim(),
+                                              format.substring(equals + 1).trim()));
+        }
+        return formats.toArray(new CompressionFormat[0]);
+    }
+
+
+    /**
+     * Select a compressed representation of the given resource which is
+     * acceptable to the client. Precompressed sibling resources are
+     * preferred; otherwise compressible resources are gzip compressed once
+     * if {@link #compressOnTheFly} is set. The <code>Vary</code> header is
+     * added whenever a compressed representation of the resource exists.
+     *
+     * @return the compressed representation to serve, or <code>null</code>
+     * to serve the resource itself
+     */
+    protected CompressedVariant selectCompressedVariant(HttpServletRequest request,
+                                                        HttpServletResponse response,
+                                                        CacheEntry cacheEntry,
+                                                        String contentType,
+                                                        ProxyDirContext resourceContext) {
+        boolean compressible = compressOnTheFly
+            && (cacheEntry.attributes.getContentLength() >= compressionMinSize)
+            && isCompressible(contentType);
+        boolean varies = compressible;
+        CompressedVariant selected = null;
+        for (CompressionFormat format : precompressedFormats) {
+            CacheEntry sibling = resourceContext.lookupCache(cacheEntry.name + format.extension);
+            if (!sibling.exists || (sibling.context != null)) {
+                continue;
+            }
+            varies = true;
+            if (acceptsEncoding(request, format.encoding)) {
+                selected = new CompressedVariant(format.encoding, sibling);
+                break;
+            }
+        }
+
+        if (!varies) {
+            return null;
+        }
+        response.addHeader("Vary", "Accept-Encoding");
+
+        if ((selected == null) && compressible && acceptsEncoding(request, "gzip")) {
+            CacheEntry compressed = getGzipVariant(cacheEntry, resourceContext.getCache());
+            if (compressed != null) {
+                selected = new CompressedVariant("gzip", compressed);
+            }
+        }
+        return selected;
+    }
+
+
+    /**
+     * Does the Accept-Encoding header of the given request accept the given
+     * content coding?
+     */
+    protected static boolean acceptsEncoding(HttpServletRequest request, String encoding) {
+        Enumeration<String> headers = request.getHeaders("Accept-Encoding");
+        if (headers == null) {
+            return false;
+        }
+
+        boolean wildcard = false;
+        while (headers.hasMoreElements()) {
+            for (String coding : headers.nextElement().split(",")) {
+                int semicolon = coding.indexOf(';');
+                String name = (semicolon < 0 ? coding : coding.substring(0, semicolon)).trim();
+                boolean acceptable = (semicolon < 0) || (getQuality(coding.substring(semicolon + 1)) > 0);
+                if (name.equalsIgnoreCase(encoding)) {
+                    return acceptable;
+                }
+                if ("*".equals(name)) {
+                    wildcard = acceptable;
+                }
+            }
+        }
+        return wildcard;
+    }
+
+
+    private static double getQuality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            int equals = parameter.indexOf('=');
+            if ((equals > 0) && "q".equalsIgnoreCase(parameter.substring(0, equals).trim())) {
+                try {
+                    return Double.parseDouble(parameter.substring(equals + 1).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int semicolon = contentType.indexOf(';');
+        String mimeType = (semicolon < 0 ? contentType : contentType.substring(0, semicolon)).trim();
+        for (String compressibleMimeType : compressibleMimeTypes) {
+            if (compressibleMimeType.equalsIgnoreCase(mimeType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Return the gzip compressed representation of the given resource,
+     * compressing it on first use. The result is kept next to the resource
+     * in its cache entry, whose size grows by the compressed size, so it is
+     * dropped along with it when the resource changes or is evicted. If the
+     * resource cache has no room for it, the resource is compressed for
+     * each response. Only resources whose content is held in memory by the
+     * resource cache are compressed.
+     *
+     * @return the compressed representation, or <code>null</code> if there
+     * is none
+     */
+    private CacheEntry getGzipVariant(CacheEntry cacheEntry, ResourceCache cache) {
+        if ((cacheEntry.resource == null) || !cacheEntry.resource.isContentCached()) {
+            return null;
+        }
+
+        ConcurrentMap<String, CacheEntry> variants = cacheEntry.variants;
+        if (variants == null) {
+            synchronized (cacheEntry) {
+                variants = cacheEntry.variants;
+                if (variants == null) {
+                    variants = new ConcurrentHashMap<>(2);
+                    cacheEntry.variants = variants;
+                }
+            }
+        }
+
+        CacheEntry variant = variants.get("gzip");
+        if (variant == null) {
+            CacheEntry[] uncached = new CacheEntry[1];
+            variant = variants.computeIfAbsent("gzip", encoding -> {
+                CacheEntry compressed = gzip(cacheEntry);
+                if ((compressed != INCOMPRESSIBLE)
+                    && ((cache == null) || !cache.grow(cacheEntry, compressed.size))) {
+                    uncached[0] = compressed;
+                    return null;
+                }
+                return compressed;
+            });
+            if (variant == null) {
+                return uncached[0];
+            }
+        }
+        return (variant == INCOMPRESSIBLE) ? null : variant;
+    }
+
+
+    private static CacheEntry gzip(CacheEntry cacheEntry) {
+        long length = cacheEntry.attributes.getContentLength();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream((int) (length / 4) + BUFFER_SIZE);
+        try (InputStream is = cacheEntry.resource.streamContent();
+             GZIPOutputStream gzip = new GZIPOutputStream(compressed, BUFFER_SIZE)) {
+            is.transferTo(gzip);
+        } catch (IOException e) {
+            return INCOMPRESSIBLE;
+        }
+        if (compressed.size() >= length) {
+            return INCOMPRESSIBLE;
+        }
+
+        ResourceAttributes attributes = new ResourceAttributes();
+        attributes.setContentLength(compressed.size());
+        attributes.setLastModified(cacheEntry.attributes.getLastModified());
+        String eTag = cacheEntry.attributes.getETag();
+        if (eTag != null) {
+            // Representations with different content codings need distinct
+            // entity tags
+            attributes.setETag(eTag.endsWith("\"")
+                ? eTag.substring(0, eTag.length() - 1) + "-gzip\""
+                : eTag + "-gzip");
+        }
+
+        CacheEntry variant = new CacheEntry();
+        variant.name = cacheEntry.name;
+        variant.timestamp = cacheEntry.timestamp;
+        variant.attributes = attributes;
+        variant.resource = new Resource(compressed.toByteArray());
+        variant.size += compressed.size() / 1024;
+        return variant;
+    }
+
+
+    /**
+     * Check if sendfile can be used. If so, the file (range) to send is
+     * recorded as request attributes, and the connector transfers it
+     * with zero-copy sendfile as soon as the servlet returns.
      */
     protected boolean checkSendfile(HttpServletRequest request,
                                   HttpServletResponse response,
@@ -1938,16 +2214,16 @@ public class DefaultServlet
             && (entry.resource != null)
             && ((length > sendfileSize) || (entry.resource.getContent() == null))
             && (entry.attributes.getCanonicalPath() != null)
-            && (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support")))
+            && (Boolean.TRUE.equals(request.getAttribute(Globals.SENDFILE_SUPPORTED_ATTR)))
             && (request.getClass().getName().equals("org.apache.catalina.connector.RequestFacade"))
             && (response.getClass().getName().equals("org.apache.catalina.connector.ResponseFacade"))) {
-            request.setAttribute("org.apache.tomcat.sendfile.filename", entry.attributes.getCanonicalPath());
+            request.setAttribute(Globals.SENDFILE_FILENAME_ATTR, entry.attributes.getCanonicalPath());
             if (range == null) {
-                request.setAttribute("org.apache.tomcat.sendfile.start", Long.valueOf(0L));
-                request.setAttribute("org.apache.tomcat.sendfile.end", Long.valueOf(length));
+                request.setAttribute(Globals.SENDFILE_FILE_START_ATTR, Long.valueOf(0L));
+                request.setAttribute(Globals.SENDFILE_FILE_END_ATTR, Long.valueOf(length));
             } else {
-                request.setAttribute("org.apache.tomcat.sendfile.start", Long.valueOf(range.start));
-                request.setAttribute("org.apache.tomcat.sendfile.end", Long.valueOf(range.end + 1));
+                request.setAttribute(Globals.SENDFILE_FILE_START_ATTR, Long.valueOf(range.start));
+                request.setAttribute(Globals.SENDFILE_FILE_END_ATTR, Long.valueOf(range.end + 1));
             }
             request.setAttribute("org.apache.tomcat.sendfile.token", this);
             return true;
@@ -2604,6 +2880,35 @@ public class DefaultServlet
 
     // ------------------------------------------------------ Inner Classes
 
+    /**
+     * Content coding of precompressed resources, and the file extension
+     * of the precompressed siblings of a resource.
+     */
+    protected static class CompressionFormat {
+
+        public final String encoding;
+        public final String extension;
+
+        public CompressionFormat(String encoding, String extension) {
+            this.encoding = encoding;
+            this.extension = extension;
+        }
+    }
+
+    /**
+     * Compressed representation of a resource.
+     */
+    protected static class CompressedVariant {
+
+        public final String encoding;
+        public final CacheEntry entry;
+
+        public CompressedVariant(String encoding, CacheEntry entry) {
+            this.encoding = encoding;
+            this.entry = entry;
+        }
+    }
+
     protected static class Range {
 
         public long start;
@@ -18,7 +18,7 @@
 package org.apache.catalina.session;
 
 import com.sun.enterprise.util.uuid.UuidGenerator;
-import com.sun.enterprise.util.uuid.UuidGeneratorImpl;
+import com.sun.enterprise.util.uuid.UuidGeneratorStripedImpl;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
@@ -150,9 +150,10 @@ public abstract class ManagerBase implements Manager {
     /**
      * The Uuid Generator to be used
      * when generating universally unique session identifiers.
+     * It is called concurrently, without holding any lock of this manager.
      * HERCULES: add
      */
-    protected UuidGenerator uuidGenerator = new UuidGeneratorImpl();
+    protected volatile UuidGenerator uuidGenerator = new UuidGeneratorStripedImpl();
 
 
     /**
@@ -930,7 +931,7 @@ public abstract class ManagerBase implements Manager {
      * Generate and return a new session identifier.
      * Hercules:added
      */
-    protected synchronized String generateSessionId(Object obj) {
+    protected String generateSessionId(Object obj) {
         return uuidGenerator.generateUuid(obj);
     }
 
@@ -938,7 +939,7 @@ public abstract class ManagerBase implements Manager {
      * Generate and return a new session identifier.
      * Hercules:modified
      */
-    protected synchronized String generateSessionId() {
+    protected String generateSessionId() {
         return generateSessionId(new Object());
     }
 
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.apache.catalina.connector;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.Globals;
+import org.apache.catalina.Host;
+import org.glassfish.grizzly.Connection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.same;
+import static org.easymock.EasyMock.verify;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CoyoteAdapterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void sendfileTransfersTheRecordedRegionAndReportsIt() throws Exception {
+        File file = writeFile(createContent(1000));
+        HttpServletRequest servletRequest = createMock(HttpServletRequest.class);
+        Host host = createMock(Host.class);
+        Context context = createMock(Context.class);
+        Connector connector = createMock(Connector.class);
+        connector.sendfileEvent(servletRequest, host, context, 900L);
+        Request request = createMock(Request.class);
+        expect(request.getAttribute(Globals.SENDFILE_FILENAME_ATTR)).andReturn(file.getPath());
+        expect(request.isAsyncStarted()).andReturn(false);
+        request.removeAttribute(Globals.SENDFILE_FILENAME_ATTR);
+        expect(request.getAttribute(Globals.SENDFILE_FILE_START_ATTR)).andReturn(100L);
+        expect(request.getAttribute(Globals.SENDFILE_FILE_END_ATTR)).andReturn(1000L);
+        expect(request.getConnector()).andReturn(connector).anyTimes();
+        expect(request.getRequest()).andReturn(servletRequest);
+        expect(request.getHost()).andReturn(host);
+        expect(request.getContext()).andReturn(context);
+        Response response = createMock(Response.class);
+        expect(response.isError()).andReturn(false);
+        expect(response.isSuspended()).andReturn(false);
+        response.sendfile(file, 100L, 900L);
+        replay(servletRequest, host, context, connector, request, response);
+
+        CoyoteAdapter.processSendfile(request, response);
+
+        verify(connector, request, response);
+    }
+
+    @Test
+    public void sendfileWaitsForTheEndOfAsyncProcessing() throws Exception {
+        File file = writeFile(createContent(1000));
+        Request request = createMock(Request.class);
+        expect(request.getAttribute(Globals.SENDFILE_FILENAME_ATTR)).andReturn(file.getPath());
+        expect(request.isAsyncStarted()).andReturn(true);
+        Response response = createMock(Response.class);
+        replay(request, response);
+
+        CoyoteAdapter.processSendfile(request, response);
+
+        verify(request, response);
+    }
+
+    @Test
+    public void copyFileRegionCopiesTheWholeRegion() throws Exception {
+        byte[] content = createContent(3 * OutputBuffer.DEFAULT_BUFFER_SIZE + 100);
+        File file = writeFile(content);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        CoyoteAdapter.copyFileRegion(file, 0, content.length, out);
+
+        assertArrayEquals(content, out.toByteArray());
+    }
+
+    @Test
+    public void copyFileRegionCopiesOnlyTheRequestedRange() throws Exception {
+        byte[] content = createContent(2 * OutputBuffer.DEFAULT_BUFFER_SIZE);
+        File file = writeFile(content);
+        int offset = 1000;
+        int length = OutputBuffer.DEFAULT_BUFFER_SIZE + 10;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        CoyoteAdapter.copyFileRegion(file, offset, length, out);
+
+        assertArrayEquals(Arrays.copyOfRange(content, offset, offset + length), out.toByteArray());
+    }
+
+    @Test
+    public void copyFileRegionFailsWhenTheFileIsShorterThanTheRegion() throws Exception {
+        byte[] content = createContent(100);
+        File file = writeFile(content);
+
+        assertThrows(EOFException.class,
+            () -> CoyoteAdapter.copyFileRegion(file, 50, 100, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void failedCopyAbortsTheConnection() throws Exception {
+        File file = writeFile(createContent(100));
+        IOException failure = new IOException("Broken pipe");
+        ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw failure;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        Connection<?> connection = createMock(Connection.class);
+        connection.closeWithReason(same(failure));
+        expectLastCall();
+        org.glassfish.grizzly.http.server.Request grizzlyRequest =
+            createMock(org.glassfish.grizzly.http.server.Request.class);
+        expect(grizzlyRequest.getConnection()).andReturn((Connection) connection);
+        org.glassfish.grizzly.http.server.Response grizzlyResponse =
+            createMock(org.glassfish.grizzly.http.server.Response.class);
+        expect(grizzlyResponse.getRequest()).andReturn(grizzlyRequest);
+        Response response = createMock(Response.class);
+        expect(response.getOutputStream()).andReturn(out);
+        response.setError();
+        response.setSuspended(true);
+        expect(response.getCoyoteResponse()).andReturn(grizzlyResponse);
+        replay(connection, grizzlyRequest, grizzlyResponse, response);
+
+        CoyoteAdapter.copyFileRegion(file, 0, 100, response);
+
+        verify(connection, grizzlyRequest, grizzlyResponse, response);
+    }
+
+    private File writeFile(byte[] content) throws IOException {
+        return Files.write(directory.resolve("region.bin"), content).toFile();
+    }
+
+    private static byte[] createContent(int length) {
+        byte[] content = new byte[length];
+        new Random(length).nextBytes(content);
+        return content;
+    }
+}
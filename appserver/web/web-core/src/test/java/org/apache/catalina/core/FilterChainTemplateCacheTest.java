@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.apache.catalina.core;
+
+import java.util.EnumSet;
+
+import org.apache.catalina.deploy.FilterDef;
+import org.apache.catalina.deploy.FilterMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static jakarta.servlet.DispatcherType.FORWARD;
+import static jakarta.servlet.DispatcherType.REQUEST;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class FilterChainTemplateCacheTest {
+
+    private final ApplicationFilterConfig[] template = new ApplicationFilterConfig[0];
+
+    private StandardContext context;
+    private FilterChainTemplateCache cache;
+
+    @BeforeEach
+    public void createContext() {
+        context = new StandardContext();
+        context.setName("test");
+        FilterDef filterDef = new FilterDef();
+        filterDef.setFilterName("filter");
+        context.addFilterDef(filterDef);
+        cache = context.getFilterChainTemplateCache();
+    }
+
+    @Test
+    public void pathsUnderAPathPatternShareATemplate() {
+        map("/orders/*");
+        put("/orders/1");
+
+        assertSame(template, get("/orders/2"));
+        assertSame(template, get("/orders/2/items"));
+        assertSame(template, get("/orders"));
+        assertNull(get("/ordersX"));
+        assertNull(get("/invoices/1"));
+    }
+
+    @Test
+    public void longestPathPatternSelectsTheTemplate() {
+        map("/a/*");
+        map("/a/b/*");
+        put("/a/b/1");
+
+        assertSame(template, get("/a/b/2"));
+        assertNull(get("/a/1"));
+    }
+
+    @Test
+    public void exactPatternHasItsOwnTemplate() {
+        map("/login");
+        map("/*");
+        put("/login");
+
+        assertSame(template, get("/login"));
+        assertNull(get("/logout"));
+        put("/logout");
+        assertSame(template, get("/about"));
+    }
+
+    @Test
+    public void extensionPatternSelectsTheTemplate() {
+        map("*.jsp");
+        put("/a/index.jsp");
+
+        assertSame(template, get("/b/c/other.jsp"));
+        assertNull(get("/a/index.html"));
+        assertNull(get("/a/index."));
+    }
+
+    @Test
+    public void caseInsensitiveMappingIgnoresTheCaseOfPaths() {
+        context.setCaseSensitiveMapping(false);
+        map("/Orders/*");
+        put("/orders/1");
+
+        assertSame(template, get("/ORDERS/2"));
+    }
+
+    @Test
+    public void changingTheCaseSensitivityDropsTheTemplates() {
+        map("/orders/*");
+        put("/orders/1");
+
+        context.setCaseSensitiveMapping(false);
+
+        assertNull(get("/orders/1"));
+    }
+
+    @Test
+    public void missingPathIsNotMatchedByPathPatterns() {
+        map("/*");
+        put("/any");
+
+        assertNull(cache.get("servlet", REQUEST, null));
+        assertSame(template, get("/other"));
+    }
+
+    @Test
+    public void servletNameAndDispatcherTypeAreKeysToo() {
+        map("/*");
+        put("/any");
+
+        assertNull(cache.get("other", REQUEST, "/any"));
+        assertNull(cache.get("servlet", FORWARD, "/any"));
+    }
+
+    @Test
+    public void pathParametersDoNotGrowTheCache() {
+        map("/orders/*");
+        map("*.json");
+        for (int i = 0; i < 10_000; i++) {
+            put("/orders/" + i);
+            put("/orders/" + i + "/summary.json");
+            put("/products/" + i);
+        }
+
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void newMappingDropsTheTemplates() {
+        map("/orders/*");
+        put("/orders/1");
+
+        map("/orders/1/*");
+
+        assertNull(get("/orders/1"));
+        put("/orders/1");
+        assertNull(get("/orders/2"));
+    }
+
+    private void map(String urlPattern) {
+        FilterMap filterMap = new FilterMap();
+        filterMap.setFilterName("filter");
+        filterMap.setURLPattern(urlPattern);
+        filterMap.setDispatcherTypes(EnumSet.of(REQUEST));
+        context.addFilterMap(filterMap);
+    }
+
+    private void put(String requestPath) {
+        cache.put(cache.currentGeneration(), "servlet", REQUEST, requestPath, template);
+    }
+
+    private ApplicationFilterConfig[] get(String requestPath) {
+        return cache.get("servlet", REQUEST, requestPath);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.apache.catalina.core;
+
+import jakarta.servlet.GenericServlet;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class StandardWrapperTest {
+
+    @Test
+    public void testAllocateInitializedServletWithoutLock() throws Exception {
+        StandardWrapper wrapper = new StandardWrapper();
+        wrapper.setName("test");
+        Servlet servlet = new TestServlet();
+        wrapper.setServlet(servlet);
+
+        // The first allocation initializes the servlet under the wrapper monitor
+        assertSame(servlet, wrapper.allocate());
+        wrapper.deallocate(servlet);
+        assertEquals(1, wrapper.getLockedAllocationCount());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Servlet>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                Callable<Servlet> allocation = () -> {
+                    Servlet allocated = wrapper.allocate();
+                    wrapper.deallocate(allocated);
+                    return allocated;
+                };
+                futures.add(executor.submit(allocation));
+            }
+            for (Future<Servlet> future : futures) {
+                assertSame(servlet, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, wrapper.getCountAllocated());
+        assertEquals(1, wrapper.getLockedAllocationCount());
+    }
+
+    private static class TestServlet extends GenericServlet {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void service(ServletRequest req, ServletResponse res) {
+        }
+    }
+}
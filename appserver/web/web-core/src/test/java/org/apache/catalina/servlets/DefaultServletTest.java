@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+package org.apache.catalina.servlets;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Hashtable;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.naming.resources.CacheEntry;
+import org.apache.naming.resources.FileDirContext;
+import org.apache.naming.resources.ProxyDirContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DefaultServletTest {
+
+    private static final byte[] STYLE = "body { margin: 0; padding: 0; }\n".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path docBase;
+
+    private ProxyDirContext resources;
+    private DefaultServlet servlet;
+
+    @BeforeEach
+    public void createResources() throws Exception {
+        Files.write(docBase.resolve("style.css"), STYLE);
+        FileDirContext dirContext = new FileDirContext();
+        dirContext.setDocBase(docBase.toString());
+        dirContext.setCached(true);
+        dirContext.setCacheMaxSize(10240);
+        resources = new ProxyDirContext(new Hashtable<>(), dirContext);
+        servlet = new DefaultServlet();
+    }
+
+    @Test
+    public void compressesOnTheFly() throws Exception {
+        servlet.compressOnTheFly = true;
+        CacheEntry cacheEntry = resources.lookupCache("/style.css");
+        int cacheSize = resources.getCache().getCacheSize();
+
+        DefaultServlet.CompressedVariant variant = selectCompressedVariant(cacheEntry, "gzip, deflate", true);
+
+        assertEquals("gzip", variant.encoding);
+        assertArrayEquals(STYLE, gunzip(variant.entry.resource.streamContent()));
+        assertEquals(variant.entry.resource.getContent().length, variant.entry.attributes.getContentLength());
+        assertEquals(cacheSize + variant.entry.size, resources.getCache().getCacheSize());
+        // Compressed once
+        assertSame(variant.entry, selectCompressedVariant(cacheEntry, "gzip", true).entry);
+    }
+
+    @Test
+    public void compressedRepresentationHasItsOwnEntityTag() {
+        servlet.compressOnTheFly = true;
+        CacheEntry cacheEntry = resources.lookupCache("/style.css");
+        String eTag = cacheEntry.attributes.getETag();
+
+        DefaultServlet.CompressedVariant variant = selectCompressedVariant(cacheEntry, "gzip", true);
+
+        assertEquals(eTag.substring(0, eTag.length() - 1) + "-gzip\"", variant.entry.attributes.getETag());
+    }
+
+    @Test
+    public void precompressedSiblingIsPreferred() throws Exception {
+        Files.write(docBase.resolve("style.css.br"), new byte[] {1, 2, 3});
+        Files.write(docBase.resolve("style.css.gz"), new byte[] {4, 5, 6});
+        servlet.compressOnTheFly = true;
+        servlet.precompressedFormats = servlet.parsePrecompressed("true");
+        CacheEntry cacheEntry = resources.lookupCache("/style.css");
+
+        DefaultServlet.CompressedVariant variant = selectCompressedVariant(cacheEntry, "gzip, br", true);
+        assertEquals("br", variant.encoding);
+        assertEquals("/style.css.br", variant.entry.name);
+
+        variant = selectCompressedVariant(cacheEntry, "gzip", true);
+        assertEquals("gzip", variant.encoding);
+        assertEquals("/style.css.gz", variant.entry.name);
+    }
+
+    @Test
+    public void unacceptedRepresentationStillVaries() {
+        servlet.compressOnTheFly = true;
+        CacheEntry cacheEntry = resources.lookupCache("/style.css");
+
+        assertNull(selectCompressedVariant(cacheEntry, "identity", true));
+    }
+
+    @Test
+    public void resourceWithoutCompressedRepresentationDoesNotVary() {
+        servlet.compressOnTheFly = true;
+        servlet.compressionMinSize = STYLE.length + 1;
+        CacheEntry cacheEntry = resources.lookupCache("/style.css");
+
+        assertNull(selectCompressedVariant(cacheEntry, "gzip", false));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "gzip, deflate, br | gzip | true",
+        "gzip, deflate, br | br   | true",
+        "deflate           | gzip | false",
+        "gzip;q=0, br      | gzip | false",
+        "GZIP;q=0.5        | gzip | true",
+        "*                 | br   | true",
+        "*, br;q=0         | br   | false",
+        "*;q=0, gzip       | gzip | true",
+        "identity          | gzip | false" })
+    public void acceptsEncoding(String acceptEncoding, String encoding, boolean expected) {
+        HttpServletRequest request = createNiceMock(HttpServletRequest.class);
+        expect(request.getHeaders("Accept-Encoding"))
+            .andReturn(Collections.enumeration(Collections.singletonList(acceptEncoding)));
+        replay(request);
+
+        assertEquals(expected, DefaultServlet.acceptsEncoding(request, encoding));
+    }
+
+    @Test
+    public void parsePrecompressed() {
+        DefaultServlet servlet = new DefaultServlet();
+
+        assertEquals(0, servlet.parsePrecompressed(null).length);
+        assertEquals(0, servlet.parsePrecompressed("false").length);
+
+        DefaultServlet.CompressionFormat[] formats = servlet.parsePrecompressed("true");
+        assertArrayEquals(new String[] {"br", "gzip"},
+            new String[] {formats[0].encoding, formats[1].encoding});
+
+        formats = servlet.parsePrecompressed("gzip=.gz, zstd=.zst");
+        assertEquals(2, formats.length);
+        assertEquals("zstd", formats[1].encoding);
+        assertEquals(".zst", formats[1].extension);
+
+        assertThrows(IllegalArgumentException.class, () -> servlet.parsePrecompressed("gzip"));
+    }
+
+    /**
+     * Selects the representation of the given text/css resource for a request accepting the given content codings,
+     * checking whether the response gets a <code>Vary: Accept-Encoding</code> header.
+     */
+    private DefaultServlet.CompressedVariant selectCompressedVariant(CacheEntry cacheEntry, String acceptEncoding,
+            boolean varies) {
+        HttpServletRequest request = createNiceMock(HttpServletRequest.class);
+        expect(request.getHeaders("Accept-Encoding"))
+            .andAnswer(() -> Collections.enumeration(Collections.singletonList(acceptEncoding))).anyTimes();
+        HttpServletResponse response = createMock(HttpServletResponse.class);
+        if (varies) {
+            response.addHeader("Vary", "Accept-Encoding");
+        }
+        replay(request, response);
+
+        DefaultServlet.CompressedVariant variant =
+            servlet.selectCompressedVariant(request, response, cacheEntry, "text/css", resources);
+
+        verify(response);
+        return variant;
+    }
+
+    private static byte[] gunzip(InputStream compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(compressed)) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.sun.appserv.web.cache;
 
 import com.sun.appserv.util.cache.Cache;
+import com.sun.appserv.web.cache.filter.HttpCacheEntry;
 import com.sun.appserv.web.cache.mapping.CacheMapping;
 
 import jakarta.servlet.ServletContext;
@@ -45,9 +46,31 @@ public class CacheManager {
 
     public static final int DEFAULT_CACHE_TIMEOUT = 30;
 
+    public static final int DEFAULT_COALESCING_WAIT = 10;
+
     public static final String DEFAULT_CACHE_CLASSNAME =
         "com.sun.appserv.util.cache.LruCache";
 
+    /**
+     * property for the number of seconds an expired entry may still be
+     * served while another request refreshes it
+     */
+    public static final String STALE_WHILE_REVALIDATE_PROPERTY =
+        "staleWhileRevalidate";
+
+    /**
+     * property for the maximum number of seconds a request waits for another
+     * request generating the same entry, before generating its own response
+     */
+    public static final String COALESCING_WAIT_PROPERTY =
+        "coalescingWait";
+
+    /**
+     * property for the maximum number of off-heap body chunks kept for reuse
+     */
+    public static final String MAX_POOLED_BODY_CHUNKS_PROPERTY =
+        "maxPooledBodyChunks";
+
     private static final Logger _logger = LogFacade.getLogger();
 
     /**
@@ -59,6 +82,9 @@ public class CacheManager {
     int maxEntries = DEFAULT_CACHE_MAX_ENTRIES;
     int defaultTimeout = DEFAULT_CACHE_TIMEOUT;
     String cacheClassName = DEFAULT_CACHE_CLASSNAME;
+    int staleWhileRevalidate;
+    int coalescingWait = DEFAULT_COALESCING_WAIT;
+    int maxPooledBodyChunks = OffHeapChunkPool.DEFAULT_MAX_POOLED_CHUNKS;
 
     boolean enabled = false;
 
@@ -69,6 +95,9 @@ public class CacheManager {
     Properties cacheProps;
     Cache defaultCache;
 
+    // off-heap storage of the cached response bodies
+    OffHeapChunkPool bodyChunkPool;
+
     // cache mappings indexed by the filter name
     HashMap<String, CacheMapping> cacheMappings =
         new HashMap<String, CacheMapping>();
@@ -133,6 +162,12 @@ public class CacheManager {
     public void addProperty(String name, String value) {
         if (name.equalsIgnoreCase("cacheClassName")) {
            cacheClassName = value;
+        } else if (name.equalsIgnoreCase(STALE_WHILE_REVALIDATE_PROPERTY)) {
+            staleWhileRevalidate = parseNonNegative(name, value);
+        } else if (name.equalsIgnoreCase(COALESCING_WAIT_PROPERTY)) {
+            coalescingWait = parseNonNegative(name, value);
+        } else if (name.equalsIgnoreCase(MAX_POOLED_BODY_CHUNKS_PROPERTY)) {
+            maxPooledBodyChunks = parseNonNegative(name, value);
         } else {
             if (cacheProps == null) {
                 cacheProps = new Properties();
@@ -141,6 +176,18 @@ public class CacheManager {
         }
     }
 
+    private static int parseNonNegative(String name, String value) {
+        try {
+            int number = Integer.parseInt(value.trim());
+            if (number >= 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("invalid " + name + ": " + value);
+    }
+
     /**
      * add a CacheHelper definition
      * @param name CacheHelper name
@@ -201,6 +248,16 @@ public class CacheManager {
             throw new LifecycleException(_rb.getString(LogFacade.CACHE_MANAGER_EXCEPTION_CREATING_CACHE), e);
         }
 
+        bodyChunkPool = new OffHeapChunkPool(
+            OffHeapChunkPool.DEFAULT_CHUNK_SIZE, maxPooledBodyChunks);
+
+        // entries trimmed from the cache give their reference up
+        defaultCache.addCacheListener((key, value) -> {
+            if (value instanceof HttpCacheEntry) {
+                ((HttpCacheEntry) value).release();
+            }
+        });
+
         // initialize the "default" helper
         defaultHelper = new DefaultCacheHelper();
         defaultHelper.setCacheManager(this);
@@ -287,6 +344,32 @@ public class CacheManager {
         return defaultTimeout;
     }
 
+    /**
+     * get the number of seconds an expired entry may still be served to
+     * other requests while one request refreshes it
+     * @return stale-while-revalidate window in seconds
+     */
+    public int getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    /**
+     * get the number of seconds a request waits for another request
+     * generating the same entry, before generating its own response
+     * @return coalescing wait in seconds
+     */
+    public int getCoalescingWait() {
+        return coalescingWait;
+    }
+
+    /**
+     * get the pool of the off-heap chunks holding the cached response bodies
+     * @return chunk pool, null if this manager is not started
+     */
+    public OffHeapChunkPool getBodyChunkPool() {
+        return bodyChunkPool;
+    }
+
     /**
      * get the default application-wide cache
      * @return cache object
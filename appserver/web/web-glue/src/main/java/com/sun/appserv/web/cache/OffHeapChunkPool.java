@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.appserv.web.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of direct byte buffers of a fixed size, used to keep cached
+ * response bodies out of the java heap.
+ * <p>
+ * Released chunks are kept for reuse up to the configured maximum; chunks
+ * released beyond that are left to the garbage collector, which frees
+ * their native memory.
+ */
+public class OffHeapChunkPool {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    public static final int DEFAULT_MAX_POOLED_CHUNKS = 1024;
+
+    private final int chunkSize;
+    private final int maxPooledChunks;
+    private final Queue<ByteBuffer> chunks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledChunks = new AtomicInteger();
+
+    /**
+     * @param chunkSize capacity of each chunk in bytes
+     * @param maxPooledChunks maximum number of released chunks kept for reuse
+     */
+    public OffHeapChunkPool(int chunkSize, int maxPooledChunks) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.maxPooledChunks = maxPooledChunks;
+    }
+
+    /**
+     * @return capacity of each chunk in bytes
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return number of released chunks currently kept for reuse
+     */
+    public int getPooledChunkCount() {
+        return pooledChunks.get();
+    }
+
+    /**
+     * @return an empty chunk, ready to be filled
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer chunk = chunks.poll();
+        if (chunk == null) {
+            return ByteBuffer.allocateDirect(chunkSize);
+        }
+        pooledChunks.decrementAndGet();
+        chunk.clear();
+        return chunk;
+    }
+
+    /**
+     * Returns a chunk to the pool. The chunk must not be used by the caller
+     * anymore.
+     *
+     * @param chunk chunk acquired from this pool
+     */
+    public void release(ByteBuffer chunk) {
+        if (chunk.capacity() != chunkSize) {
+            return;
+        }
+        if (pooledChunks.incrementAndGet() > maxPooledChunks) {
+            pooledChunks.decrementAndGet();
+            return;
+        }
+        chunks.offer(chunk);
+    }
+}
@@ -22,6 +22,7 @@ import com.sun.appserv.web.cache.CacheHelper;
 import com.sun.appserv.web.cache.CacheManager;
 import com.sun.appserv.web.cache.CacheManagerListener;
 import com.sun.appserv.web.cache.DefaultCacheHelper;
+import com.sun.appserv.web.cache.OffHeapChunkPool;
 
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
@@ -35,12 +36,19 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.apache.catalina.connector.CoyoteOutputStream;
 import org.glassfish.web.LogFacade;
 
 public class CachingFilter implements Filter, CacheManagerListener {
@@ -57,6 +65,18 @@ public class CachingFilter implements Filter, CacheManagerListener {
     CacheManager manager;
     CacheHelper helper;
     Cache cache;
+    OffHeapChunkPool chunkPool;
+
+    // time in milli seconds an expired entry may be served during a refresh
+    long staleWindow;
+
+    // time in milli seconds a request waits for another one generating the
+    // same entry
+    long coalescingWait = CacheManager.DEFAULT_COALESCING_WAIT * 1000L;
+
+    // entries being generated, completed with the entry or null, by key
+    private final ConcurrentHashMap<String, CompletableFuture<HttpCacheEntry>> pendingEntries =
+        new ConcurrentHashMap<String, CompletableFuture<HttpCacheEntry>>();
 
     boolean isEnabled = false;
 
@@ -83,6 +103,9 @@ public class CachingFilter implements Filter, CacheManagerListener {
         if (manager != null && manager.isEnabled()) {
             this.cache = manager.getDefaultCache();
             this.helper = manager.getCacheHelperByFilterName(filterName);
+            this.chunkPool = manager.getBodyChunkPool();
+            this.staleWindow = manager.getStaleWhileRevalidate() * 1000L;
+            this.coalescingWait = manager.getCoalescingWait() * 1000L;
 
             // add filter as a listener so caching can be disabled at runtime.
             manager.addCacheManagerListener(this);
@@ -112,6 +135,10 @@ public class CachingFilter implements Filter, CacheManagerListener {
      * - Check if we have a response entry in the cache already.
      * - If there is entry and is valid, write out the response from that
      *   entry.
+     * - If another request is generating the entry, write out the expired
+     *   entry if it is within the stale window, or else wait for the new
+     *   entry and write it out. If the new entry is not generated within the
+     *   coalescing wait, call the downstream filter.
      * - create a CachingResponse and CachingOutputStream wrappers and call
      *   the downstream filter
      */
@@ -147,36 +174,54 @@ public class CachingFilter implements Filter, CacheManagerListener {
             }
 
             HttpCacheEntry entry = null;
-            boolean entryReady = false, waitForRefresh = true;
+            CompletableFuture<HttpCacheEntry> pending = null;
 
             // if refresh is not needed then check the cache first
             if (!helper.isRefreshNeeded(request)) {
-                do {
+                // a forwarded or included request must not wait for itself (IT 17377)
+                boolean mayWait = isFirstVisit(request, key);
+                while (true) {
                     // lookup cache
-                    entry = (HttpCacheEntry) cache.get(key);
+                    HttpCacheEntry cached = (HttpCacheEntry) cache.get(key);
 
-                    if (entry != null && entry.isValid()) {
+                    if (cached != null && cached.isValid() && cached.retain()) {
                         // see if there is cached entry and is valid
-                        entryReady = true;
+                        entry = cached;
+                        break;
+                    }
+                    if (!mayWait) {
                         break;
                     }
-                    else {
-                        /**
-                         *  a cache entry needs to be generated or refreshed.
-                         *  if there are more than one thread tries to fill/refresh
-                         *  same cache entry, then all but the first thread will block.
-                         */
-                        waitForRefresh = waitForRefresh(request, key, index);
 
-                        // Recheck because other threads may already put entry to cache
-                        if (!waitForRefresh) {
-                            entry = (HttpCacheEntry) cache.get(key);
-                            if (entry != null && entry.isValid()) {
-                                entryReady = true;
-                            }
-                        }
+                    /**
+                     *  a cache entry needs to be generated or refreshed.
+                     *  if more than one thread tries to fill/refresh the same
+                     *  cache entry, only the first one generates it; the others
+                     *  are served the stale entry, or share the new one.
+                     */
+                    CompletableFuture<HttpCacheEntry> generating = new CompletableFuture<HttpCacheEntry>();
+                    CompletableFuture<HttpCacheEntry> other = pendingEntries.putIfAbsent(key, generating);
+                    if (other == null) {
+                        pending = generating;
+                        break;
+                    }
+                    if (cached != null && cached.isServableStale(staleWindow) && cached.retain()) {
+                        entry = cached;
+                        break;
+                    }
+
+                    HttpCacheEntry generated = awaitEntry(other);
+                    if (generated == null) {
+                        // not cacheable, or not generated in time;
+                        // generate our own response
+                        break;
+                    }
+                    if (generated.retain()) {
+                        entry = generated;
+                        break;
                     }
-                } while (waitForRefresh);
+                    // already replaced or trimmed, look it up again
+                }
             } else {
                 if (isFine) {
                     _logger.log(Level.FINE, LogFacade.CACHING_FILTER_NEEDS_REFRESH, new Object[]{request.getServletPath(), key});
@@ -184,20 +229,24 @@ public class CachingFilter implements Filter, CacheManagerListener {
             }
 
             // do we have a valid response?
-            if (entryReady) {
+            if (entry != null) {
                 if (isFine) {
                     _logger.log(Level.FINE, LogFacade.CACHING_FILTER_SERVING_RESPONSE, new Object[]{request.getServletPath(), key});
                 }
-                sendCachedResponse(entry, response);
+                try {
+                    sendCachedResponse(entry, response);
+                } finally {
+                    entry.release();
+                }
             } else {
                 // call the target servlet
 
                 CachingResponseWrapper wrapper = null;
-                boolean needNotify = true;
+                HttpCacheEntry generated = null;
 
                 try {
                     // setup the response wrapper (and the output stream)
-                    wrapper = new CachingResponseWrapper(response);
+                    wrapper = new CachingResponseWrapper(response, chunkPool);
 
                     // call the target resource
                     chain.doFilter(srequest, (ServletResponse)wrapper);
@@ -210,7 +259,7 @@ public class CachingFilter implements Filter, CacheManagerListener {
                         int timeout = helper.getTimeout(request);
 
                         // previous entry gets replaced
-                        entry = wrapper.cacheResponse();
+                        generated = wrapper.cacheResponse();
 
                         if (timeout == CacheHelper.TIMEOUT_VALUE_NOT_SET) {
                             // extracts this from the Expires: date header
@@ -218,35 +267,39 @@ public class CachingFilter implements Filter, CacheManagerListener {
 
                             if (lval == null) {
                                 timeout = manager.getDefaultTimeout();
-                                entry.computeExpireTime(timeout);
+                                generated.computeExpireTime(timeout);
                             } else {
                                 long expireTime = lval.longValue();
 
                                 // set the time this entry would expires
-                                entry.setExpireTime(expireTime);
+                                generated.setExpireTime(expireTime);
                             }
                         } else {
-                            entry.computeExpireTime(timeout);
+                            generated.computeExpireTime(timeout);
                         }
 
-                        cache.put(key, entry, entry.getSize());
-
-                        cache.notifyRefresh(index);
-                        needNotify = false;
+                        // keep a reference for this request besides the cache's
+                        generated.retain();
+                        release(cache.put(key, generated, generated.getSize()));
 
                         // transmit the response body content
-                        writeBody(entry, response);
+                        writeBody(generated, response);
                     } else {
                         /** either there was an error or response from this
                          *  resource is not cacheable anymore; so, remove the
                          *  old entry from the cache.
                          */
-                        cache.remove(key);
+                        release(cache.remove(key));
                     }
                 } finally {
                     // IT 12891
-                    if (needNotify) {
-                        cache.notifyRefresh(index);
+                    if (pending != null) {
+                        pendingEntries.remove(key, pending);
+                        pending.complete(generated);
+                    }
+
+                    if (generated != null) {
+                        generated.release();
                     }
 
                     // clear the wrapper (XXX: cache these??)
@@ -257,13 +310,9 @@ public class CachingFilter implements Filter, CacheManagerListener {
 
             }
 
-            /** clear the old entry?
-             *  may lead to NPEs with one thread that just replaced an entry
-             *  which might have just obtained before the new entry is put
-             *  in cache. Must implement some sort of ref count or leave it
-             *  to garbage collector
-             *  if (oldEntry != null)
-             *      oldEntry.clear();
+            /** the old entry is not cleared: requests which obtained it
+             *  before it was replaced may still send it. Its body returns to
+             *  the pool once they released it.
              */
         } else {
             if (isFine) {
@@ -345,14 +394,57 @@ public class CachingFilter implements Filter, CacheManagerListener {
                            HttpServletResponse response)
                            throws IOException {
         ServletOutputStream out = response.getOutputStream();
-        out.write(entry.bytes);
+        byte[] buffer = null;
+        for (ByteBuffer chunk : entry.chunks) {
+            // the chunks are shared with other requests
+            ByteBuffer view = chunk.duplicate();
+            if (out instanceof CoyoteOutputStream) {
+                ((CoyoteOutputStream) out).write(view);
+                continue;
+            }
+
+            if (buffer == null) {
+                buffer = new byte[Math.min(entry.bodyLength, OffHeapChunkPool.DEFAULT_CHUNK_SIZE)];
+            }
+            while (view.hasRemaining()) {
+                int count = Math.min(view.remaining(), buffer.length);
+                view.get(buffer, 0, count);
+                out.write(buffer, 0, count);
+            }
+        }
+    }
+
+    /**
+     * release the reference the cache held to the given entry
+     */
+    private static void release(Object entry) {
+        if (entry instanceof HttpCacheEntry) {
+            ((HttpCacheEntry) entry).release();
+        }
+    }
+
+    /**
+     * wait until another request generated an entry, at most for the
+     * coalescing wait
+     * @return the entry, or null if the response was not cacheable or was
+     * not generated in time
+     */
+    private HttpCacheEntry awaitEntry(CompletableFuture<HttpCacheEntry> pending) {
+        try {
+            return pending.get(coalescingWait, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
     }
 
     /**
-     * Call cache.waitRefresh only when the cache processing is not started.
-     * See IT 17377.
+     * Wait for another request generating the entry only when the cache
+     * processing of this request is not started. See IT 17377.
      */
-    private boolean waitForRefresh(HttpServletRequest req, String key, int index) {
+    private boolean isFirstVisit(HttpServletRequest req, String key) {
         Object obj = req.getAttribute(PROCESSING_SET);
         HashSet<String> processingSet = null;
         if (obj == null) {
@@ -366,11 +458,7 @@ public class CachingFilter implements Filter, CacheManagerListener {
             throw new IllegalStateException();
         }
 
-        if (processingSet.add(key)) {
-            return cache.waitRefresh(index);
-        } else {
-            return false;
-        }
+        return processingSet.add(key);
     }
 
     /**
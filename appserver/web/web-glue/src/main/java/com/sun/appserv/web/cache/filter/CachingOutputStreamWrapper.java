@@ -16,21 +16,37 @@
 
 package com.sun.appserv.web.cache.filter;
 
+import com.sun.appserv.web.cache.OffHeapChunkPool;
+
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.WriteListener;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 
 /**
- * an output stream wrapper to cache response bytes
+ * an output stream wrapper to cache response bytes in off-heap chunks
  */
 public class CachingOutputStreamWrapper extends ServletOutputStream {
 
-    ByteArrayOutputStream baos;
+    private static final OffHeapChunkPool UNPOOLED =
+        new OffHeapChunkPool(OffHeapChunkPool.DEFAULT_CHUNK_SIZE, 0);
+
+    private final OffHeapChunkPool chunkPool;
+    private final ArrayList<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+    private ByteBuffer current;
+    private int length;
 
     public CachingOutputStreamWrapper() {
-        this.baos = new ByteArrayOutputStream(4096);
+        this(UNPOOLED);
+    }
+
+    /**
+     * @param chunkPool pool the chunks holding the response bytes are taken from
+     */
+    public CachingOutputStreamWrapper(OffHeapChunkPool chunkPool) {
+        this.chunkPool = chunkPool;
     }
 
     /**
@@ -42,7 +58,11 @@ public class CachingOutputStreamWrapper extends ServletOutputStream {
      */
     @Override
     public void write(int b) throws IOException {
-        baos.write(b);
+        if (current == null || !current.hasRemaining()) {
+            nextChunk();
+        }
+        current.put((byte) b);
+        length++;
     }
 
     /**
@@ -55,7 +75,7 @@ public class CachingOutputStreamWrapper extends ServletOutputStream {
      */
     @Override
     public void write(byte b[]) throws IOException {
-        baos.write(b, 0, b.length);
+        write(b, 0, b.length);
     }
 
     /**
@@ -70,7 +90,24 @@ public class CachingOutputStreamWrapper extends ServletOutputStream {
      */
     @Override
     public void write(byte b[], int off, int len) throws IOException {
-        baos.write(b, off, len);
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            if (current == null || !current.hasRemaining()) {
+                nextChunk();
+            }
+            int count = Math.min(len, current.remaining());
+            current.put(b, off, count);
+            off += count;
+            len -= count;
+            length += count;
+        }
+    }
+
+    private void nextChunk() {
+        current = chunkPool.acquire();
+        chunks.add(current);
     }
 
     /**                                                                    `
@@ -106,9 +143,59 @@ public class CachingOutputStreamWrapper extends ServletOutputStream {
     }
 
     /**
-     * return the cached bytes
+     * return a copy of the cached bytes
      */
     public byte[] getBytes() {
-        return baos.toByteArray();
+        byte[] bytes = new byte[length];
+        int off = 0;
+        for (ByteBuffer chunk : chunks) {
+            ByteBuffer view = chunk.duplicate();
+            view.flip();
+            int count = view.remaining();
+            view.get(bytes, off, count);
+            off += count;
+        }
+        return bytes;
+    }
+
+    /**
+     * return the number of cached bytes
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return the pool the chunks are taken from
+     */
+    public OffHeapChunkPool getChunkPool() {
+        return chunkPool;
+    }
+
+    /**
+     * hand over the chunks holding the cached bytes, each ready to be read;
+     * this stream does not own them anymore afterwards
+     */
+    public ByteBuffer[] detachChunks() {
+        ByteBuffer[] detached = chunks.toArray(new ByteBuffer[chunks.size()]);
+        for (ByteBuffer chunk : detached) {
+            chunk.flip();
+        }
+        chunks.clear();
+        current = null;
+        length = 0;
+        return detached;
+    }
+
+    /**
+     * return the chunks holding the cached bytes to their pool
+     */
+    public void release() {
+        for (ByteBuffer chunk : chunks) {
+            chunkPool.release(chunk);
+        }
+        chunks.clear();
+        current = null;
+        length = 0;
     }
 }
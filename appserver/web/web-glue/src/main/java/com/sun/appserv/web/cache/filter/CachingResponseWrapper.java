@@ -16,6 +16,8 @@
 
 package com.sun.appserv.web.cache.filter;
 
+import com.sun.appserv.web.cache.OffHeapChunkPool;
+
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
@@ -24,6 +26,7 @@ import jakarta.servlet.http.HttpServletResponseWrapper;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Locale;
@@ -35,7 +38,7 @@ import java.util.Locale;
  * @see jakarta.servlet.http.HttpServletResponse
  */
 public class CachingResponseWrapper extends HttpServletResponseWrapper {
-    private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
+    private static final ByteBuffer[] NO_CHUNKS = new ByteBuffer[0];
 
     int statusCode = HttpCacheEntry.VALUE_NOT_SET;
 
@@ -76,6 +79,12 @@ public class CachingResponseWrapper extends HttpServletResponseWrapper {
     CachingOutputStreamWrapper cosw;
     PrintWriter writer;
 
+    /**
+     * Pool of the off-heap chunks the content is cached in, null if the
+     * chunks are not pooled.
+     */
+    OffHeapChunkPool chunkPool;
+
     /**
      * Constructs a response adaptor wrapping the given response.
      * @throws java.lang.IllegalArgumentException if the response is null
@@ -84,6 +93,17 @@ public class CachingResponseWrapper extends HttpServletResponseWrapper {
         super(response);
     }
 
+    /**
+     * Constructs a response adaptor wrapping the given response, which
+     * caches the content in chunks taken from the given pool.
+     * @throws java.lang.IllegalArgumentException if the response is null
+     */
+    public CachingResponseWrapper(HttpServletResponse response,
+                                  OffHeapChunkPool chunkPool) {
+        super(response);
+        this.chunkPool = chunkPool;
+    }
+
     /**
      * Create and return a ServletOutputStream to write the content
      * associated with this Response.
@@ -92,7 +112,10 @@ public class CachingResponseWrapper extends HttpServletResponseWrapper {
      */
     private CachingOutputStreamWrapper createCachingOutputStreamWrapper()
                                 throws IOException {
-        return new CachingOutputStreamWrapper();
+        if (chunkPool == null) {
+            return new CachingOutputStreamWrapper();
+        }
+        return new CachingOutputStreamWrapper(chunkPool);
     }
 
     /**
@@ -366,15 +389,25 @@ public class CachingResponseWrapper extends HttpServletResponseWrapper {
 
 
         // IT 12891
-        entry.bytes = ((cosw != null)? cosw.getBytes() : EMPTY_BYTE_ARRAY);
+        if (cosw != null) {
+            entry.bodyLength = cosw.getLength();
+            entry.chunkPool = cosw.getChunkPool();
+            entry.chunks = cosw.detachChunks();
+        } else {
+            entry.chunks = NO_CHUNKS;
+        }
 
         return entry;
     }
 
     /**
-     * clear the contents of this wrapper
+     * clear the contents of this wrapper, returning the content which was
+     * not handed over to a cache entry to its pool
      */
     public void clear() {
+        if (cosw != null) {
+            cosw.release();
+        }
         cosw = null;
         writer = null;
     }
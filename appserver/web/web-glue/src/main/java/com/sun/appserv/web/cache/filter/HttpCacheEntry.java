@@ -16,11 +16,15 @@
 
 package com.sun.appserv.web.cache.filter;
 
+import com.sun.appserv.web.cache.OffHeapChunkPool;
+
 import jakarta.servlet.http.Cookie;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /** HttpCacheEntry
  *  Each entry holds cached (HTTP) response:
@@ -28,6 +32,10 @@ import java.util.Locale;
  *  d) parameterEncoding used e) entryKey this entry represents,
  *  to match the entry within the hash bucket.
  *
+ *  The response bytes are kept in off-heap chunks, which go back to their
+ *  pool once the entry has been released by the cache and by every request
+ *  that retained it to send the response.
+ *
  *  XXX: should implement methods to enable serialization of cached response?
  */
 public class HttpCacheEntry {
@@ -45,10 +53,15 @@ public class HttpCacheEntry {
     int contentLength;
 
     // XXX: other cacheable response info
-    byte[] bytes;
+    ByteBuffer[] chunks;
+    int bodyLength;
+    OffHeapChunkPool chunkPool;
 
     volatile long expireTime = 0;
 
+    // one reference held by the cache, plus one for every request sending it
+    private final AtomicInteger references = new AtomicInteger(1);
+
     /**
      * set the real expire time
      * @param expireTime in milli seconds
@@ -77,24 +90,75 @@ public class HttpCacheEntry {
     }
 
     /**
-     * clear the contents
+     * may this response still be served while it is being refreshed?
+     * @param staleWindow time in milli seconds an expired entry may be served
+     */
+    public boolean isServableStale(long staleWindow) {
+        return staleWindow > 0 && expireTime != -1 &&
+               expireTime + staleWindow > System.currentTimeMillis();
+    }
+
+    /**
+     * acquire a reference to the response bytes, so that they are not
+     * recycled while the response is sent
+     * @return false if the entry was already released, and cannot be used
+     */
+    public boolean retain() {
+        int count;
+        do {
+            count = references.get();
+            if (count == 0) {
+                return false;
+            }
+        } while (!references.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    /**
+     * release a reference obtained by {@link #retain()} or held by the
+     * cache; the last one returns the response bytes to their pool
+     */
+    public void release() {
+        if (references.decrementAndGet() != 0) {
+            return;
+        }
+        recycleChunks();
+    }
+
+    /**
+     * clear the contents, returning the response bytes to their pool;
+     * no request may be sending this entry anymore
      */
     public void clear() {
-        bytes = null;
+        recycleChunks();
         responseHeaders = null;
         cookies = null;
     }
 
+    /**
+     * return the response bytes to their pool, only once however many
+     * times the entry is released or cleared
+     */
+    private void recycleChunks() {
+        ByteBuffer[] released;
+        synchronized (this) {
+            released = chunks;
+            chunks = null;
+        }
+        if (released != null && chunkPool != null) {
+            for (ByteBuffer chunk : released) {
+                chunkPool.release(chunk);
+            }
+        }
+    }
+
     /**
      * get the size
      * @return size of this entry in bytes
      * Note: this is only approximate
      */
     public int getSize() {
-        int size = 0;
-        if (bytes != null) {
-            size = bytes.length;
-        }
+        int size = bodyLength;
 
         // size of response bytes plus headers (each approx 20 chars or 40 bytes)
         return (size + (40 * responseHeaders.size()) );
@@ -61,6 +61,11 @@ public abstract class BasePersistenceStrategyBuilder
     protected int sessionMaxInactiveInterval = DEFAULT_SESSION_TIMEOUT;
     protected String persistentCookieName = "GLASSFISHCOOKIE";
     protected boolean relaxCacheVersionSemantics;
+    // used by the modified-attribute-batched persistence scope
+    protected static final long DEFAULT_REPLICATION_FLUSH_INTERVAL = 100L;   // milliseconds
+    protected static final int DEFAULT_REPLICATION_COMPRESSION_THRESHOLD = 1024;   // bytes
+    protected long replicationFlushInterval = DEFAULT_REPLICATION_FLUSH_INTERVAL;
+    protected int replicationCompressionThreshold = DEFAULT_REPLICATION_COMPRESSION_THRESHOLD;
 
     // Special constant for Java Server Faces
     protected static final String JSF_HA_ENABLED = "com.sun.appserver.enableHighAvailability";
@@ -308,6 +313,34 @@ public abstract class BasePersistenceStrategyBuilder
                         _persistenceScope = value;
                     } else if (name.equalsIgnoreCase("cookieName")) {
                         persistentCookieName = value;
+                    } else if (name.equalsIgnoreCase("replicationFlushIntervalMillis")) {
+                        replicationFlushInterval = DEFAULT_REPLICATION_FLUSH_INTERVAL;
+                        try {
+                            long flushInterval = Long.parseLong(value);
+                            if (flushInterval > 0) {
+                                replicationFlushInterval = flushInterval;
+                            } else {
+                                _logger.log(Level.WARNING, LogFacade.INVALID_REPLICATION_FLUSH_INTERVAL,
+                                    new Object[] {value, DEFAULT_REPLICATION_FLUSH_INTERVAL});
+                            }
+                        } catch (NumberFormatException e) {
+                            _logger.log(Level.WARNING, LogFacade.INVALID_REPLICATION_FLUSH_INTERVAL,
+                                new Object[] {value, DEFAULT_REPLICATION_FLUSH_INTERVAL});
+                        }
+                    } else if (name.equalsIgnoreCase("replicationCompressionThreshold")) {
+                        replicationCompressionThreshold = DEFAULT_REPLICATION_COMPRESSION_THRESHOLD;
+                        try {
+                            int compressionThreshold = Integer.parseInt(value);
+                            if (compressionThreshold >= 0) {
+                                replicationCompressionThreshold = compressionThreshold;
+                            } else {
+                                _logger.log(Level.WARNING, LogFacade.INVALID_REPLICATION_COMPRESSION_THRESHOLD,
+                                    new Object[] {value, DEFAULT_REPLICATION_COMPRESSION_THRESHOLD});
+                            }
+                        } catch (NumberFormatException e) {
+                            _logger.log(Level.WARNING, LogFacade.INVALID_REPLICATION_COMPRESSION_THRESHOLD,
+                                new Object[] {value, DEFAULT_REPLICATION_COMPRESSION_THRESHOLD});
+                        }
                     } else {
                         if (_logger.isLoggable(Level.INFO)) {
                             Object[] params = { name };
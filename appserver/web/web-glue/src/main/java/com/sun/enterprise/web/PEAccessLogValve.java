@@ -41,9 +41,15 @@ import java.text.MessageFormat;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -68,6 +74,12 @@ import static java.time.Instant.ofEpochMilli;
  * </p>This class uses a direct <code>ByteBuffer</code> to store and write
  * logs.
  *
+ * <p>In asynchronous mode, request threads only format their entry and append
+ * it to a bounded lock-free queue. A single background thread drains the
+ * queue, writes the entries with gathering writes and rotates the log file,
+ * so that request threads are not delayed by a slow disk. What happens when
+ * the queue is full is decided by the {@link OverflowPolicy}.
+ *
  * @author Jean-Francois Arcand
  * @author Charlie J. Hunt
  */
@@ -105,6 +117,48 @@ public final class PEAccessLogValve
     private final static int MIN_BUFFER_SIZE = 5120;
 
 
+    /**
+     * The default number of entries the asynchronous queue can hold.
+     */
+    private static final int DEFAULT_QUEUE_CAPACITY = 8192;
+
+
+    /**
+     * The maximum number of entries written by one gathering write.
+     */
+    private static final int MAX_BATCH_SIZE = 256;
+
+
+    /**
+     * The maximum time the asynchronous writer waits for new entries.
+     */
+    private static final long IDLE_PARK_NANOS = 100_000_000L;
+
+
+    /**
+     * The time a request thread waits for room in a full queue before
+     * checking again, when the overflow policy is <code>BLOCK</code>.
+     */
+    private static final long BLOCK_PARK_NANOS = 50_000L;
+
+
+    /**
+     * Policies applied in asynchronous mode to entries that do not fit into
+     * the full queue.
+     */
+    public enum OverflowPolicy {
+        /** The request thread waits until the writer makes room. */
+        BLOCK,
+        /** The entry is discarded and counted. */
+        DROP,
+        /**
+         * The request thread writes the entry to the log file itself, ahead
+         * of the entries still queued.
+         */
+        INLINE
+    }
+
+
     // ----------------------------------------------------- Instance Variables
 
 
@@ -279,6 +333,55 @@ public final class PEAccessLogValve
     private final Object lock = new Object();
 
 
+    /**
+     * Are entries written by the background writer only?
+     */
+    private boolean async;
+
+
+    /**
+     * The number of entries the asynchronous queue can hold.
+     */
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+
+    /**
+     * What to do with entries that do not fit into the full queue.
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+
+    /**
+     * The formatted entries waiting for the asynchronous writer, null if
+     * the valve is not started in asynchronous mode.
+     */
+    private volatile RecordQueue queue;
+
+
+    /**
+     * The per thread buffer entries are formatted into in asynchronous mode.
+     */
+    private final ThreadLocal<CharBuffer> recordBuffer = new ThreadLocal<>();
+
+
+    /**
+     * Set by the asynchronous writer before it waits for new entries.
+     */
+    private volatile boolean writerIdle;
+
+
+    /**
+     * The number of entries discarded because the queue was full.
+     */
+    private final LongAdder droppedEntries = new LongAdder();
+
+
+    /**
+     * The number of discarded entries already reported to the monitoring.
+     */
+    private long reportedDroppedEntries;
+
+
     /**
      * Return writerThread interval (seconds)
      */
@@ -335,6 +438,70 @@ public final class PEAccessLogValve
         return bufferSize;
     }
 
+
+    /**
+     * Are entries written asynchronously by a background writer?
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+
+    /**
+     * Set whether entries are written asynchronously by a background writer.
+     * Takes effect when the valve is started.
+     */
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+
+    /**
+     * Return the number of entries the asynchronous queue can hold.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+
+    /**
+     * Set the number of entries the asynchronous queue can hold, rounded up
+     * to a power of two. Takes effect when the valve is started.
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+
+    /**
+     * Return the policy applied to entries that do not fit into the full
+     * asynchronous queue.
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+
+    /**
+     * Set the policy applied to entries that do not fit into the full
+     * asynchronous queue.
+     */
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+
+    /**
+     * Return the number of entries discarded because the asynchronous queue
+     * was full.
+     */
+    public long getDroppedEntryCount() {
+        return droppedEntries.sum();
+    }
+
     // ------------------------------------------------------------- Properties
 
 
@@ -548,6 +715,11 @@ public final class PEAccessLogValve
             return;
         }
 
+        if (async) {
+            enqueue(request, response);
+            return;
+        }
+
         synchronized (lock){
             // Reset properly the buffer in case of an unexpected
             // exception.
@@ -588,6 +760,29 @@ public final class PEAccessLogValve
      */
     public void log() throws IOException {
 
+        rotateIfNeeded();
+
+        synchronized (lock) {
+            try {
+                charBuffer.flip();
+                ByteBuffer byteBuffer = ByteBuffer.wrap(charBuffer.toString().getBytes(Charset.defaultCharset()));
+                while (byteBuffer.hasRemaining()) {
+                    fileChannel.write(byteBuffer);
+                }
+            } catch (IOException ex) {
+
+            } finally {
+                charBuffer.clear();
+            }
+        }
+    }
+
+
+    /**
+     * Switch files if the date has changed since the log file was opened.
+     */
+    private void rotateIfNeeded() throws IOException {
+
         if (rotatable){
             long systime = System.currentTimeMillis();
             long rotationIntervalLong = rotationInterval * 1000L;
@@ -609,20 +804,179 @@ public final class PEAccessLogValve
                 }
             }
         }
+    }
+
+
+    /**
+     * Formats the entry of the given request and response and hands it over
+     * to the asynchronous writer, applying the overflow policy if the queue
+     * is full.
+     */
+    private void enqueue(Request request, Response response) throws IOException {
+        if (formatter == null) {
+            return;
+        }
+
+        RecordQueue recordQueue = queue;
+        if (recordQueue == null) {
+            return;
+        }
 
+        ByteBuffer record = formatRecord(request, response);
+        if (record == null) {
+            return;
+        }
+        if (recordQueue.offer(record)) {
+            if (writerIdle) {
+                LockSupport.unpark(writerThread);
+            }
+            return;
+        }
+
+        if (recordQueue.isClosed()) {
+            // The valve is being stopped
+            droppedEntries.increment();
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case DROP:
+                droppedEntries.increment();
+                break;
+            case INLINE:
+                synchronized (lock) {
+                    while (record.hasRemaining()) {
+                        fileChannel.write(record);
+                    }
+                }
+                break;
+            default:
+                do {
+                    LockSupport.unpark(writerThread);
+                    LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                    if (recordQueue.isClosed()) {
+                        // The valve is being stopped
+                        droppedEntries.increment();
+                        return;
+                    }
+                } while (!recordQueue.offer(record));
+        }
+    }
+
+
+    /**
+     * Formats the entry of the given request and response into a buffer of
+     * the current thread, which grows up to <code>bufferSize</code>.
+     *
+     * @return the encoded entry, or null if it does not fit into
+     * <code>bufferSize</code> characters
+     */
+    private ByteBuffer formatRecord(Request request, Response response) {
+        CharBuffer buffer = recordBuffer.get();
+        if (buffer == null) {
+            buffer = CharBuffer.allocate(Math.min(1024, bufferSize));
+            recordBuffer.set(buffer);
+        }
+        while (true) {
+            buffer.clear();
+            try {
+                formatter.appendLogEntry(request, response, buffer);
+                buffer.put('\n');
+                buffer.flip();
+                return Charset.defaultCharset().encode(buffer);
+            } catch (BufferOverflowException ex) {
+                if (buffer.capacity() >= bufferSize) {
+                    _logger.log(Level.SEVERE, LogFacade.ACCESS_LOG_UNABLE_TO_WRITE, new Object[] {ex});
+                    return null;
+                }
+                buffer = CharBuffer.allocate(Math.min(2 * buffer.capacity(), bufferSize));
+                recordBuffer.set(buffer);
+            }
+        }
+    }
+
+
+    /**
+     * Writes the queued entries until the writer is stopped.
+     */
+    private void drainQueue() {
+        ByteBuffer[] batch = new ByteBuffer[MAX_BATCH_SIZE];
+        while (!threadDone) {
+            int count = queue.drainTo(batch);
+            if (count > 0) {
+                writeRecords(batch, count);
+                continue;
+            }
+
+            reportDroppedEntries();
+            writerIdle = true;
+            if (queue.isEmpty() && !threadDone) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerIdle = false;
+        }
+    }
+
+
+    /**
+     * Writes the queued entries with gathering writes, once the queue has
+     * been closed and the writer thread has terminated.
+     */
+    private void flushQueue() {
+        ByteBuffer[] batch = new ByteBuffer[MAX_BATCH_SIZE];
+        while (!queue.isDrained()) {
+            int count = queue.drainTo(batch);
+            if (count > 0) {
+                writeRecords(batch, count);
+            } else {
+                // A request thread is still storing the entry it added
+                Thread.onSpinWait();
+            }
+        }
+        reportDroppedEntries();
+    }
+
+
+    /**
+     * Writes the first <code>count</code> given entries to the log file with
+     * as few gathering writes as possible.
+     */
+    private void writeRecords(ByteBuffer[] records, int count) {
+        try {
+            rotateIfNeeded();
+        } catch (IOException ex) {
+            _logger.log(Level.SEVERE, LogFacade.ACCESS_LOG_UNABLE_TO_WRITE, new Object[] {ex});
+        }
         synchronized (lock) {
             try {
-                charBuffer.flip();
-                ByteBuffer byteBuffer = ByteBuffer.wrap(charBuffer.toString().getBytes(Charset.defaultCharset()));
-                while (byteBuffer.hasRemaining()) {
-                    fileChannel.write(byteBuffer);
+                int offset = 0;
+                while (offset < count) {
+                    fileChannel.write(records, offset, count - offset);
+                    while (offset < count && !records[offset].hasRemaining()) {
+                        offset++;
+                    }
                 }
             } catch (IOException ex) {
-
-            } finally {
-                charBuffer.clear();
+                _logger.log(Level.SEVERE, LogFacade.ACCESS_LOG_UNABLE_TO_WRITE, new Object[] {ex});
             }
         }
+        Arrays.fill(records, 0, count, null);
+    }
+
+
+    /**
+     * Reports the entries discarded since the last call to the monitoring.
+     */
+    private void reportDroppedEntries() {
+        long dropped = droppedEntries.sum();
+        if (dropped == reportedDroppedEntries) {
+            return;
+        }
+
+        if (getContainer() instanceof com.sun.enterprise.web.VirtualServer) {
+            ((com.sun.enterprise.web.VirtualServer) getContainer()).accessLogEntriesDropped(dropped - reportedDroppedEntries);
+        }
+        reportedDroppedEntries = dropped;
     }
 
 
@@ -745,6 +1099,37 @@ public final class PEAccessLogValve
             }
         }
 
+        /*
+         * Asynchronous writing is configured by the accessLogAsync,
+         * accessLogQueueCapacity and accessLogOverflowPolicy properties
+         * of <virtual-server>
+         */
+        setAsync(Boolean.parseBoolean(vsBean.getPropertyValue(
+            Constants.ACCESS_LOG_ASYNC_PROPERTY, "false")));
+
+        String acQueueCapacity = vsBean.getPropertyValue(
+            Constants.ACCESS_LOG_QUEUE_CAPACITY_PROPERTY,
+            String.valueOf(DEFAULT_QUEUE_CAPACITY));
+        try {
+            setQueueCapacity(Integer.parseInt(acQueueCapacity));
+        } catch (IllegalArgumentException ex) {
+            _logger.log(Level.WARNING,
+                LogFacade.INVALID_ACCESS_LOG_QUEUE_CAPACITY,
+                acQueueCapacity);
+        }
+
+        String acOverflowPolicy = vsBean.getPropertyValue(
+            Constants.ACCESS_LOG_OVERFLOW_POLICY_PROPERTY,
+            OverflowPolicy.BLOCK.name());
+        try {
+            setOverflowPolicy(OverflowPolicy.valueOf(
+                acOverflowPolicy.trim().toUpperCase(Locale.ENGLISH)));
+        } catch (IllegalArgumentException ex) {
+            _logger.log(Level.WARNING,
+                LogFacade.INVALID_ACCESS_LOG_OVERFLOW_POLICY,
+                acOverflowPolicy);
+        }
+
         return true;
     }
 
@@ -1008,7 +1393,11 @@ public final class PEAccessLogValve
         }
         lastAccessLogCreationTime = systime;
 
-        if (!flushRealTime){
+        if (async) {
+            queue = new RecordQueue(queueCapacity);
+        }
+
+        if (async || !flushRealTime){
             // Start the background writer writerThread
             threadStart();
         }
@@ -1036,11 +1425,22 @@ public final class PEAccessLogValve
         lifecycle.fireLifecycleEvent(STOP_EVENT, null);
         started = false;
 
-        if (!flushRealTime){
+        if (queue != null) {
+            // Entries offered from now on are counted as dropped
+            queue.close();
+        }
+
+        if (async || !flushRealTime){
             // Stop the background writer thread
             threadStop();
         }
 
+        if (queue != null) {
+            // Write what request threads queued before the queue was closed
+            flushQueue();
+            queue = null;
+        }
+
         close();
     }
 
@@ -1051,6 +1451,11 @@ public final class PEAccessLogValve
     @Override
     public void run() {
 
+        if (async) {
+            drainQueue();
+            return;
+        }
+
         // Loop until the termination semaphore is set
         while (!threadDone) {
             threadSleep();
@@ -1088,7 +1493,7 @@ public final class PEAccessLogValve
      */
     private void threadStart() {
 
-        if (writerThread != null || writeInterval == 0) {
+        if (writerThread != null || writeInterval == 0 && !async) {
             return;
         }
 
@@ -1106,12 +1511,17 @@ public final class PEAccessLogValve
      */
     private void threadStop() {
 
-        if (writerThread == null || writeInterval == 0) {
+        if (writerThread == null) {
             return;
         }
 
         threadDone = true;
-        writerThread.interrupt();
+        if (async) {
+            // An interrupt would close the file channel while it is written
+            LockSupport.unpark(writerThread);
+        } else {
+            writerThread.interrupt();
+        }
         try {
             writerThread.join();
         } catch (InterruptedException e) {
@@ -1125,4 +1535,118 @@ public final class PEAccessLogValve
     private LocalDateTime toLocalDateTime(long millis) {
         return ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDateTime();
     }
+
+
+    /**
+     * Bounded lock-free queue of encoded entries, filled by any number of
+     * request threads and drained by the single writer thread.
+     * <p>
+     * Every slot carries a sequence number telling whether it may be
+     * written by the producer of the current round, or read by the
+     * consumer. The entry written to a slot is published by the volatile
+     * write of its sequence number.
+     * <p>
+     * Closing the queue sets the sign bit of the tail, so that no producer
+     * can claim a slot afterwards and the consumer knows the last entry it
+     * has to wait for.
+     */
+    static final class RecordQueue {
+
+        private static final long CLOSED = Long.MIN_VALUE;
+
+        private final ByteBuffer[] records;
+        private final AtomicLongArray sequences;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+
+        /**
+         * Accessed by the consumer only.
+         */
+        private long head;
+
+        RecordQueue(int capacity) {
+            int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+            records = new ByteBuffer[size];
+            sequences = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                sequences.set(i, i);
+            }
+            mask = size - 1;
+        }
+
+        /**
+         * @return false if the queue is full or closed
+         */
+        boolean offer(ByteBuffer record) {
+            long position = tail.get();
+            while (true) {
+                if (position < 0) {
+                    return false;
+                }
+                int index = (int) position & mask;
+                long available = sequences.get(index) - position;
+                if (available == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        records[index] = record;
+                        sequences.set(index, position + 1);
+                        return true;
+                    }
+                    position = tail.get();
+                } else if (available < 0) {
+                    return false;
+                } else {
+                    position = tail.get();
+                }
+            }
+        }
+
+        /**
+         * Moves the oldest entries into the given array.
+         *
+         * @return the number of entries moved
+         */
+        int drainTo(ByteBuffer[] batch) {
+            int count = 0;
+            while (count < batch.length) {
+                int index = (int) head & mask;
+                if (sequences.get(index) != head + 1) {
+                    break;
+                }
+                batch[count++] = records[index];
+                records[index] = null;
+                sequences.set(index, head + records.length);
+                head++;
+            }
+            return count;
+        }
+
+        boolean isEmpty() {
+            return sequences.get((int) head & mask) != head + 1;
+        }
+
+        /**
+         * Rejects the entries offered from now on.
+         */
+        void close() {
+            long position;
+            do {
+                position = tail.get();
+            } while (position >= 0 && !tail.compareAndSet(position, position | CLOSED));
+        }
+
+        boolean isClosed() {
+            return tail.get() < 0;
+        }
+
+        /**
+         * Accessed by the consumer only.
+         *
+         * @return true if the queue is closed and every entry offered before
+         * has been drained
+         */
+        boolean isDrained() {
+            long position = tail.get();
+            return position < 0 && head == (position & ~CLOSED);
+        }
+    }
 }
@@ -1566,6 +1566,17 @@ public class VirtualServer extends StandardHost implements org.glassfish.embedda
         }
     }
 
+    /**
+     * Reports access log entries of this virtual server that were discarded because the asynchronous access log queue
+     * was full.
+     */
+    void accessLogEntriesDropped(long count) {
+        RequestProbeProvider requestProbeProvider = webContainer == null ? null : webContainer.getRequestProbeProvider();
+        if (requestProbeProvider != null) {
+            requestProbeProvider.accessLogDroppedEvent(count, getName());
+        }
+    }
+
     /**
      * @return the accesslog valve of this virtual server
      */
@@ -1790,7 +1790,8 @@ public class WebContainer implements org.glassfish.api.container.Container, Post
             }
         }
 
-        webStatsProviderBootstrap.registerApplicationStatsProviders(monitoringNodeName, vs.getName(), servletNames);
+        webStatsProviderBootstrap.registerApplicationStatsProviders(monitoringNodeName, vs.getName(), servletNames,
+            new WebModuleResourceCacheStatistics(ctx), new WebModuleServletStatistics(ctx));
 
         vs.addChild(ctx);
 
@@ -2570,6 +2571,9 @@ public class WebContainer implements org.glassfish.api.container.Container, Post
             vs.reconfigureAccessLog(globalAccessLogBufferSize, globalAccessLogWriteInterval, serviceLocator, domain, globalAccessLoggingEnabled);
         } else if (Constants.ACCESS_LOG_BUFFER_SIZE_PROPERTY.equals(name)) {
             vs.reconfigureAccessLog(globalAccessLogBufferSize, globalAccessLogWriteInterval, serviceLocator, domain, globalAccessLoggingEnabled);
+        } else if (Constants.ACCESS_LOG_ASYNC_PROPERTY.equals(name) || Constants.ACCESS_LOG_QUEUE_CAPACITY_PROPERTY.equals(name)
+                || Constants.ACCESS_LOG_OVERFLOW_POLICY_PROPERTY.equals(name)) {
+            vs.reconfigureAccessLog(globalAccessLogBufferSize, globalAccessLogWriteInterval, serviceLocator, domain, globalAccessLoggingEnabled);
         } else if ("allowRemoteHost".equals(name) || "denyRemoteHost".equals(name)) {
             vs.configureRemoteHostFilterValve();
         } else if ("allowRemoteAddress".equals(name) || "denyRemoteAddress".equals(name)) {
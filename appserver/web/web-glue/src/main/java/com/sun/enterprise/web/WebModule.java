@@ -1334,6 +1334,8 @@ public class WebModule extends PwcWebModule implements Context {
                     setCrossContext(crossContext);
                 } else if ("allowLinking".equalsIgnoreCase(name)) {
                     allowLinking = ConfigBeansUtilities.toBoolean(value);
+                } else if ("resourceCacheClassName".equalsIgnoreCase(name)) {
+                    setCacheClassName(value);
                     // START S1AS8PE 4817642
                 } else if ("reuseSessionID".equalsIgnoreCase(name)) {
                     boolean reuse = ConfigBeansUtilities.toBoolean(value);
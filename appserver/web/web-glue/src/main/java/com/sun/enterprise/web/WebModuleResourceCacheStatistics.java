@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.web;
+
+import javax.naming.directory.DirContext;
+
+import org.apache.naming.resources.ProxyDirContext;
+import org.apache.naming.resources.ResourceCache;
+import org.glassfish.web.admin.monitor.ResourceCacheStatsProvider;
+
+/**
+ * Reads the resource cache statistics of a web module. The cache is looked up
+ * on every call, since it is only created when the web module starts and is
+ * replaced when it is restarted.
+ */
+class WebModuleResourceCacheStatistics implements ResourceCacheStatsProvider.CacheStatistics {
+
+    private final WebModule webModule;
+
+    WebModuleResourceCacheStatistics(WebModule webModule) {
+        this.webModule = webModule;
+    }
+
+    @Override
+    public long getHitCount() {
+        ResourceCache cache = getCache();
+        return cache == null ? 0 : cache.getHitsCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        ResourceCache cache = getCache();
+        return cache == null ? 0 : cache.getMissCount();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        ResourceCache cache = getCache();
+        return cache == null ? 0 : cache.getEvictionCount();
+    }
+
+    @Override
+    public long getCacheSize() {
+        ResourceCache cache = getCache();
+        return cache == null ? 0 : cache.getCacheSize();
+    }
+
+    private ResourceCache getCache() {
+        DirContext resources = webModule.getResources();
+        if (!(resources instanceof ProxyDirContext)) {
+            return null;
+        }
+        return ((ProxyDirContext) resources).getCache();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.web;
+
+import org.apache.catalina.Container;
+import org.apache.catalina.core.StandardWrapper;
+import org.glassfish.web.admin.monitor.ServletInstanceStatsProvider;
+
+/**
+ * Reads the servlet statistics of a web module from its wrappers. The wrapper
+ * is looked up on every call, since the servlets are only added when the web
+ * module starts.
+ */
+class WebModuleServletStatistics implements ServletInstanceStatsProvider.ServletStatistics {
+
+    private final WebModule webModule;
+
+    WebModuleServletStatistics(WebModule webModule) {
+        this.webModule = webModule;
+    }
+
+    @Override
+    public long getLockedAllocationCount(String servletName) {
+        Container wrapper = webModule.findChild(servletName);
+        if (!(wrapper instanceof StandardWrapper)) {
+            return 0;
+        }
+        return ((StandardWrapper) wrapper).getLockedAllocationCount();
+    }
+}
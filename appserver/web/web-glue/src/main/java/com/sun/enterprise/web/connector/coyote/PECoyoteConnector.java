@@ -1228,6 +1228,23 @@ public class PECoyoteConnector extends Connector {
         }
     }
 
+    /**
+     * Fires probe event related to the fact that (part of) a file has
+     * been handed over to the network layer for zero-copy sendfile.
+     *
+     * @param request the request object
+     * @param host the virtual server to which the request was mapped
+     * @param context the Context to which the request was mapped
+     * @param size the number of bytes sent with sendfile
+     */
+    @Override
+    public void sendfileEvent(HttpServletRequest request, Host host,
+            Context context, long size) {
+        if (requestProbeProvider != null && host != null) {
+            requestProbeProvider.sendfileEvent(size, host.getName());
+        }
+    }
+
 
     /*
      * Configures the SSL properties on this PECoyoteConnector from the
@@ -1549,4 +1549,24 @@ public class LogFacade {
         message = "Exception getting Validator Factory from JNDI: {0}",
         level = "WARNING")
     public static final String EXCEPTION_GETTING_VALIDATOR_FACTORY = prefix + "00285";
+
+    @LogMessageInfo(
+            message = "Invalid accessLogQueueCapacity value [{0}]",
+            level = "WARNING")
+    public static final String INVALID_ACCESS_LOG_QUEUE_CAPACITY = prefix + "00286";
+
+    @LogMessageInfo(
+            message = "Invalid accessLogOverflowPolicy value [{0}], expected one of block, drop or inline",
+            level = "WARNING")
+    public static final String INVALID_ACCESS_LOG_OVERFLOW_POLICY = prefix + "00287";
+
+    @LogMessageInfo(
+            message = "Invalid replicationFlushIntervalMillis value [{0}], using default [{1}]",
+            level = "WARNING")
+    public static final String INVALID_REPLICATION_FLUSH_INTERVAL = prefix + "00288";
+
+    @LogMessageInfo(
+            message = "Invalid replicationCompressionThreshold value [{0}], using default [{1}]",
+            level = "WARNING")
+    public static final String INVALID_REPLICATION_COMPRESSION_THRESHOLD = prefix + "00289";
 }
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.appserv.web.cache.filter;
+
+import com.sun.appserv.util.cache.LruCache;
+import com.sun.appserv.web.cache.CacheHelper;
+import com.sun.appserv.web.cache.OffHeapChunkPool;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CachingFilterTest {
+
+    private final AtomicInteger originCalls = new AtomicInteger();
+    private final OffHeapChunkPool pool = new OffHeapChunkPool(16, 100);
+    private final StubCacheHelper helper = new StubCacheHelper();
+    private CachingFilter filter;
+
+    @BeforeEach
+    public void createFilter() throws Exception {
+        LruCache cache = new LruCache();
+        cache.init(100, null);
+        filter = new CachingFilter();
+        filter.cache = cache;
+        filter.helper = helper;
+        filter.chunkPool = pool;
+        filter.isEnabled = true;
+    }
+
+    @Test
+    public void concurrentRequestsShareTheGeneratedResponse() throws Exception {
+        CountDownLatch generating = new CountDownLatch(1);
+        CountDownLatch generate = new CountDownLatch(1);
+        Request first = new Request((request, response) -> {
+            generating.countDown();
+            assertTrue(generate.await(10, TimeUnit.SECONDS));
+            respond(response, "first response");
+        });
+        Request second = new Request((request, response) -> respond(response, "second response"));
+
+        first.start();
+        assertTrue(generating.await(10, TimeUnit.SECONDS));
+        second.start();
+        second.awaitWaiting();
+        generate.countDown();
+        first.join();
+        second.join();
+
+        assertThat(originCalls.get(), equalTo(1));
+        assertThat(first.body(), equalTo("first response"));
+        assertThat(second.body(), equalTo("first response"));
+    }
+
+    @Test
+    public void requestsWaitingTooLongCallTheOrigin() throws Exception {
+        filter.coalescingWait = 100;
+        CountDownLatch generating = new CountDownLatch(1);
+        CountDownLatch generate = new CountDownLatch(1);
+        Request first = new Request((request, response) -> {
+            generating.countDown();
+            assertTrue(generate.await(10, TimeUnit.SECONDS));
+            respond(response, "first response");
+        });
+        Request second = new Request((request, response) -> respond(response, "second response"));
+
+        first.start();
+        assertTrue(generating.await(10, TimeUnit.SECONDS));
+        second.start();
+        second.join();
+        generate.countDown();
+        first.join();
+
+        assertThat(originCalls.get(), equalTo(2));
+        assertThat(second.body(), equalTo("second response"));
+        assertThat(first.body(), equalTo("first response"));
+    }
+
+    @Test
+    public void cachedResponseIsServedWithoutCallingTheOrigin() throws Exception {
+        Request first = new Request((request, response) -> respond(response, "a response that is spread over three chunks"));
+        first.run();
+        Request second = new Request((request, response) -> respond(response, "another response"));
+        second.run();
+
+        assertThat(originCalls.get(), equalTo(1));
+        assertThat(second.body(), equalTo("a response that is spread over three chunks"));
+    }
+
+    @Test
+    public void chunksOfAReplacedResponseAreRecycled() throws Exception {
+        new Request((request, response) -> respond(response, "a response that is spread over three chunks")).run();
+        assertThat(pool.getPooledChunkCount(), equalTo(0));
+
+        helper.refreshNeeded = true;
+        new Request((request, response) -> respond(response, "x")).run();
+
+        // the new response took a new chunk, the old one returned its three chunks
+        assertThat(originCalls.get(), equalTo(2));
+        assertThat(pool.getPooledChunkCount(), equalTo(3));
+    }
+
+    private void respond(HttpServletResponse response, String body) throws Exception {
+        originCalls.incrementAndGet();
+        response.setContentType("text/plain");
+        response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private interface Origin {
+        void respond(HttpServletRequest request, HttpServletResponse response) throws Exception;
+    }
+
+    /**
+     * A request to the filter, run in its own thread or in the caller's.
+     */
+    private class Request extends Thread {
+
+        private final Origin origin;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private volatile Throwable failure;
+
+        Request(Origin origin) {
+            this.origin = origin;
+        }
+
+        @Override
+        public void run() {
+            FilterChain chain = (request, response) -> {
+                try {
+                    origin.respond((HttpServletRequest) request, (HttpServletResponse) response);
+                } catch (RuntimeException | java.io.IOException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+            try {
+                filter.doFilter(newRequest(), newResponse(), chain);
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+
+        void awaitWaiting() throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (getState() != State.TIMED_WAITING && getState() != State.WAITING) {
+                assertTrue(System.nanoTime() < deadline, "request not waiting");
+                Thread.sleep(1);
+            }
+        }
+
+        String body() {
+            if (failure != null) {
+                throw new AssertionError(failure);
+            }
+            return new String(body.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+        private HttpServletRequest newRequest() {
+            Map<String, Object> attributes = new HashMap<>();
+            return proxy(HttpServletRequest.class, (name, args) -> {
+                switch (name) {
+                    case "getAttribute":
+                        return attributes.get(args[0]);
+                    case "setAttribute":
+                        attributes.put((String) args[0], args[1]);
+                        return null;
+                    case "removeAttribute":
+                        attributes.remove(args[0]);
+                        return null;
+                    case "getServletPath":
+                        return "/resource";
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        private HttpServletResponse newResponse() {
+            ServletOutputStream out = new ServletOutputStream() {
+
+                @Override
+                public void write(int b) {
+                    body.write(b);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                }
+            };
+            return proxy(HttpServletResponse.class, (name, args) -> {
+                switch (name) {
+                    case "getOutputStream":
+                        return out;
+                    case "isCommitted":
+                        return false;
+                    default:
+                        return null;
+                }
+            });
+        }
+    }
+
+    private interface Handler {
+        Object invoke(String name, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(CachingFilterTest.class.getClassLoader(),
+            new Class<?>[] { type }, (proxy, method, args) -> handler.invoke(method.getName(), args)));
+    }
+
+    private static class StubCacheHelper implements CacheHelper {
+
+        volatile boolean refreshNeeded;
+
+        @Override
+        public void init(ServletContext context, Map<String, String> props) {
+        }
+
+        @Override
+        public String getCacheKey(HttpServletRequest request) {
+            return "/resource";
+        }
+
+        @Override
+        public boolean isCacheable(HttpServletRequest request) {
+            return true;
+        }
+
+        @Override
+        public boolean isRefreshNeeded(HttpServletRequest request) {
+            return refreshNeeded;
+        }
+
+        @Override
+        public int getTimeout(HttpServletRequest request) {
+            return 60;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
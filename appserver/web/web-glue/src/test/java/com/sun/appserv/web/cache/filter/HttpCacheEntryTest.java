@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.appserv.web.cache.filter;
+
+import com.sun.appserv.web.cache.OffHeapChunkPool;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpCacheEntryTest {
+
+    private final OffHeapChunkPool pool = new OffHeapChunkPool(16, 100);
+
+    @Test
+    public void chunksReturnToThePoolWithTheLastReference() {
+        HttpCacheEntry entry = newEntry(3);
+        assertTrue(entry.retain());
+        assertTrue(entry.retain());
+
+        entry.release();
+        entry.release();
+        assertThat(pool.getPooledChunkCount(), equalTo(0));
+
+        // the reference of the cache
+        entry.release();
+        assertThat(pool.getPooledChunkCount(), equalTo(3));
+        assertThat(entry.chunks, nullValue());
+    }
+
+    @Test
+    public void releasedEntryCannotBeRetained() {
+        HttpCacheEntry entry = newEntry(1);
+        entry.release();
+
+        assertFalse(entry.retain());
+    }
+
+    @Test
+    public void clearReturnsTheChunksOnce() {
+        HttpCacheEntry entry = newEntry(3);
+
+        entry.clear();
+        assertThat(pool.getPooledChunkCount(), equalTo(3));
+
+        entry.release();
+        assertThat(pool.getPooledChunkCount(), equalTo(3));
+    }
+
+    @Test
+    public void recycledChunksAreReused() {
+        HttpCacheEntry entry = newEntry(2);
+        ByteBuffer chunk = entry.chunks[0];
+        entry.release();
+
+        ByteBuffer reused = pool.acquire();
+
+        assertThat(reused, sameInstance(chunk));
+        assertThat(reused.position(), equalTo(0));
+        assertThat(pool.getPooledChunkCount(), equalTo(1));
+    }
+
+    private HttpCacheEntry newEntry(int chunkCount) {
+        HttpCacheEntry entry = new HttpCacheEntry();
+        entry.chunkPool = pool;
+        entry.chunks = new ByteBuffer[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            ByteBuffer chunk = pool.acquire();
+            chunk.put((byte) i).flip();
+            entry.chunks[i] = chunk;
+        }
+        entry.bodyLength = chunkCount;
+        return entry;
+    }
+}
@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.web;
+
+import com.sun.enterprise.web.PEAccessLogValve.OverflowPolicy;
+import com.sun.enterprise.web.PEAccessLogValve.RecordQueue;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.apache.catalina.HttpResponse;
+import org.apache.catalina.Request;
+import org.apache.catalina.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PEAccessLogValveTest {
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger formattedEntries = new AtomicInteger();
+    private PEAccessLogValve valve;
+
+    @AfterEach
+    public void stopValve() throws Exception {
+        if (valve != null && valve.isStarted()) {
+            valve.stop();
+        }
+    }
+
+    @Test
+    public void queueRoundsTheCapacityAndRejectsWhenFull() {
+        RecordQueue queue = new RecordQueue(3);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(record(0, i)), "entry " + i);
+        }
+        assertFalse(queue.offer(record(0, 4)));
+
+        ByteBuffer[] batch = new ByteBuffer[8];
+        assertThat(queue.drainTo(batch), equalTo(4));
+        for (int i = 0; i < 4; i++) {
+            assertThat(batch[i].getInt(4), equalTo(i));
+        }
+        assertTrue(queue.isEmpty());
+        assertTrue(queue.offer(record(0, 4)));
+    }
+
+    @Test
+    public void queueKeepsTheOrderOfEveryProducer() throws Exception {
+        int producers = 4;
+        int entries = 20_000;
+        RecordQueue queue = new RecordQueue(1024);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < entries; i++) {
+                    ByteBuffer record = record(producer, i);
+                    while (!queue.offer(record)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        int[] next = new int[producers];
+        ByteBuffer[] batch = new ByteBuffer[16];
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        int received = 0;
+        while (received < producers * entries) {
+            assertTrue(System.nanoTime() < deadline, "entries missing");
+            int count = queue.drainTo(batch);
+            for (int i = 0; i < count; i++) {
+                int producer = batch[i].getInt(0);
+                assertThat(batch[i].getInt(4), equalTo(next[producer]++));
+            }
+            received += count;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void closedQueueRejectsEntriesAndIsDrainedOnceEmpty() {
+        RecordQueue queue = new RecordQueue(8);
+        assertTrue(queue.offer(record(0, 0)));
+        assertTrue(queue.offer(record(0, 1)));
+        assertFalse(queue.isDrained());
+
+        queue.close();
+        assertTrue(queue.isClosed());
+        assertFalse(queue.offer(record(0, 2)));
+        assertFalse(queue.isDrained());
+
+        assertThat(queue.drainTo(new ByteBuffer[8]), equalTo(2));
+        assertTrue(queue.isDrained());
+    }
+
+    @Test
+    public void dropPolicyDiscardsTheEntriesThatDoNotFit() throws Exception {
+        valve = startValve(OverflowPolicy.DROP, 4);
+        synchronized (valve) {
+            blockWriter();
+            post(14);
+        }
+        valve.stop();
+
+        assertThat(readLines().size(), equalTo(5));
+        assertThat(valve.getDroppedEntryCount(), equalTo(10L));
+    }
+
+    @Test
+    public void inlinePolicyWritesTheEntriesThatDoNotFit() throws Exception {
+        valve = startValve(OverflowPolicy.INLINE, 4);
+        synchronized (valve) {
+            blockWriter();
+            post(14);
+            // The entries that did not fit are in the file before the queued ones
+            assertThat(readLines().size(), equalTo(10));
+        }
+        valve.stop();
+
+        assertThat(readLines().size(), equalTo(15));
+        assertThat(valve.getDroppedEntryCount(), equalTo(0L));
+    }
+
+    @Test
+    public void blockPolicyWaitsForRoomInTheQueue() throws Exception {
+        valve = startValve(OverflowPolicy.BLOCK, 4);
+        Thread producer = new Thread(() -> post(3));
+        synchronized (valve) {
+            blockWriter();
+            post(4);
+            producer.start();
+            awaitParked(producer);
+        }
+        producer.join();
+        valve.stop();
+
+        assertThat(readLines().size(), equalTo(8));
+        assertThat(valve.getDroppedEntryCount(), equalTo(0L));
+    }
+
+    @Test
+    public void stopReleasesBlockedRequestsAndCountsTheirEntries() throws Exception {
+        valve = startValve(OverflowPolicy.BLOCK, 4);
+        Thread producer = new Thread(() -> post(1));
+        AtomicReference<Exception> stopFailure = new AtomicReference<>();
+        Thread stopper = new Thread(() -> {
+            try {
+                valve.stop();
+            } catch (Exception e) {
+                stopFailure.set(e);
+            }
+        });
+        synchronized (valve) {
+            blockWriter();
+            post(4);
+            producer.start();
+            awaitParked(producer);
+            stopper.start();
+            producer.join(TimeUnit.SECONDS.toMillis(10));
+            assertFalse(producer.isAlive(), "request still blocked");
+        }
+        stopper.join();
+
+        assertThat(stopFailure.get(), equalTo(null));
+        assertThat(readLines().size(), equalTo(5));
+        assertThat(valve.getDroppedEntryCount(), equalTo(1L));
+    }
+
+    @Test
+    public void entriesFormattedWhileStoppingAreWrittenOrCountedAsDropped() throws Exception {
+        valve = startValve(OverflowPolicy.BLOCK, 16);
+        List<Thread> producers = startProducers(4, () -> valve.isStarted(), 0);
+        Thread.sleep(200);
+        valve.stop();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertThat(formattedEntries.get(), greaterThan(0));
+        assertThat(readLines().size() + valve.getDroppedEntryCount(), equalTo((long) formattedEntries.get()));
+    }
+
+    @Test
+    public void rotationUnderLoadKeepsEveryEntry() throws Exception {
+        valve = new PEAccessLogValve();
+        configure(valve, OverflowPolicy.BLOCK, 64);
+        valve.setRotatable(true);
+        valve.setRotationInterval(1);
+        valve.setAddDateStampToFirstAccessLogFile(true);
+        valve.setFileDateFormat("yyyy-MM-dd-HH-mm-ss");
+        valve.start();
+
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2200);
+        List<Thread> producers = startProducers(4, () -> System.nanoTime() < end, 10);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        valve.stop();
+
+        List<String> lines = readLines();
+        Set<String> uris = new HashSet<>();
+        for (String line : lines) {
+            assertTrue(uris.add(line.split("\"")[1]), line);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count(), greaterThan(1L));
+        }
+        assertAll(
+            () -> assertThat(lines.size(), equalTo(formattedEntries.get())),
+            () -> assertThat(valve.getDroppedEntryCount(), equalTo(0L)));
+    }
+
+    private PEAccessLogValve startValve(OverflowPolicy policy, int capacity) throws Exception {
+        PEAccessLogValve valve = new PEAccessLogValve();
+        configure(valve, policy, capacity);
+        // The writer takes the monitor of the valve to check for rotation
+        valve.setRotatable(true);
+        valve.setRotationInterval(0);
+        valve.start();
+        return valve;
+    }
+
+    private void configure(PEAccessLogValve valve, OverflowPolicy policy, int capacity) {
+        valve.setDirectory(directory.toString());
+        valve.setPrefix("access_log");
+        valve.setSuffix(".txt");
+        valve.setPattern("common");
+        valve.setAsync(true);
+        valve.setQueueCapacity(capacity);
+        valve.setOverflowPolicy(policy);
+    }
+
+    /**
+     * Hands one entry to the writer and waits until the writer blocks on
+     * the monitor of the valve, which the caller holds.
+     */
+    private void blockWriter() throws InterruptedException {
+        Thread.sleep(5);
+        post(1);
+        Thread writer = Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> "AccessLogWriter".equals(thread.getName()) && thread.isAlive())
+            .findFirst().orElseThrow();
+        awaitState(writer, Thread.State.BLOCKED);
+    }
+
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        awaitState(thread, Thread.State.TIMED_WAITING);
+    }
+
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.getState() != state) {
+            assertTrue(System.nanoTime() < deadline, thread.getName() + " is " + thread.getState());
+            Thread.sleep(1);
+        }
+    }
+
+    private interface Condition {
+        boolean holds();
+    }
+
+    private List<Thread> startProducers(int count, Condition running, int pauseEvery) {
+        AtomicInteger ids = new AtomicInteger();
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < count; p++) {
+            Thread producer = new Thread(() -> {
+                int posted = 0;
+                while (running.holds()) {
+                    post("/entry-" + ids.incrementAndGet());
+                    if (pauseEvery > 0 && ++posted % pauseEvery == 0) {
+                        sleep(1);
+                    }
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        return producers;
+    }
+
+    private void post(int count) {
+        for (int i = 0; i < count; i++) {
+            post("/entry");
+        }
+    }
+
+    private void post(String uri) {
+        HttpServletRequest servletRequest = proxy(HttpServletRequest.class, name -> {
+            switch (name) {
+                case "getRemoteHost":
+                    return "127.0.0.1";
+                case "getMethod":
+                    formattedEntries.incrementAndGet();
+                    return "GET";
+                case "getRequestURI":
+                    return uri;
+                case "getProtocol":
+                    return "HTTP/1.1";
+                default:
+                    return null;
+            }
+        });
+        Request request = proxy(Request.class, name -> "getRequest".equals(name) ? servletRequest : null);
+        Response response = proxy(HttpResponse.class, name -> "getStatus".equals(name) ? 200 : null);
+        try {
+            valve.postInvoke(request, response);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<String> readLines() throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted()::iterator) {
+                lines.addAll(Files.readAllLines(file, StandardCharsets.UTF_8));
+            }
+        }
+        return lines;
+    }
+
+    private static ByteBuffer record(int producer, int sequence) {
+        ByteBuffer record = ByteBuffer.allocate(8);
+        record.putInt(producer).putInt(sequence).flip();
+        return record;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private interface Handler {
+        Object invoke(String name);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(PEAccessLogValveTest.class.getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> {
+                Object value = handler.invoke(method.getName());
+                if (value == null && method.getReturnType().isPrimitive()) {
+                    return method.getReturnType() == boolean.class ? Boolean.FALSE : Integer.valueOf(0);
+                }
+                return value;
+            }));
+    }
+}
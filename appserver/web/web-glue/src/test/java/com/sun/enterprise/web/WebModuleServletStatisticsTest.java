@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.web;
+
+import jakarta.servlet.GenericServlet;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import org.apache.catalina.core.StandardWrapper;
+import org.glassfish.web.admin.monitor.ServletInstanceStatsProvider;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class WebModuleServletStatisticsTest {
+
+    @Test
+    public void lockedAllocationsOfTheServletAreReported() throws Exception {
+        WebModule webModule = new WebModule();
+        ServletInstanceStatsProvider statsProvider = new ServletInstanceStatsProvider("test", "module", "server",
+            null, new WebModuleServletStatistics(webModule));
+        assertThat(statsProvider.getLockedAllocationCount().getCount(), equalTo(0L));
+
+        StandardWrapper wrapper = new StandardWrapper();
+        wrapper.setName("test");
+        Servlet servlet = new TestServlet();
+        wrapper.setServlet(servlet);
+        webModule.addChild(wrapper);
+        // Only the first allocation initializes the servlet under the lock
+        for (int i = 0; i < 3; i++) {
+            wrapper.deallocate(wrapper.allocate());
+        }
+
+        assertThat(statsProvider.getLockedAllocationCount().getCount(), equalTo(1L));
+        assertThat(new WebModuleServletStatistics(webModule).getLockedAllocationCount("unknown"), equalTo(0L));
+    }
+
+    private static class TestServlet extends GenericServlet {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void service(ServletRequest req, ServletResponse res) {
+        }
+    }
+}
@@ -91,4 +91,9 @@ public class LogFacade {
             level = "WARNING")
     public static final String COULD_NOT_CREATE_BACKING_STORE = prefix + "00008";
 
+    @LogMessageInfo(
+            message = "Failed to replicate the pending changes of a session, they will be retried with a later flush",
+            level = "WARNING")
+    public static final String FAILED_TO_REPLICATE_PENDING_CHANGES = prefix + "00009";
+
 }
@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.web.ha.session.management;
+
+import com.sun.enterprise.container.common.spi.util.JavaEEIOUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Session;
+import org.glassfish.ha.store.api.BackingStoreException;
+import org.glassfish.web.ha.LogFacade;
+
+/**
+ * A {@link ReplicationAttributeStore} which replicates the changes of the sessions
+ * periodically rather than at the end of each request.
+ * <p>
+ * The changes made by the requests to a session between two flushes are coalesced,
+ * the last change of an attribute replacing the previous ones, and sent as a single
+ * {@link CompactCompositeMetadata} carrying the latest version of the session. The
+ * flushes are serialized, so the replica receives the versions of a session in order.
+ * <p>
+ * Pending changes are flushed before a session is loaded from the backing store and
+ * when the store stops, and discarded when the session is removed. A failed flush is
+ * retried with a later one: while the backing store fails, the periodic flushes are
+ * spaced out, twice as much after each failure up to {@link #MAX_RETRY_INTERVAL}, and
+ * only the first failure is logged as a warning.
+ */
+public class BatchingReplicationAttributeStore extends ReplicationAttributeStore {
+
+    public static final long DEFAULT_FLUSH_INTERVAL = 100L;
+
+    /**
+     * Longest time between two periodic flushes while the backing store fails, in
+     * milliseconds.
+     */
+    public static final long MAX_RETRY_INTERVAL = 30000L;
+
+    private final long flushInterval;
+    private final int compressionThreshold;
+
+    private final Map<String, PendingChanges> pendingChanges = new ConcurrentHashMap<>();
+
+    /**
+     * Serializes the flushes, and the removals against them, so that older changes of
+     * a session never overtake newer ones.
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Number of sends failed since the last successful one. Guarded by flushLock.
+     */
+    private int failures;
+
+    /**
+     * Time of the next periodic flush while the backing store fails, as given by
+     * {@link System#nanoTime()}. Guarded by flushLock.
+     */
+    private long retryTime;
+
+    private ScheduledExecutorService flusher;
+
+    /**
+     * @param flushInterval the time between two flushes, in milliseconds
+     * @param compressionThreshold the minimum size of the compressed values, or a negative
+     *                             number not to compress them
+     */
+    public BatchingReplicationAttributeStore(JavaEEIOUtils ioUtils, long flushInterval, int compressionThreshold) {
+        super(ioUtils);
+        this.flushInterval = flushInterval > 0 ? flushInterval : DEFAULT_FLUSH_INTERVAL;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public void start() throws LifecycleException {
+        super.start();
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-replication-flusher-" + getApplicationId());
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> flush(true), flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(flushInterval * 10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flusher = null;
+        }
+        flush();
+        super.stop();
+    }
+
+    @Override
+    protected CompositeMetadata newCompositeMetadata(long version, long lastAccessTime,
+            long maxInactiveInterval, List<SessionAttributeMetadata> entries, byte[] trunkState) {
+        return new CompactCompositeMetadata(version, lastAccessTime, maxInactiveInterval, entries, trunkState, null,
+            compressionThreshold);
+    }
+
+    /**
+     * Queues the changes until the next flush.
+     */
+    @Override
+    protected void replicate(ModifiedAttributeHASession session, CompositeMetadata compositeMetadata, boolean isNew) {
+        pendingChanges.compute(session.getIdInternal(), (id, changes) -> {
+            if (changes == null) {
+                changes = new PendingChanges();
+            }
+            changes.add(compositeMetadata, isNew);
+            return changes;
+        });
+    }
+
+    /**
+     * Only updates the pending changes of the session if there are some, since they
+     * carry its version and last access time.
+     */
+    @Override
+    public void updateLastAccessTime(Session session) throws IOException {
+        if (!(session instanceof BaseHASession)) {
+            return;
+        }
+        PendingChanges changes = pendingChanges.computeIfPresent(session.getIdInternal(), (id, pending) -> {
+            pending.version = session.getVersion();
+            pending.lastAccessTime = ((BaseHASession) session).getLastAccessedTimeInternal();
+            return pending;
+        });
+        if (changes == null) {
+            super.updateLastAccessTime(session);
+        }
+    }
+
+    @Override
+    public Session load(String id, String version) throws ClassNotFoundException, IOException {
+        if (pendingChanges.containsKey(id)) {
+            flush(id);
+        }
+        return super.load(id, version);
+    }
+
+    @Override
+    public void remove(String id) throws IOException {
+        discard(id);
+        super.remove(id);
+    }
+
+    @Override
+    public void doRemove(String id) throws IOException {
+        discard(id);
+        super.doRemove(id);
+    }
+
+    @Override
+    public void removeSynchronized(String id) throws IOException {
+        discard(id);
+        super.removeSynchronized(id);
+    }
+
+    /**
+     * @return the number of sessions having changes not replicated yet
+     */
+    public int getPendingSessionCount() {
+        return pendingChanges.size();
+    }
+
+    /**
+     * @return the time until the next periodic flush is due after a failure, in
+     *         milliseconds, or 0 if the last send succeeded
+     */
+    long getRetryInterval() {
+        flushLock.lock();
+        try {
+            return failures == 0 ? 0L : retryInterval();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Sends the pending changes of all the sessions to the backing store.
+     */
+    public void flush() {
+        flush(false);
+    }
+
+    /**
+     * Sends the pending changes of all the sessions to the backing store. A periodic
+     * flush is skipped until the retry is due, and stops at the first failure.
+     *
+     * @param periodic true for a periodic flush
+     */
+    void flush(boolean periodic) {
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            if (periodic && failures > 0 && System.nanoTime() - retryTime < 0) {
+                return;
+            }
+            for (String id : new ArrayList<>(pendingChanges.keySet())) {
+                if (!send(id) && periodic) {
+                    // the other sessions are sent with the retry
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Sends the pending changes of a session to the backing store.
+     *
+     * @param id the session id
+     */
+    public void flush(String id) {
+        flushLock.lock();
+        try {
+            send(id);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void discard(String id) {
+        if (id == null) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            pendingChanges.remove(id);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Must be called while holding flushLock.
+     *
+     * @return false if the backing store failed
+     */
+    private boolean send(String id) {
+        PendingChanges changes = pendingChanges.remove(id);
+        if (changes == null) {
+            return true;
+        }
+        try {
+            getCompositeMetadataBackingStore().save(id, changes.toCompositeMetadata(), changes.isNew);
+            failures = 0;
+            return true;
+        } catch (BackingStoreException | RuntimeException e) {
+            // only warn once until the backing store recovers
+            _logger.log(failures == 0 ? Level.WARNING : Level.FINE, LogFacade.FAILED_TO_REPLICATE_PENDING_CHANGES, e);
+            failures++;
+            retryTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryInterval());
+            // keep the changes made since then on top of the failed ones
+            pendingChanges.merge(id, changes, (newer, failed) -> failed.addAll(newer));
+            return false;
+        }
+    }
+
+    /**
+     * Must be called while holding flushLock, after a failure.
+     */
+    private long retryInterval() {
+        long maxRetryInterval = Math.max(flushInterval, MAX_RETRY_INTERVAL);
+        if (failures >= Long.numberOfLeadingZeros(flushInterval) - 1) {
+            return maxRetryInterval;
+        }
+        return Math.min(flushInterval << failures, maxRetryInterval);
+    }
+
+    /**
+     * The coalesced changes of a session. Only accessed inside the remapping functions
+     * of the pending changes map, or after it was removed from it.
+     */
+    private final class PendingChanges {
+
+        private final Map<String, SessionAttributeMetadata> entries = new LinkedHashMap<>();
+        private boolean isNew;
+        private long version;
+        private long lastAccessTime;
+        private long maxInactiveInterval;
+        private byte[] trunkState;
+
+        void add(CompositeMetadata compositeMetadata, boolean isNewSession) {
+            isNew |= isNewSession;
+            version = compositeMetadata.getVersion();
+            lastAccessTime = compositeMetadata._storeable_getLastAccessTime();
+            maxInactiveInterval = compositeMetadata._storeable_getMaxIdleTime();
+            if (compositeMetadata.getState() != null) {
+                trunkState = compositeMetadata.getState();
+            }
+            for (SessionAttributeMetadata attr : compositeMetadata.getModifiedEntries()) {
+                // keep the entries in the order of their last change
+                entries.remove(attr.getAttributeName());
+                entries.put(attr.getAttributeName(), attr);
+            }
+        }
+
+        PendingChanges addAll(PendingChanges newer) {
+            isNew |= newer.isNew;
+            version = newer.version;
+            lastAccessTime = newer.lastAccessTime;
+            maxInactiveInterval = newer.maxInactiveInterval;
+            if (newer.trunkState != null) {
+                trunkState = newer.trunkState;
+            }
+            for (SessionAttributeMetadata attr : newer.entries.values()) {
+                entries.remove(attr.getAttributeName());
+                entries.put(attr.getAttributeName(), attr);
+            }
+            return this;
+        }
+
+        CompositeMetadata toCompositeMetadata() {
+            return newCompositeMetadata(version, lastAccessTime, maxInactiveInterval,
+                new ArrayList<>(entries.values()), trunkState);
+        }
+    }
+}
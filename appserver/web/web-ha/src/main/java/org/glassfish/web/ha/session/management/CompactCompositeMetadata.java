@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.web.ha.session.management;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link CompositeMetadata} written in a compact binary envelope.
+ * <p>
+ * Numbers are written as variable length integers, operations as a single byte and
+ * names as length prefixed UTF-8. Attribute values and the session state larger than
+ * the compression threshold are deflated, if that makes them smaller.
+ * <p>
+ * The envelope is not compatible with the one of {@link CompositeMetadata}, so all
+ * the instances of a cluster must use the same persistence scope.
+ */
+public class CompactCompositeMetadata extends CompositeMetadata {
+
+    /**
+     * Values smaller than this number of bytes are never compressed.
+     */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final SessionAttributeMetadata.Operation[] OPERATIONS = SessionAttributeMetadata.Operation.values();
+
+    private transient int compressionThreshold = -1;
+
+    /**
+     * Every Storeable must have a public no arg constructor
+     */
+    public CompactCompositeMetadata() {
+    }
+
+    /**
+     * @param compressionThreshold the minimum size of the compressed values, or a negative
+     *                             number not to compress them
+     * @see CompositeMetadata#CompositeMetadata(long, long, long, Collection, byte[], String)
+     */
+    public CompactCompositeMetadata(long version, long lastAccessTime, long maxInactiveInterval,
+            Collection<SessionAttributeMetadata> entries, byte[] state, String stringExtraParam,
+            int compressionThreshold) {
+        super(version, lastAccessTime, maxInactiveInterval, entries, state, stringExtraParam);
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public void _storeable_writeState(OutputStream os) throws IOException {
+        try (DataOutputStream dos = new DataOutputStream(os)) {
+            boolean[] dirtyBits = _storeable_getDirtyStatus();
+            dos.writeByte(FORMAT_VERSION);
+            writeVarLong(dos, getVersion());
+            writeVarLong(dos, _storeable_getLastAccessTime());
+            writeVarLong(dos, _storeable_getMaxIdleTime());
+
+            int flags = 0;
+            for (int i = 0; i < dirtyBits.length; i++) {
+                if (dirtyBits[i]) {
+                    flags |= 1 << i;
+                }
+            }
+            dos.writeByte(flags);
+
+            if (dirtyBits[0]) {
+                writeValue(dos, getState());
+            }
+            if (dirtyBits[1]) {
+                writeString(dos, getStringExtraParam());
+            }
+            if (dirtyBits[2]) {
+                Collection<SessionAttributeMetadata> entries = getModifiedEntries();
+                if (entries == null) {
+                    entries = getEntries();
+                }
+                writeVarLong(dos, entries.size());
+                for (SessionAttributeMetadata attr : entries) {
+                    dos.writeByte(attr.getOperation().ordinal());
+                    writeString(dos, attr.getAttributeName());
+                    if (attr.getOperation() != SessionAttributeMetadata.Operation.DELETE) {
+                        writeValue(dos, attr.getState());
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void _storeable_readState(InputStream is) throws IOException {
+        try (DataInputStream dis = new DataInputStream(is)) {
+            int formatVersion = dis.readUnsignedByte();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unknown format version: " + formatVersion);
+            }
+            _storeable_setVersion(readVarLong(dis));
+            _storeable_setLastAccessTime(readVarLong(dis));
+            _storeable_setMaxIdleTime(readVarLong(dis));
+            int flags = dis.readUnsignedByte();
+
+            if ((flags & 1) != 0) {
+                byte[] state = readValue(dis);
+                if (state != null && state.length > 0) {
+                    setState(state);
+                }
+            }
+            if ((flags & 2) != 0) {
+                String stringExtraParam = readString(dis);
+                if (stringExtraParam != null) {
+                    setStringExtraParam(stringExtraParam);
+                }
+            }
+            if ((flags & 4) != 0) {
+                long entryCount = readVarLong(dis);
+                for (long i = 0; i < entryCount; i++) {
+                    int opcode = dis.readUnsignedByte();
+                    if (opcode >= OPERATIONS.length) {
+                        throw new IOException("Unknown operation: " + opcode);
+                    }
+                    SessionAttributeMetadata.Operation op = OPERATIONS[opcode];
+                    String attrName = readString(dis);
+                    byte[] attrData = op == SessionAttributeMetadata.Operation.DELETE ? null : readValue(dis);
+                    if (attrName != null) {
+                        applyEntry(new SessionAttributeMetadata(attrName, op, attrData));
+                    }
+                }
+            }
+            Arrays.fill(_storeable_getDirtyStatus(), true);
+        }
+    }
+
+    /**
+     * Writes the value as a header holding its stored length and a compressed flag,
+     * followed for a compressed value by its original length, and then by its bytes.
+     */
+    private void writeValue(DataOutputStream dos, byte[] value) throws IOException {
+        if (value == null) {
+            writeVarLong(dos, 0);
+            return;
+        }
+        if (compressionThreshold >= 0 && value.length > 0 && value.length >= compressionThreshold) {
+            byte[] compressed = deflate(value);
+            if (compressed != null) {
+                writeVarLong(dos, ((long) compressed.length << 1) | 1);
+                writeVarLong(dos, value.length);
+                dos.write(compressed);
+                return;
+            }
+        }
+        writeVarLong(dos, (long) value.length << 1);
+        dos.write(value);
+    }
+
+    private static byte[] readValue(DataInputStream dis) throws IOException {
+        long header = readVarLong(dis);
+        int length = toLength(header >>> 1);
+        if ((header & 1) == 0) {
+            byte[] value = new byte[length];
+            dis.readFully(value);
+            return value;
+        }
+
+        int originalLength = toLength(readVarLong(dis));
+        byte[] compressed = new byte[length];
+        dis.readFully(compressed);
+        return inflate(compressed, originalLength);
+    }
+
+    private static void writeString(DataOutputStream dos, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(dos, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(dos, bytes.length + 1L);
+        dos.write(bytes);
+    }
+
+    private static String readString(DataInputStream dis) throws IOException {
+        long length = readVarLong(dis);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[toLength(length - 1)];
+        dis.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the deflated value, or null if it would not be smaller than the value
+     */
+    private static byte[] deflate(byte[] value) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(value);
+            deflater.finish();
+            byte[] buffer = new byte[value.length - 1];
+            int length = 0;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return deflater.finished() ? Arrays.copyOf(buffer, length) : null;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int originalLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] value = new byte[originalLength];
+            int length = 0;
+            while (length < originalLength) {
+                int inflated = inflater.inflate(value, length, originalLength - length);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != originalLength || !inflater.finished()) {
+                throw new IOException("Corrupted compressed value");
+            }
+            return value;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted compressed value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    static void writeVarLong(DataOutputStream dos, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            dos.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        dos.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInputStream dis) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = dis.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length integer");
+    }
+
+    private static int toLength(long length) throws IOException {
+        if (length < 0 || length > Integer.MAX_VALUE - 8) {
+            throw new IOException("Invalid length: " + length);
+        }
+        return (int) length;
+    }
+
+    @Override
+    public String toString() {
+        return "Compact" + super.toString();
+    }
+}
@@ -39,7 +39,7 @@ import org.glassfish.ha.store.api.Storeable;
  * attributes can be obtained from the individual SessionAttributeMetadata that is part
  * of the collection returned by getEntries().
  */
-public final class CompositeMetadata implements Storeable {
+public class CompositeMetadata implements Storeable {
 
 
     private long version;
@@ -142,6 +142,27 @@ public final class CompositeMetadata implements Storeable {
         return version;
     }
 
+    /**
+     * @return the attribute changes this metadata was created with, to be written by
+     *         {@link #_storeable_writeState(OutputStream)}
+     */
+    Collection<SessionAttributeMetadata> getModifiedEntries() {
+        return entries;
+    }
+
+    /**
+     * Applies an attribute change read from the store.
+     *
+     * @param attr the added, updated or deleted attribute
+     */
+    void applyEntry(SessionAttributeMetadata attr) {
+        if (attr.getOperation() == SessionAttributeMetadata.Operation.DELETE) {
+            attributesMap.remove(attr.getAttributeName());
+        } else {
+            attributesMap.put(attr.getAttributeName(), attr);
+        }
+    }
+
     @Override
     public long _storeable_getVersion() {
         return version;
@@ -149,8 +149,7 @@ public class ReplicationAttributeStore extends ReplicationStore {
             if (_logger.isLoggable(Level.FINE)) {
                 _logger.fine("CompositeMetadata is " + compositeMetadata + " id is " + session.getIdInternal());
             }
-            replicator.save(session.getIdInternal(), //id
-                    compositeMetadata, !((HASession) session).isPersistent());
+            replicate(modAttrSession, compositeMetadata, !((HASession) session).isPersistent());
             modAttrSession.resetAttributeState();
             postSaveUpdate(modAttrSession);
         } catch (BackingStoreException ex) {
@@ -194,8 +193,7 @@ public class ReplicationAttributeStore extends ReplicationStore {
                 _logger.fine("CompositeMetadata is " + compositeMetadata + " id is " + session.getIdInternal());
             }
 
-            replicator.save(session.getIdInternal(), //id
-                    compositeMetadata, !((HASession) session).isPersistent());
+            replicate(modAttrSession, compositeMetadata, !((HASession) session).isPersistent());
             modAttrSession.resetAttributeState();
             postSaveUpdate(modAttrSession);
         } catch (BackingStoreException ex) {
@@ -203,8 +201,22 @@ public class ReplicationAttributeStore extends ReplicationStore {
         }
     }
 
+    /**
+     * Sends the changes of the session to the backing store.
+     *
+     * @param session the saved session
+     * @param compositeMetadata the changes of the session since its last save
+     * @param isNew true if the session was never saved before
+     *
+     * @exception BackingStoreException if the backing store fails to save the changes
+     */
+    protected void replicate(ModifiedAttributeHASession session, CompositeMetadata compositeMetadata, boolean isNew)
+            throws BackingStoreException {
+        getCompositeMetadataBackingStore().save(session.getIdInternal(), compositeMetadata, isNew);
+    }
+
     @SuppressWarnings("unchecked")
-    private BackingStore<String, CompositeMetadata> getCompositeMetadataBackingStore() {
+    protected BackingStore<String, CompositeMetadata> getCompositeMetadataBackingStore() {
         ReplicationManagerBase<CompositeMetadata> mgr
                 = (ReplicationManagerBase<CompositeMetadata>) this.getManager();
         return mgr.getBackingStore();
@@ -421,13 +433,27 @@ public class ReplicationAttributeStore extends ReplicationStore {
                 SessionAttributeMetadata.Operation.DELETE, deletedAttrs);
 
         CompositeMetadata result
-            = new CompositeMetadata(modAttrSession.getVersion(),
+            = newCompositeMetadata(modAttrSession.getVersion(),
                 modAttrSession.getLastAccessedTimeInternal(),
                 modAttrSession.getMaxInactiveInterval()*1000L,
-                entries, trunkState, null);
+                entries, trunkState);
         return result;
     }
 
+    /**
+     * Creates the metadata holding the changes of a session.
+     *
+     * @param version the version of the session
+     * @param lastAccessTime the last access time of the session
+     * @param maxInactiveInterval the maximum idle time of the session, in milliseconds
+     * @param entries the added, updated and deleted attributes
+     * @param trunkState the serialized session without its attributes, or null if it did not change
+     */
+    protected CompositeMetadata newCompositeMetadata(long version, long lastAccessTime,
+            long maxInactiveInterval, List<SessionAttributeMetadata> entries, byte[] trunkState) {
+        return new CompositeMetadata(version, lastAccessTime, maxInactiveInterval, entries, trunkState, null);
+    }
+
     private void printAttrList(String attrListType, List<String> attrList) {
         if (_logger.isLoggable(Level.FINE)) {
             _logger.fine("AttributeType = " + attrListType);
@@ -32,6 +32,8 @@ import org.glassfish.ha.store.api.Storeable;
 import org.glassfish.ha.store.util.SimpleMetadata;
 import org.glassfish.hk2.api.PerLookup;
 import org.glassfish.web.deployment.runtime.SessionManager;
+import org.glassfish.web.ha.session.management.BatchingReplicationAttributeStore;
+import org.glassfish.web.ha.session.management.CompactCompositeMetadata;
 import org.glassfish.web.ha.session.management.CompositeMetadata;
 import org.glassfish.web.ha.session.management.FullSessionFactory;
 import org.glassfish.web.ha.session.management.HASessionStoreValve;
@@ -84,6 +86,12 @@ public class ReplicatedWebMethodSessionStrategyBuilder extends BasePersistenceSt
                     new ModifiedAttributeSessionFactory(),
                     new ReplicationAttributeStore(ioUtils),
                     ctx, serverConfigLookup);
+        } else if (this.getPersistenceScope().equals("modified-attribute-batched")) {
+            setupReplicationWebEventPersistentManager(CompactCompositeMetadata.class,
+                    new ModifiedAttributeSessionFactory(),
+                    new BatchingReplicationAttributeStore(ioUtils,
+                            replicationFlushInterval, replicationCompressionThreshold),
+                    ctx, serverConfigLookup);
         } else {
             throw new IllegalArgumentException(this.getPersistenceScope());
         }
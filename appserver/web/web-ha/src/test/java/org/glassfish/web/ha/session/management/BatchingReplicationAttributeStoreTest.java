@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.web.ha.session.management;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.apache.catalina.Manager;
+import org.glassfish.ha.store.api.BackingStore;
+import org.glassfish.ha.store.api.BackingStoreException;
+import org.glassfish.ha.store.api.BackingStoreFactory;
+import org.glassfish.web.ha.session.management.SessionAttributeMetadata.Operation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchingReplicationAttributeStoreTest {
+
+    private RecordingBackingStore backingStore;
+    private BatchingReplicationAttributeStore store;
+
+    @BeforeEach
+    public void createStore() {
+        backingStore = new RecordingBackingStore();
+        store = new BatchingReplicationAttributeStore(null, 1000L, 1024) {
+            @Override
+            protected BackingStore<String, CompositeMetadata> getCompositeMetadataBackingStore() {
+                return backingStore;
+            }
+        };
+    }
+
+    @Test
+    public void changesOfASessionAreSentOnceWithTheLastChangeOfEachAttribute() {
+        store.replicate(session("s1"), metadata(1L, new byte[] {1},
+            attr("a", Operation.ADD, 1), attr("b", Operation.ADD, 1), attr("c", Operation.ADD, 1)), true);
+        store.replicate(session("s1"), metadata(2L, null,
+            attr("a", Operation.UPDATE, 2), attr("b", Operation.DELETE, 0)), false);
+        assertThat(store.getPendingSessionCount(), equalTo(1));
+        assertTrue(backingStore.saves.isEmpty());
+
+        store.flush();
+
+        assertThat(store.getPendingSessionCount(), equalTo(0));
+        assertThat(backingStore.saves.size(), equalTo(1));
+        Save save = backingStore.saves.get(0);
+        assertThat(save.id, equalTo("s1"));
+        assertTrue(save.isNew);
+        assertThat(save.metadata, instanceOf(CompactCompositeMetadata.class));
+        assertThat(save.metadata.getVersion(), equalTo(2L));
+        // the trunk state of the first request is kept, the second one did not change it
+        assertArrayEquals(new byte[] {1}, save.metadata.getState());
+        assertThat(names(save.metadata), contains("c", "a", "b"));
+        assertThat(operations(save.metadata), contains(Operation.ADD, Operation.UPDATE, Operation.DELETE));
+        assertArrayEquals(new byte[] {2}, entry(save.metadata, "a").getState());
+    }
+
+    @Test
+    public void sessionsAreSentSeparately() {
+        store.replicate(session("s1"), metadata(1L, null, attr("a", Operation.ADD, 1)), false);
+        store.replicate(session("s2"), metadata(5L, null, attr("a", Operation.ADD, 2)), false);
+
+        store.flush("s2");
+        assertThat(backingStore.saves.size(), equalTo(1));
+        assertThat(backingStore.saves.get(0).id, equalTo("s2"));
+        assertFalse(backingStore.saves.get(0).isNew);
+
+        store.flush();
+        assertThat(backingStore.saves.size(), equalTo(2));
+        assertThat(backingStore.saves.get(1).id, equalTo("s1"));
+        assertThat(backingStore.saves.get(1).metadata.getVersion(), equalTo(1L));
+    }
+
+    @Test
+    public void failedChangesAreRetriedBelowTheNewerOnes() {
+        store.replicate(session("s1"), metadata(1L, null,
+            attr("a", Operation.ADD, 1), attr("b", Operation.ADD, 1)), true);
+        backingStore.failures = 1;
+        store.flush();
+        assertThat(store.getPendingSessionCount(), equalTo(1));
+
+        store.replicate(session("s1"), metadata(2L, null, attr("a", Operation.UPDATE, 2)), false);
+        store.flush();
+
+        assertThat(backingStore.saves.size(), equalTo(1));
+        Save save = backingStore.saves.get(0);
+        assertTrue(save.isNew);
+        assertThat(save.metadata.getVersion(), equalTo(2L));
+        assertThat(names(save.metadata), contains("b", "a"));
+        assertArrayEquals(new byte[] {2}, entry(save.metadata, "a").getState());
+    }
+
+    @Test
+    public void retryIntervalDoublesUntilASendSucceeds() {
+        store.replicate(session("s1"), metadata(1L, null, attr("a", Operation.ADD, 1)), true);
+        assertThat(store.getRetryInterval(), equalTo(0L));
+
+        backingStore.failures = 7;
+        store.flush();
+        assertThat(store.getRetryInterval(), equalTo(2000L));
+        store.flush();
+        assertThat(store.getRetryInterval(), equalTo(4000L));
+        for (int i = 0; i < 5; i++) {
+            store.flush();
+        }
+        assertThat(store.getRetryInterval(), equalTo(BatchingReplicationAttributeStore.MAX_RETRY_INTERVAL));
+
+        store.flush();
+        assertThat(store.getRetryInterval(), equalTo(0L));
+        assertThat(backingStore.saves.size(), equalTo(1));
+    }
+
+    @Test
+    public void periodicFlushStopsAndWaitsForTheRetryAfterAFailure() {
+        store.replicate(session("s1"), metadata(1L, null, attr("a", Operation.ADD, 1)), true);
+        store.replicate(session("s2"), metadata(1L, null, attr("a", Operation.ADD, 2)), true);
+        backingStore.failures = 1;
+
+        store.flush(true);
+        assertThat(backingStore.attempts, equalTo(1));
+        store.flush(true);
+        assertThat(backingStore.attempts, equalTo(1));
+        assertThat(store.getPendingSessionCount(), equalTo(2));
+
+        store.flush();
+        assertThat(backingStore.saves.size(), equalTo(2));
+        assertThat(store.getPendingSessionCount(), equalTo(0));
+    }
+
+    @Test
+    public void onlyTheFirstFailureIsLoggedAsAWarning() {
+        List<Level> levels = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                levels.add(record.getLevel());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Level level = HAStoreBase._logger.getLevel();
+        HAStoreBase._logger.setLevel(Level.FINE);
+        HAStoreBase._logger.addHandler(handler);
+        try {
+            store.replicate(session("s1"), metadata(1L, null, attr("a", Operation.ADD, 1)), true);
+            backingStore.failures = 3;
+            for (int i = 0; i < 3; i++) {
+                store.flush();
+            }
+            store.flush();
+            backingStore.failures = 1;
+            store.replicate(session("s1"), metadata(2L, null, attr("a", Operation.UPDATE, 2)), false);
+            store.flush();
+        } finally {
+            HAStoreBase._logger.removeHandler(handler);
+            HAStoreBase._logger.setLevel(level);
+        }
+
+        assertThat(levels, contains(Level.WARNING, Level.FINE, Level.FINE, Level.WARNING));
+    }
+
+    @Test
+    public void flushWithoutChangesSendsNothing() {
+        store.flush();
+        store.flush("unknown");
+
+        assertTrue(backingStore.saves.isEmpty());
+    }
+
+    private static ModifiedAttributeHASession session(String sessionId) {
+        Manager manager = (Manager) Proxy.newProxyInstance(BatchingReplicationAttributeStoreTest.class.getClassLoader(),
+            new Class<?>[] {Manager.class}, (proxy, method, args) -> null);
+        return new ModifiedAttributeHASession(manager) {
+            @Override
+            public String getIdInternal() {
+                return sessionId;
+            }
+        };
+    }
+
+    private static CompositeMetadata metadata(long version, byte[] state, SessionAttributeMetadata... entries) {
+        return new CompositeMetadata(version, 0L, 0L, List.of(entries), state, null);
+    }
+
+    private static SessionAttributeMetadata attr(String name, Operation operation, int value) {
+        return new SessionAttributeMetadata(name, operation,
+            operation == Operation.DELETE ? null : new byte[] {(byte) value});
+    }
+
+    private static List<String> names(CompositeMetadata metadata) {
+        List<String> names = new ArrayList<>();
+        for (SessionAttributeMetadata attr : metadata.getModifiedEntries()) {
+            names.add(attr.getAttributeName());
+        }
+        return names;
+    }
+
+    private static List<Operation> operations(CompositeMetadata metadata) {
+        List<Operation> operations = new ArrayList<>();
+        for (SessionAttributeMetadata attr : metadata.getModifiedEntries()) {
+            operations.add(attr.getOperation());
+        }
+        return operations;
+    }
+
+    private static SessionAttributeMetadata entry(CompositeMetadata metadata, String name) {
+        for (SessionAttributeMetadata attr : metadata.getModifiedEntries()) {
+            if (attr.getAttributeName().equals(name)) {
+                return attr;
+            }
+        }
+        throw new AssertionError(name);
+    }
+
+    private static final class Save {
+
+        final String id;
+        final CompositeMetadata metadata;
+        final boolean isNew;
+
+        Save(String id, CompositeMetadata metadata, boolean isNew) {
+            this.id = id;
+            this.metadata = metadata;
+            this.isNew = isNew;
+        }
+    }
+
+    private static final class RecordingBackingStore extends BackingStore<String, CompositeMetadata> {
+
+        final List<Save> saves = new ArrayList<>();
+        int failures;
+        int attempts;
+
+        @Override
+        public BackingStoreFactory getBackingStoreFactory() {
+            return null;
+        }
+
+        @Override
+        public CompositeMetadata load(String key, String version) {
+            return null;
+        }
+
+        @Override
+        public String save(String key, CompositeMetadata value, boolean isNew) throws BackingStoreException {
+            attempts++;
+            if (failures > 0) {
+                failures--;
+                throw new BackingStoreException("Replica unreachable");
+            }
+            saves.add(new Save(key, value, isNew));
+            return null;
+        }
+
+        @Override
+        public void remove(String key) {
+        }
+
+        @Override
+        public int size() {
+            return saves.size();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.glassfish.web.ha.session.management;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.glassfish.web.ha.session.management.SessionAttributeMetadata.Operation;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CompactCompositeMetadataTest {
+
+    private static final byte[] SMALL = {1, 2, 3};
+    private static final byte[] LARGE = repeated(4096);
+
+    @Test
+    public void envelopeRoundTrips() throws Exception {
+        CompactCompositeMetadata written = new CompactCompositeMetadata(300L, 1_700_000_000_000L, 1_800_000L,
+            List.of(
+                new SessionAttributeMetadata("small", Operation.ADD, SMALL),
+                new SessionAttributeMetadata("large", Operation.UPDATE, LARGE),
+                new SessionAttributeMetadata("empty", Operation.ADD, new byte[0])),
+            LARGE, "extra", 1024);
+
+        CompactCompositeMetadata read = read(write(written));
+
+        assertThat(read.getVersion(), equalTo(300L));
+        assertThat(read._storeable_getLastAccessTime(), equalTo(1_700_000_000_000L));
+        assertThat(read._storeable_getMaxIdleTime(), equalTo(1_800_000L));
+        assertArrayEquals(LARGE, read.getState());
+        assertThat(read.getStringExtraParam(), equalTo("extra"));
+        Map<String, SessionAttributeMetadata> entries = entries(read);
+        assertThat(entries.size(), equalTo(3));
+        assertThat(entries.get("small").getOperation(), equalTo(Operation.ADD));
+        assertArrayEquals(SMALL, entries.get("small").getState());
+        assertThat(entries.get("large").getOperation(), equalTo(Operation.UPDATE));
+        assertArrayEquals(LARGE, entries.get("large").getState());
+        assertArrayEquals(new byte[0], entries.get("empty").getState());
+    }
+
+    @Test
+    public void valuesFromTheThresholdAreCompressed() throws Exception {
+        byte[] compressed = write(newMetadata(LARGE, 1024));
+        byte[] uncompressed = write(newMetadata(LARGE, -1));
+        byte[] belowThreshold = write(newMetadata(LARGE, LARGE.length + 1));
+
+        assertThat(compressed.length, lessThan(LARGE.length / 10));
+        assertThat(uncompressed.length, equalTo(belowThreshold.length));
+        assertArrayEquals(LARGE, entries(read(compressed)).get("value").getState());
+        assertArrayEquals(LARGE, entries(read(uncompressed)).get("value").getState());
+    }
+
+    @Test
+    public void incompressibleValuesAreStoredAsIs() throws Exception {
+        byte[] random = new byte[2048];
+        new Random(42).nextBytes(random);
+
+        byte[] envelope = write(newMetadata(random, 0));
+
+        assertThat(envelope.length, lessThan(random.length + 32));
+        assertArrayEquals(random, entries(read(envelope)).get("value").getState());
+    }
+
+    @Test
+    public void deletionIsAppliedToTheAttributesReadBefore() throws Exception {
+        CompactCompositeMetadata metadata = read(write(newMetadata(SMALL, 1024)));
+        byte[] deletion = write(new CompactCompositeMetadata(2L, 0L, 0L,
+            List.of(new SessionAttributeMetadata("value", Operation.DELETE, null)), null, null, 1024));
+
+        metadata._storeable_readState(new ByteArrayInputStream(deletion));
+
+        assertThat(metadata.getVersion(), equalTo(2L));
+        assertThat(entries(metadata).get("value"), nullValue());
+    }
+
+    @Test
+    public void unknownFormatIsRejected() throws Exception {
+        byte[] envelope = write(newMetadata(SMALL, 1024));
+        envelope[0] = 2;
+
+        assertThrows(IOException.class, () -> read(envelope));
+    }
+
+    @Test
+    public void corruptedCompressedValueIsRejected() throws Exception {
+        byte[] envelope = write(newMetadata(LARGE, 0));
+        envelope[envelope.length - 3] ^= 0x55;
+
+        assertThrows(IOException.class, () -> read(envelope));
+    }
+
+    @Test
+    public void variableLengthNumbersRoundTrip() throws Exception {
+        long[] values = {0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE, -1L, Long.MIN_VALUE};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(out)) {
+            for (long value : values) {
+                CompactCompositeMetadata.writeVarLong(dos, value);
+            }
+        }
+
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (long value : values) {
+                assertThat(CompactCompositeMetadata.readVarLong(dis), equalTo(value));
+            }
+        }
+        // one byte per 7 bits
+        assertThat(out.size(), equalTo(1 + 1 + 1 + 2 + 2 + 3 + 5 + 9 + 10 + 10));
+    }
+
+    private static CompactCompositeMetadata newMetadata(byte[] value, int compressionThreshold) {
+        return new CompactCompositeMetadata(1L, 0L, 0L,
+            List.of(new SessionAttributeMetadata("value", Operation.ADD, value)), null, null, compressionThreshold);
+    }
+
+    private static byte[] write(CompactCompositeMetadata metadata) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        metadata._storeable_writeState(out);
+        return out.toByteArray();
+    }
+
+    private static CompactCompositeMetadata read(byte[] envelope) throws IOException {
+        CompactCompositeMetadata metadata = new CompactCompositeMetadata();
+        metadata._storeable_readState(new ByteArrayInputStream(envelope));
+        return metadata;
+    }
+
+    private static Map<String, SessionAttributeMetadata> entries(CompositeMetadata metadata) {
+        Map<String, SessionAttributeMetadata> entries = new HashMap<>();
+        for (SessionAttributeMetadata attr : metadata.getEntries()) {
+            entries.put(attr.getAttributeName(), attr);
+        }
+        return entries;
+    }
+
+    private static byte[] repeated(int length) {
+        byte[] value = new byte[length];
+        Arrays.fill(value, (byte) 'x');
+        return value;
+    }
+}
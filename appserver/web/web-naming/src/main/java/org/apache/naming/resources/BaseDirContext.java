@@ -105,6 +105,12 @@ public abstract class BaseDirContext implements DirContext {
     protected int cacheMaxSize = 10240; // 10 MB
 
 
+    /**
+     * Name of the {@link ResourceCache} implementation class.
+     */
+    protected String cacheClassName = ConcurrentResourceCache.class.getName();
+
+
     // ------------------------------------------------------------- Properties
 
     /**
@@ -201,6 +207,22 @@ public abstract class BaseDirContext implements DirContext {
     }
 
 
+    /**
+     * Return the name of the resource cache implementation class.
+     */
+    public String getCacheClassName() {
+        return cacheClassName;
+    }
+
+
+    /**
+     * Set the name of the resource cache implementation class.
+     */
+    public void setCacheClassName(String cacheClassName) {
+        this.cacheClassName = cacheClassName;
+    }
+
+
     // --------------------------------------------------------- Public Methods
 
 
@@ -17,6 +17,8 @@
 
 package org.apache.naming.resources;
 
+import java.util.concurrent.ConcurrentMap;
+
 import javax.naming.directory.DirContext;
 
 /**
@@ -40,6 +42,12 @@ public class CacheEntry {
     public long accessCount = 0;
     public int size = 1;
 
+    /**
+     * Representations of the resource compressed on demand, by content
+     * coding. They share the lifetime of this entry.
+     */
+    public volatile ConcurrentMap<String, CacheEntry> variants = null;
+
 
     // ----------------------------------------------------- Public Methods
 
@@ -53,6 +61,7 @@ public class CacheEntry {
         exists = true;
         accessCount = 0;
         size = 1;
+        variants = null;
     }
 
 
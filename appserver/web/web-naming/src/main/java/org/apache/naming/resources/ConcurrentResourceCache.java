@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.apache.naming.resources;
+
+import com.sun.appserv.util.cache.FrequencySketch;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resource cache allowing lookups without any locking.
+ * <p>
+ * Entries are weighted by their size in KB. When the cache is full, a new
+ * entry is only admitted if its estimated access frequency is higher than
+ * the one of each of the oldest entries which would have to be evicted to
+ * make space for it (TinyLFU admission), so that a scan over many rarely
+ * used resources cannot flush the frequently used ones. Content of resources
+ * larger than {@link #getOffHeapThreshold()} is kept in direct buffers
+ * outside of the Java heap.
+ */
+public class ConcurrentResourceCache extends ResourceCache {
+
+
+    // ----------------------------------------------------------- Constructors
+
+
+    public ConcurrentResourceCache() {
+        sketch = new FrequencySketch(cacheMaxSize);
+    }
+
+
+    // ----------------------------------------------------- Instance Variables
+
+
+    /**
+     * Cached resources.
+     * Path -> Cache entry.
+     */
+    private final ConcurrentMap<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+
+    /**
+     * Cached names of resources which do not exist.
+     */
+    private final ConcurrentMap<String, CacheEntry> notFoundEntries = new ConcurrentHashMap<>();
+
+
+    /**
+     * Cached resources, oldest first. May contain entries which have been
+     * removed from the cache since. Guarded by evictionLock.
+     */
+    private final Deque<CacheEntry> evictionQueue = new ArrayDeque<>();
+
+
+    /**
+     * Lock guarding all structural changes of the cached resources.
+     */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+
+    /**
+     * Access frequency estimates.
+     */
+    private volatile FrequencySketch sketch;
+
+
+    /**
+     * Current size of the cached resources in KB. Only updated while
+     * holding evictionLock.
+     */
+    private volatile int weight;
+
+
+    private final LongAdder accesses = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+
+    /**
+     * Size in KB from which the content of a resource is kept off-heap.
+     */
+    protected int offHeapThreshold = 64;
+
+
+    // ------------------------------------------------------------- Properties
+
+
+    @Override
+    public long getAccessCount() {
+        return accesses.sum();
+    }
+
+
+    @Override
+    public long getHitsCount() {
+        return hits.sum();
+    }
+
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+
+    @Override
+    public int getCacheSize() {
+        return weight;
+    }
+
+
+    @Override
+    public void setCacheMaxSize(int cacheMaxSize) {
+        super.setCacheMaxSize(cacheMaxSize);
+        // Every entry takes at least 1 KB
+        sketch = new FrequencySketch(cacheMaxSize);
+    }
+
+
+    /**
+     * Return the size in KB from which the content of a resource is kept
+     * outside of the Java heap.
+     */
+    public int getOffHeapThreshold() {
+        return offHeapThreshold;
+    }
+
+
+    /**
+     * Set the size in KB from which the content of a resource is kept
+     * outside of the Java heap.
+     */
+    public void setOffHeapThreshold(int offHeapThreshold) {
+        this.offHeapThreshold = offHeapThreshold;
+    }
+
+
+    // --------------------------------------------------------- Public Methods
+
+
+    @Override
+    public boolean isStoredOffHeap(long contentLength) {
+        return contentLength >= offHeapThreshold * 1024L;
+    }
+
+
+    /**
+     * Space is reclaimed by {@link #add(CacheEntry)}, this only checks that
+     * an entry of the given size can be cached at all.
+     */
+    @Override
+    public boolean allocate(int space) {
+        return space <= cacheMaxSize;
+    }
+
+
+    @Override
+    public CacheEntry lookup(String name) {
+        accesses.increment();
+        sketch.increment(name);
+        CacheEntry cacheEntry = entries.get(name);
+        if (cacheEntry == null) {
+            cacheEntry = notFoundEntries.get(name);
+        }
+        if (cacheEntry != null) {
+            hits.increment();
+        }
+        return cacheEntry;
+    }
+
+
+    @Override
+    public void load(CacheEntry entry) {
+        add(entry);
+    }
+
+
+    @Override
+    public boolean add(CacheEntry entry) {
+        if (!entry.exists) {
+            int size = notFoundEntries.size();
+            if (size >= spareNotFoundEntries) {
+                notFoundEntries.clear();
+                evictions.add(size);
+            }
+            return notFoundEntries.putIfAbsent(entry.name, entry) == null;
+        }
+
+        if (entry.size > cacheMaxSize) {
+            return false;
+        }
+
+        evictionLock.lock();
+        try {
+            if (entries.containsKey(entry.name) || !makeSpace(entry.name, entry.size)) {
+                return false;
+            }
+            entries.put(entry.name, entry);
+            evictionQueue.addLast(entry);
+            weight += entry.size;
+            return true;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+
+    /**
+     * The entry is moved to the end of the eviction queue, as it is in use,
+     * and the space is then admitted as if for a new entry with the name of
+     * the grown one.
+     */
+    @Override
+    public boolean grow(CacheEntry entry, int space) {
+        evictionLock.lock();
+        try {
+            if ((entries.get(entry.name) != entry) || (entry.size + space > cacheMaxSize)) {
+                return false;
+            }
+            evictionQueue.remove(entry);
+            evictionQueue.addLast(entry);
+            if (!makeSpace(entry.name, space)) {
+                return false;
+            }
+            entry.size += space;
+            weight += space;
+            return true;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+
+    @Override
+    public boolean unload(String name) {
+        return remove(name);
+    }
+
+
+    @Override
+    public boolean remove(String name) {
+        if (notFoundEntries.remove(name) != null) {
+            return true;
+        }
+
+        evictionLock.lock();
+        try {
+            CacheEntry removedEntry = entries.remove(name);
+            if (removedEntry == null) {
+                return false;
+            }
+            weight -= removedEntry.size;
+            // Removed entries are dropped lazily from the eviction queue
+            if (evictionQueue.size() > 2 * entries.size() + 16) {
+                evictionQueue.removeIf(e -> entries.get(e.name) != e);
+            }
+            return true;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+
+    // -------------------------------------------------------- Private Methods
+
+
+    /**
+     * Evict the oldest entries until the given space is available, provided
+     * the candidate resource is used more frequently than all of them. Must
+     * be called while holding evictionLock.
+     *
+     * @return <code>true</code> if there is enough space for the candidate
+     */
+    private boolean makeSpace(String candidate, int space) {
+        int toFree = weight + space - cacheMaxSize;
+        if (toFree <= 0) {
+            return true;
+        }
+
+        int candidateFrequency = sketch.frequency(candidate);
+        int victims = 0;
+        int freed = 0;
+        Iterator<CacheEntry> iterator = evictionQueue.iterator();
+        while (freed < toFree && iterator.hasNext()) {
+            CacheEntry victim = iterator.next();
+            if (entries.get(victim.name) != victim) {
+                iterator.remove();
+                continue;
+            }
+            if (victims == maxAllocateIterations) {
+                return false;
+            }
+            if (sketch.frequency(victim.name) >= candidateFrequency) {
+                // Give the frequently used victim another round, and keep
+                // the cache as it is
+                iterator.remove();
+                evictionQueue.addLast(victim);
+                return false;
+            }
+            victims++;
+            freed += victim.size;
+        }
+        if (freed < toFree) {
+            return false;
+        }
+
+        // The selected victims are now the first entries of the queue
+        for (int i = 0; i < victims; i++) {
+            CacheEntry victim = evictionQueue.pollFirst();
+            entries.remove(victim.name, victim);
+            weight -= victim.size;
+        }
+        evictions.add(victims);
+        return true;
+    }
+}
@@ -1075,7 +1075,7 @@ public class FileDirContext extends BaseDirContext {
         @Override
         public InputStream streamContent()
             throws IOException {
-            if (binaryContent == null) {
+            if (!isContentCached()) {
                 FileInputStream fin = new FileInputStream(file);
                 inputStream = fin;
                 return fin;
@@ -20,6 +20,9 @@ package org.apache.naming.resources;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
 import java.util.Hashtable;
 
@@ -69,6 +72,9 @@ public class ProxyDirContext implements DirContext {
             // the caching policy.
             BaseDirContext baseDirContext = (BaseDirContext) dirContext;
             if (baseDirContext.isCached()) {
+                if (baseDirContext.getCacheClassName() != null) {
+                    cacheClassName = baseDirContext.getCacheClassName();
+                }
                 cache = (ResourceCache)
                     Class.forName(cacheClassName).newInstance();
                 cache.setCacheMaxSize(baseDirContext.getCacheMaxSize());
@@ -1436,7 +1442,7 @@ public class ProxyDirContext implements DirContext {
         if (((!entry.exists)
              || (entry.context != null)
              || ((entry.resource != null)
-                 && (entry.resource.getContent() != null)))
+                 && (entry.resource.isContentCached())))
             && (System.currentTimeMillis() < entry.timestamp)) {
             return true;
         }
@@ -1522,7 +1528,7 @@ public class ProxyDirContext implements DirContext {
 
         // Load object content
         if ((exists) && (entry.resource != null)
-            && (entry.resource.getContent() == null)
+            && (!entry.resource.isContentCached())
             && (entry.attributes.getContentLength() >= 0)
             && (entry.attributes.getContentLength() <
                 (cacheObjectMaxSize * 1024L))) {
@@ -1533,15 +1539,26 @@ public class ProxyDirContext implements DirContext {
             InputStream is = null;
             try {
                 is = entry.resource.streamContent();
-                int pos = 0;
-                byte[] b = new byte[length];
-                while (pos < length) {
-                    int n = is.read(b, pos, length - pos);
-                    if (n < 0)
-                        break;
-                    pos = pos + n;
+                if (cache.isStoredOffHeap(length)) {
+                    ByteBuffer buffer = ByteBuffer.allocateDirect(length);
+                    ReadableByteChannel channel = Channels.newChannel(is);
+                    while (buffer.hasRemaining()) {
+                        if (channel.read(buffer) < 0)
+                            break;
+                    }
+                    buffer.flip();
+                    entry.resource.setContent(buffer);
+                } else {
+                    int pos = 0;
+                    byte[] b = new byte[length];
+                    while (pos < length) {
+                        int n = is.read(b, pos, length - pos);
+                        if (n < 0)
+                            break;
+                        pos = pos + n;
+                    }
+                    entry.resource.setContent(b);
                 }
-                entry.resource.setContent(b);
             } catch (IOException e) {
                 // Ignore
             } finally {
@@ -1561,12 +1578,7 @@ public class ProxyDirContext implements DirContext {
         entry.timestamp = System.currentTimeMillis() + cacheTTL;
 
         // Add new entry to cache
-        synchronized (cache) {
-            // Check cache size, and remove elements if too big
-            if ((cache.lookup(name) == null) && cache.allocate(entry.size)) {
-                cache.load(entry);
-            }
-        }
+        cache.add(entry);
 
     }
 
@@ -1577,9 +1589,7 @@ public class ProxyDirContext implements DirContext {
     protected boolean cacheUnload(String name) {
         if (cache == null)
             return false;
-        synchronized (cache) {
-            return cache.unload(name);
-        }
+        return cache.remove(name);
     }
 
 
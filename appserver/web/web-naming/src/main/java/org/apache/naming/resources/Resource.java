@@ -20,6 +20,7 @@ package org.apache.naming.resources;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Encapsultes the contents of a resource.
@@ -62,6 +63,12 @@ public class Resource {
     protected InputStream inputStream = null;
 
 
+    /**
+     * Binary content kept outside of the Java heap.
+     */
+    protected ByteBuffer bufferContent = null;
+
+
     // ------------------------------------------------------------- Properties
 
 
@@ -75,10 +82,22 @@ public class Resource {
         if (binaryContent != null) {
             return new ByteArrayInputStream(binaryContent);
         }
+        if (bufferContent != null) {
+            return new ByteBufferInputStream(bufferContent.duplicate());
+        }
         return inputStream;
     }
 
 
+    /**
+     * Is the content of this resource held in memory, either as a byte array
+     * or as a (possibly direct) byte buffer ?
+     */
+    public boolean isContentCached() {
+        return (binaryContent != null) || (bufferContent != null);
+    }
+
+
     /**
      * Content accessor.
      *
@@ -109,4 +128,77 @@ public class Resource {
     }
 
 
+    /**
+     * Content accessor.
+     *
+     * @return read-only view of the buffered content, or <code>null</code>
+     */
+    public ByteBuffer getContentBuffer() {
+        if (bufferContent == null) {
+            return null;
+        }
+        return bufferContent.asReadOnlyBuffer();
+    }
+
+
+    /**
+     * Content mutator. The buffer is read from its position to its limit
+     * and must not be modified afterwards.
+     *
+     * @param bufferContent New buffered content
+     */
+    public void setContent(ByteBuffer bufferContent) {
+        this.bufferContent = bufferContent;
+    }
+
+
+    // --------------------------------------- ByteBufferInputStream Inner Class
+
+
+    /**
+     * Input stream reading the remaining bytes of a private buffer view.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            return buffer.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+
 }
@@ -102,6 +102,12 @@ public class ResourceCache {
     protected long hitsCount = 0;
 
 
+    /**
+     * Number of entries removed to make space for new ones.
+     */
+    protected long evictionCount = 0;
+
+
     // ------------------------------------------------------------- Properties
 
 
@@ -165,6 +171,24 @@ public class ResourceCache {
     }
 
 
+    /**
+     * Return the number of cache misses.
+     * Note: Update is not synced, so the number may not be completely
+     * accurate.
+     */
+    public long getMissCount() {
+        return getAccessCount() - getHitsCount();
+    }
+
+
+    /**
+     * Return the number of entries evicted to make space for new ones.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+
     /**
      * Return the maximum amount of iterations during a space allocation.
      */
@@ -217,6 +241,7 @@ public class ResourceCache {
             notFoundCache.clear();
             cacheSize -= size;
             toFree -= size;
+            evictionCount += size;
         }
 
         if (toFree <= 0) {
@@ -282,6 +307,7 @@ public class ResourceCache {
         }
         cache = newCache;
         cacheSize -= totalSpace;
+        evictionCount += entriesFound;
 
         return true;
 
@@ -325,6 +351,59 @@ public class ResourceCache {
     }
 
 
+    /**
+     * Add the given entry to the cache if it is not cached yet and there is
+     * enough space for it.
+     *
+     * @return <code>true</code> if the entry has been added
+     */
+    public synchronized boolean add(CacheEntry entry) {
+        // Check cache size, and remove elements if too big
+        if ((lookup(entry.name) == null) && allocate(entry.size)) {
+            load(entry);
+            return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * Remove the entry with the given name from the cache.
+     *
+     * @return <code>true</code> if an entry has been removed
+     */
+    public synchronized boolean remove(String name) {
+        return unload(name);
+    }
+
+
+    /**
+     * Grow the size of the given cached entry, to account for data kept
+     * along with it, such as a compressed representation of the resource.
+     * Space is made for it as for a new entry.
+     *
+     * @return <code>true</code> if the entry is still cached and its size
+     * has been grown
+     */
+    public synchronized boolean grow(CacheEntry entry, int space) {
+        if (!isCached(entry) || !allocate(space) || !isCached(entry)) {
+            return false;
+        }
+        entry.size += space;
+        cacheSize += space;
+        return true;
+    }
+
+
+    /**
+     * Should the content of a resource of the given length be stored outside
+     * of the Java heap, rather than as a byte array ?
+     */
+    public boolean isStoredOffHeap(long contentLength) {
+        return false;
+    }
+
+
     public boolean unload(String name) {
         CacheEntry removedEntry = removeCache(name);
         if (removedEntry != null) {
@@ -339,6 +418,13 @@ public class ResourceCache {
     }
 
 
+    private boolean isCached(CacheEntry entry) {
+        CacheEntry[] currentCache = cache;
+        int pos = find(currentCache, entry.name);
+        return (pos != -1) && (currentCache[pos] == entry);
+    }
+
+
     /**
      * Find a map elemnt given its name in a sorted array of map elements.
      * This will return the index for the closest inferior or equal item in the
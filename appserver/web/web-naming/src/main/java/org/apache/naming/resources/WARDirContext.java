@@ -970,7 +970,7 @@ public class WARDirContext extends BaseDirContext {
         public InputStream streamContent()
             throws IOException {
             try {
-                if (binaryContent == null) {
+                if (!isContentCached()) {
                     InputStream is = base.getInputStream(entry);
                     inputStream = is;
                     return is;
@@ -470,7 +470,7 @@ public class WebDirContext extends FileDirContext {
         @Override
         public InputStream streamContent()
             throws IOException {
-            if (binaryContent == null) {
+            if (!isContentCached()) {
                 InputStream jin = jarFile.getInputStream(jarEntry);
                 inputStream = jin;
                 return jin;
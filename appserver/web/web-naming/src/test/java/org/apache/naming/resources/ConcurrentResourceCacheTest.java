@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package org.apache.naming.resources;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Hashtable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentResourceCacheTest {
+
+    private ConcurrentResourceCache cache;
+
+    @BeforeEach
+    public void createCache() {
+        cache = new ConcurrentResourceCache();
+        cache.setCacheMaxSize(1000);
+    }
+
+    @Test
+    public void weightIsTheSizeOfTheCachedEntries() {
+        assertTrue(cache.add(entry("/a", 300)));
+        assertTrue(cache.add(entry("/b", 200)));
+        assertFalse(cache.add(entry("/a", 100)));
+        assertThat(cache.getCacheSize(), equalTo(500));
+
+        assertTrue(cache.remove("/a"));
+        assertFalse(cache.remove("/a"));
+        assertThat(cache.getCacheSize(), equalTo(200));
+        assertThat(cache.lookup("/a"), nullValue());
+        assertThat(cache.lookup("/b").size, equalTo(200));
+    }
+
+    @Test
+    public void missingResourcesDoNotWeigh() {
+        CacheEntry missing = entry("/missing", 1);
+        missing.exists = false;
+        assertTrue(cache.add(missing));
+
+        assertThat(cache.getCacheSize(), equalTo(0));
+        assertThat(cache.lookup("/missing"), equalTo(missing));
+        assertTrue(cache.remove("/missing"));
+        assertThat(cache.lookup("/missing"), nullValue());
+    }
+
+    @Test
+    public void entryLargerThanTheCacheIsRejected() {
+        assertFalse(cache.allocate(1001));
+        assertFalse(cache.add(entry("/big", 1001)));
+        assertTrue(cache.allocate(1000));
+        assertTrue(cache.add(entry("/fits", 1000)));
+        assertThat(cache.getCacheSize(), equalTo(1000));
+    }
+
+    @Test
+    public void frequentCandidateEvictsTheOldestEntries() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(cache.add(entry("/cold" + i, 100)));
+        }
+        lookup("/hot", 3);
+
+        assertTrue(cache.add(entry("/hot", 250)));
+
+        assertThat(cache.getEvictionCount(), equalTo(3L));
+        assertThat(cache.getCacheSize(), equalTo(950));
+        for (int i = 0; i < 3; i++) {
+            assertThat("/cold" + i, cache.lookup("/cold" + i), nullValue());
+        }
+        for (int i = 3; i < 10; i++) {
+            assertThat("/cold" + i, cache.lookup("/cold" + i), notNullValue());
+        }
+    }
+
+    @Test
+    public void scanDoesNotFlushFrequentlyUsedEntries() {
+        for (int i = 0; i < 10; i++) {
+            lookup("/hot" + i, 5);
+            assertTrue(cache.add(entry("/hot" + i, 100)));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            lookup("/scan" + i, 1);
+            assertFalse(cache.add(entry("/scan" + i, 100)), "/scan" + i);
+        }
+
+        assertThat(cache.getEvictionCount(), equalTo(0L));
+        assertThat(cache.getCacheSize(), equalTo(1000));
+        for (int i = 0; i < 10; i++) {
+            assertThat("/hot" + i, cache.lookup("/hot" + i), notNullValue());
+        }
+    }
+
+    @Test
+    public void removedEntriesAreSkippedWhenMakingSpace() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(cache.add(entry("/cold" + i, 100)));
+        }
+        cache.remove("/cold0");
+        lookup("/hot", 3);
+
+        assertTrue(cache.add(entry("/hot", 200)));
+
+        assertThat(cache.getEvictionCount(), equalTo(1L));
+        assertThat(cache.lookup("/cold1"), nullValue());
+        assertThat(cache.lookup("/cold2"), notNullValue());
+        assertThat(cache.getCacheSize(), equalTo(1000));
+    }
+
+    @Test
+    public void candidateNeedingTooManyVictimsIsRejected() {
+        cache.setMaxAllocateIterations(5);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(cache.add(entry("/cold" + i, 100)));
+        }
+        lookup("/hot", 3);
+
+        assertFalse(cache.add(entry("/hot", 600)));
+        assertTrue(cache.add(entry("/hot", 500)));
+        assertThat(cache.getEvictionCount(), equalTo(5L));
+    }
+
+    @Test
+    public void grownEntryWeighsItsAddedSpace() {
+        CacheEntry entry = entry("/a", 300);
+        assertTrue(cache.add(entry));
+
+        assertTrue(cache.grow(entry, 100));
+        assertThat(entry.size, equalTo(400));
+        assertThat(cache.getCacheSize(), equalTo(400));
+
+        assertFalse(cache.grow(entry, 601));
+        assertFalse(cache.grow(entry("/a", 300), 100));
+        assertFalse(cache.grow(entry("/b", 300), 100));
+        assertThat(cache.getCacheSize(), equalTo(400));
+
+        assertTrue(cache.remove("/a"));
+        assertThat(cache.getCacheSize(), equalTo(0));
+    }
+
+    @Test
+    public void growingEntryEvictsTheOldestEntries() {
+        CacheEntry hot = entry("/hot", 100);
+        lookup("/hot", 3);
+        assertTrue(cache.add(hot));
+        for (int i = 0; i < 9; i++) {
+            assertTrue(cache.add(entry("/cold" + i, 100)));
+        }
+
+        assertTrue(cache.grow(hot, 150));
+
+        assertThat(cache.getEvictionCount(), equalTo(2L));
+        assertThat(cache.getCacheSize(), equalTo(950));
+        assertThat(cache.lookup("/hot"), equalTo(hot));
+        assertThat(cache.lookup("/cold0"), nullValue());
+        assertThat(cache.lookup("/cold1"), nullValue());
+        assertThat(cache.lookup("/cold2"), notNullValue());
+    }
+
+    @Test
+    public void growingRarelyUsedEntryKeepsTheCacheAsItIs() {
+        for (int i = 0; i < 9; i++) {
+            lookup("/hot" + i, 5);
+            assertTrue(cache.add(entry("/hot" + i, 100)));
+        }
+        CacheEntry cold = entry("/cold", 100);
+        assertTrue(cache.add(cold));
+
+        assertFalse(cache.grow(cold, 100));
+
+        assertThat(cold.size, equalTo(100));
+        assertThat(cache.getEvictionCount(), equalTo(0L));
+        assertThat(cache.getCacheSize(), equalTo(1000));
+    }
+
+    @Test
+    public void accessesAndHitsAreCounted() {
+        cache.add(entry("/a", 1));
+        cache.lookup("/a");
+        cache.lookup("/b");
+
+        assertThat(cache.getAccessCount(), equalTo(2L));
+        assertThat(cache.getHitsCount(), equalTo(1L));
+    }
+
+    @Test
+    public void contentFromTheThresholdIsStoredOffHeap() {
+        assertFalse(cache.isStoredOffHeap(64 * 1024 - 1));
+        assertTrue(cache.isStoredOffHeap(64 * 1024));
+
+        cache.setOffHeapThreshold(8);
+        assertTrue(cache.isStoredOffHeap(8 * 1024));
+    }
+
+    @Test
+    public void largeResourceIsLoadedIntoADirectBuffer(@TempDir Path docBase) throws Exception {
+        byte[] large = content(100 * 1024);
+        byte[] small = content(1024);
+        Files.write(docBase.resolve("large.bin"), large);
+        Files.write(docBase.resolve("small.bin"), small);
+        ProxyDirContext context = newContext(docBase);
+
+        Resource largeResource = (Resource) context.lookup("/large.bin");
+        ByteBuffer buffer = largeResource.getContentBuffer();
+        assertThat(buffer, notNullValue());
+        assertTrue(buffer.isDirect());
+        byte[] read = new byte[buffer.remaining()];
+        buffer.get(read);
+        assertArrayEquals(large, read);
+        assertArrayEquals(large, largeResource.streamContent().readAllBytes());
+
+        Resource smallResource = (Resource) context.lookup("/small.bin");
+        assertThat(smallResource.getContentBuffer(), nullValue());
+        assertArrayEquals(small, smallResource.getContent());
+
+        // Both are served from the cache from now on
+        assertThat(context.lookup("/large.bin"), equalTo(largeResource));
+        assertThat(context.lookup("/small.bin"), equalTo(smallResource));
+    }
+
+    private void lookup(String name, int times) {
+        for (int i = 0; i < times; i++) {
+            cache.lookup(name);
+        }
+    }
+
+    private static CacheEntry entry(String name, int size) {
+        CacheEntry entry = new CacheEntry();
+        entry.name = name;
+        entry.size = size;
+        return entry;
+    }
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    private static ProxyDirContext newContext(Path docBase) throws Exception {
+        FileDirContext dirContext = new FileDirContext();
+        dirContext.setDocBase(docBase.toString());
+        dirContext.setCached(true);
+        dirContext.setCacheMaxSize(10240);
+        return new ProxyDirContext(new Hashtable<>(), dirContext);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.appserv.util.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch estimating the recent access frequency of cache keys,
+ * used by the caches with a frequency based admission policy to decide
+ * whether a new entry is worth evicting an existing one.
+ * <p>
+ * Each key is mapped to four 4-bit counters, so frequencies saturate at 15.
+ * Once the number of recorded accesses reaches ten times the table size all
+ * counters are halved, so that the estimates follow changes in popularity.
+ * Updates are lock free; an increment lost to a concurrent reset only
+ * affects the accuracy of the estimates.
+ */
+public final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private static final int MAXIMUM_TABLE_SIZE = 1 << 22;
+
+    private final AtomicLongArray table;
+    private final int tableMask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+
+    /**
+     * @param maximumEntries expected maximum number of cached entries
+     */
+    public FrequencySketch(int maximumEntries) {
+        int capacity = Math.max(16, Math.min(MAXIMUM_TABLE_SIZE, maximumEntries));
+        int tableSize = Integer.highestOneBit(capacity - 1) << 1;
+        table = new AtomicLongArray(tableSize);
+        tableMask = tableSize - 1;
+        sampleSize = 10 * tableSize;
+    }
+
+
+    /**
+     * Return the estimated number of recent accesses to the given key, from
+     * 0 to 15.
+     */
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = 15;
+        for (int i = 0; i < 4; i++) {
+            long word = table.get(indexOf(hash, i));
+            frequency = Math.min(frequency, (int) ((word >>> offsetOf(hash, i)) & 0xfL));
+        }
+        return frequency;
+    }
+
+
+    /**
+     * Record an access to the given key.
+     */
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), offsetOf(hash, i));
+        }
+        if (added && additions.incrementAndGet() == sampleSize) {
+            reset();
+        }
+    }
+
+
+    private boolean incrementAt(int index, int offset) {
+        long mask = 0xfL << offset;
+        while (true) {
+            long word = table.get(index);
+            if ((word & mask) == mask) {
+                return false;
+            }
+            if (table.compareAndSet(index, word, word + (1L << offset))) {
+                return true;
+            }
+        }
+    }
+
+
+    /**
+     * Halve all counters.
+     */
+    private void reset() {
+        for (int i = 0; i < table.length(); i++) {
+            table.getAndUpdate(i, word -> (word >>> 1) & RESET_MASK);
+        }
+        additions.addAndGet(-(sampleSize >>> 1));
+    }
+
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return ((int) h) & tableMask;
+    }
+
+
+    private static int offsetOf(int hash, int i) {
+        return ((hash >>> (i << 2)) & 0xf) << 2;
+    }
+
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
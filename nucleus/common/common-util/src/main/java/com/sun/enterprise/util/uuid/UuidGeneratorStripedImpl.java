@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.enterprise.util.uuid;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Generates uuids of 128 random bits, encoded as 32 hexadecimal characters.
+ * <p>
+ * The random bits are taken from a fixed set of independent {@link SecureRandom} instances, picked at random for each
+ * uuid, so that concurrent callers rarely wait for each other and no global lock is involved. The SHA1PRNG algorithm is
+ * preferred because, unlike the default NativePRNG, its instances do not share any state.
+ */
+public class UuidGeneratorStripedImpl implements UuidGenerator {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final int UUID_BYTES = 16;
+    private static final int MAX_STRIPES = 64;
+
+    private final AtomicReferenceArray<SecureRandom> stripes;
+    private final int stripeMask;
+
+    /**
+     * Creates a generator with two stripes per available processor.
+     */
+    public UuidGeneratorStripedImpl() {
+        this(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param stripeCount number of random number generators, rounded up to a power of two
+     */
+    public UuidGeneratorStripedImpl(int stripeCount) {
+        int count = Math.max(1, Math.min(MAX_STRIPES, stripeCount));
+        count = Integer.highestOneBit(count - 1) << 1;
+        if (count == 0) {
+            count = 1;
+        }
+        stripes = new AtomicReferenceArray<>(count);
+        stripeMask = count - 1;
+    }
+
+    @Override
+    public String generateUuid() {
+        byte[] bytes = new byte[UUID_BYTES];
+        getStripe(ThreadLocalRandom.current().nextInt() & stripeMask).nextBytes(bytes);
+
+        char[] uuid = new char[UUID_BYTES * 2];
+        for (int i = 0; i < UUID_BYTES; i++) {
+            uuid[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+            uuid[2 * i + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(uuid);
+    }
+
+    /**
+     * The given object does not contribute to the uuid, which is unique by its randomness alone.
+     */
+    @Override
+    public String generateUuid(Object obj) {
+        return generateUuid();
+    }
+
+    private SecureRandom getStripe(int index) {
+        SecureRandom random = stripes.get(index);
+        if (random != null) {
+            return random;
+        }
+
+        random = createSecureRandom();
+        if (stripes.compareAndSet(index, null, random)) {
+            return random;
+        }
+        return stripes.get(index);
+    }
+
+    private static SecureRandom createSecureRandom() {
+        try {
+            return SecureRandom.getInstance("SHA1PRNG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+}
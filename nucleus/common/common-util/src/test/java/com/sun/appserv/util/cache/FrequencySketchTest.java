@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0, which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * This Source Code may also be made available under the following Secondary
+ * Licenses when the conditions for such availability set forth in the
+ * Eclipse Public License v. 2.0 are satisfied: GNU General Public License,
+ * version 2 with the GNU Classpath Exception, which is available at
+ * https://www.gnu.org/software/classpath/license.html.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR GPL-2.0 WITH Classpath-exception-2.0
+ */
+
+package com.sun.appserv.util.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+public class FrequencySketchTest {
+
+    @Test
+    public void countsTheAccessesOfAKey() {
+        FrequencySketch sketch = new FrequencySketch(100);
+        assertThat(sketch.frequency("a"), equalTo(0));
+
+        sketch.increment("a");
+        sketch.increment("a");
+        sketch.increment("a");
+        sketch.increment("b");
+
+        assertThat(sketch.frequency("a"), equalTo(3));
+        assertThat(sketch.frequency("b"), equalTo(1));
+    }
+
+    @Test
+    public void frequenciesSaturate() {
+        FrequencySketch sketch = new FrequencySketch(100);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("a");
+        }
+
+        assertThat(sketch.frequency("a"), equalTo(15));
+    }
+
+    @Test
+    public void frequenciesAreHalvedAfterTheSamplePeriod() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 15; i++) {
+            sketch.increment("a");
+        }
+
+        // the sample of a 16 entries sketch is 160 increments
+        int key = 0;
+        while (sketch.frequency("a") == 15) {
+            assertThat(key, lessThan(1000));
+            sketch.increment(key++);
+        }
+
+        assertThat(sketch.frequency("a"), equalTo(7));
+    }
+}